@@ -0,0 +1,34 @@
+// Knuth's die (DTMC), with actions, labels and state/transition rewards,
+// for testing binary model export/import (.prb)
+
+dtmc
+
+module die
+
+	// local state
+	s : [0..7] init 0;
+	// value of the die
+	d : [0..6] init 0;
+	
+	[flip] s=0 -> 1/2 : (s'=1) + 1/2 : (s'=2);
+	[flip] s=1 -> 1/2 : (s'=3) + 1/2 : (s'=4);
+	[flip] s=2 -> 1/2 : (s'=5) + 1/2 : (s'=6);
+	[flip] s=3 -> 1/2 : (s'=1) + 1/2 : (s'=7) & (d'=1);
+	[flip] s=4 -> 1/2 : (s'=7) & (d'=2) + 1/2 : (s'=7) & (d'=3);
+	[flip] s=5 -> 1/2 : (s'=7) & (d'=4) + 1/2 : (s'=7) & (d'=5);
+	[flip] s=6 -> 1/2 : (s'=2) + 1/2 : (s'=7) & (d'=6);
+	[done] s=7 -> (s'=7);
+	
+endmodule
+
+label "end" = s=7;
+label "six" = d=6;
+
+rewards "coin_flips"
+	[flip] true : 1;
+endrewards
+
+rewards "value"
+	s=7 : d;
+	[flip] s=3 : 0.5;
+endrewards
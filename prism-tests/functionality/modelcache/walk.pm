@@ -0,0 +1,22 @@
+// Random walk with deadlocks at the end (x=N),
+// for testing the cache of built models (-modelcache, -modelcachedir)
+
+dtmc
+
+const int N;
+
+module walk
+	x : [0..N];
+	b : bool;
+	[step] x<N -> 0.5:(x'=x+1) + 0.5:(x'=0)&(b'=!b);
+endmodule
+
+label "end" = x=N;
+
+rewards "steps"
+	[step] true : 1;
+endrewards
+
+rewards "flips"
+	b : 1;
+endrewards
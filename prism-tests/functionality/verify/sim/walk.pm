@@ -0,0 +1,18 @@
+// Biased random walk (for testing reproducibility of simulation results)
+
+dtmc
+
+const int N = 20;
+
+module walk
+
+	x : [0..N] init 10;
+
+	[] x>0 & x<N -> 0.55:(x'=x+1) + 0.45:(x'=x-1);
+	[] x=0 | x=N -> true;
+
+endmodule
+
+rewards "steps"
+	x>0 & x<N : 1;
+endrewards
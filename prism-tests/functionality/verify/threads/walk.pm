@@ -0,0 +1,35 @@
+// Random walk of four counters: a step increments (with probability p)
+// or decrements one counter, chosen uniformly; it ends when any counter
+// reaches 0 or all reach N. There are enough states (more than 2048 still
+// to be solved) for iterative methods to be split into several blocks
+// when using multiple threads.
+
+dtmc
+
+const int N = 9;
+const double p = 0.6;
+
+formula lost = a=0 | b=0 | c=0 | d=0;
+formula won = a=N & b=N & c=N & d=N;
+
+module walk
+
+	a : [0..N] init 5;
+	b : [0..N] init 5;
+	c : [0..N] init 5;
+	d : [0..N] init 5;
+
+	[] !lost & !won -> 0.25*p:(a'=min(a+1,N)) + 0.25*(1-p):(a'=a-1)
+	                 + 0.25*p:(b'=min(b+1,N)) + 0.25*(1-p):(b'=b-1)
+	                 + 0.25*p:(c'=min(c+1,N)) + 0.25*(1-p):(c'=c-1)
+	                 + 0.25*p:(d'=min(d+1,N)) + 0.25*(1-p):(d'=d-1);
+	[] lost | won -> true;
+
+endmodule
+
+label "won" = won;
+label "lost" = lost;
+
+rewards "steps"
+	!lost & !won : 1;
+endrewards
@@ -0,0 +1,108 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+
+package benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import prism.Prism;
+import prism.PrismException;
+
+/**
+ * Base class for benchmarks of PRISM's performance-critical code, run by {@link BenchmarkRunner}.
+ * <br><br>
+ * A benchmark has a set of named parameters, each with a list of default values
+ * (which can be overridden from the command line); it is run once for each combination of values.
+ * For each combination, {@link #setup(Map)} is called once, then {@link #run()} is called
+ * repeatedly and timed, and finally {@link #tearDown()} is called.
+ * Only {@link #run()} is timed, so any preparation (e.g. model construction) belongs in {@link #setup(Map)}.
+ */
+public abstract class Benchmark
+{
+	/** PRISM instance, to be used as the parent for PRISM components */
+	protected Prism prism;
+
+	/** Directory containing the PRISM examples (from which models are loaded) */
+	protected String examplesDir;
+
+	/**
+	 * Set the PRISM instance and the examples directory (called by {@link BenchmarkRunner}).
+	 */
+	public void initialise(Prism prism, String examplesDir)
+	{
+		this.prism = prism;
+		this.examplesDir = examplesDir;
+	}
+
+	/**
+	 * Get the name of this benchmark (by default, the fully qualified class name).
+	 */
+	public String getName()
+	{
+		return getClass().getName();
+	}
+
+	/**
+	 * Get the parameters of this benchmark, mapped to their default values (in the order they vary).
+	 */
+	public Map<String, String[]> getParameters()
+	{
+		return new LinkedHashMap<>();
+	}
+
+	/**
+	 * Prepare for running the benchmark with the given parameter values.
+	 */
+	public abstract void setup(Map<String, String> params) throws PrismException;
+
+	/**
+	 * Run (one operation of) the benchmark. The returned value is consumed
+	 * by the runner so that the computation cannot be optimised away.
+	 */
+	public abstract Object run() throws PrismException;
+
+	/**
+	 * Free any resources after running the benchmark for a combination of parameter values.
+	 */
+	public void tearDown() throws PrismException
+	{
+		// Nothing by default
+	}
+
+	/**
+	 * Utility method to create a map of parameters to default values.
+	 * Arguments alternate between parameter names and default values, where multiple
+	 * values are separated by semicolons (since model specifications may contain commas).
+	 */
+	protected static Map<String, String[]> params(String... namesAndValues)
+	{
+		Map<String, String[]> params = new LinkedHashMap<>();
+		for (int i = 0; i + 1 < namesAndValues.length; i += 2) {
+			params.put(namesAndValues[i], namesAndValues[i + 1].split(";"));
+		}
+		return params;
+	}
+}
@@ -0,0 +1,111 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+
+package benchmark;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+
+import explicit.ConstructModel;
+import explicit.DTMC;
+import explicit.MDP;
+import explicit.Model;
+import parser.ast.ModulesFile;
+import prism.ModelType;
+import prism.Prism;
+import prism.PrismException;
+import prism.PrismLangException;
+import prism.UndefinedConstants;
+import simulator.ModulesFileModelGenerator;
+
+/**
+ * Utility methods for loading and building models from the PRISM examples for benchmarks.
+ * <br><br>
+ * Models are specified as {@code <file>[:<constants>]}, where {@code <file>} is relative to
+ * the examples directory and {@code <constants>} is in the format of the {@code -const} switch,
+ * e.g. {@code dtmcs/brp/brp.pm:N=64,MAX=4}, so that they can be scaled from the command line.
+ */
+public class BenchmarkModels
+{
+	/**
+	 * Parse the model file for model specification {@code spec} and define its constants.
+	 */
+	public static ModulesFile parseModel(Prism prism, String examplesDir, String spec) throws PrismException
+	{
+		int colon = spec.indexOf(':');
+		String filename = colon < 0 ? spec : spec.substring(0, colon);
+		String constants = colon < 0 ? "" : spec.substring(colon + 1);
+		ModulesFile modulesFile;
+		try {
+			modulesFile = prism.parseModelFile(new File(examplesDir, filename));
+		} catch (FileNotFoundException e) {
+			throw new PrismException("File \"" + new File(examplesDir, filename) + "\" not found");
+		} catch (PrismLangException e) {
+			throw new PrismException("Error parsing \"" + filename + "\": " + e.getMessage());
+		}
+		UndefinedConstants undefinedConstants = new UndefinedConstants(modulesFile, null);
+		undefinedConstants.defineUsingConstSwitch(constants);
+		modulesFile.setSomeUndefinedConstants(undefinedConstants.getMFConstantValues());
+		return modulesFile;
+	}
+
+	/**
+	 * Build the model for model specification {@code spec} with the explicit engine
+	 * (with labels attached).
+	 */
+	public static Model<?> buildModel(Prism prism, String examplesDir, String spec) throws PrismException
+	{
+		ModulesFile modulesFile = parseModel(prism, examplesDir, spec);
+		ConstructModel constructModel = new ConstructModel(prism);
+		constructModel.setAttachLabels(true);
+		return constructModel.constructModel(ModulesFileModelGenerator.create(modulesFile, prism));
+	}
+
+	/**
+	 * Build the model for model specification {@code spec}, checking that it is a DTMC.
+	 */
+	@SuppressWarnings("unchecked")
+	public static DTMC<Double> buildDTMC(Prism prism, String examplesDir, String spec) throws PrismException
+	{
+		Model<?> model = buildModel(prism, examplesDir, spec);
+		if (model.getModelType() != ModelType.DTMC) {
+			throw new PrismException("Model \"" + spec + "\" is a " + model.getModelType() + ", not a DTMC");
+		}
+		return (DTMC<Double>) model;
+	}
+
+	/**
+	 * Build the model for model specification {@code spec}, checking that it is an MDP.
+	 */
+	@SuppressWarnings("unchecked")
+	public static MDP<Double> buildMDP(Prism prism, String examplesDir, String spec) throws PrismException
+	{
+		Model<?> model = buildModel(prism, examplesDir, spec);
+		if (model.getModelType() != ModelType.MDP) {
+			throw new PrismException("Model \"" + spec + "\" is a " + model.getModelType() + ", not an MDP");
+		}
+		return (MDP<Double>) model;
+	}
+}
@@ -0,0 +1,439 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+
+package benchmark;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import prism.Prism;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+
+/**
+ * Command-line runner for the benchmarks of PRISM's performance-critical code.
+ * <br><br>
+ * Each benchmark is run for each combination of its parameter values: after a number of
+ * warmup iterations, a number of measurement iterations are timed, each of which runs
+ * the benchmark repeatedly for (at least) a fixed amount of time. The score is the
+ * average time per operation over the measurement iterations, with the half-width
+ * of a 99.9% confidence interval as the error. Results are printed as a table and can
+ * also be written to a file in JSON format (using the same structure as the JSON results
+ * of JMH, so that existing tools for comparing JMH results can be used) or CSV format.
+ * <br><br>
+ * All benchmarks run in the same JVM (there is no forking), so, for comparing results
+ * between versions, the same options and JVM settings should be used.
+ */
+public class BenchmarkRunner
+{
+	/** All benchmarks */
+	private static List<Benchmark> createBenchmarks()
+	{
+		List<Benchmark> benchmarks = new ArrayList<>();
+		benchmarks.add(new ConstructModelBenchmark());
+		benchmarks.add(new DTMCMultBenchmark());
+		benchmarks.add(new MDPMinMaxBenchmark());
+		benchmarks.add(new SCCBenchmark());
+		benchmarks.add(new MECBenchmark());
+		benchmarks.add(new FoxGlynnBenchmark());
+		benchmarks.add(new BisimulationBenchmark());
+		benchmarks.add(new ExplicitImportBenchmark());
+		return benchmarks;
+	}
+
+	/** Quantiles of Student's t-distribution for 99.9% confidence intervals, indexed by degrees of freedom */
+	private static final double[] T_QUANTILES = { Double.NaN, 636.619, 31.599, 12.924, 8.610, 6.869, 5.959, 5.408, 5.041, 4.781, 4.587, 4.437, 4.318, 4.221,
+			4.140, 4.073, 4.015, 3.965, 3.922, 3.883, 3.850, 3.819, 3.792, 3.768, 3.745, 3.725, 3.707, 3.690, 3.674, 3.659, 3.646 };
+
+	// Options
+	private int warmupIterations = 2;
+	private int measurementIterations = 5;
+	private double iterationTime = 1.0;
+	private Map<String, List<String>> paramOverrides = new LinkedHashMap<>();
+	private List<Pattern> includes = new ArrayList<>();
+	private String resultFormat = null;
+	private String resultFile = null;
+	private String examplesDir = "../prism-examples";
+	private boolean list = false;
+
+	/** Results */
+	private List<Result> results = new ArrayList<>();
+
+	/** Values returned by benchmark runs (consumed so that they cannot be optimised away) */
+	private volatile int sink;
+
+	/**
+	 * Result of running a benchmark for one combination of parameter values.
+	 */
+	private static class Result
+	{
+		String benchmark;
+		Map<String, String> params;
+		/** Average time per operation (ms) for each measurement iteration */
+		double[] scores;
+
+		double getScore()
+		{
+			return Arrays.stream(scores).average().orElse(Double.NaN);
+		}
+
+		double getScoreError()
+		{
+			int n = scores.length;
+			if (n < 2) {
+				return Double.NaN;
+			}
+			double mean = getScore();
+			double var = 0.0;
+			for (double score : scores) {
+				var += (score - mean) * (score - mean);
+			}
+			var /= n - 1;
+			double t = T_QUANTILES[Math.min(n - 1, T_QUANTILES.length - 1)];
+			return t * Math.sqrt(var / n);
+		}
+	}
+
+	public static void main(String[] args)
+	{
+		try {
+			new BenchmarkRunner().go(args);
+		} catch (PrismException e) {
+			System.err.println("Error: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	public void go(String[] args) throws PrismException
+	{
+		parseArguments(args);
+		List<Benchmark> benchmarks = new ArrayList<>();
+		for (Benchmark benchmark : createBenchmarks()) {
+			if (includes.isEmpty() || includes.stream().anyMatch(p -> p.matcher(benchmark.getName()).find())) {
+				benchmarks.add(benchmark);
+			}
+		}
+		if (list) {
+			for (Benchmark benchmark : benchmarks) {
+				System.out.println(benchmark.getName());
+				for (Map.Entry<String, String[]> e : benchmark.getParameters().entrySet()) {
+					System.out.println("  " + e.getKey() + " = " + String.join(" | ", e.getValue()));
+				}
+			}
+			return;
+		}
+		Prism prism = new Prism(new PrismDevNullLog());
+		for (Benchmark benchmark : benchmarks) {
+			benchmark.initialise(prism, examplesDir);
+			for (Map<String, String> params : getParameterCombinations(benchmark)) {
+				results.add(runBenchmark(benchmark, params));
+			}
+		}
+		printResults(System.out);
+		if (resultFormat != null) {
+			String filename = resultFile != null ? resultFile : "benchmark-results." + resultFormat;
+			try (PrintStream out = new PrintStream(filename)) {
+				if (resultFormat.equals("json")) {
+					printResultsJSON(out);
+				} else {
+					printResultsCSV(out);
+				}
+			} catch (FileNotFoundException e) {
+				throw new PrismException("Could not write to file \"" + filename + "\"");
+			}
+			System.out.println("\nResults written to " + filename);
+		}
+	}
+
+	/**
+	 * Get all combinations of parameter values for {@code benchmark}, taking command-line overrides into account.
+	 */
+	private List<Map<String, String>> getParameterCombinations(Benchmark benchmark)
+	{
+		List<Map<String, String>> combinations = new ArrayList<>();
+		combinations.add(new LinkedHashMap<>());
+		for (Map.Entry<String, String[]> e : benchmark.getParameters().entrySet()) {
+			List<String> values = paramOverrides.getOrDefault(e.getKey(), Arrays.asList(e.getValue()));
+			List<Map<String, String>> extended = new ArrayList<>();
+			for (Map<String, String> combination : combinations) {
+				for (String value : values) {
+					Map<String, String> params = new LinkedHashMap<>(combination);
+					params.put(e.getKey(), value);
+					extended.add(params);
+				}
+			}
+			combinations = extended;
+		}
+		return combinations;
+	}
+
+	/**
+	 * Run {@code benchmark} for the given parameter values.
+	 */
+	private Result runBenchmark(Benchmark benchmark, Map<String, String> params) throws PrismException
+	{
+		System.out.println("# Benchmark: " + benchmark.getName() + (params.isEmpty() ? "" : " " + params));
+		benchmark.setup(params);
+		Result result = new Result();
+		result.benchmark = benchmark.getName() + ".run";
+		result.params = params;
+		result.scores = new double[measurementIterations];
+		try {
+			for (int i = 0; i < warmupIterations; i++) {
+				System.out.printf(Locale.ROOT, "# Warmup iteration %d: %.3f ms/op%n", i + 1, runIteration(benchmark));
+			}
+			for (int i = 0; i < measurementIterations; i++) {
+				result.scores[i] = runIteration(benchmark);
+				System.out.printf(Locale.ROOT, "Iteration %d: %.3f ms/op%n", i + 1, result.scores[i]);
+			}
+		} finally {
+			benchmark.tearDown();
+		}
+		System.out.println();
+		return result;
+	}
+
+	/**
+	 * Run one iteration, i.e., run the benchmark repeatedly for (at least) the iteration time;
+	 * return the average time per operation in milliseconds.
+	 */
+	private double runIteration(Benchmark benchmark) throws PrismException
+	{
+		System.gc();
+		long timeLimit = (long) (iterationTime * 1e9);
+		long start = System.nanoTime();
+		long elapsed;
+		int ops = 0;
+		do {
+			Object value = benchmark.run();
+			sink += System.identityHashCode(value);
+			ops++;
+			elapsed = System.nanoTime() - start;
+		} while (elapsed < timeLimit);
+		return elapsed / 1e6 / ops;
+	}
+
+	// Output
+
+	private void printResults(PrintStream out)
+	{
+		List<String> paramNames = getAllParameterNames();
+		List<String[]> rows = new ArrayList<>();
+		List<String> header = new ArrayList<>(Arrays.asList("Benchmark"));
+		paramNames.forEach(name -> header.add("(" + name + ")"));
+		header.addAll(Arrays.asList("Mode", "Cnt", "Score", "Error", "Units"));
+		rows.add(header.toArray(new String[0]));
+		for (Result result : results) {
+			List<String> row = new ArrayList<>(Arrays.asList(result.benchmark));
+			paramNames.forEach(name -> row.add(result.params.getOrDefault(name, "N/A")));
+			row.addAll(Arrays.asList("avgt", Integer.toString(result.scores.length), String.format(Locale.ROOT, "%.3f", result.getScore()),
+					String.format(Locale.ROOT, "± %.3f", result.getScoreError()), "ms/op"));
+			rows.add(row.toArray(new String[0]));
+		}
+		int[] widths = new int[header.size()];
+		for (String[] row : rows) {
+			for (int i = 0; i < row.length; i++) {
+				widths[i] = Math.max(widths[i], row[i].length());
+			}
+		}
+		for (String[] row : rows) {
+			StringBuilder sb = new StringBuilder();
+			for (int i = 0; i < row.length; i++) {
+				String format = (i == 0) ? "%-" + widths[i] + "s" : "  %" + widths[i] + "s";
+				sb.append(String.format(format, row[i]));
+			}
+			out.println(sb);
+		}
+	}
+
+	private void printResultsJSON(PrintStream out)
+	{
+		out.println("[");
+		for (int r = 0; r < results.size(); r++) {
+			Result result = results.get(r);
+			out.println("    {");
+			out.println("        \"prismVersion\" : " + quote(Prism.getVersion()) + ",");
+			out.println("        \"benchmark\" : " + quote(result.benchmark) + ",");
+			out.println("        \"mode\" : \"avgt\",");
+			out.println("        \"threads\" : 1,");
+			out.println("        \"forks\" : 0,");
+			out.println("        \"jdkVersion\" : " + quote(System.getProperty("java.version")) + ",");
+			out.println("        \"vmName\" : " + quote(System.getProperty("java.vm.name")) + ",");
+			out.println("        \"warmupIterations\" : " + warmupIterations + ",");
+			out.println("        \"warmupTime\" : " + quote(iterationTime + " s") + ",");
+			out.println("        \"measurementIterations\" : " + measurementIterations + ",");
+			out.println("        \"measurementTime\" : " + quote(iterationTime + " s") + ",");
+			if (!result.params.isEmpty()) {
+				out.println("        \"params\" : {");
+				int p = 0;
+				for (Map.Entry<String, String> e : result.params.entrySet()) {
+					out.println("            " + quote(e.getKey()) + " : " + quote(e.getValue()) + (++p < result.params.size() ? "," : ""));
+				}
+				out.println("        },");
+			}
+			double score = result.getScore();
+			double error = result.getScoreError();
+			out.println("        \"primaryMetric\" : {");
+			out.println("            \"score\" : " + number(score) + ",");
+			out.println("            \"scoreError\" : " + number(error) + ",");
+			out.println("            \"scoreConfidence\" : [ " + number(score - error) + ", " + number(score + error) + " ],");
+			out.println("            \"scoreUnit\" : \"ms/op\",");
+			StringBuilder raw = new StringBuilder();
+			for (int i = 0; i < result.scores.length; i++) {
+				raw.append(i > 0 ? ", " : "").append(number(result.scores[i]));
+			}
+			out.println("            \"rawData\" : [ [ " + raw + " ] ]");
+			out.println("        },");
+			out.println("        \"secondaryMetrics\" : {}");
+			out.println("    }" + (r + 1 < results.size() ? "," : ""));
+		}
+		out.println("]");
+	}
+
+	private void printResultsCSV(PrintStream out)
+	{
+		List<String> paramNames = getAllParameterNames();
+		StringBuilder header = new StringBuilder("\"Benchmark\",\"Mode\",\"Threads\",\"Samples\",\"Score\",\"Score Error (99.9%)\",\"Unit\"");
+		paramNames.forEach(name -> header.append(",").append(quote("Param: " + name)));
+		out.println(header);
+		for (Result result : results) {
+			StringBuilder row = new StringBuilder();
+			row.append(quote(result.benchmark)).append(",\"avgt\",1,").append(result.scores.length);
+			row.append(",").append(number(result.getScore())).append(",").append(number(result.getScoreError())).append(",\"ms/op\"");
+			paramNames.forEach(name -> row.append(",").append(result.params.containsKey(name) ? quote(result.params.get(name)) : ""));
+			out.println(row);
+		}
+	}
+
+	private List<String> getAllParameterNames()
+	{
+		List<String> names = new ArrayList<>();
+		for (Result result : results) {
+			for (String name : result.params.keySet()) {
+				if (!names.contains(name)) {
+					names.add(name);
+				}
+			}
+		}
+		return names;
+	}
+
+	private static String quote(String s)
+	{
+		return "\"" + s.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+	}
+
+	private static String number(double d)
+	{
+		return Double.isFinite(d) ? Double.toString(d) : "\"NaN\"";
+	}
+
+	// Command-line arguments
+
+	private void parseArguments(String[] args) throws PrismException
+	{
+		for (int i = 0; i < args.length; i++) {
+			String sw = args[i];
+			if (sw.equals("-h") || sw.equals("-help")) {
+				printUsage();
+				System.exit(0);
+			} else if (sw.equals("-l")) {
+				list = true;
+			} else if (sw.equals("-wi") || sw.equals("-i") || sw.equals("-r") || sw.equals("-p") || sw.equals("-rf") || sw.equals("-rff") || sw.equals("-examples")) {
+				if (i + 1 >= args.length) {
+					throw new PrismException("No value specified for " + sw + " switch");
+				}
+				String value = args[++i];
+				try {
+					switch (sw) {
+					case "-wi":
+						warmupIterations = Integer.parseInt(value);
+						break;
+					case "-i":
+						measurementIterations = Integer.parseInt(value);
+						break;
+					case "-r":
+						iterationTime = Double.parseDouble(value);
+						break;
+					case "-p":
+						int eq = value.indexOf('=');
+						if (eq < 1) {
+							throw new PrismException("Invalid parameter \"" + value + "\" (should be name=value)");
+						}
+						paramOverrides.computeIfAbsent(value.substring(0, eq), k -> new ArrayList<>()).add(value.substring(eq + 1));
+						break;
+					case "-rf":
+						if (!value.equals("json") && !value.equals("csv")) {
+							throw new PrismException("Unknown result format \"" + value + "\" (should be json or csv)");
+						}
+						resultFormat = value;
+						break;
+					case "-rff":
+						resultFile = value;
+						break;
+					case "-examples":
+						examplesDir = value;
+						break;
+					}
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value \"" + value + "\" for " + sw + " switch");
+				}
+			} else if (sw.startsWith("-")) {
+				throw new PrismException("Unknown switch " + sw + " (use -h for help)");
+			} else {
+				includes.add(Pattern.compile(sw));
+			}
+		}
+		if (resultFile != null && resultFormat == null) {
+			resultFormat = resultFile.endsWith(".csv") ? "csv" : "json";
+		}
+	}
+
+	private static void printUsage()
+	{
+		System.out.println("Usage: BenchmarkRunner [options] [<regexp> ...]");
+		System.out.println();
+		System.out.println("Runs all benchmarks whose names match one of the regular expressions (default: all benchmarks).");
+		System.out.println();
+		System.out.println("Options:");
+		System.out.println("-l ......................... List benchmarks and their parameters, then exit");
+		System.out.println("-wi <n> .................... Number of warmup iterations [default: 2]");
+		System.out.println("-i <n> ..................... Number of measurement iterations [default: 5]");
+		System.out.println("-r <secs> .................. Minimum time for each iteration [default: 1]");
+		System.out.println("-p <name>=<value> .......... Value for a parameter (can be repeated, to give several values)");
+		System.out.println("-rf <json|csv> ............. Write results to a file in this format");
+		System.out.println("-rff <file> ................ Write results to this file [default: benchmark-results.<format>]");
+		System.out.println("-examples <dir> ............ Location of the PRISM examples [default: ../prism-examples]");
+		System.out.println();
+		System.out.println("Models are specified as <file>[:<constants>], e.g. -p model=dtmcs/brp/brp.pm:N=64,MAX=4");
+	}
+}
@@ -0,0 +1,75 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import explicit.Bisimulation;
+import explicit.DTMC;
+import prism.PrismException;
+
+/**
+ * Benchmark for bisimulation minimisation of DTMCs ({@link Bisimulation}),
+ * preserving the labels of the model and its initial states.
+ */
+public class BisimulationBenchmark extends Benchmark
+{
+	private DTMC<Double> dtmc;
+	private List<String> propNames;
+	private List<BitSet> propBSs;
+
+	@Override
+	public Map<String, String[]> getParameters()
+	{
+		return params("model", "dtmcs/leader_sync/leader5_4.pm;dtmcs/brp/brp.pm:N=256,MAX=5");
+	}
+
+	@Override
+	public void setup(Map<String, String> params) throws PrismException
+	{
+		dtmc = BenchmarkModels.buildDTMC(prism, examplesDir, params.get("model"));
+		propNames = new ArrayList<>();
+		propBSs = new ArrayList<>();
+		BitSet init = new BitSet();
+		dtmc.getInitialStates().forEach(init::set);
+		propNames.add("init");
+		propBSs.add(init);
+		for (String label : dtmc.getLabels()) {
+			propNames.add(label);
+			propBSs.add(dtmc.getLabelStates(label));
+		}
+	}
+
+	@Override
+	public Object run() throws PrismException
+	{
+		Bisimulation<Double> bisim = new Bisimulation<>(prism);
+		return bisim.minimise(dtmc, propNames, propBSs);
+	}
+}
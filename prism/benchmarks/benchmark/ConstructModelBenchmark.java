@@ -0,0 +1,64 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+
+package benchmark;
+
+import java.util.Map;
+
+import explicit.ConstructModel;
+import parser.ast.ModulesFile;
+import prism.PrismException;
+import simulator.ModulesFileModelGenerator;
+
+/**
+ * Benchmark for explicit-state model construction ({@link ConstructModel#constructModel}).
+ */
+public class ConstructModelBenchmark extends Benchmark
+{
+	private ModulesFile modulesFile;
+	private int numThreads;
+
+	@Override
+	public Map<String, String[]> getParameters()
+	{
+		return params("model", "dtmcs/leader_sync/leader5_4.pm;dtmcs/brp/brp.pm:N=256,MAX=5;mdps/consensus/coin4.nm:K=4;mdps/phil/original/phil4.nm",
+				"threads", "1");
+	}
+
+	@Override
+	public void setup(Map<String, String> params) throws PrismException
+	{
+		numThreads = Integer.parseInt(params.get("threads"));
+		modulesFile = BenchmarkModels.parseModel(prism, examplesDir, params.get("model"));
+	}
+
+	@Override
+	public Object run() throws PrismException
+	{
+		ConstructModel constructModel = new ConstructModel(prism);
+		constructModel.setNumThreads(numThreads);
+		return constructModel.constructModel(ModulesFileModelGenerator.create(modulesFile, prism)).getNumTransitions();
+	}
+}
@@ -0,0 +1,68 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+
+package benchmark;
+
+import java.util.Map;
+import java.util.Random;
+
+import explicit.DTMCSparse;
+import prism.PrismException;
+
+/**
+ * Benchmark for matrix-vector multiplication on sparse DTMCs ({@link DTMCSparse#mvMultSingle}),
+ * i.e., the kernel of value iteration for DTMCs.
+ */
+public class DTMCMultBenchmark extends Benchmark
+{
+	private DTMCSparse dtmc;
+	private double[] vect;
+	private double[] result;
+
+	@Override
+	public Map<String, String[]> getParameters()
+	{
+		return params("model", "dtmcs/leader_sync/leader5_4.pm;dtmcs/brp/brp.pm:N=256,MAX=5");
+	}
+
+	@Override
+	public void setup(Map<String, String> params) throws PrismException
+	{
+		dtmc = new DTMCSparse(BenchmarkModels.buildDTMC(prism, examplesDir, params.get("model")));
+		int n = dtmc.getNumStates();
+		vect = new Random(42).doubles(n).toArray();
+		result = new double[n];
+	}
+
+	@Override
+	public Object run() throws PrismException
+	{
+		int n = dtmc.getNumStates();
+		for (int s = 0; s < n; s++) {
+			result[s] = dtmc.mvMultSingle(s, vect);
+		}
+		return result;
+	}
+}
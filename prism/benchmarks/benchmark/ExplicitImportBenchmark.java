@@ -0,0 +1,84 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.Map;
+
+import explicit.ExplicitFiles2Model;
+import explicit.Model;
+import io.PrismExplicitImporter;
+import prism.PrismException;
+import prism.PrismLog;
+import prism.PrismPrintStreamLog;
+
+/**
+ * Benchmark for importing models from PRISM's explicit file format
+ * ({@link PrismExplicitImporter}, {@link ExplicitFiles2Model}).
+ * The models are first built and exported to a temporary .tra file.
+ */
+public class ExplicitImportBenchmark extends Benchmark
+{
+	private File traFile;
+
+	@Override
+	public Map<String, String[]> getParameters()
+	{
+		return params("model", "dtmcs/leader_sync/leader5_4.pm;mdps/consensus/coin4.nm:K=4");
+	}
+
+	@Override
+	public void setup(Map<String, String> params) throws PrismException
+	{
+		Model<?> model = BenchmarkModels.buildModel(prism, examplesDir, params.get("model"));
+		// Export via a print stream (rather than a file log, which needs the native libraries)
+		try {
+			traFile = File.createTempFile("prism-benchmark", ".tra");
+			traFile.deleteOnExit();
+			try (PrismLog out = new PrismPrintStreamLog(new PrintStream(traFile))) {
+				model.exportToPrismExplicitTra(out);
+			}
+		} catch (IOException e) {
+			throw new PrismException("Could not export to temporary file: " + e.getMessage());
+		}
+	}
+
+	@Override
+	public Object run() throws PrismException
+	{
+		PrismExplicitImporter importer = new PrismExplicitImporter(null, traFile, null, Collections.emptyList(), Collections.emptyList(), null);
+		return new ExplicitFiles2Model(prism).build(importer);
+	}
+
+	@Override
+	public void tearDown() throws PrismException
+	{
+		traFile.delete();
+	}
+}
@@ -0,0 +1,61 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+
+package benchmark;
+
+import java.util.Map;
+
+import explicit.FoxGlynn;
+import prism.PrismException;
+
+/**
+ * Benchmark for the computation of Poisson probabilities for uniformisation ({@link FoxGlynn}).
+ */
+public class FoxGlynnBenchmark extends Benchmark
+{
+	private double qt;
+	private double accuracy;
+
+	@Override
+	public Map<String, String[]> getParameters()
+	{
+		return params("qt", "10;1000;100000", "accuracy", "1e-6");
+	}
+
+	@Override
+	public void setup(Map<String, String> params) throws PrismException
+	{
+		qt = Double.parseDouble(params.get("qt"));
+		accuracy = Double.parseDouble(params.get("accuracy"));
+	}
+
+	@Override
+	public Object run() throws PrismException
+	{
+		// Same under/overflow bounds as used by the CTMC model checker
+		FoxGlynn fg = new FoxGlynn(qt, 1e-300, 1e+300, accuracy);
+		return fg.getWeights();
+	}
+}
@@ -0,0 +1,67 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+
+package benchmark;
+
+import java.util.Map;
+import java.util.Random;
+
+import explicit.MDPSparse;
+import prism.PrismException;
+
+/**
+ * Benchmark for matrix-vector multiplication followed by min/max on sparse MDPs
+ * ({@link MDPSparse#mvMultMinMax}), i.e., the kernel of value iteration for MDPs.
+ */
+public class MDPMinMaxBenchmark extends Benchmark
+{
+	private MDPSparse mdp;
+	private boolean min;
+	private double[] vect;
+	private double[] result;
+
+	@Override
+	public Map<String, String[]> getParameters()
+	{
+		return params("model", "mdps/consensus/coin4.nm:K=4;mdps/phil/original/phil4.nm", "min", "true;false");
+	}
+
+	@Override
+	public void setup(Map<String, String> params) throws PrismException
+	{
+		mdp = new MDPSparse(BenchmarkModels.buildMDP(prism, examplesDir, params.get("model")));
+		min = Boolean.parseBoolean(params.get("min"));
+		int n = mdp.getNumStates();
+		vect = new Random(42).doubles(n).toArray();
+		result = new double[n];
+	}
+
+	@Override
+	public Object run() throws PrismException
+	{
+		mdp.mvMultMinMax(vect, min, result, null, false, null);
+		return result;
+	}
+}
@@ -0,0 +1,65 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+
+package benchmark;
+
+import java.util.Map;
+
+import explicit.ECComputer;
+import explicit.ECComputerDefault;
+import explicit.ECComputerParallel;
+import explicit.MDP;
+import prism.PrismException;
+
+/**
+ * Benchmark for maximal end component computation on MDPs
+ * ({@link ECComputerDefault}, or {@link ECComputerParallel} if more than one thread is used).
+ */
+public class MECBenchmark extends Benchmark
+{
+	private MDP<Double> mdp;
+	private int numThreads;
+
+	@Override
+	public Map<String, String[]> getParameters()
+	{
+		return params("model", "mdps/consensus/coin4.nm:K=4;mdps/phil/original/phil4.nm", "threads", "1");
+	}
+
+	@Override
+	public void setup(Map<String, String> params) throws PrismException
+	{
+		mdp = BenchmarkModels.buildMDP(prism, examplesDir, params.get("model"));
+		numThreads = Integer.parseInt(params.get("threads"));
+	}
+
+	@Override
+	public Object run() throws PrismException
+	{
+		ECComputer ecComputer = numThreads > 1 ? new ECComputerParallel(prism, mdp, numThreads) : new ECComputerDefault(prism, mdp);
+		ecComputer.computeMECStates();
+		return ecComputer.getMECStates();
+	}
+}
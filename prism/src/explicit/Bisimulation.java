@@ -200,7 +200,7 @@ public class Bisimulation<Value> extends PrismComponent
 		for (s = 0; s < numStates; s++) {
 			// Build lifted distribution
 			Iterator<Map.Entry<Integer, Value>> iter = dtmc.getTransitionsIterator(s);
-			distrNew = new Distribution<>(dtmc.getEvaluator());
+			distrNew = Distribution.create(dtmc.getEvaluator());
 			while (iter.hasNext()) {
 				Map.Entry<Integer, Value> e = iter.next();
 				distrNew.add(partition[e.getKey()], e.getValue());
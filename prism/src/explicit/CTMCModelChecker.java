@@ -29,11 +29,13 @@ package explicit;
 import java.io.File;
 import java.util.*;
 
+import common.IntSet;
 import common.IterableBitSet;
 import explicit.StateValues;
 import explicit.rewards.MCRewards;
 import explicit.rewards.Rewards;
 import explicit.rewards.StateRewardsArray;
+import parser.Values;
 import parser.ast.*;
 import prism.*;
 
@@ -197,8 +199,12 @@ public class CTMCModelChecker extends ProbModelChecker
 			// <= uTime
 			else if (lTime == 0) {
 				// nb: uTime != 0 since would be caught above (trivial case)
-				b1.andNot(b2);
-				res = computeTransientBackwardsProbs((CTMC<Double>) model, b2, b1, uTime, null);
+				// (using results computed for a batch of time bounds, if available)
+				res = computeTimeBoundedUntilProbsBatched((CTMC<Double>) model, expr, b1, b2, uTime);
+				if (res == null) {
+					b1.andNot(b2);
+					res = computeTransientBackwardsProbs((CTMC<Double>) model, b2, b1, uTime, null);
+				}
 				probs = StateValues.createFromDoubleArray(res.soln, model);
 				// set values to exactly 1 for target (b2) states
 				// (these are computed inexactly during uniformisation)
@@ -403,6 +409,76 @@ public class CTMCModelChecker extends ProbModelChecker
 		return res;
 	}
 
+	/**
+	 * Compute time-bounded until probabilities for several time bounds at once,
+	 * i.e. compute the probability of reaching a state in {@code target},
+	 * within time {@code times[k]}, and while remaining in states in {@code remain},
+	 * for each {@code k}. This uses a single uniformisation sweep for all time bounds
+	 * (see {@link #computeTransientBackwardsProbs(CTMC, BitSet, BitSet, double[], double[])}).
+	 * @param ctmc The CTMC
+	 * @param remain Remain in these states (optional: null means "all")
+	 * @param target Target states
+	 * @param times Time bounds
+	 */
+	public ModelCheckerResult[] computeTimeBoundedUntilProbs(CTMC<Double> ctmc, BitSet remain, BitSet target, double times[]) throws PrismException
+	{
+		BitSet nonAbs = null;
+		if (remain != null) {
+			nonAbs = (BitSet) remain.clone();
+			nonAbs.andNot(target);
+		}
+		ModelCheckerResult res[] = computeTransientBackwardsProbs(ctmc, target, nonAbs, times, null);
+		// Set values to exactly 1 for target states
+		// (these are computed inexactly during uniformisation)
+		for (ModelCheckerResult r : res) {
+			for (int i = target.nextSetBit(0); i >= 0; i = target.nextSetBit(i + 1)) {
+				r.soln[i] = 1.0;
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * Compute time-bounded until probabilities for time bound {@code t} (as for
+	 * {@link #computeTimeBoundedUntilProbs(CTMC, BitSet, BitSet, double)}), using the current time-bound batch,
+	 * i.e., computing probabilities for the bounds of all checks in the batch at once if not already done.
+	 * Returns null if there is no batch for (bounded until formula) {@code expr}.
+	 */
+	public ModelCheckerResult computeTimeBoundedUntilProbsBatched(CTMC<Double> ctmc, ExpressionTemporal expr, BitSet remain, BitSet target, double t) throws PrismException
+	{
+		List<Values> constantValuesList = getTimeBoundBatchConstantValues(expr);
+		if (constantValuesList == null) {
+			return null;
+		}
+		ModelCheckerResult res = timeBoundBatch.getResult(ctmc, t);
+		if (res == null) {
+			// Get the bounds for all checks in the batch
+			// (if any is invalid, just check this one individually, as usual)
+			List<Double> bounds = new ArrayList<>();
+			for (Values values : constantValuesList) {
+				double uTime;
+				try {
+					uTime = expr.getUpperBound().evaluateDouble(values);
+				} catch (PrismException e) {
+					return null;
+				}
+				if (uTime < 0) {
+					return null;
+				}
+				bounds.add(uTime);
+			}
+			List<Double> todo = timeBoundBatch.getBoundsToCompute(bounds, t, ctmc.getNumStates());
+			mainLog.println("\nComputing probabilities for " + todo.size() + " time bounds at once (of " + bounds.size() + " checks)...");
+			double times[] = todo.stream().mapToDouble(Double::doubleValue).toArray();
+			ModelCheckerResult resAll[] = computeTimeBoundedUntilProbs(ctmc, remain, target, times);
+			timeBoundBatch.setResults(ctmc, todo, resAll);
+			res = timeBoundBatch.getResult(ctmc, t);
+		} else {
+			mainLog.println("\nUsing probabilities previously computed for time bound " + t + ".");
+		}
+		return res;
+	}
+
 	/**
 	 * Perform transient probability computation, as required for (e.g. CSL) model checking.
 	 * Compute, for each state, the sum over {@code target} states
@@ -418,20 +494,43 @@ public class CTMCModelChecker extends ProbModelChecker
 	 */
 	public ModelCheckerResult computeTransientBackwardsProbs(CTMC<Double> ctmc, BitSet target, BitSet nonAbs, double t, double multProbs[]) throws PrismException
 	{
-		ModelCheckerResult res = null;
-		int i, n, iters;
-		double soln[], soln2[], tmpsoln[], sum[];
-		DTMC<Double> dtmc;
+		return computeTransientBackwardsProbs(ctmc, target, nonAbs, new double[] { t }, multProbs)[0];
+	}
+
+	/**
+	 * Perform transient probability computation (as for
+	 * {@link #computeTransientBackwardsProbs(CTMC, BitSet, BitSet, double, double[])})
+	 * for several time points at once. The matrix powers are computed only once, up to the largest
+	 * right truncation point, and are added to the sums for all time points whose Fox-Glynn window they lie in.
+	 * Note that one solution vector is stored per time point.
+	 * Matrix-vector multiplication is done in parallel for blocks of rows if multiple threads are enabled.
+	 * @param ctmc The CTMC
+	 * @param target Target states
+	 * @param nonAbs States *not* to be made absorbing (optional: null means "all")
+	 * @param times Time bounds
+	 * @param multProbs Multiplication vector (optional: null means all 1s)
+	 */
+	public ModelCheckerResult[] computeTransientBackwardsProbs(CTMC<Double> ctmc, BitSet target, BitSet nonAbs, double times[], double multProbs[]) throws PrismException
+	{
+		ModelCheckerResult res[];
+		int i, n;
+		double soln[], soln2[];
 		long timer;
-		// Fox-Glynn stuff
-		FoxGlynn fg;
-		int left, right;
-		double q, qt, acc, weights[], totalWeight;
 
-		// Optimisations: If (nonAbs is empty or t = 0) and multProbs is null, this is easy.
-		if (((nonAbs != null && nonAbs.isEmpty()) || (t == 0)) && multProbs == null) {
-			res = new ModelCheckerResult();
-			res.soln = Utils.bitsetToDoubleArray(target, ctmc.getNumStates());
+		// Store num states
+		n = ctmc.getNumStates();
+
+		// Optimisations: If (nonAbs is empty or all t = 0) and multProbs is null, this is easy.
+		boolean allZero = true;
+		for (double t : times) {
+			allZero &= (t == 0);
+		}
+		if (((nonAbs != null && nonAbs.isEmpty()) || allZero) && multProbs == null) {
+			res = new ModelCheckerResult[times.length];
+			for (int k = 0; k < times.length; k++) {
+				res[k] = new ModelCheckerResult();
+				res[k].soln = Utils.bitsetToDoubleArray(target, n);
+			}
 			return res;
 		}
 
@@ -439,38 +538,18 @@ public class CTMCModelChecker extends ProbModelChecker
 		timer = System.currentTimeMillis();
 		mainLog.println("\nStarting backwards transient probability computation...");
 
-		// Store num states
-		n = ctmc.getNumStates();
-
-		// Get uniformisation rate; do Fox-Glynn
-		q = ctmc.getDefaultUniformisationRate(nonAbs);
-		qt = q * t;
-		mainLog.println("\nUniformisation: q.t = " + q + " x " + t + " = " + qt);
-		acc = termCritParam / 8.0;
-		fg = new FoxGlynn(qt, 1e-300, 1e+300, acc);
-		left = fg.getLeftTruncationPoint();
-		right = fg.getRightTruncationPoint();
-		if (right < 0) {
-			throw new PrismException("Overflow in Fox-Glynn computation (time bound too big?)");
-		}
-		weights = fg.getWeights();
-		totalWeight = fg.getTotalWeight();
-		for (i = left; i <= right; i++) {
-			weights[i - left] /= totalWeight;
-		}
-		mainLog.println("Fox-Glynn (" + acc + "): left = " + left + ", right = " + right);
+		// Get uniformisation rate
+		double q = nonAbs == null ? ctmc.getDefaultUniformisationRate() : ctmc.getDefaultUniformisationRate(nonAbs);
 
 		// Build (implicit) uniformised DTMC
-		dtmc = ctmc.buildImplicitUniformisedDTMC(q);
+		DTMC<Double> dtmc = ctmc.buildImplicitUniformisedDTMC(q);
 
 		// Create solution vector(s)
 		soln = new double[n];
 		soln2 = new double[n];
-		sum = new double[n];
 
 		// Initialise solution vectors.
 		// Vectors soln/soln2 are 1 for target states, or multProbs[i] if supplied.
-		// Vector sum is all zeros (done by array creation).
 		if (multProbs != null) {
 			for (i = 0; i < n; i++)
 				soln[i] = soln2[i] = target.get(i) ? multProbs[i] : 0.0;
@@ -479,40 +558,36 @@ public class CTMCModelChecker extends ProbModelChecker
 				soln[i] = soln2[i] = target.get(i) ? 1.0 : 0.0;
 		}
 
-		// If necessary, do 0th element of summation (doesn't require any matrix powers)
-		if (left == 0)
-			for (i = 0; i < n; i++)
-				sum[i] += weights[0] * soln[i];
-
-		// Start iterations
-		iters = 1;
-		while (iters <= right) {
-			// Matrix-vector multiply
-			dtmc.mvMult(soln, soln2, nonAbs, false);
-			// Swap vectors for next iter
-			tmpsoln = soln;
-			soln = soln2;
-			soln2 = tmpsoln;
-			// Add to sum
-			if (iters >= left) {
-				for (i = 0; i < n; i++)
-					sum[i] += weights[iters - left] * soln[i];
+		// Matrix-vector multiply (for non-absorbing states only), by rows
+		StatePartition partition = createUniformisationPartition(n);
+		UniformisationStep step = (vect, result, block) -> {
+			if (block == null) {
+				dtmc.mvMult(vect, result, nonAbs, false);
+				return;
 			}
-			iters++;
-		}
+			for (PrimitiveIterator.OfInt it = block.iterator(); it.hasNext();) {
+				int s = it.nextInt();
+				if (nonAbs == null || nonAbs.get(s)) {
+					result[s] = dtmc.mvMultSingle(s, vect);
+				}
+			}
+		};
+		res = doUniformisation(q, times, soln, soln2, partition, step);
 
 		// Finished backwards transient computation
 		timer = System.currentTimeMillis() - timer;
+		int iters = 0;
+		for (ModelCheckerResult r : res) {
+			iters = Math.max(iters, r.numIters);
+		}
 		mainLog.print("Backwards transient probability computation");
 		mainLog.println(" took " + iters + " iters and " + timer / 1000.0 + " seconds.");
 
 		// Return results
-		res = new ModelCheckerResult();
-		res.soln = sum;
-		res.lastSoln = soln2;
-		res.numIters = iters;
-		res.timeTaken = timer / 1000.0;
-		res.timePre = 0.0;
+		for (ModelCheckerResult r : res) {
+			r.timeTaken = timer / 1000.0;
+			r.timePre = 0.0;
+		}
 		return res;
 	}
 
@@ -909,15 +984,29 @@ public class CTMCModelChecker extends ProbModelChecker
 	 */
 	public ModelCheckerResult computeTransientProbs(CTMC<Double> ctmc, double t, double initDist[]) throws PrismException
 	{
-		ModelCheckerResult res = null;
-		int i, n, iters;
-		double soln[], soln2[], tmpsoln[], sum[];
-		DTMC<Double> dtmc;
+		return computeTransientProbs(ctmc, new double[] { t }, initDist)[0];
+	}
+
+	/**
+	 * Compute transient probabilities for several time points at once,
+	 * i.e. compute the probability of being in each state at time {@code times[k]}, for each {@code k},
+	 * assuming the initial distribution {@code initDist}.
+	 * The vector-matrix products are computed only once, up to the largest right truncation point.
+	 * Note that one solution vector is stored per time point.
+	 * If multiple threads are enabled, vector-matrix multiplication is done in parallel
+	 * for blocks of columns, using a transposed copy of the uniformised matrix.
+	 * For space efficiency, the initial distribution vector will be modified and values over-written,
+	 * so if you wanted it, take a copy.
+	 * @param ctmc The CTMC
+	 * @param times Time points
+	 * @param initDist Initial distribution (will be overwritten)
+	 */
+	public ModelCheckerResult[] computeTransientProbs(CTMC<Double> ctmc, double times[], double initDist[]) throws PrismException
+	{
+		ModelCheckerResult res[];
+		int n;
+		double soln[], soln2[];
 		long timer;
-		// Fox-Glynn stuff
-		FoxGlynn fg;
-		int left, right;
-		double q, qt, acc, weights[], totalWeight;
 
 		// Start bounded probabilistic reachability
 		timer = System.currentTimeMillis();
@@ -926,75 +1015,271 @@ public class CTMCModelChecker extends ProbModelChecker
 		// Store num states
 		n = ctmc.getNumStates();
 
-		// Get uniformisation rate; do Fox-Glynn
-		q = ctmc.getDefaultUniformisationRate();
-		qt = q * t;
-		mainLog.println("\nUniformisation: q.t = " + q + " x " + t + " = " + qt);
-		acc = termCritParam / 8.0;
-		fg = new FoxGlynn(qt, 1e-300, 1e+300, acc);
-		left = fg.getLeftTruncationPoint();
-		right = fg.getRightTruncationPoint();
-		if (right < 0) {
-			throw new PrismException("Overflow in Fox-Glynn computation (time bound too big?)");
-		}
-		weights = fg.getWeights();
-		totalWeight = fg.getTotalWeight();
-		for (i = left; i <= right; i++) {
-			weights[i - left] /= totalWeight;
-		}
-		mainLog.println("Fox-Glynn (" + acc + "): left = " + left + ", right = " + right);
+		// Get uniformisation rate
+		double q = ctmc.getDefaultUniformisationRate();
 
 		// Build (implicit) uniformised DTMC
-		dtmc = ctmc.buildImplicitUniformisedDTMC(q);
+		DTMC<Double> dtmc = ctmc.buildImplicitUniformisedDTMC(q);
 
 		// Create solution vector(s)
 		// For soln, we just use init (since we are free to modify this vector)
+		// (don't need to initialise soln2 since will be immediately overwritten)
 		soln = initDist;
 		soln2 = new double[n];
-		sum = new double[n];
 
-		// Initialise solution vectors
-		// (don't need to do soln2 since will be immediately overwritten)
-		for (i = 0; i < n; i++)
-			sum[i] = 0.0;
+		// Vector-matrix multiply: by columns (using the transpose) if multi-threaded
+		StatePartition partition = createUniformisationPartition(n);
+		UniformisationStep step;
+		if (partition == null) {
+			step = (vect, result, block) -> dtmc.vmMult(vect, result);
+		} else {
+			step = new UniformisedTranspose(ctmc, q)::vmMult;
+		}
+		res = doUniformisation(q, times, soln, soln2, partition, step);
+
+		// Finished bounded probabilistic reachability
+		timer = System.currentTimeMillis() - timer;
+		int iters = 0;
+		for (ModelCheckerResult r : res) {
+			iters = Math.max(iters, r.numIters);
+		}
+		mainLog.print("Transient probability computation");
+		mainLog.println(" took " + iters + " iters and " + timer / 1000.0 + " seconds.");
+
+		// Return results
+		for (ModelCheckerResult r : res) {
+			r.timeTaken = timer / 1000.0;
+			r.timePre = 0.0;
+		}
+		return res;
+	}
+
+	// Uniformisation
+
+	/**
+	 * A single step of uniformisation, i.e. a matrix-vector (or vector-matrix) multiplication
+	 * with the uniformised DTMC, storing in {@code result} the values for (at least) the states in {@code block}
+	 * (or for all states, if {@code block} is null).
+	 */
+	@FunctionalInterface
+	private interface UniformisationStep
+	{
+		public void apply(double vect[], double result[], IntSet block) throws PrismException;
+	}
+
+	/**
+	 * Get a partition of the states for multi-threaded uniformisation,
+	 * or null if this should be done by a single thread.
+	 */
+	private StatePartition createUniformisationPartition(int n)
+	{
+		if (numThreads <= 1) {
+			return null;
+		}
+		BitSet all = new BitSet();
+		all.set(0, n);
+		return StatePartition.create(IntSet.asIntSet(all), numThreads);
+	}
+
+	/**
+	 * Perform uniformisation for several time points at once:
+	 * for each time point {@code t}, compute the sum, over {@code i} between the Fox-Glynn
+	 * truncation points for {@code q*t}, of the weight {@code i} times the vector
+	 * obtained after {@code i} steps, starting from {@code soln}.
+	 * Vectors {@code soln} and {@code soln2} are both overwritten.
+	 * Steps are performed for all blocks of {@code partition} concurrently (or for all states if it is null),
+	 * and each block also adds its part of the new vector to the sums.
+	 * The results (in the same order as {@code times}) have {@code lastSoln}
+	 * set only for those time points with the largest right truncation point.
+	 * @param q Uniformisation rate
+	 * @param times Time points
+	 * @param soln Initial vector
+	 * @param soln2 Second solution vector (entries not written by {@code step} must equal those of {@code soln})
+	 * @param partition Partition of the states for multi-threading (optional: null means single-threaded)
+	 * @param step The matrix-vector multiplication
+	 */
+	private ModelCheckerResult[] doUniformisation(double q, double times[], double soln[], double soln2[], StatePartition partition, UniformisationStep step) throws PrismException
+	{
+		int numTimes = times.length;
+		int n = soln.length;
+		int lefts[] = new int[numTimes];
+		int rights[] = new int[numTimes];
+		double weights[][] = new double[numTimes][];
+		int maxRight = 0;
+
+		// Do Fox-Glynn for each time point
+		double acc = termCritParam / 8.0;
+		if (numTimes > 1) {
+			mainLog.println("\nUniformisation: q = " + q + ", " + numTimes + " time points");
+		}
+		for (int k = 0; k < numTimes; k++) {
+			double qt = q * times[k];
+			if (numTimes == 1) {
+				mainLog.println("\nUniformisation: q.t = " + q + " x " + times[k] + " = " + qt);
+			}
+			if (qt == 0) {
+				// no steps needed (the result is the initial vector)
+				lefts[k] = rights[k] = 0;
+				weights[k] = new double[] { 1.0 };
+				continue;
+			}
+			FoxGlynn fg = new FoxGlynn(qt, 1e-300, 1e+300, acc);
+			lefts[k] = fg.getLeftTruncationPoint();
+			rights[k] = fg.getRightTruncationPoint();
+			if (rights[k] < 0) {
+				throw new PrismException("Overflow in Fox-Glynn computation (time bound too big?)");
+			}
+			weights[k] = fg.getWeights();
+			double totalWeight = fg.getTotalWeight();
+			for (int i = lefts[k]; i <= rights[k]; i++) {
+				weights[k][i - lefts[k]] /= totalWeight;
+			}
+			if (numTimes == 1) {
+				mainLog.println("Fox-Glynn (" + acc + "): left = " + lefts[k] + ", right = " + rights[k]);
+			}
+			maxRight = Math.max(maxRight, rights[k]);
+		}
+		if (numTimes > 1) {
+			mainLog.println("Fox-Glynn (" + acc + "): max. right = " + maxRight);
+		}
+		if (partition != null) {
+			mainLog.println("Using " + numThreads + " threads for " + partition.getNumBlocks() + " blocks of states");
+		}
+
+		// Sums (all zeros, done by array creation)
+		double sums[][] = new double[numTimes][n];
 
 		// If necessary, do 0th element of summation (doesn't require any matrix powers)
-		if (left == 0)
-			for (i = 0; i < n; i++)
-				sum[i] += weights[0] * soln[i];
+		for (int k = 0; k < numTimes; k++) {
+			if (lefts[k] == 0) {
+				for (int i = 0; i < n; i++)
+					sums[k][i] += weights[k][0] * soln[i];
+			}
+		}
 
 		// Start iterations
-		iters = 1;
-		while (iters <= right) {
-			// Matrix-vector multiply
-			dtmc.vmMult(soln, soln2);
+		int active[] = new int[numTimes];
+		int iters = 1;
+		while (iters <= maxRight) {
+			// Time points whose Fox-Glynn window contains this iteration
+			int numActive = 0;
+			for (int k = 0; k < numTimes; k++) {
+				if (iters >= lefts[k] && iters <= rights[k]) {
+					active[numActive++] = k;
+				}
+			}
+			// Multiply and add to sums
+			final int iter = iters, numActiveFinal = numActive;
+			final double vect[] = soln, result[] = soln2;
+			StatePartition.BlockTask task = block -> {
+				step.apply(vect, result, block);
+				for (int j = 0; j < numActiveFinal; j++) {
+					int k = active[j];
+					double w = weights[k][iter - lefts[k]];
+					double sum[] = sums[k];
+					if (block == null) {
+						for (int i = 0; i < n; i++)
+							sum[i] += w * result[i];
+					} else {
+						for (PrimitiveIterator.OfInt it = block.iterator(); it.hasNext();) {
+							int i = it.nextInt();
+							sum[i] += w * result[i];
+						}
+					}
+				}
+			};
+			if (partition == null) {
+				task.apply(null);
+			} else {
+				partition.forEach(task);
+			}
 			// Swap vectors for next iter
-			tmpsoln = soln;
+			double tmpsoln[] = soln;
 			soln = soln2;
 			soln2 = tmpsoln;
-			// Add to sum
-			if (iters >= left) {
-				for (i = 0; i < n; i++)
-					sum[i] += weights[iters - left] * soln[i];
-			}
 			iters++;
 		}
 
-		// Finished bounded probabilistic reachability
-		timer = System.currentTimeMillis() - timer;
-		mainLog.print("Transient probability computation");
-		mainLog.println(" took " + iters + " iters and " + timer / 1000.0 + " seconds.");
-
-		// Return results
-		res = new ModelCheckerResult();
-		res.soln = sum;
-		res.lastSoln = soln2;
-		res.numIters = iters;
-		res.timeTaken = timer / 1000.0;
-		res.timePre = 0.0;
+		// Store results
+		ModelCheckerResult res[] = new ModelCheckerResult[numTimes];
+		for (int k = 0; k < numTimes; k++) {
+			res[k] = new ModelCheckerResult();
+			res[k].soln = sums[k];
+			res[k].lastSoln = rights[k] == maxRight ? soln2 : null;
+			res[k].numIters = rights[k] + 1;
+		}
 		return res;
 	}
 
+	/**
+	 * Transpose of the uniformised DTMC for a CTMC, stored in compressed sparse column form,
+	 * for vector-matrix multiplication by (blocks of) columns.
+	 * The entries of each column are stored in order of their row, so results are identical
+	 * to those of {@link DTMC#vmMult(double[], double[])} for the implicit uniformised DTMC.
+	 */
+	private static class UniformisedTranspose
+	{
+		/** Start of the entries of each column (plus end of the last one) */
+		private final int colStarts[];
+		/** Row of each entry */
+		private final int rows[];
+		/** Value of each entry */
+		private final double values[];
+
+		public UniformisedTranspose(CTMC<Double> ctmc, double q)
+		{
+			int n = ctmc.getNumStates();
+			// Count entries per column (off-diagonal plus one diagonal entry each)
+			colStarts = new int[n + 1];
+			for (int s = 0; s < n; s++) {
+				for (Iterator<Map.Entry<Integer, Double>> it = ctmc.getTransitionsIterator(s); it.hasNext();) {
+					int t = it.next().getKey();
+					if (t != s) {
+						colStarts[t + 1]++;
+					}
+				}
+				colStarts[s + 1]++;
+			}
+			for (int s = 0; s < n; s++) {
+				colStarts[s + 1] += colStarts[s];
+			}
+			// Fill in entries (row by row, so that each column is sorted by row)
+			rows = new int[colStarts[n]];
+			values = new double[colStarts[n]];
+			int next[] = Arrays.copyOf(colStarts, n);
+			for (int s = 0; s < n; s++) {
+				double sum = 0.0;
+				for (Iterator<Map.Entry<Integer, Double>> it = ctmc.getTransitionsIterator(s); it.hasNext();) {
+					Map.Entry<Integer, Double> e = it.next();
+					int t = e.getKey();
+					double prob = e.getValue() / q;
+					if (t != s) {
+						sum += prob;
+						rows[next[t]] = s;
+						values[next[t]++] = prob;
+					}
+				}
+				rows[next[s]] = s;
+				values[next[s]++] = 1 - sum;
+			}
+		}
+
+		/**
+		 * Vector-matrix multiplication, for the columns in {@code block} only.
+		 */
+		public void vmMult(double vect[], double result[], IntSet block)
+		{
+			for (PrimitiveIterator.OfInt it = block.iterator(); it.hasNext();) {
+				int t = it.nextInt();
+				double d = 0.0;
+				for (int j = colStarts[t], end = colStarts[t + 1]; j < end; j++) {
+					d += values[j] * vect[rows[j]];
+				}
+				result[t] = d;
+			}
+		}
+	}
+
 	// Utility methods
 	
 	/**
@@ -45,9 +45,10 @@ public class CTMCSimple<Value> extends DTMCSimple<Value> implements CTMC<Value>
 	 * construct a new one by calling buildImplicitEmbeddedDTMC()
 	 * <p>
 	 * We cache this so that the PredecessorRelation of the
-	 * embedded DTMC is cached.
+	 * embedded DTMC is cached. (volatile since it may be created
+	 * lazily by several threads checking properties concurrently)
 	 */
-	private DTMCEmbeddedSimple<Value> cachedEmbeddedDTMC = null;
+	private volatile DTMCEmbeddedSimple<Value> cachedEmbeddedDTMC = null;
 
 	// Constructors
 
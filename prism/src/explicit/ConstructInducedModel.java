@@ -226,7 +226,7 @@ public class ConstructInducedModel
 			Object inducedAction = null;
 			Distribution<Value> prodDistr = null;
 			if (inducedModelType.nondeterministic()) {
-				prodDistr = new Distribution<>(model.getEvaluator());
+				prodDistr = Distribution.create(model.getEvaluator());
 			}
 			// Go through choices from state s in original model
 			for (int j = 0; j < numChoices; j++) {
@@ -32,6 +32,7 @@ import java.io.FileNotFoundException;
 import java.util.BitSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Predicate;
 
 import common.Interval;
 import parser.State;
@@ -45,6 +46,7 @@ import prism.PrismException;
 import prism.PrismLog;
 import prism.PrismNotSupportedException;
 import prism.PrismPrintStreamLog;
+import prism.PrismSettings;
 import prism.ProgressDisplay;
 import prism.UndefinedConstants;
 
@@ -70,6 +72,14 @@ public class ConstructModel extends PrismComponent
 	protected boolean distinguishActions = true;
 	/** Should labels be processed and attached to the model? */
 	protected boolean attachLabels = true;
+	/** Number of threads to use for state space exploration */
+	protected int numThreads = 1;
+	/** Store states in bit-packed form during construction, if possible? */
+	protected boolean packedStates = true;
+	/** Previously built model whose transitions can be reused (null if none) */
+	protected Model<?> previousModel = null;
+	/** Test for states of the previous model whose transitions may have changed */
+	protected Predicate<State> previousModelAffected = null;
 
 	// Details of built model:
 
@@ -79,6 +89,10 @@ public class ConstructModel extends PrismComponent
 	public ConstructModel(PrismComponent parent) throws PrismException
 	{
 		super(parent);
+		if (settings != null) {
+			numThreads = settings.getInteger(PrismSettings.PRISM_NUM_THREADS);
+			packedStates = settings.getBoolean(PrismSettings.PRISM_PACKED_STATES);
+		}
 	}
 
 	/**
@@ -131,6 +145,41 @@ public class ConstructModel extends PrismComponent
 		this.attachLabels = attachLabels;
 	}
 
+	/**
+	 * Set the number of threads to use for state space exploration.
+	 * If more than 1, the outgoing transitions of states are generated concurrently
+	 * (if supported by the ModelGenerator), but the resulting model is identical.
+	 */
+	public void setNumThreads(int numThreads)
+	{
+		this.numThreads = numThreads;
+	}
+
+	/**
+	 * Store states in bit-packed form during construction, if possible?
+	 * (i.e. if all variables are bounded; see {@link PackedStateStorage})
+	 * If so, the list of states attached to the model creates {@link State} objects on demand.
+	 */
+	public void setPackedStates(boolean packedStates)
+	{
+		this.packedStates = packedStates;
+	}
+
+	/**
+	 * Reuse the transitions of a previously built model, where possible, during model construction.
+	 * For each state of {@code previousModel} for which {@code affected} returns false, the outgoing
+	 * transitions are copied from the previous model, rather than being generated by the ModelGenerator.
+	 * New states, states for which {@code affected} returns true and deadlock states are explored as usual.
+	 * The previous model must be of the same type, over the same variables and built with the same options
+	 * (e.g. whether actions are distinguished); its list of states must be attached.
+	 * Pass null to switch this off.
+	 */
+	public void setPreviousModel(Model<?> previousModel, Predicate<State> affected)
+	{
+		this.previousModel = previousModel;
+		this.previousModelAffected = affected;
+	}
+
 	/**
 	 * Build the set of reachable states for a model and return it.
 	 * @param modelGen The ModelGenerator interface providing the model 
@@ -166,6 +215,9 @@ public class ConstructModel extends PrismComponent
 		StateStorage<State> states;
 		LinkedList<State> explore;
 		State state, stateNew;
+		// Source of transitions for the state currently being explored
+		ModelGenerator<Value> gen;
+		ParallelStateExplorer<Value> parallelExplorer = null;
 		// Explicit model storage
 		ModelSimple<?> modelSimple = null;
 		DTMCSimple<Value> dtmc = null;
@@ -178,6 +230,14 @@ public class ConstructModel extends PrismComponent
 		LTSSimple<Value> lts = null;
 		Distribution<Value> distr = null;
 		Distribution<Interval<Value>> distrUnc = null;
+		// Partial-order reduction info
+		int ample, numReduced = 0;
+		// Reuse of a previously built model
+		ModelModelGenerator<Value> previousGen = null;
+		StateStorage<State> previousStates = null;
+		int sPrevious, numReused = 0;
+		// Range of choices explored
+		int iFirst, iLast;
 		// Misc
 		int i, j, nc, nt, src, dest;
 		long timer;
@@ -241,17 +301,36 @@ public class ConstructModel extends PrismComponent
 		}
 
 		// Initialise states storage
-		states = new IndexedSet<State>(true);
+		states = createStateStorage(modelGen, varList);
 		explore = new LinkedList<State>();
 		// Add initial state(s) to 'explore', 'states' and to the model
 		for (State initState : modelGen.getInitialStates()) {
 			explore.add(initState);
+			states = ensureStorable(states, initState);
 			states.add(initState);
 			if (!justReach) {
 				modelSimple.addState();
 				modelSimple.addInitialState(modelSimple.getNumStates() - 1);
 			}
 		}
+		// Set up reuse of the transitions of a previous model, if requested
+		// (states of the previous model are indexed so that indices match those in the model)
+		if (!justReach && previousModel != null && previousModel.getModelType() == modelType && previousModel.getStatesList() != null) {
+			previousGen = new ModelModelGenerator<>((Model<Value>) previousModel, modelGen);
+			previousStates = createStateStorage(modelGen, varList);
+			for (State previousState : previousModel.getStatesList()) {
+				previousStates = ensureStorable(previousStates, previousState);
+				previousStates.add(previousState);
+			}
+		}
+		// Set up multi-threaded exploration, if requested and supported
+		// (not when reusing a previous model, which is done state by state)
+		if (numThreads > 1 && previousGen == null) {
+			parallelExplorer = ParallelStateExplorer.create(modelGen, numThreads);
+			if (parallelExplorer == null) {
+				mainLog.printWarning("Multi-threaded model construction is not supported for this model; using a single thread");
+			}
+		}
 		// Explore...
 		src = -1;
 		while (!explore.isEmpty()) {
@@ -260,14 +339,38 @@ public class ConstructModel extends PrismComponent
 			state = explore.removeFirst();
 			src++;
 			// Explore all choices/transitions from this state
-			modelGen.exploreState(state);
+			// (or get them from the previous model, if unaffected by changes,
+			// or from the multi-threaded explorer)
+			sPrevious = (previousStates != null && previousStates.contains(state)) ? previousStates.get(state) : -1;
+			if (sPrevious != -1 && !previousModel.isDeadlockState(sPrevious) && !previousModelAffected.test(state)) {
+				previousGen.exploreState(sPrevious);
+				gen = previousGen;
+				numReused++;
+			} else if (parallelExplorer == null) {
+				modelGen.exploreState(state);
+				gen = modelGen;
+			} else {
+				gen = parallelExplorer.explore(state, explore);
+			}
 			// Look at each outgoing choice in turn
-			nc = modelGen.getNumChoices();
-			for (i = 0; i < nc; i++) {
+			// (or, for partial-order reduction, just one that forms an ample set on its own,
+			// provided that none of its successors have been explored yet: since states are
+			// explored in order, this ensures that every cycle of the reduced state space
+			// contains a fully expanded state)
+			nc = gen.getNumChoices();
+			iFirst = 0;
+			iLast = nc;
+			ample = (modelType == ModelType.MDP && nc > 1) ? gen.getAmpleChoice() : -1;
+			if (ample != -1 && allTargetsUnexplored(gen, ample, states, src)) {
+				iFirst = ample;
+				iLast = ample + 1;
+				numReduced++;
+			}
+			for (i = iFirst; i < iLast; i++) {
 				// If required, check for duplicate actions here
 				if (modelType.partiallyObservable()) {
-					if (((NondetModel<Value>) modelSimple).getChoiceByAction(src, modelGen.getChoiceAction(i)) != -1) {
-						String act = modelGen.getChoiceAction(i) == null ? "" : modelGen.getChoiceAction(i).toString();
+					if (((NondetModel<Value>) modelSimple).getChoiceByAction(src, gen.getChoiceAction(i)) != -1) {
+						String act = gen.getChoiceAction(i) == null ? "" : gen.getChoiceAction(i).toString();
 						String err = modelType + " is not allowed duplicate action";
 						err += " (\"" + act + "\") in state " + state.toString(modelGen);
 						throw new PrismException(err);
@@ -276,16 +379,17 @@ public class ConstructModel extends PrismComponent
 				// For nondet models, collect transitions in a Distribution
 				if (!justReach && modelType.nondeterministic()) {
 					if (!modelType.uncertain()) {
-						distr = new Distribution<>(modelGen.getEvaluator());
+						distr = Distribution.create(modelGen.getEvaluator());
 					} else {
-						distrUnc = new Distribution<>(modelGen.getIntervalEvaluator());
+						distrUnc = Distribution.create(modelGen.getIntervalEvaluator());
 					}
 				}
 				// Look at each transition in the choice
-				nt = modelGen.getNumTransitions(i);
+				nt = gen.getNumTransitions(i);
 				for (j = 0; j < nt; j++) {
-					stateNew = modelGen.computeTransitionTarget(i, j);
+					stateNew = gen.computeTransitionTarget(i, j);
 					// Is this a new state?
+					states = ensureStorable(states, stateNew);
 					if (states.add(stateNew)) {
 						// If so, add to the explore list
 						explore.add(stateNew);
@@ -299,31 +403,31 @@ public class ConstructModel extends PrismComponent
 					// Get transition action
 					Object action = null;
 					if (distinguishActions && !modelType.nondeterministic()) {
-						action = modelGen.getTransitionAction(i, j);
+						action = gen.getTransitionAction(i, j);
 					}
 					// Add transitions to model
 					if (!justReach) {
 						switch (modelType) {
 						case DTMC:
-							dtmc.addToProbability(src, dest, modelGen.getTransitionProbability(i, j), action);
+							dtmc.addToProbability(src, dest, gen.getTransitionProbability(i, j), action);
 							break;
 						case CTMC:
-							ctmc.addToProbability(src, dest, modelGen.getTransitionProbability(i, j), action);
+							ctmc.addToProbability(src, dest, gen.getTransitionProbability(i, j), action);
 							break;
 						case IDTMC:
-							idtmc.addToProbability(src, dest, modelGen.getTransitionProbabilityInterval(i, j), action);
+							idtmc.addToProbability(src, dest, gen.getTransitionProbabilityInterval(i, j), action);
 							break;
 						case MDP:
 						case POMDP:
 						case CTMDP:
-							distr.add(dest, modelGen.getTransitionProbability(i, j));
+							distr.add(dest, gen.getTransitionProbability(i, j));
 							break;
 						case IMDP:
-							distrUnc.add(dest, modelGen.getTransitionProbabilityInterval(i, j));
+							distrUnc.add(dest, gen.getTransitionProbabilityInterval(i, j));
 							break;
 						case LTS:
 							if (distinguishActions) {
-								lts.addActionLabelledTransition(src, dest, modelGen.getChoiceAction(i));
+								lts.addActionLabelledTransition(src, dest, gen.getChoiceAction(i));
 							} else {
 								lts.addTransition(src, dest);
 							}
@@ -341,25 +445,25 @@ public class ConstructModel extends PrismComponent
 				if (!justReach) {
 					if (modelType == ModelType.MDP) {
 						if (distinguishActions) {
-							mdp.addActionLabelledChoice(src, distr, modelGen.getChoiceAction(i));
+							mdp.addActionLabelledChoice(src, distr, gen.getChoiceAction(i));
 						} else {
 							mdp.addChoice(src, distr);
 						}
 					} else if (modelType == ModelType.POMDP) {
 						if (distinguishActions) {
-							pomdp.addActionLabelledChoice(src, distr, modelGen.getChoiceAction(i));
+							pomdp.addActionLabelledChoice(src, distr, gen.getChoiceAction(i));
 						} else {
 							pomdp.addChoice(src, distr);
 						}
 					} else if (modelType == ModelType.CTMDP) {
 						if (distinguishActions) {
-							ctmdp.addActionLabelledChoice(src, distr, modelGen.getChoiceAction(i));
+							ctmdp.addActionLabelledChoice(src, distr, gen.getChoiceAction(i));
 						} else {
 							ctmdp.addChoice(src, distr);
 						}
 					} else if (modelType == ModelType.IMDP) {
 						if (distinguishActions) {
-							ch = imdp.addActionLabelledChoice(src, distrUnc, modelGen.getChoiceAction(i));
+							ch = imdp.addActionLabelledChoice(src, distrUnc, gen.getChoiceAction(i));
 						} else {
 							ch = imdp.addChoice(src, distrUnc);
 						}
@@ -380,6 +484,13 @@ public class ConstructModel extends PrismComponent
 			// Print some progress info occasionally
 			progress.updateIfReady(src + 1);
 		}
+		if (parallelExplorer != null) {
+			parallelExplorer.close();
+		}
+		if (previousStates != null) {
+			previousStates.clear();
+			previousStates = null;
+		}
 
 		// Finish progress display
 		progress.update(src + 1);
@@ -388,6 +499,12 @@ public class ConstructModel extends PrismComponent
 		// Reachability complete
 		mainLog.print("Reachable states exploration" + (justReach ? "" : " and model construction"));
 		mainLog.println(" done in " + ((System.currentTimeMillis() - timer) / 1000.0) + " secs.");
+		if (previousGen != null) {
+			mainLog.println("Incremental construction: transitions of " + numReused + " of " + (src + 1) + " states reused from the previous model");
+		}
+		if (numReduced > 0) {
+			mainLog.println("Partial-order reduction: only an ample subset of choices explored in " + numReduced + " of " + (src + 1) + " states");
+		}
 		//mainLog.println(states);
 
 		// Find/fix deadlocks (if required)
@@ -401,10 +518,10 @@ public class ConstructModel extends PrismComponent
 			// Sort states and convert set to list
 			mainLog.println("Sorting reachable states list...");
 			permut = states.buildSortingPermutation();
-			statesList = states.toPermutedArrayList(permut);
+			statesList = states.toPermutedList(permut);
 			//mainLog.println(permut);
 		} else {
-			statesList = states.toArrayList();
+			statesList = states.toPermutedList(null);
 		}
 		states.clear();
 		states = null;
@@ -467,6 +584,39 @@ public class ConstructModel extends PrismComponent
 		return model;
 	}
 
+	/**
+	 * Create (empty) storage for the states of a model during construction
+	 * (bit-packed if possible; this does not apply to exact/parametric evaluation
+	 * since variable values are not then necessarily stored as Integers).
+	 */
+	private StateStorage<State> createStateStorage(ModelGenerator<?> modelGen, VarList varList)
+	{
+		if (packedStates && !modelGen.getEvaluator().exact() && !modelGen.getEvaluator().isSymbolic() && PackedStateStorage.isSupported(varList)) {
+			return new PackedStateStorage(varList);
+		} else {
+			return new IndexedSet<State>(true);
+		}
+	}
+
+	/**
+	 * Check that state {@code state} can be added to the state storage {@code states}
+	 * and, if not (i.e. it is bit-packed but the state has a variable outside its declared range,
+	 * which can happen after an update), switch to an unpacked copy of the storage.
+	 * Indices of the states stored are unchanged. Returns the storage to use.
+	 */
+	private StateStorage<State> ensureStorable(StateStorage<State> states, State state)
+	{
+		if (!(states instanceof PackedStateStorage) || ((PackedStateStorage) states).fits(state)) {
+			return states;
+		}
+		StateStorage<State> statesUnpacked = new IndexedSet<State>(true);
+		for (State s : states.toArrayList()) {
+			statesUnpacked.add(s);
+		}
+		states.clear();
+		return statesUnpacked;
+	}
+
 	private <Value> void setStateObservation(ModelGenerator<Value> modelGen, POMDPSimple<Value> pomdp, int s, State state) throws PrismException
 	{
 		// Get observation for the current state
@@ -517,6 +667,23 @@ public class ConstructModel extends PrismComponent
 		}
 	}
 
+	/**
+	 * Check whether none of the targets of the transitions of choice {@code i} in the state
+	 * currently explored by {@code gen} have been explored yet, i.e., whether they are either new
+	 * (not in {@code states}) or have an index greater than that of the current state, {@code src}.
+	 */
+	private static boolean allTargetsUnexplored(ModelGenerator<?> gen, int i, StateStorage<State> states, int src) throws PrismException
+	{
+		int nt = gen.getNumTransitions(i);
+		for (int j = 0; j < nt; j++) {
+			State target = gen.computeTransitionTarget(i, j);
+			if (states.contains(target) && states.get(target) <= src) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Test method.
 	 */
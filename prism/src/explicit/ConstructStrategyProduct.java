@@ -232,7 +232,7 @@ public class ConstructStrategyProduct
 			Object inducedAction = null;
 			Distribution<Value> prodDistr = null;
 			if (productModelType.nondeterministic()) {
-				prodDistr = new Distribution<>(model.getEvaluator());
+				prodDistr = Distribution.create(model.getEvaluator());
 			}
 			// Go through choices from state s_1 in original model
 			for (int j = 0; j < numChoices; j++) {
@@ -27,6 +27,7 @@
 package explicit;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Iterator;
@@ -47,8 +48,11 @@ import explicit.rewards.MCRewards;
 import explicit.rewards.MDPRewards;
 import explicit.rewards.Rewards;
 import io.ModelExportOptions;
+import parser.Values;
 import parser.ast.Expression;
+import parser.ast.ExpressionTemporal;
 import prism.AccuracyFactory;
+import prism.IntegerBound;
 import prism.ModelType;
 import prism.OptionsIntervalIteration;
 import prism.Prism;
@@ -556,6 +560,8 @@ public class DTMCModelChecker extends ProbModelChecker
 		case GAUSS_SEIDEL:
 		case BACKWARDS_GAUSS_SEIDEL:
 		case JACOBI:
+		case BICGSTAB:
+		case GMRES:
 			break; // supported
 		default:
 			linEqMethod = LinEqMethod.GAUSS_SEIDEL;
@@ -565,6 +571,9 @@ public class DTMCModelChecker extends ProbModelChecker
 		if (doIntervalIteration && (!precomp || !prob0 || !prob1)) {
 			throw new PrismNotSupportedException("Interval iteration requires precomputations to be active");
 		}
+		if (doIntervalIteration && isKrylovMethod(linEqMethod)) {
+			throw new PrismNotSupportedException("Interval iteration is not supported for linear equation solution method " + linEqMethod.fullName());
+		}
 
 		// Start probabilistic reachability
 		timer = System.currentTimeMillis();
@@ -635,7 +644,9 @@ public class DTMCModelChecker extends ProbModelChecker
 		mainLog.println("target=" + target.cardinality() + ", yes=" + numYes + ", no=" + numNo + ", maybe=" + (n - (numYes + numNo)));
 
 		// Compute probabilities (if needed)
-		if (numYes + numNo < n) {
+		if (numYes + numNo < n && isKrylovMethod(linEqMethod)) {
+			res = doKrylovReachProbs(dtmc, no, yes, init, known, linEqMethod);
+		} else if (numYes + numNo < n) {
 			boolean termCritAbsolute = termCrit == TermCrit.ABSOLUTE;
 			IterationMethod iterationMethod = null;
 			switch (linEqMethod) {
@@ -678,6 +689,164 @@ public class DTMCModelChecker extends ProbModelChecker
 	}
 
 
+	/**
+	 * Compute reachability probabilities using a Krylov subspace method (BiCGSTAB/GMRES),
+	 * i.e., by solving the linear equation system {@code x = P x + b} directly for the unknown states.
+	 * @param dtmc The DTMC
+	 * @param no Probability 0 states
+	 * @param yes Probability 1 states
+	 * @param init Optionally, an initial solution vector (will be overwritten)
+	 * @param known Optionally, a set of states for which the exact answer is known
+	 * @param linEqMethod The method (BiCGSTAB or GMRES)
+	 * Note: if 'known' is specified (i.e. is non-null, 'init' must also be given and is used for the exact values.
+	 */
+	protected ModelCheckerResult doKrylovReachProbs(DTMC<Double> dtmc, BitSet no, BitSet yes, double init[], BitSet known, LinEqMethod linEqMethod) throws PrismException
+	{
+		int n = dtmc.getNumStates();
+		double[] soln = (init == null) ? new double[n] : init;
+		for (int i = 0; i < n; i++) {
+			if (known == null || !known.get(i)) {
+				soln[i] = yes.get(i) ? 1.0 : no.get(i) ? 0.0 : (init == null ? 0.0 : init[i]);
+			}
+		}
+		BitSet unknown = new BitSet();
+		unknown.set(0, n);
+		unknown.andNot(yes);
+		unknown.andNot(no);
+		if (known != null)
+			unknown.andNot(known);
+		return doKrylovLinEqSolve(dtmc, unknown, soln, null, linEqMethod);
+	}
+
+	/**
+	 * Compute expected reachability rewards using a Krylov subspace method (BiCGSTAB/GMRES),
+	 * i.e., by solving the linear equation system {@code x = P x + r} directly for the unknown states.
+	 * @param dtmc The DTMC
+	 * @param mcRewards The rewards
+	 * @param target Target states
+	 * @param inf States for which reward is infinite
+	 * @param init Optionally, an initial solution vector (will be overwritten)
+	 * @param known Optionally, a set of states for which the exact answer is known
+	 * @param linEqMethod The method (BiCGSTAB or GMRES)
+	 * Note: if 'known' is specified (i.e. is non-null, 'init' must also be given and is used for the exact values.
+	 */
+	protected ModelCheckerResult doKrylovReachRewards(DTMC<Double> dtmc, MCRewards<Double> mcRewards, BitSet target, BitSet inf, double init[], BitSet known, LinEqMethod linEqMethod) throws PrismException
+	{
+		int n = dtmc.getNumStates();
+		double[] soln = (init == null) ? new double[n] : init;
+		for (int i = 0; i < n; i++) {
+			if (known == null || !known.get(i)) {
+				soln[i] = target.get(i) ? 0.0 : inf.get(i) ? Double.POSITIVE_INFINITY : (init == null ? 0.0 : init[i]);
+			}
+		}
+		BitSet unknown = new BitSet();
+		unknown.set(0, n);
+		unknown.andNot(target);
+		unknown.andNot(inf);
+		if (known != null)
+			unknown.andNot(known);
+		double[] stateRewards = new double[n];
+		for (int s = unknown.nextSetBit(0); s >= 0; s = unknown.nextSetBit(s + 1)) {
+			stateRewards[s] = mcRewards.getStateReward(s);
+		}
+		return doKrylovLinEqSolve(dtmc, unknown, soln, stateRewards, linEqMethod);
+	}
+
+	/**
+	 * Solve the linear equation system {@code x(s) = r(s) + sum_t P(s,t) x(t)} for the states {@code s}
+	 * in {@code unknown}, using a Krylov subspace method (BiCGSTAB/GMRES), where the values
+	 * {@code x(t)} for other states are taken from {@code soln} (which is also used as the
+	 * initial guess and to store the result).
+	 * @param dtmc The DTMC
+	 * @param unknown The states to solve for
+	 * @param soln Solution vector
+	 * @param rewards The values {@code r(s)} (optional: null means all zero)
+	 * @param linEqMethod The method (BiCGSTAB or GMRES)
+	 */
+	protected ModelCheckerResult doKrylovLinEqSolve(DTMC<Double> dtmc, BitSet unknown, double soln[], double rewards[], LinEqMethod linEqMethod) throws PrismException
+	{
+		KrylovSolver solver = createKrylovSolver(linEqMethod);
+		mainLog.println("Starting " + solver.getDescription() + "...");
+		long timer = System.currentTimeMillis();
+
+		// Build system (I - P) x = b over the unknown states
+		int n = dtmc.getNumStates();
+		int[] index = new int[n];
+		int numUnknown = 0;
+		for (int s = unknown.nextSetBit(0); s >= 0; s = unknown.nextSetBit(s + 1)) {
+			index[s] = numUnknown++;
+		}
+		KrylovSolver.SparseMatrixBuilder builder = new KrylovSolver.SparseMatrixBuilder(numUnknown);
+		double[] b = new double[numUnknown];
+		double[] x = new double[numUnknown];
+		for (int s = unknown.nextSetBit(0); s >= 0; s = unknown.nextSetBit(s + 1)) {
+			int i = index[s];
+			builder.add(i, i, 1.0);
+			b[i] = rewards == null ? 0.0 : rewards[s];
+			x[i] = soln[s];
+			dtmc.forEachDoubleTransition(s, (s1, t, prob) -> {
+				if (unknown.get(t)) {
+					builder.add(i, index[t], -prob);
+				} else if (soln[t] != 0.0) {
+					b[i] += prob * soln[t];
+				}
+			});
+		}
+		KrylovSolver.SparseMatrix A = builder.build();
+
+		// Solve
+		KrylovSolver.Result kRes = solver.solve(A, b, x);
+		for (int s = unknown.nextSetBit(0); s >= 0; s = unknown.nextSetBit(s + 1)) {
+			soln[s] = x[index[s]];
+		}
+		timer = System.currentTimeMillis() - timer;
+		mainLog.print(solver.getDescription() + " took " + kRes.iters + " iterations, ");
+		mainLog.print(kRes.numMults + " matrix-vector multiplications (" + A.getNumEntries() + " entries)");
+		mainLog.println(" and " + timer / 1000.0 + " seconds.");
+		mainLog.println("Relative residual: " + PrismUtils.formatDouble(kRes.relResidual) + ", final difference between iterates: " + PrismUtils.formatDouble(kRes.maxDiff));
+
+		// Non-convergence is an error (usually)
+		if (!kRes.converged && errorOnNonConverge) {
+			String msg = "Iterative method did not converge within " + kRes.iters + " iterations.";
+			msg += "\nConsider using a different numerical method or increasing the maximum number of iterations";
+			throw new PrismException(msg);
+		}
+
+		ModelCheckerResult res = new ModelCheckerResult();
+		res.soln = soln;
+		res.accuracy = AccuracyFactory.valueIteration(termCritParam, kRes.maxDiff, termCrit == TermCrit.ABSOLUTE);
+		res.numIters = kRes.iters;
+		res.timeTaken = timer / 1000.0;
+		return res;
+	}
+
+	/**
+	 * Is {@code linEqMethod} a Krylov subspace method (solved with {@link KrylovSolver})?
+	 */
+	protected static boolean isKrylovMethod(LinEqMethod linEqMethod)
+	{
+		return linEqMethod == LinEqMethod.BICGSTAB || linEqMethod == LinEqMethod.GMRES;
+	}
+
+	/**
+	 * Create a solver for Krylov subspace method {@code linEqMethod}, configured from the settings.
+	 */
+	protected KrylovSolver createKrylovSolver(LinEqMethod linEqMethod)
+	{
+		KrylovSolver.Preconditioner preconditioner = KrylovSolver.Preconditioner.ILU0;
+		int restart = 30;
+		if (settings != null) {
+			String s = settings.getString(PrismSettings.PRISM_KRYLOV_PRECONDITIONER);
+			if (s.equals("None")) {
+				preconditioner = KrylovSolver.Preconditioner.NONE;
+			} else if (s.equals("Jacobi")) {
+				preconditioner = KrylovSolver.Preconditioner.JACOBI;
+			}
+			restart = settings.getInteger(PrismSettings.PRISM_GMRES_RESTART);
+		}
+		return new KrylovSolver(this, linEqMethod, preconditioner, termCritParam, termCrit == TermCrit.ABSOLUTE, maxIters, restart);
+	}
+
 	/**
 	 * Prob0 precomputation algorithm (using predecessor relation),
 	 * i.e. determine the states of a DTMC which, with probability 0,
@@ -1198,6 +1367,124 @@ public class DTMCModelChecker extends ProbModelChecker
 		return computeBoundedReachProbs(dtmc, remain, target, k, null, null);
 	}
 
+	/**
+	 * Compute bounded until probabilities for several step bounds at once,
+	 * i.e. compute the probability of reaching a state in {@code target},
+	 * within {@code ks[i]} steps, and while remaining in states in {@code remain}, for each {@code i}.
+	 * This is done in a single pass, storing a copy of the solution vector for each bound.
+	 * @param dtmc The DTMC
+	 * @param remain Remain in these states (optional: null means "all")
+	 * @param target Target states
+	 * @param ks Bounds
+	 */
+	public ModelCheckerResult[] computeBoundedUntilProbs(DTMC<Double> dtmc, BitSet remain, BitSet target, int ks[]) throws PrismException
+	{
+		ModelCheckerResult res[] = new ModelCheckerResult[ks.length];
+		BitSet unknown;
+		int i, n, iters, maxK;
+		double soln[], soln2[], tmpsoln[];
+		long timer;
+
+		// Start bounded probabilistic reachability
+		timer = System.currentTimeMillis();
+		mainLog.println("\nStarting bounded probabilistic reachability for " + ks.length + " bounds...");
+
+		// Store num states
+		n = dtmc.getNumStates();
+
+		// Create/initialise solution vector(s)
+		soln = new double[n];
+		soln2 = new double[n];
+		for (i = 0; i < n; i++)
+			soln[i] = soln2[i] = target.get(i) ? 1.0 : 0.0;
+
+		// Determine set of states actually need to perform computation for
+		unknown = new BitSet();
+		unknown.set(0, n);
+		unknown.andNot(target);
+		if (remain != null)
+			unknown.and(remain);
+
+		// Start iterations (storing results for each bound, including 0)
+		maxK = 0;
+		for (int k : ks) {
+			maxK = Math.max(maxK, k);
+		}
+		iters = 0;
+		while (true) {
+			for (int j = 0; j < ks.length; j++) {
+				if (ks[j] == iters) {
+					res[j] = new ModelCheckerResult();
+					res[j].soln = soln.clone();
+					res[j].accuracy = AccuracyFactory.boundedNumericalIterations();
+					res[j].numIters = iters;
+				}
+			}
+			if (iters >= maxK) {
+				break;
+			}
+			iters++;
+			// Matrix-vector multiply
+			dtmc.mvMult(soln, soln2, unknown, false);
+			// Swap vectors for next iter
+			tmpsoln = soln;
+			soln = soln2;
+			soln2 = tmpsoln;
+		}
+
+		// Finished bounded probabilistic reachability
+		timer = System.currentTimeMillis() - timer;
+		mainLog.print("Bounded probabilistic reachability");
+		mainLog.println(" took " + iters + " iterations and " + timer / 1000.0 + " seconds.");
+
+		// Return results
+		for (ModelCheckerResult r : res) {
+			r.timeTaken = timer / 1000.0;
+			r.timePre = 0.0;
+		}
+		return res;
+	}
+
+	/**
+	 * Compute bounded until probabilities for step bound {@code k} (as for
+	 * {@link #computeBoundedUntilProbs(DTMC, BitSet, BitSet, int)}), using the current time-bound batch,
+	 * i.e., computing probabilities for the bounds of all checks in the batch at once if not already done.
+	 * Returns null if there is no batch for (bounded until formula) {@code expr}.
+	 */
+	public ModelCheckerResult computeBoundedUntilProbsBatched(DTMC<Double> dtmc, ExpressionTemporal expr, BitSet remain, BitSet target, int k) throws PrismException
+	{
+		List<Values> constantValuesList = getTimeBoundBatchConstantValues(expr);
+		if (constantValuesList == null) {
+			return null;
+		}
+		ModelCheckerResult res = timeBoundBatch.getResult(dtmc, k);
+		if (res == null) {
+			// Get the bounds for all checks in the batch
+			List<Integer> bounds = new ArrayList<>();
+			// (if any is invalid, just check this one individually, as usual)
+			for (Values values : constantValuesList) {
+				IntegerBound bound;
+				try {
+					bound = IntegerBound.fromExpressionTemporal(expr, values, true);
+				} catch (PrismException e) {
+					return null;
+				}
+				if (bound.hasLowerBound() || !bound.hasUpperBound()) {
+					return null;
+				}
+				bounds.add(bound.getHighestInteger());
+			}
+			List<Integer> todo = timeBoundBatch.getBoundsToCompute(bounds, k, dtmc.getNumStates());
+			mainLog.println("\nComputing probabilities for " + todo.size() + " step bounds at once (of " + bounds.size() + " checks)...");
+			ModelCheckerResult resAll[] = computeBoundedUntilProbs(dtmc, remain, target, todo.stream().mapToInt(Integer::intValue).toArray());
+			timeBoundBatch.setResults(dtmc, todo, resAll);
+			res = timeBoundBatch.getResult(dtmc, k);
+		} else {
+			mainLog.println("\nUsing probabilities previously computed for step bound " + k + ".");
+		}
+		return res;
+	}
+
 	/**
 	 * Compute bounded reachability/until probabilities.
 	 * i.e. compute the probability of reaching a state in {@code target},
@@ -1701,6 +1988,8 @@ public class DTMCModelChecker extends ProbModelChecker
 		case GAUSS_SEIDEL:
 		case BACKWARDS_GAUSS_SEIDEL:
 		case JACOBI:
+		case BICGSTAB:
+		case GMRES:
 			break; // supported
 		default:
 			linEqMethod = LinEqMethod.GAUSS_SEIDEL;
@@ -1747,7 +2036,12 @@ public class DTMCModelChecker extends ProbModelChecker
 		mainLog.println("target=" + numTarget + ", inf=" + numInf + ", rest=" + (n - (numTarget + numInf)));
 
 		// Compute rewards (if needed)
-		if (numTarget + numInf < n) {
+		if (numTarget + numInf < n && isKrylovMethod(linEqMethod)) {
+			if (doIntervalIteration) {
+				throw new PrismNotSupportedException("Interval iteration is not supported for linear equation solution method " + linEqMethod.fullName());
+			}
+			res = doKrylovReachRewards(dtmc, mcRewards, target, inf, init, known, linEqMethod);
+		} else if (numTarget + numInf < n) {
 			boolean termCritAbsolute = termCrit == TermCrit.ABSOLUTE;
 			IterationMethod iterationMethod;
 			switch (linEqMethod) {
@@ -2407,6 +2701,9 @@ public class DTMCModelChecker extends ProbModelChecker
 		if (dtmc.getModelType() != ModelType.DTMC) {
 			throw new PrismNotSupportedException("Explicit engine currently does not support steady-state computation for " + dtmc.getModelType());
 		}
+		if (isKrylovMethod(linEqMethod)) {
+			return computeSteadyStateProbsForBSCCKrylov(dtmc, states, result, bsccPostProcessor);
+		}
 		IterableBitSet bscc = new IterableBitSet(states);
 
 		// Start value iteration
@@ -2544,6 +2841,77 @@ public class DTMCModelChecker extends ProbModelChecker
 		return res;
 	}
 
+	/**
+	 * Compute steady-state probabilities for a BSCC using a Krylov subspace method (BiCGSTAB/GMRES).
+	 * We solve {@code x = x P} restricted to the BSCC, where the equation of the last BSCC state
+	 * is replaced by the normalisation condition {@code sum_i x(i) = 1}, making the system non-singular.
+	 * Arguments and result are as for
+	 * {@link #computeSteadyStateProbsForBSCC(DTMC, BitSet, double[], BSCCPostProcessor)}.
+	 */
+	protected ModelCheckerResult computeSteadyStateProbsForBSCCKrylov(DTMC<Double> dtmc, BitSet states, double result[], BSCCPostProcessor bsccPostProcessor) throws PrismException
+	{
+		KrylovSolver solver = createKrylovSolver(linEqMethod);
+		mainLog.println("Starting " + solver.getDescription() + "...");
+		StopWatch watch = new StopWatch(mainLog).start();
+
+		// Index the BSCC states
+		int numStates = dtmc.getNumStates();
+		int[] index = new int[numStates];
+		int num = 0;
+		for (int s = states.nextSetBit(0); s >= 0; s = states.nextSetBit(s + 1)) {
+			index[s] = num++;
+		}
+		int last = num - 1;
+
+		// Build transposed system (I - P)^T x = 0, with the last row replaced by (1 ... 1) x = 1
+		KrylovSolver.SparseMatrixBuilder builder = new KrylovSolver.SparseMatrixBuilder(num);
+		double[] b = new double[num];
+		double[] x = new double[num];
+		b[last] = 1.0;
+		Arrays.fill(x, 1.0 / num);
+		for (int s = states.nextSetBit(0); s >= 0; s = states.nextSetBit(s + 1)) {
+			int i = index[s];
+			builder.add(last, i, 1.0);
+			if (i != last) {
+				builder.add(i, i, 1.0);
+			}
+			dtmc.forEachDoubleTransition(s, (s1, t, prob) -> {
+				if (index[t] != last) {
+					builder.add(index[t], i, -prob);
+				}
+			});
+		}
+		KrylovSolver.SparseMatrix A = builder.build();
+		KrylovSolver.Result kRes = solver.solve(A, b, x);
+		watch.stop();
+		mainLog.print(solver.getDescription() + ": " + kRes.iters + " iterations in " + watch.elapsedSeconds() + " seconds");
+		mainLog.println(" (relative residual " + PrismUtils.formatDouble(kRes.relResidual) + ", final difference between iterates " + PrismUtils.formatDouble(kRes.maxDiff) + ").");
+
+		// Non-convergence is an error (usually)
+		if (!kRes.converged && errorOnNonConverge) {
+			String msg = "Iterative method did not converge within " + kRes.iters + " iterations.\n" +
+			             "Consider using a different numerical method or increasing the maximum number of iterations";
+			throw new PrismException(msg);
+		}
+
+		// Store solution (removing any small negative values due to round-off), normalise and post-process
+		double[] soln = result == null ? new double[numStates] : result;
+		for (int s = states.nextSetBit(0); s >= 0; s = states.nextSetBit(s + 1)) {
+			soln[s] = Math.max(0.0, x[index[s]]);
+		}
+		PrismUtils.normalise(soln, new IterableBitSet(states));
+		if (bsccPostProcessor != null) {
+			bsccPostProcessor.apply(soln, states);
+		}
+
+		ModelCheckerResult res = new ModelCheckerResult();
+		res.soln = soln;
+		res.accuracy = AccuracyFactory.valueIteration(termCritParam, kRes.maxDiff, termCrit == TermCrit.ABSOLUTE);
+		res.numIters = kRes.iters;
+		res.timeTaken = watch.elapsedSeconds();
+		return res;
+	}
+
 	/**
 	 * Compute transient probabilities
 	 * i.e. compute the probability of being in each state at time step {@code k},
@@ -373,7 +373,7 @@ public class DTMCSimple<Value> extends DTMCExplicit<Value> implements ModelSimpl
 	 */
 	public Distribution<Value> getTransitions(int s)
 	{
-		return new Distribution<>(getTransitionsIterator(s), getEvaluator());
+		return Distribution.create(getTransitionsIterator(s), getEvaluator());
 	}
 
 	// Standard methods
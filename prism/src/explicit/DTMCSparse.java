@@ -42,6 +42,7 @@ import common.iterable.PrimitiveIterable;
 import explicit.rewards.MCRewards;
 import io.ExplicitModelImporter;
 import io.IOUtils;
+import io.PrismBinaryImporter;
 import prism.Pair;
 import prism.PrismException;
 import prism.PrismNotSupportedException;
@@ -255,6 +256,11 @@ public class DTMCSparse extends DTMCExplicit<Double>
 		columns = new int[numTransitions];
 		probabilities = new double[numTransitions];
 		actions = new Object[numTransitions];
+		// Binary files already store the model in this form: copy directly
+		if (modelImporter instanceof PrismBinaryImporter) {
+			((PrismBinaryImporter) modelImporter).extractMCTransitions(rows, columns, probabilities, actions);
+			return;
+		}
 		IOUtils.MCTransitionConsumer<Double> cons = new IOUtils.MCTransitionConsumer<Double>() {
 			int sLast = -1;
 			int count = 0;
@@ -483,7 +489,7 @@ public class DTMCSparse extends DTMCExplicit<Double>
 			@Override
 			public final Entry<Integer, Distribution<Double>> apply(final Integer state)
 			{
-				final Distribution<Double> distribution = new Distribution<>(getTransitionsIterator(state), getEvaluator());
+				final Distribution<Double> distribution = Distribution.create(getTransitionsIterator(state), getEvaluator());
 				return new AbstractMap.SimpleImmutableEntry<>(state, distribution);
 			}
 		};
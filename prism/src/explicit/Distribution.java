@@ -43,6 +43,10 @@ import simulator.RandomNumberGenerator;
  * Explicit representation of a probability distribution.
  * Basically, a mapping from (integer-valued) indices to (non-zero) probabilities.
  * This is a generic class where probabilities are of type {@code Value}.
+ * <br>
+ * For probabilities of type Double, the more compact (array-based) subclass
+ * {@link DistributionDouble} is used by the static creation methods such as
+ * {@link #create(Evaluator)} and {@link #ofDouble()}.
  */
 public class Distribution<Value> implements FunctionalIterable<Entry<Integer, Value>>
 {
@@ -70,9 +74,18 @@ public class Distribution<Value> implements FunctionalIterable<Entry<Integer, Va
 	 * (with an Evaluator to match the type parameter Value)
 	 */
 	public Distribution(Evaluator<Value> eval)
+	{
+		this(eval, new HashMap<>());
+	}
+
+	/**
+	 * Create an empty distribution, stored in {@code map}
+	 * (which may be null for subclasses that use their own storage).
+	 */
+	protected Distribution(Evaluator<Value> eval, HashMap<Integer, Value> map)
 	{
 		this.eval = eval;
-		this.map = new HashMap<>();
+		this.map = map;
 	}
 
 	/**
@@ -111,13 +124,38 @@ public class Distribution<Value> implements FunctionalIterable<Entry<Integer, Va
 		distr.forEach(t -> add(permut[t.getKey()], t.getValue()));
 	}
 
+	/**
+	 * Construct an empty distribution, using the evaluator {@code eval}.
+	 * For the standard evaluator for doubles, this is a {@link DistributionDouble}.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <Value> Distribution<Value> create(Evaluator<Value> eval)
+	{
+		if (eval == Evaluator.forDouble()) {
+			return (Distribution<Value>) new DistributionDouble();
+		}
+		return new Distribution<>(eval);
+	}
+
+	/**
+	 * Construct a distribution from an iterator over transitions, using the evaluator {@code eval}.
+	 * For the standard evaluator for doubles, this is a {@link DistributionDouble}.
+	 */
+	public static <Value> Distribution<Value> create(Iterator<Entry<Integer, Value>> transitions, Evaluator<Value> eval)
+	{
+		Distribution<Value> distr = create(eval);
+		// use #add to ensure probabilities sum up for any duplicated indices
+		transitions.forEachRemaining(t -> distr.add(t.getKey(), t.getValue()));
+		return distr;
+	}
+
 	/**
 	 * Construct an empty distribution
 	 * assuming an Evaluator of type Double.
 	 */
 	public static Distribution<Double> ofDouble()
 	{
-		return new Distribution<>(Evaluator.forDouble());
+		return new DistributionDouble();
 	}
 
 	/**
@@ -126,7 +164,7 @@ public class Distribution<Value> implements FunctionalIterable<Entry<Integer, Va
 	 */
 	public static Distribution<Double> ofDouble(Iterator<Entry<Integer, Double>> transitions)
 	{
-		return new Distribution<Double>(transitions, Evaluator.forDouble());
+		return new DistributionDouble(transitions);
 	}
 
 	/**
@@ -284,6 +322,15 @@ public class Distribution<Value> implements FunctionalIterable<Entry<Integer, Va
 		return filter(t -> t.getKey() != j).map(Entry::getValue).reduce(eval.zero(), eval::add);
 	}
 
+	/**
+	 * Create a copy of this distribution
+	 * (of the same class, with the same Evaluator).
+	 */
+	public Distribution<Value> copy()
+	{
+		return new Distribution<Value>(this);
+	}
+
 	/**
 	 * Create a new distribution, based on a mapping from the indices
 	 * used in this distribution to a different set of indices.
@@ -310,15 +357,14 @@ public class Distribution<Value> implements FunctionalIterable<Entry<Integer, Va
 			return false;
 		}
 		// Check elements of distribution using evaluator equals method
-		HashMap<Integer,Value> oMap = ((Distribution<Value>) o).map;
-		if (map.size() != oMap.size()) {
+		Distribution<Value> oDistr = (Distribution<Value>) o;
+		if (size() != oDistr.size()) {
 			return false;
 		}
-		for (Map.Entry<Integer,Value> entry : map.entrySet()) {
-			Integer key = entry.getKey();
+		for (Map.Entry<Integer,Value> entry : this) {
+			int key = entry.getKey();
 			Value value = entry.getValue(); // We assume nothing maps to null
-			Value oValue = oMap.get(key);
-			if (oValue == null || !getEvaluator().equals(value, oValue)) {
+			if (!oDistr.contains(key) || !getEvaluator().equals(value, oDistr.get(key))) {
 				return false;
 			}
 		}
@@ -329,7 +375,7 @@ public class Distribution<Value> implements FunctionalIterable<Entry<Integer, Va
 	public int hashCode()
 	{
 		// Simple hash code
-		return map.size();
+		return size();
 	}
 
 	@Override
@@ -0,0 +1,383 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import common.iterable.FunctionalIterator;
+import prism.Evaluator;
+
+/**
+ * Explicit representation of a probability distribution, specialised for {@code double} probabilities.
+ * <br>
+ * Instead of a hash map, the distribution is stored as a pair of parallel arrays
+ * of indices and probabilities, sorted by index, which avoids boxing
+ * and the overheads of hash table entries. Iteration over the distribution
+ * is in ascending order of index. Apart from that, it behaves exactly like {@link Distribution}.
+ * <br>
+ * This is the representation that is used by default for distributions with
+ * an evaluator for doubles, see e.g. {@link Distribution#create(Evaluator)}.
+ */
+public class DistributionDouble extends Distribution<Double>
+{
+	/** Initial capacity of the arrays */
+	private static final int INITIAL_CAPACITY = 2;
+
+	/** Indices in the support of the distribution (ascending, first {@code size} entries used) */
+	protected int[] indices;
+	/** Probabilities for the indices (first {@code size} entries used) */
+	protected double[] probs;
+	/** Size of the support */
+	protected int size;
+
+	/**
+	 * Create an empty distribution.
+	 */
+	public DistributionDouble()
+	{
+		super(Evaluator.forDouble(), null);
+		indices = new int[INITIAL_CAPACITY];
+		probs = new double[INITIAL_CAPACITY];
+		size = 0;
+	}
+
+	/**
+	 * Copy constructor.
+	 */
+	public DistributionDouble(DistributionDouble distr)
+	{
+		super(Evaluator.forDouble(), null);
+		indices = Arrays.copyOf(distr.indices, Math.max(distr.size, INITIAL_CAPACITY));
+		probs = Arrays.copyOf(distr.probs, Math.max(distr.size, INITIAL_CAPACITY));
+		size = distr.size;
+	}
+
+	/**
+	 * Construct a distribution from an iterator over transitions.
+	 */
+	public DistributionDouble(Iterator<Entry<Integer, Double>> transitions)
+	{
+		this();
+		// use #add to ensure probabilities sum up for any duplicated indices
+		transitions.forEachRemaining(t -> add(t.getKey().intValue(), t.getValue().doubleValue()));
+	}
+
+	/**
+	 * Get the position of index {@code j} in the arrays if present;
+	 * otherwise {@code -(insertion point) - 1}.
+	 */
+	protected int find(int j)
+	{
+		// Fast path for the common case of adding indices in ascending order
+		if (size == 0 || indices[size - 1] < j) {
+			return -size - 1;
+		}
+		return Arrays.binarySearch(indices, 0, size, j);
+	}
+
+	/**
+	 * Insert index {@code j} with probability {@code prob} at position {@code pos}.
+	 */
+	protected void insert(int pos, int j, double prob)
+	{
+		if (size == indices.length) {
+			int capacity = Math.max(INITIAL_CAPACITY, size + (size >> 1) + 1);
+			indices = Arrays.copyOf(indices, capacity);
+			probs = Arrays.copyOf(probs, capacity);
+		}
+		System.arraycopy(indices, pos, indices, pos + 1, size - pos);
+		System.arraycopy(probs, pos, probs, pos + 1, size - pos);
+		indices[pos] = j;
+		probs[pos] = prob;
+		size++;
+	}
+
+	/**
+	 * Remove the entry at position {@code pos}.
+	 */
+	protected void remove(int pos)
+	{
+		System.arraycopy(indices, pos + 1, indices, pos, size - pos - 1);
+		System.arraycopy(probs, pos + 1, probs, pos, size - pos - 1);
+		size--;
+	}
+
+	@Override
+	public void clear()
+	{
+		size = 0;
+	}
+
+	@Override
+	public boolean add(int j, Double prob)
+	{
+		return add(j, prob.doubleValue());
+	}
+
+	/**
+	 * Add non-negative {@code prob} to the probability for index {@code j}.
+	 * Return boolean {@code true} if no new transition is created,
+	 * i.e., {@code false} indicates a new transition with prob > 0.
+	 *
+	 * @return {@code true} iff p(j) != 0 || prob == 0
+	 */
+	public boolean add(int j, double prob)
+	{
+		if (prob == 0.0) {
+			return true;
+		}
+		int pos = find(j);
+		if (pos >= 0) {
+			probs[pos] += prob;
+			return true;
+		}
+		insert(-pos - 1, j, prob);
+		return false;
+	}
+
+	@Override
+	public void set(int j, Double prob)
+	{
+		set(j, prob.doubleValue());
+	}
+
+	/**
+	 * Set the probability for index {@code j} to {@code prob}.
+	 */
+	public void set(int j, double prob)
+	{
+		int pos = find(j);
+		if (prob == 0.0) {
+			if (pos >= 0) {
+				remove(pos);
+			}
+		} else if (pos >= 0) {
+			probs[pos] = prob;
+		} else {
+			insert(-pos - 1, j, prob);
+		}
+	}
+
+	@Override
+	public Double get(int j)
+	{
+		return getDouble(j);
+	}
+
+	/**
+	 * Get the probability for index {@code j}.
+	 */
+	public double getDouble(int j)
+	{
+		int pos = find(j);
+		return pos >= 0 ? probs[pos] : 0.0;
+	}
+
+	@Override
+	public boolean contains(int j)
+	{
+		return find(j) >= 0;
+	}
+
+	@Override
+	public boolean isSubsetOf(BitSet set)
+	{
+		for (int k = 0; k < size; k++) {
+			if (!set.get(indices[k])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean containsOneOf(BitSet set)
+	{
+		for (int k = 0; k < size; k++) {
+			if (set.get(indices[k])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public Set<Integer> getSupport()
+	{
+		return new AbstractSet<Integer>()
+		{
+			@Override
+			public Iterator<Integer> iterator()
+			{
+				return new Iterator<Integer>()
+				{
+					int k = 0;
+
+					@Override
+					public boolean hasNext()
+					{
+						return k < size;
+					}
+
+					@Override
+					public Integer next()
+					{
+						if (k >= size) {
+							throw new NoSuchElementException();
+						}
+						return indices[k++];
+					}
+				};
+			}
+
+			@Override
+			public boolean contains(Object o)
+			{
+				return (o instanceof Integer) && DistributionDouble.this.contains((Integer) o);
+			}
+
+			@Override
+			public int size()
+			{
+				return size;
+			}
+		};
+	}
+
+	@Override
+	public FunctionalIterator<Entry<Integer, Double>> iterator()
+	{
+		return new FunctionalIterator<Entry<Integer, Double>>()
+		{
+			int k = 0;
+
+			@Override
+			public boolean hasNext()
+			{
+				return k < size;
+			}
+
+			@Override
+			public Entry<Integer, Double> next()
+			{
+				if (k >= size) {
+					throw new NoSuchElementException();
+				}
+				Entry<Integer, Double> e = new AbstractMap.SimpleImmutableEntry<>(indices[k], probs[k]);
+				k++;
+				return e;
+			}
+		};
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	@Override
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Get the index of the {@code k}th entry of the distribution
+	 * (entries are in ascending order of index).
+	 */
+	public int getIndex(int k)
+	{
+		return indices[k];
+	}
+
+	/**
+	 * Get the probability of the {@code k}th entry of the distribution
+	 * (entries are in ascending order of index).
+	 */
+	public double getProbability(int k)
+	{
+		return probs[k];
+	}
+
+	@Override
+	public Double sum()
+	{
+		double sum = 0.0;
+		for (int k = 0; k < size; k++) {
+			sum += probs[k];
+		}
+		return sum;
+	}
+
+	@Override
+	public Double sumAllBut(int j)
+	{
+		double sum = 0.0;
+		for (int k = 0; k < size; k++) {
+			if (indices[k] != j) {
+				sum += probs[k];
+			}
+		}
+		return sum;
+	}
+
+	@Override
+	public Distribution<Double> copy()
+	{
+		return new DistributionDouble(this);
+	}
+
+	@Override
+	public Distribution<Double> map(int map[])
+	{
+		DistributionDouble distr = new DistributionDouble();
+		// use #add to ensure probabilities sum up for each index
+		for (int k = 0; k < size; k++) {
+			distr.add(map[indices[k]], probs[k]);
+		}
+		return distr;
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder("{");
+		for (int k = 0; k < size; k++) {
+			if (k > 0) {
+				sb.append(", ");
+			}
+			sb.append(indices[k]).append("=").append(probs[k]);
+		}
+		return sb.append("}").toString();
+	}
+}
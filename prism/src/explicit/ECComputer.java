@@ -31,6 +31,7 @@ import java.util.List;
 
 import prism.PrismComponent;
 import prism.PrismException;
+import prism.PrismSettings;
 
 /**
  * Abstract class for (explicit) classes that compute (M)ECs, i.e. (maximal) end components,
@@ -43,7 +44,14 @@ public abstract class ECComputer extends PrismComponent
 	 */
 	public static ECComputer createECComputer(PrismComponent parent, NondetModel<?> model) throws PrismException
 	{
-		// Only one algorithm implemented currently
+		// Use the multi-threaded algorithm if more than one thread is requested
+		int numThreads = 1;
+		if (parent != null && parent.getSettings() != null) {
+			numThreads = parent.getSettings().getInteger(PrismSettings.PRISM_NUM_THREADS);
+		}
+		if (numThreads > 1) {
+			return new ECComputerParallel(parent, model, numThreads);
+		}
 		return new ECComputerDefault(parent, model);
 	}
 
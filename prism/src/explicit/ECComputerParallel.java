@@ -0,0 +1,399 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import common.IntSet;
+import prism.PrismComponent;
+import prism.PrismException;
+
+/**
+ * Multi-threaded explicit maximal end component computer for a nondeterministic model such as an MDP.
+ * <br><br>
+ * Uses the same iterative refinement as {@link ECComputerDefault} (de Alfaro, 1997):
+ * a candidate set of states is pruned of states with no choice that stays inside the set
+ * and then split into its SCCs, which become the new candidates; a candidate that is
+ * a single SCC after pruning is a MEC. Since candidates are disjoint, they are refined
+ * independently: each round processes all current candidates concurrently, and
+ * the pruning of large candidates is itself split across threads.
+ * <br><br>
+ * The MECs are returned in the same order as by {@link ECComputerDefault},
+ * so the order does not depend on the number of threads.
+ */
+public class ECComputerParallel extends ECComputer
+{
+	/** The model to compute (M)ECs for **/
+	private NondetModel<?> model;
+
+	/** Number of threads **/
+	private int numThreads;
+
+	/** Computed list of MECs **/
+	private List<BitSet> mecs = new ArrayList<BitSet>();
+
+	/** Thread pool (only during computation) */
+	private ThreadPoolExecutor executor;
+
+	/**
+	 * Build (M)EC computer for a given model, using {@code numThreads} threads.
+	 */
+	public ECComputerParallel(PrismComponent parent, NondetModel<?> model, int numThreads) throws PrismException
+	{
+		super(parent);
+		this.model = model;
+		this.numThreads = numThreads;
+	}
+
+	// Methods for ECComputer interface
+
+	@Override
+	public void computeMECStates() throws PrismException
+	{
+		mecs = findEndComponents(null, null);
+	}
+
+	@Override
+	public void computeMECStates(BitSet restrict) throws PrismException
+	{
+		mecs = findEndComponents(restrict, null);
+	}
+
+	@Override
+	public void computeMECStates(BitSet restrict, BitSet accept) throws PrismException
+	{
+		mecs = findEndComponents(restrict, accept);
+	}
+
+	@Override
+	public List<BitSet> getMECStates()
+	{
+		return mecs;
+	}
+
+	// Computation
+
+	/**
+	 * Find all accepting maximal end components (MECs) in the submodel obtained
+	 * by restricting this one to the set of states {@code restrict},
+	 * where acceptance is defined as those which intersect with {@code accept}.
+	 * If {@code restrict} is null, we look at the whole model, not a submodel.
+	 * If {@code accept} is null, the acceptance condition is trivially satisfied.
+	 * @param restrict BitSet for the set of states to restrict to
+	 * @param accept BitSet for the set of accepting states
+	 * @return a list of BitSets representing the MECs
+	 */
+	private List<BitSet> findEndComponents(BitSet restrict, BitSet accept) throws PrismException
+	{
+		List<BitSet> result = new ArrayList<BitSet>();
+		BitSet states = new BitSet();
+		if (restrict == null) {
+			states.set(0, model.getNumStates());
+		} else {
+			states.or(restrict);
+		}
+		if (states.isEmpty()) {
+			return result;
+		}
+		// Refine candidates, round by round, until all are MECs
+		Candidate root = new Candidate(states);
+		List<Candidate> candidates = new ArrayList<Candidate>();
+		candidates.add(root);
+		try {
+			while (!candidates.isEmpty()) {
+				List<BitSet> sets = new ArrayList<BitSet>(candidates.size());
+				for (Candidate candidate : candidates) {
+					sets.add(candidate.states);
+				}
+				List<List<BitSet>> refined = refineAll(sets);
+				List<Candidate> next = new ArrayList<Candidate>();
+				for (int i = 0; i < candidates.size(); i++) {
+					List<BitSet> sccs = refined.get(i);
+					if (sccs != null) {
+						// Candidate was not a MEC: its SCCs are the new candidates
+						Candidate candidate = candidates.get(i);
+						candidate.states = null;
+						candidate.children = new ArrayList<Candidate>(sccs.size());
+						for (BitSet scc : sccs) {
+							candidate.children.add(new Candidate(scc));
+						}
+						next.addAll(candidate.children);
+					}
+				}
+				candidates = next;
+			}
+		} finally {
+			if (executor != null) {
+				executor.shutdownNow();
+				executor = null;
+			}
+		}
+		// Put the MECs in the order in which ECComputerDefault finds them
+		for (Candidate mec : orderAsDefault(root)) {
+			result.add(mec.states);
+		}
+		// Filter those that contain a state in accept
+		if (accept != null) {
+			result.removeIf(mec -> !mec.intersects(accept));
+		}
+		return result;
+	}
+
+	/**
+	 * Given the tree of candidates computed by refinement, return its MECs (leaves with states)
+	 * in the order in which {@link ECComputerDefault} returns them.
+	 * That uses a queue of candidates: the first one is removed and replaced by its SCCs,
+	 * appended at the end (a MEC is appended again, as its single SCC),
+	 * until all candidates in the queue are MECs that have already been processed.
+	 * Since refining a candidate does not depend on the others, the queue can be replayed here.
+	 */
+	private static List<Candidate> orderAsDefault(Candidate root)
+	{
+		ArrayDeque<Candidate> queue = new ArrayDeque<Candidate>();
+		queue.add(root);
+		int unprocessed = 1;
+		while (unprocessed > 0) {
+			Candidate candidate = queue.poll();
+			if (candidate.children == null) {
+				if (!candidate.processed) {
+					candidate.processed = true;
+					unprocessed--;
+				}
+				queue.add(candidate);
+			} else {
+				unprocessed--;
+				queue.addAll(candidate.children);
+				unprocessed += candidate.children.size();
+			}
+		}
+		return new ArrayList<Candidate>(queue);
+	}
+
+	/**
+	 * A candidate for a MEC, as found during refinement.
+	 */
+	private static class Candidate
+	{
+		/** States of the candidate (null once it has been split) */
+		BitSet states;
+		/** SCCs that the candidate was split into (null for a MEC) */
+		List<Candidate> children;
+		/** Whether the candidate has been taken from the queue (see {@link ECComputerParallel#orderAsDefault(Candidate)}) */
+		boolean processed;
+
+		Candidate(BitSet states)
+		{
+			this.states = states;
+		}
+	}
+
+	/**
+	 * Refine each of the (disjoint) {@code candidates}, concurrently if there are several,
+	 * returning the results (see {@link #refine(BitSet, boolean)}) in the same order.
+	 */
+	private List<List<BitSet>> refineAll(List<BitSet> candidates) throws PrismException
+	{
+		List<List<BitSet>> refined = new ArrayList<List<BitSet>>(candidates.size());
+		if (candidates.size() == 1) {
+			refined.add(refine(candidates.get(0), true));
+			return refined;
+		}
+		List<Callable<List<BitSet>>> tasks = new ArrayList<>(candidates.size());
+		for (BitSet candidate : candidates) {
+			tasks.add(() -> refine(candidate, false));
+		}
+		for (Future<List<BitSet>> future : invokeAll(tasks)) {
+			refined.add(getResult(future));
+		}
+		return refined;
+	}
+
+	/**
+	 * Refine candidate {@code E}: remove (in place) all states with no choice that stays in {@code E}
+	 * and split what remains into SCCs. Returns null if {@code E} is then a single SCC, i.e., a MEC;
+	 * otherwise returns the list of (non-trivial) SCCs, which may be empty.
+	 * If {@code concurrent} is true, pruning may be split across threads
+	 * (this must not be the case when called from a worker thread).
+	 */
+	private List<BitSet> refine(BitSet E, boolean concurrent) throws PrismException
+	{
+		Map<Integer, BitSet> actions = prune(E, concurrent);
+		if (E.isEmpty()) {
+			return new ArrayList<BitSet>();
+		}
+		BitSet initialStates = new BitSet();
+		initialStates.set(E.nextSetBit(0));
+		SubNondetModel<?> submodel = new SubNondetModel<>(model, E, actions, initialStates);
+		SCCConsumerStore sccStore = new SCCConsumerStore();
+		SCCComputer sccc = SCCComputer.createSCCComputer(this, submodel, sccStore);
+		sccc.computeSCCs();
+		List<BitSet> sccs = new ArrayList<BitSet>();
+		for (BitSet scc : sccStore.getSCCs()) {
+			BitSet scc2 = new BitSet();
+			for (int j = scc.nextSetBit(0); j >= 0; j = scc.nextSetBit(j + 1)) {
+				scc2.set(submodel.translateState(j));
+			}
+			sccs.add(scc2);
+		}
+		if (sccs.size() == 1 && sccs.get(0).equals(E)) {
+			return null;
+		}
+		return sccs;
+	}
+
+	/**
+	 * Remove (in place) from {@code states} all states that have no choice staying inside it,
+	 * repeatedly until a fixpoint is reached. Returns, for each remaining state,
+	 * the set of choices that stay inside the set.
+	 * If {@code concurrent} is true, for large sets, each pass is split into
+	 * blocks of states that are checked concurrently.
+	 */
+	private Map<Integer, BitSet> prune(BitSet states, boolean concurrent) throws PrismException
+	{
+		while (true) {
+			StatePartition partition = concurrent ? StatePartition.create(IntSet.asIntSet(states), numThreads) : null;
+			List<PruneResult> results = new ArrayList<PruneResult>();
+			if (partition == null) {
+				results.add(prune(IntSet.asIntSet(states), states));
+			} else {
+				List<Callable<PruneResult>> tasks = new ArrayList<>(partition.getNumBlocks());
+				for (int b = 0; b < partition.getNumBlocks(); b++) {
+					IntSet block = partition.getBlock(b);
+					tasks.add(() -> prune(block, states));
+				}
+				for (Future<PruneResult> future : invokeAll(tasks)) {
+					results.add(getResult(future));
+				}
+			}
+			boolean changed = false;
+			for (PruneResult result : results) {
+				for (int s : result.removed) {
+					states.clear(s);
+					changed = true;
+				}
+			}
+			if (!changed) {
+				Map<Integer, BitSet> actions = new HashMap<Integer, BitSet>();
+				for (PruneResult result : results) {
+					actions.putAll(result.actions);
+				}
+				return actions;
+			}
+		}
+	}
+
+	/**
+	 * One pruning pass over the states in {@code block}, w.r.t. the set {@code states} (which is not modified).
+	 */
+	private PruneResult prune(IntSet block, BitSet states)
+	{
+		PruneResult result = new PruneResult();
+		block.forEach((int s) -> {
+			BitSet act = new BitSet();
+			int numChoices = model.getNumChoices(s);
+			for (int j = 0; j < numChoices; j++) {
+				if (model.allSuccessorsInSet(s, j, states)) {
+					act.set(j);
+				}
+			}
+			if (act.isEmpty()) {
+				result.removed.add(s);
+			} else {
+				result.actions.put(s, act);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Result of a pruning pass over a block of states.
+	 */
+	private static class PruneResult
+	{
+		/** States to be removed */
+		List<Integer> removed = new ArrayList<Integer>();
+		/** Choices staying inside the set, for the other states */
+		Map<Integer, BitSet> actions = new HashMap<Integer, BitSet>();
+	}
+
+	/**
+	 * Run {@code tasks} on the thread pool (created on demand) and wait for all of them to finish.
+	 */
+	private <T> List<Future<T>> invokeAll(List<Callable<T>> tasks) throws PrismException
+	{
+		synchronized (this) {
+			if (executor == null) {
+				executor = new ThreadPoolExecutor(numThreads, numThreads, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+					Thread thread = new Thread(r, "prism-mec");
+					thread.setDaemon(true);
+					return thread;
+				});
+				executor.allowCoreThreadTimeOut(true);
+			}
+		}
+		try {
+			return executor.invokeAll(tasks);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PrismException("Interrupted during MEC computation");
+		}
+	}
+
+	/**
+	 * Get the result of a finished task, rethrowing any exception that occurred.
+	 */
+	private static <T> T getResult(Future<T> future) throws PrismException
+	{
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PrismException("Interrupted during MEC computation");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof PrismException) {
+				throw (PrismException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new PrismException("Error during MEC computation: " + cause);
+		}
+	}
+}
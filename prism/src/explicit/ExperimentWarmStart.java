@@ -0,0 +1,170 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Solutions of unbounded reachability problems (until probabilities, reachability rewards)
+ * kept between the successive checks of a property in an experiment, i.e., for different
+ * values of property constants, so that they can be reused for later checks on the same model.
+ * <br><br>
+ * Each solution is stored under a key identifying the kind of problem (e.g. probabilities, min/max),
+ * along with the sets of target (and "remain") states it was computed for. If a later check has the
+ * same sets, e.g. because the constants only affect a probability/reward bound, the solution itself
+ * (including the results of any precomputation) is still valid and can be reused directly.
+ * Otherwise, it may still be used as the initial vector for iterative numerical solution,
+ * either when this always converges to the correct solution, or when the previous solution
+ * is guaranteed to be a lower bound (as required e.g. for maximum probabilities in MDPs):
+ * for reachability probabilities, this holds if neither the target nor the remain set has shrunk.
+ */
+public class ExperimentWarmStart
+{
+	/**
+	 * A stored solution.
+	 */
+	private static class Entry
+	{
+		/** Remain states (null means "all") */
+		BitSet remain;
+		/** Target states */
+		BitSet target;
+		/** The result (the solution vector is not shared with anything else) */
+		ModelCheckerResult res;
+	}
+
+	/** The model for which solutions are stored (null if none) */
+	private Model<?> model = null;
+	/** Stored solutions, for each key */
+	private final Map<String, Entry> entries = new HashMap<>();
+
+	/**
+	 * Get a copy of the result stored under {@code key}, if it was computed
+	 * for the same model and target/remain states. Returns null otherwise.
+	 * @param model The model
+	 * @param key Key identifying the problem (e.g. "P:min")
+	 * @param remain Remain states (null means "all")
+	 * @param target Target states
+	 */
+	public ModelCheckerResult getResult(Model<?> model, String key, BitSet remain, BitSet target)
+	{
+		Entry entry = getEntry(model, key);
+		if (entry == null || !sameSet(remain, entry.remain) || !target.equals(entry.target)) {
+			return null;
+		}
+		ModelCheckerResult res = new ModelCheckerResult();
+		res.soln = entry.res.soln.clone();
+		res.accuracy = entry.res.accuracy;
+		res.strat = entry.res.strat;
+		res.numIters = 0;
+		return res;
+	}
+
+	/**
+	 * Get a copy of the solution vector stored under {@code key}, for use as the initial vector
+	 * for iterative numerical solution, or null if there is none (or it is not suitable).
+	 * If {@code anyInit} is false, a solution is only returned if it is a lower bound,
+	 * i.e., if neither the remain nor the target states have shrunk since it was computed.
+	 * @param model The model
+	 * @param key Key identifying the problem (e.g. "P:min")
+	 * @param remain Remain states (null means "all")
+	 * @param target Target states
+	 * @param anyInit Does the numerical method converge from any initial vector?
+	 */
+	public double[] getInitialValues(Model<?> model, String key, BitSet remain, BitSet target, boolean anyInit)
+	{
+		Entry entry = getEntry(model, key);
+		if (entry == null) {
+			return null;
+		}
+		if (!anyInit && !(isSubset(entry.remain, remain) && isSubset(entry.target, target))) {
+			return null;
+		}
+		return entry.res.soln.clone();
+	}
+
+	/**
+	 * Store (a copy of) the result {@code res} under {@code key}, replacing any previous one.
+	 * Solutions stored for a different model are discarded first.
+	 * @param model The model
+	 * @param key Key identifying the problem (e.g. "P:min")
+	 * @param remain Remain states (null means "all")
+	 * @param target Target states
+	 * @param res The result
+	 */
+	public void store(Model<?> model, String key, BitSet remain, BitSet target, ModelCheckerResult res)
+	{
+		if (this.model != model) {
+			entries.clear();
+			this.model = model;
+		}
+		if (res == null || res.soln == null) {
+			entries.remove(key);
+			return;
+		}
+		Entry entry = new Entry();
+		entry.remain = remain == null ? null : (BitSet) remain.clone();
+		entry.target = (BitSet) target.clone();
+		entry.res = new ModelCheckerResult();
+		entry.res.soln = res.soln.clone();
+		entry.res.accuracy = res.accuracy;
+		entry.res.strat = res.strat;
+		entries.put(key, entry);
+	}
+
+	/**
+	 * Get the entry for {@code key}, if there is one for model {@code model}.
+	 */
+	private Entry getEntry(Model<?> model, String key)
+	{
+		return this.model == model ? entries.get(key) : null;
+	}
+
+	/**
+	 * Check whether two sets of states are equal (null meaning "all").
+	 */
+	private static boolean sameSet(BitSet a, BitSet b)
+	{
+		return a == null ? b == null : a.equals(b);
+	}
+
+	/**
+	 * Check whether {@code a} is a subset of {@code b} (null meaning "all").
+	 */
+	private static boolean isSubset(BitSet a, BitSet b)
+	{
+		if (b == null) {
+			return true;
+		}
+		if (a == null) {
+			return false;
+		}
+		BitSet diff = (BitSet) a.clone();
+		diff.andNot(b);
+		return diff.isEmpty();
+	}
+}
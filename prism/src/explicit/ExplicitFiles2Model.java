@@ -33,6 +33,7 @@ import java.util.List;
 
 import common.Interval;
 import io.ExplicitModelImporter;
+import io.PrismBinaryImporter;
 import parser.State;
 import prism.Evaluator;
 import prism.ModelInfo;
@@ -150,6 +151,10 @@ public class ExplicitFiles2Model extends PrismComponent
 		}
 
 		model.findDeadlocks(fixdl);
+		// Binary files also record deadlocks that were fixed before export
+		if (modelImporter instanceof PrismBinaryImporter) {
+			((PrismBinaryImporter) modelImporter).extractDeadlockStates(model::addDeadlockState);
+		}
 
 		loadStates(modelImporter, model);
 
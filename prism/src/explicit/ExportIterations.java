@@ -163,7 +163,7 @@ public class ExportIterations {
 	 * is incremented each time a unique filename with the same prefix is
 	 * requested.
 	 */
-	public static String getUniqueFilename(String prefix)
+	public static synchronized String getUniqueFilename(String prefix)
 	{
 		int count = counts.getOrDefault(prefix, 0);
 		counts.put(prefix, count+1);
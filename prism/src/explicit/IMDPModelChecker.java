@@ -607,11 +607,11 @@ public class IMDPModelChecker extends ProbModelChecker
 			imdp.addState();
 			imdp.addInitialState(0);
 			Distribution<Interval<Double>> distr;
-			distr = new Distribution<>(eval);
+			distr = Distribution.create(eval);
 			distr.add(1, new Interval<Double>(0.2, 0.4));
 			distr.add(2, new Interval<Double>(0.6, 0.8));
 			imdp.addActionLabelledChoice(0, distr, "a");
-			distr = new Distribution<>(eval);
+			distr = Distribution.create(eval);
 			distr.add(1, new Interval<Double>(0.1, 0.3));
 			distr.add(2, new Interval<Double>(0.7, 0.9));
 			imdp.addActionLabelledChoice(0, distr, "b");
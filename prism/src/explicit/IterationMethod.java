@@ -207,6 +207,8 @@ public abstract class IterationMethod {
 		protected double[] soln2;
 		/** Post processing, may be null */
 		protected final IterationPostProcessor postProcessor;
+		/** Partition of the states for multi-threaded iteration (most recently used, may be null) */
+		protected StatePartition partition;
 
 		/** Constructor */
 		protected TwoVectorIteration(Model<?> model, IterationMethod.IterationPostProcessor postProcessor)
@@ -228,11 +230,48 @@ public abstract class IterationMethod {
 		/** Perform one iteration */
 		public abstract void doIterate(IntSet states) throws PrismException;
 
+		/**
+		 * Can the iteration step be split into independent steps for blocks of states
+		 * that are performed concurrently? Currently, this is the case
+		 * for the models with an immutable sparse matrix representation.
+		 */
+		protected boolean supportsMultiThreading()
+		{
+			return model instanceof DTMCSparse || model instanceof MDPSparse;
+		}
+
+		/**
+		 * Get a partition of {@code states} for a multi-threaded iteration step,
+		 * or null if the step should be done by a single thread.
+		 */
+		protected StatePartition getPartition(IntSet states)
+		{
+			if (numThreads <= 1 || !supportsMultiThreading()) {
+				return null;
+			}
+			// the same set of states is typically iterated over many times, so reuse the partition
+			if (partition == null || !partition.isFor(states, numThreads)) {
+				partition = StatePartition.create(states, numThreads);
+			}
+			return partition;
+		}
+
+		/** Perform one iteration, using multiple threads if possible */
+		protected void doIterateAll(IntSet states) throws PrismException
+		{
+			StatePartition partition = getPartition(states);
+			if (partition == null) {
+				doIterate(states);
+			} else {
+				partition.forEach(this::doIterate);
+			}
+		}
+
 		@Override
 		public void iterate(IntSet states) throws PrismException
 		{
 			// do the iteration
-			doIterate(states);
+			doIterateAll(states);
 			// optionally, post processing
 			if (postProcessor != null) {
 				postProcessor.apply(soln, soln2, states);
@@ -247,14 +286,25 @@ public abstract class IterationMethod {
 		@Override
 		public boolean iterateAndCheckConvergence(IntSet states) throws PrismException
 		{
-			// do the iteration
-			doIterate(states);
-			// optionally, post processing
-			if (postProcessor != null) {
-				postProcessor.apply(soln, soln2, states);
+			StatePartition partition = getPartition(states);
+			boolean done;
+			if (partition != null && postProcessor == null) {
+				// multi-threaded: do the iteration and check convergence for each block
+				// (convergence means convergence for all blocks, so the result is deterministic)
+				done = partition.allMatch(block -> {
+					doIterate(block);
+					return PrismUtils.doublesAreClose(soln, soln2, block.iterator(), termCritParam, absolute);
+				});
+			} else {
+				// do the iteration
+				doIterateAll(states);
+				// optionally, post processing
+				if (postProcessor != null) {
+					postProcessor.apply(soln, soln2, states);
+				}
+				// check convergence (on the set of states)
+				done = PrismUtils.doublesAreClose(soln, soln2, states.iterator(), termCritParam, absolute);
 			}
-			// check convergence (on the set of states)
-			boolean done = PrismUtils.doublesAreClose(soln, soln2, states.iterator(), termCritParam, absolute);
 
 			// switch vectors
 			double[] tmp = soln;
@@ -314,6 +364,8 @@ public abstract class IterationMethod {
 	protected final boolean absolute;
 	/** Convergence check: epsilon value */
 	protected final double termCritParam;
+	/** Number of threads for (row-partitioned) iteration steps, where supported */
+	protected int numThreads = 1;
 
 	/**
 	 * Constructor.
@@ -461,6 +513,7 @@ public abstract class IterationMethod {
 	{
 		int iters = 0;
 		final int maxIters = mc.maxIters;
+		numThreads = mc.numThreads;
 		boolean done = false;
 
 		PeriodicTimer updatesTimer = new PeriodicTimer(ProbModelChecker.UPDATE_DELAY);
@@ -526,6 +579,7 @@ public abstract class IterationMethod {
 		int iters = 0;
 		long mvCount = 0;
 		final int maxIters = mc.maxIters;
+		numThreads = mc.numThreads;
 		double error = 0.0;
 
 		int numSCCs = sccs.getNumSCCs();
@@ -638,6 +692,7 @@ public abstract class IterationMethod {
 			// Start iterations
 			int iters = 0;
 			final int maxIters = mc.maxIters;
+			numThreads = mc.numThreads;
 			boolean done = false;
 			double maxError = Double.POSITIVE_INFINITY;
 
@@ -733,6 +788,7 @@ public abstract class IterationMethod {
 			int iters = 0;
 			long mvCount = 0;
 			final int maxIters = mc.maxIters;
+			numThreads = mc.numThreads;
 			double maxError = Double.POSITIVE_INFINITY;
 
 			PeriodicTimer updatesTimer = new PeriodicTimer(ProbModelChecker.UPDATE_DELAY);
@@ -873,6 +929,186 @@ public abstract class IterationMethod {
 		}
 	}
 
+	/**
+	 * Perform the actual work of an optimistic value iteration (Hartmanns and Kaminski, CAV 2020),
+	 * i.e., iterate until convergence or abort.
+	 * <br><br>
+	 * Value iteration from below is performed until (apparent) convergence. Then, an upper bound
+	 * is guessed from the lower values and checked by iterating from both bounds: as soon as an
+	 * iteration step does not increase any upper value, the new upper values are an inductive
+	 * upper bound and the result is sound. If the guess turns out to be wrong, value iteration
+	 * from below resumes, with a smaller precision. Unlike interval iteration, this needs
+	 * no a-priori upper bound.
+	 *
+	 * @param mc ProbModelChecker (for log and settings)
+	 * @param description Description (for logging)
+	 * @param below The iteration object for the value iteration from below
+	 * @param above The iteration object for the iteration from the guessed upper bounds (must not enforce monotonicity)
+	 * @param unknownStates The set of unknown states, i.e., whose value should be determined
+	 * @param maxValue The maximum possible value (e.g., 1 for probabilities), used to cap guesses
+	 * @param startTime The start time (for logging purposes, obtained from a call to System.currentTimeMillis())
+	 * @param iterationsExport an ExportIterations object (optional, ignored if null)
+	 * @return a ModelChecker result with the solution vector and statistics
+	 * @throws PrismException on non-convergence (if mc.errorOnNonConverge is set)
+	 */
+	public ModelCheckerResult doOptimisticValueIteration(ProbModelChecker mc, String description, IterationValIter below, IterationIntervalIter above, IntSet unknownStates, double maxValue, long timer, ExportIterations iterationsExport) throws PrismException {
+		try {
+			// Start iterations
+			int iters = 0;
+			int itersVerify = 0;
+			int numGuesses = 0;
+			final int maxIters = mc.maxIters;
+			numThreads = mc.numThreads;
+			boolean done = false;
+			double precision = termCritParam;
+			double maxError = Double.POSITIVE_INFINITY;
+			double[] upperPrev = null;
+
+			PeriodicTimer updatesTimer = new PeriodicTimer(ProbModelChecker.UPDATE_DELAY);
+			updatesTimer.start();
+
+			while (!done && iters < maxIters) {
+				// Iterate from below until converged (w.r.t. the current precision)
+				boolean converged = false;
+				while (!converged && iters < maxIters) {
+					iters++;
+					below.iterateAndCheckConvergence(unknownStates);
+					converged = below.getError() < precision;
+
+					if (iterationsExport != null)
+						iterationsExport.exportVector(below.getSolnVector(), 0);
+
+					if (!converged && updatesTimer.triggered()) {
+						mc.getLog().print("Iteration " + iters + ": ");
+						mc.getLog().println(PrismUtils.formatDouble2dp(updatesTimer.elapsedMillisTotal() / 1000.0) + " sec so far");
+					}
+				}
+				if (!converged) {
+					break;
+				}
+
+				// Guess upper bound
+				numGuesses++;
+				final double[] lower = below.getSolnVector();
+				final double[] upper = lower.clone();
+				unknownStates.forEach((int s) -> {
+					upper[s] = Math.min(maxValue, absolute ? lower[s] + termCritParam : lower[s] * (1 + termCritParam));
+				});
+				above.init(upper);
+				if (upperPrev == null) {
+					upperPrev = new double[upper.length];
+				}
+
+				// Verify it, iterating from both bounds (at most as many iterations as were done so far)
+				int maxItersVerify = iters;
+				for (int i = 0; i < maxItersVerify && iters < maxIters; i++) {
+					iters++;
+					itersVerify++;
+					double[] upperCurrent = above.getSolnVector();
+					for (PrimitiveIterator.OfInt it = unknownStates.iterator(); it.hasNext();) {
+						int s = it.nextInt();
+						upperPrev[s] = upperCurrent[s];
+					}
+					below.iterateAndCheckConvergence(unknownStates);
+					above.iterate(unknownStates);
+
+					if (iterationsExport != null) {
+						iterationsExport.exportVector(below.getSolnVector(), 0);
+						iterationsExport.exportVector(above.getSolnVector(), 1);
+					}
+
+					int check = optimisticValueIterationCheck(below.getSolnVector(), upperPrev, above.getSolnVector(), unknownStates.iterator());
+					if (check > 0) {
+						done = true;
+						break;
+					} else if (check < 0) {
+						break;
+					}
+				}
+
+				if (done) {
+					maxError = PrismUtils.measureSupNormInterval(below.getSolnVector(), above.getSolnVector(), absolute, unknownStates.iterator());
+					mc.getLog().println("Max " + (!absolute ? "relative ": "") +
+							"diff between upper and lower bound on convergence: " + PrismUtils.formatDouble(LOGGING_PRECISION, maxError));
+				} else {
+					// Guess was wrong (or could not be verified), continue from below with smaller precision
+					precision /= 2;
+				}
+			}
+
+			// Finished optimistic value iteration
+			long mvCount = (long) (iters + itersVerify) * below.getModel().getNumTransitions(unknownStates.iterator());
+			timer = System.currentTimeMillis() - timer;
+			mc.getLog().print("Optimistic value iteration (" + description + ")");
+			mc.getLog().print(" took " + iters + " iterations (" + itersVerify + " for verification of " + numGuesses + " guesses), ");
+			mc.getLog().print(mvCount + " multiplications");
+			mc.getLog().println(" and " + timer / 1000.0 + " seconds.");
+
+			if (done && OptionsIntervalIteration.from(mc.getSettings()).isSelectMidpointForResult()) {
+				PrismUtils.selectMidpoint(below.getSolnVector(), above.getSolnVector());
+
+				if (iterationsExport != null) {
+					// export midpoint
+					iterationsExport.exportVector(below.getSolnVector(), 0);
+					iterationsExport.exportVector(below.getSolnVector(), 1);
+				}
+			}
+
+			// Non-convergence is an error (usually)
+			if (!done && mc.errorOnNonConverge) {
+				String msg = "Iterative method (optimistic value iteration) did not converge within " + iters + " iterations.";
+				msg += "\nConsider using a different numerical method or increasing the maximum number of iterations";
+				throw new PrismException(msg);
+			}
+
+			// Return results
+			ModelCheckerResult res = new ModelCheckerResult();
+			res.soln = below.getSolnVector();
+			res.accuracy = done ? AccuracyFactory.guaranteedNumericalIterative(maxError, absolute) : AccuracyFactory.valueIteration(termCritParam, below.getError(), absolute);
+			res.numIters = iters;
+			res.timeTaken = timer / 1000.0;
+			return res;
+		} finally {
+			if (iterationsExport != null)
+				iterationsExport.close();
+		}
+	}
+
+	/**
+	 * Check the result of a verification step in optimistic value iteration.
+	 * Returns 1 if no upper value increased, i.e., the new upper values are
+	 * an inductive (and thus sound) upper bound; -1 if the guess is known to be wrong,
+	 * i.e., some lower value exceeds the upper one, or all upper values increased (or stayed the same);
+	 * and 0 if undecided.
+	 * @param lower the current lower solution vector
+	 * @param upperPrev the previous upper solution vector
+	 * @param upper the current upper solution vector
+	 * @param states iterator over the states in question
+	 */
+	private static int optimisticValueIterationCheck(double[] lower, double[] upperPrev, double[] upper, PrimitiveIterator.OfInt states)
+	{
+		boolean allDown = true;
+		boolean allUp = true;
+		boolean someChange = false;
+		while (states.hasNext()) {
+			int s = states.nextInt();
+			if (lower[s] > upper[s]) {
+				return -1;
+			}
+			if (upper[s] > upperPrev[s]) {
+				allDown = false;
+				someChange = true;
+			} else if (upper[s] < upperPrev[s]) {
+				allUp = false;
+				someChange = true;
+			}
+		}
+		if (allDown) {
+			return 1;
+		}
+		return (allUp && someChange) ? -1 : 0;
+	}
+
 	/**
 	 * Compares the current lower and upper solution vectors in an interval iteration
 	 * and throws an exception if lower bound values are larger than upper bound values,
@@ -0,0 +1,676 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.Arrays;
+
+import explicit.ProbModelChecker.LinEqMethod;
+import prism.PrismComponent;
+import prism.PrismException;
+import prism.PrismUtils;
+
+/**
+ * Preconditioned Krylov subspace solvers (BiCGSTAB and restarted GMRES)
+ * for sparse linear equation systems {@code A x = b}, where {@code A} is stored
+ * in compressed sparse row (CSR) format (see {@link SparseMatrix}).
+ * <br><br>
+ * Unlike the stationary iterative methods (Jacobi, Gauss-Seidel, ...),
+ * convergence does not depend on the spectral radius of the iteration matrix,
+ * which makes these methods much faster for ill-conditioned (e.g., stiff) Markov chains.
+ * Iteration stops when, as for the stationary methods, the difference between successive
+ * iterates is below the termination epsilon for every element (relative or absolute),
+ * and the 2-norm of the residual {@code b - A x}, relative to that of {@code b}, is also below epsilon.
+ * For the relative criterion, differences at the level of floating-point round-off
+ * (relative to the largest element of the solution) are ignored, since they cannot be reduced further.
+ * Both methods use right preconditioning, so the residual is that of the original system.
+ */
+class KrylovSolver extends PrismComponent
+{
+	/** Preconditioner */
+	public enum Preconditioner {
+		NONE, JACOBI, ILU0;
+		public String fullName()
+		{
+			switch (this) {
+			case NONE:
+				return "None";
+			case JACOBI:
+				return "Jacobi";
+			case ILU0:
+				return "ILU(0)";
+			default:
+				return this.toString();
+			}
+		}
+	};
+
+	/**
+	 * Square sparse matrix, in compressed sparse row (CSR) format,
+	 * with the column indices of each row sorted in ascending order.
+	 */
+	public static class SparseMatrix
+	{
+		/** Number of rows/columns */
+		public final int n;
+		/** Start of each row in {@code cols}/{@code vals} (size n+1) */
+		public final int[] rowStarts;
+		/** Column indices */
+		public final int[] cols;
+		/** Values */
+		public final double[] vals;
+
+		private SparseMatrix(int n, int[] rowStarts, int[] cols, double[] vals)
+		{
+			this.n = n;
+			this.rowStarts = rowStarts;
+			this.cols = cols;
+			this.vals = vals;
+		}
+
+		/** Get the number of non-zero entries */
+		public int getNumEntries()
+		{
+			return rowStarts[n];
+		}
+
+		/** Compute {@code y = A x} */
+		public void mult(double[] x, double[] y)
+		{
+			for (int i = 0; i < n; i++) {
+				double d = 0.0;
+				for (int p = rowStarts[i], end = rowStarts[i + 1]; p < end; p++) {
+					d += vals[p] * x[cols[p]];
+				}
+				y[i] = d;
+			}
+		}
+	}
+
+	/**
+	 * Builder for a {@link SparseMatrix}: entries can be added in any order,
+	 * duplicate entries are summed.
+	 */
+	public static class SparseMatrixBuilder
+	{
+		private final int n;
+		private int size = 0;
+		private int[] rows;
+		private int[] cols;
+		private double[] vals;
+
+		public SparseMatrixBuilder(int n)
+		{
+			this.n = n;
+			rows = new int[Math.max(16, 4 * n)];
+			cols = new int[rows.length];
+			vals = new double[rows.length];
+		}
+
+		/** Add {@code val} to entry ({@code row},{@code col}) */
+		public void add(int row, int col, double val)
+		{
+			if (size == rows.length) {
+				int newLength = rows.length * 2;
+				rows = Arrays.copyOf(rows, newLength);
+				cols = Arrays.copyOf(cols, newLength);
+				vals = Arrays.copyOf(vals, newLength);
+			}
+			rows[size] = row;
+			cols[size] = col;
+			vals[size] = val;
+			size++;
+		}
+
+		/** Build the matrix */
+		public SparseMatrix build()
+		{
+			// Bucket entries by row
+			int[] rowStarts = new int[n + 1];
+			for (int e = 0; e < size; e++) {
+				rowStarts[rows[e] + 1]++;
+			}
+			for (int i = 0; i < n; i++) {
+				rowStarts[i + 1] += rowStarts[i];
+			}
+			int[] next = Arrays.copyOf(rowStarts, n);
+			int[] order = new int[size];
+			for (int e = 0; e < size; e++) {
+				order[next[rows[e]]++] = e;
+			}
+			// Sort each row by column and merge duplicates
+			int[] newCols = new int[size];
+			double[] newVals = new double[size];
+			int[] newRowStarts = new int[n + 1];
+			long[] keys = new long[0];
+			int count = 0;
+			for (int i = 0; i < n; i++) {
+				int len = rowStarts[i + 1] - rowStarts[i];
+				if (keys.length < len) {
+					keys = new long[Math.max(len, 2 * keys.length)];
+				}
+				// sort (column, entry) pairs, packed into longs
+				for (int k = 0; k < len; k++) {
+					int e = order[rowStarts[i] + k];
+					keys[k] = ((long) cols[e] << 32) | e;
+				}
+				Arrays.sort(keys, 0, len);
+				newRowStarts[i] = count;
+				for (int k = 0; k < len; k++) {
+					int col = (int) (keys[k] >>> 32);
+					int e = (int) keys[k];
+					if (count > newRowStarts[i] && newCols[count - 1] == col) {
+						newVals[count - 1] += vals[e];
+					} else {
+						newCols[count] = col;
+						newVals[count] = vals[e];
+						count++;
+					}
+				}
+			}
+			newRowStarts[n] = count;
+			return new SparseMatrix(n, newRowStarts, Arrays.copyOf(newCols, count), Arrays.copyOf(newVals, count));
+		}
+	}
+
+	/**
+	 * Result of solving a linear equation system.
+	 */
+	public static class Result
+	{
+		/** Did the method converge? */
+		public boolean converged;
+		/** Number of iterations */
+		public int iters;
+		/** Number of matrix-vector multiplications */
+		public long numMults;
+		/** Final residual 2-norm, relative to that of the right-hand side */
+		public double relResidual;
+		/** Final maximum difference between successive iterates (relative or absolute) */
+		public double maxDiff;
+	}
+
+	/** Differences below this, relative to the largest absolute element, are treated as round-off */
+	private static final double ROUND_OFF = 1e-14;
+
+	/** Method (a Krylov subspace method, i.e., BiCGSTAB or GMRES) */
+	private final LinEqMethod method;
+	/** Preconditioner */
+	private Preconditioner preconditioner;
+	/** Termination epsilon */
+	private final double epsilon;
+	/** Use absolute (rather than relative) differences between iterates for termination? */
+	private final boolean absolute;
+	/** Maximum number of iterations */
+	private final int maxIters;
+	/** Restart (Krylov subspace dimension) for GMRES */
+	private final int restart;
+
+	// Preconditioner storage
+	/** Jacobi: inverted diagonal */
+	private double[] invDiag;
+	/** ILU(0): combined L (strictly lower, unit diagonal implicit) and U factors, same pattern as A */
+	private double[] lu;
+	/** ILU(0): position of the diagonal entry in each row */
+	private int[] diagPos;
+	/** The matrix (for the ILU(0) pattern) */
+	private SparseMatrix A;
+
+	/**
+	 * Create a solver.
+	 * @param parent Parent component (for log and settings)
+	 * @param method The Krylov subspace method (BiCGSTAB or GMRES)
+	 * @param preconditioner The preconditioner
+	 * @param epsilon Termination epsilon
+	 * @param absolute Whether the difference between iterates is checked absolutely (rather than relatively)
+	 * @param maxIters Maximum number of iterations
+	 * @param restart For GMRES, the number of iterations after which to restart
+	 */
+	public KrylovSolver(PrismComponent parent, LinEqMethod method, Preconditioner preconditioner, double epsilon, boolean absolute, int maxIters, int restart)
+	{
+		super(parent);
+		this.method = method;
+		this.preconditioner = preconditioner;
+		this.epsilon = epsilon;
+		this.absolute = absolute;
+		this.maxIters = maxIters;
+		this.restart = restart;
+	}
+
+	/**
+	 * Get a description of the method and preconditioner (for logging).
+	 */
+	public String getDescription()
+	{
+		return method.fullName() + (preconditioner == Preconditioner.NONE ? "" : ", " + preconditioner.fullName() + " preconditioner");
+	}
+
+	/**
+	 * Solve {@code A x = b}. On entry, {@code x} contains the initial guess;
+	 * on exit, the solution.
+	 */
+	public Result solve(SparseMatrix A, double[] b, double[] x) throws PrismException
+	{
+		this.A = A;
+		setUpPreconditioner(A);
+		Result res;
+		switch (method) {
+		case BICGSTAB:
+			res = solveBiCGSTAB(A, b, x);
+			break;
+		case GMRES:
+			res = solveGMRES(A, b, x);
+			break;
+		default:
+			throw new PrismException("Linear equation solution method " + method.fullName() + " is not a Krylov subspace method");
+		}
+		// Free preconditioner storage
+		invDiag = lu = null;
+		diagPos = null;
+		this.A = null;
+		return res;
+	}
+
+	// Preconditioners
+
+	private void setUpPreconditioner(SparseMatrix A)
+	{
+		int n = A.n;
+		if (preconditioner == Preconditioner.JACOBI) {
+			invDiag = new double[n];
+			for (int i = 0; i < n; i++) {
+				double d = 0.0;
+				for (int p = A.rowStarts[i]; p < A.rowStarts[i + 1]; p++) {
+					if (A.cols[p] == i) {
+						d = A.vals[p];
+					}
+				}
+				invDiag[i] = d == 0.0 ? 1.0 : 1.0 / d;
+			}
+		} else if (preconditioner == Preconditioner.ILU0) {
+			if (!factoriseILU0(A)) {
+				getLog().printWarning("ILU(0) factorisation failed (zero pivot), switching to Jacobi preconditioner");
+				lu = null;
+				diagPos = null;
+				preconditioner = Preconditioner.JACOBI;
+				setUpPreconditioner(A);
+			}
+		}
+	}
+
+	/**
+	 * Compute the incomplete LU factorisation with zero fill-in of {@code A}.
+	 * Returns false if a zero pivot is encountered.
+	 */
+	private boolean factoriseILU0(SparseMatrix A)
+	{
+		int n = A.n;
+		lu = A.vals.clone();
+		diagPos = new int[n];
+		int[] pos = new int[n];
+		Arrays.fill(pos, -1);
+		for (int i = 0; i < n; i++) {
+			int start = A.rowStarts[i], end = A.rowStarts[i + 1];
+			diagPos[i] = -1;
+			for (int p = start; p < end; p++) {
+				pos[A.cols[p]] = p;
+				if (A.cols[p] == i) {
+					diagPos[i] = p;
+				}
+			}
+			// Eliminate entries left of the diagonal, using rows k < i
+			for (int p = start; p < end && A.cols[p] < i; p++) {
+				int k = A.cols[p];
+				if (diagPos[k] < 0 || lu[diagPos[k]] == 0.0) {
+					return false;
+				}
+				double lik = lu[p] / lu[diagPos[k]];
+				lu[p] = lik;
+				for (int q = diagPos[k] + 1; q < A.rowStarts[k + 1]; q++) {
+					int j = pos[A.cols[q]];
+					if (j >= 0) {
+						lu[j] -= lik * lu[q];
+					}
+				}
+			}
+			for (int p = start; p < end; p++) {
+				pos[A.cols[p]] = -1;
+			}
+			if (diagPos[i] < 0 || lu[diagPos[i]] == 0.0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** Compute {@code z = M^-1 r} for the preconditioner {@code M} */
+	private void applyPreconditioner(double[] r, double[] z)
+	{
+		int n = r.length;
+		switch (preconditioner) {
+		case JACOBI:
+			for (int i = 0; i < n; i++) {
+				z[i] = invDiag[i] * r[i];
+			}
+			break;
+		case ILU0:
+			// Forward substitution with L (unit diagonal)
+			for (int i = 0; i < n; i++) {
+				double d = r[i];
+				for (int p = A.rowStarts[i]; p < diagPos[i]; p++) {
+					d -= lu[p] * z[A.cols[p]];
+				}
+				z[i] = d;
+			}
+			// Backward substitution with U
+			for (int i = n - 1; i >= 0; i--) {
+				double d = z[i];
+				for (int p = diagPos[i] + 1; p < A.rowStarts[i + 1]; p++) {
+					d -= lu[p] * z[A.cols[p]];
+				}
+				z[i] = d / lu[diagPos[i]];
+			}
+			break;
+		default:
+			System.arraycopy(r, 0, z, 0, n);
+		}
+	}
+
+	// Methods
+
+	/**
+	 * Preconditioned BiCGSTAB (van der Vorst, 1992).
+	 */
+	private Result solveBiCGSTAB(SparseMatrix A, double[] b, double[] x)
+	{
+		int n = A.n;
+		Result res = new Result();
+		double normB = norm(b);
+		if (normB == 0.0) {
+			Arrays.fill(x, 0.0);
+			res.converged = true;
+			return res;
+		}
+		double[] r = new double[n];
+		double[] rHat = new double[n];
+		double[] p = new double[n];
+		double[] v = new double[n];
+		double[] y = new double[n];
+		double[] s = new double[n];
+		double[] z = new double[n];
+		double[] t = new double[n];
+		double[] xPrev = new double[n];
+		residual(A, b, x, r);
+		res.numMults++;
+		System.arraycopy(r, 0, rHat, 0, n);
+		double rho = 1.0, alpha = 1.0, omega = 1.0;
+		res.relResidual = norm(r) / normB;
+		res.maxDiff = Double.POSITIVE_INFINITY;
+		boolean done = false;
+		while (!done && res.iters < maxIters) {
+			res.iters++;
+			double rhoNew = dot(rHat, r);
+			if (rhoNew == 0.0 || omega == 0.0) {
+				// Breakdown: restart with the current residual
+				residual(A, b, x, r);
+				res.numMults++;
+				System.arraycopy(r, 0, rHat, 0, n);
+				Arrays.fill(p, 0.0);
+				Arrays.fill(v, 0.0);
+				rho = alpha = omega = 1.0;
+				rhoNew = dot(rHat, r);
+				if (rhoNew == 0.0) {
+					// Zero residual: x is the exact solution
+					res.maxDiff = 0.0;
+					break;
+				}
+			}
+			double beta = (rhoNew / rho) * (alpha / omega);
+			for (int i = 0; i < n; i++) {
+				p[i] = r[i] + beta * (p[i] - omega * v[i]);
+			}
+			applyPreconditioner(p, y);
+			A.mult(y, v);
+			res.numMults++;
+			double rHatV = dot(rHat, v);
+			if (rHatV == 0.0) {
+				// Breakdown: restart in the next iteration
+				omega = 0.0;
+				continue;
+			}
+			alpha = rhoNew / rHatV;
+			for (int i = 0; i < n; i++) {
+				s[i] = r[i] - alpha * v[i];
+			}
+			applyPreconditioner(s, z);
+			A.mult(z, t);
+			res.numMults++;
+			double tt = dot(t, t);
+			omega = tt == 0.0 ? 0.0 : dot(t, s) / tt;
+			System.arraycopy(x, 0, xPrev, 0, n);
+			for (int i = 0; i < n; i++) {
+				x[i] += alpha * y[i] + omega * z[i];
+				r[i] = s[i] - omega * t[i];
+			}
+			rho = rhoNew;
+			res.relResidual = norm(r) / normB;
+			res.maxDiff = maxDiff(xPrev, x);
+			done = res.relResidual < epsilon && res.maxDiff < epsilon;
+		}
+		// Compute the true final residual
+		residual(A, b, x, r);
+		res.numMults++;
+		res.relResidual = norm(r) / normB;
+		res.converged = res.relResidual < epsilon && res.maxDiff < epsilon;
+		return res;
+	}
+
+	/**
+	 * Restarted GMRES with right preconditioning (Saad and Schultz, 1986),
+	 * using modified Gram-Schmidt orthogonalisation and Givens rotations.
+	 * The iterate is formed after each step, to check the difference between successive iterates.
+	 */
+	private Result solveGMRES(SparseMatrix A, double[] b, double[] x)
+	{
+		int n = A.n;
+		int m = Math.max(1, Math.min(restart, n));
+		Result res = new Result();
+		double normB = norm(b);
+		if (normB == 0.0) {
+			Arrays.fill(x, 0.0);
+			res.converged = true;
+			return res;
+		}
+		double[][] V = new double[m + 1][];
+		double[][] H = new double[m + 1][m];
+		double[] cs = new double[m];
+		double[] sn = new double[m];
+		double[] g = new double[m + 1];
+		double[] yv = new double[m];
+		double[] r = new double[n];
+		double[] z = new double[n];
+		double[] w = new double[n];
+		// Iterate at the start of the cycle, and the previous/current iterates within it
+		double[] x0 = new double[n];
+		double[] xPrev = new double[n];
+		residual(A, b, x, r);
+		res.numMults++;
+		double beta = norm(r);
+		res.relResidual = beta / normB;
+		res.maxDiff = Double.POSITIVE_INFINITY;
+		boolean done = false;
+		while (!done && res.iters < maxIters) {
+			// Start a new cycle
+			if (beta == 0.0) {
+				// Zero residual: x is the exact solution
+				res.maxDiff = 0.0;
+				break;
+			}
+			if (V[0] == null) {
+				V[0] = new double[n];
+			}
+			for (int i = 0; i < n; i++) {
+				V[0][i] = r[i] / beta;
+			}
+			System.arraycopy(x, 0, x0, 0, n);
+			Arrays.fill(g, 0.0);
+			g[0] = beta;
+			int j = 0;
+			boolean exhausted = false;
+			while (j < m && res.iters < maxIters) {
+				res.iters++;
+				// w = A M^-1 v_j
+				applyPreconditioner(V[j], z);
+				A.mult(z, w);
+				res.numMults++;
+				// Arnoldi step
+				for (int i = 0; i <= j; i++) {
+					double h = dot(w, V[i]);
+					H[i][j] = h;
+					for (int k = 0; k < n; k++) {
+						w[k] -= h * V[i][k];
+					}
+				}
+				double hNext = norm(w);
+				H[j + 1][j] = hNext;
+				if (V[j + 1] == null) {
+					V[j + 1] = new double[n];
+				}
+				if (hNext != 0.0) {
+					for (int k = 0; k < n; k++) {
+						V[j + 1][k] = w[k] / hNext;
+					}
+				}
+				// Apply previous rotations to the new column, then compute a new one
+				for (int i = 0; i < j; i++) {
+					double tmp = cs[i] * H[i][j] + sn[i] * H[i + 1][j];
+					H[i + 1][j] = -sn[i] * H[i][j] + cs[i] * H[i + 1][j];
+					H[i][j] = tmp;
+				}
+				double denom = Math.hypot(H[j][j], H[j + 1][j]);
+				cs[j] = denom == 0.0 ? 1.0 : H[j][j] / denom;
+				sn[j] = denom == 0.0 ? 0.0 : H[j + 1][j] / denom;
+				H[j][j] = denom;
+				H[j + 1][j] = 0.0;
+				g[j + 1] = -sn[j] * g[j];
+				g[j] = cs[j] * g[j];
+				j++;
+				res.relResidual = Math.abs(g[j]) / normB;
+				// Form the new iterate x = x0 + M^-1 (V y), where H y = g (upper triangular)
+				System.arraycopy(x, 0, xPrev, 0, n);
+				for (int i = j - 1; i >= 0; i--) {
+					double d = g[i];
+					for (int k = i + 1; k < j; k++) {
+						d -= H[i][k] * yv[k];
+					}
+					yv[i] = H[i][i] == 0.0 ? 0.0 : d / H[i][i];
+				}
+				Arrays.fill(w, 0.0);
+				for (int i = 0; i < j; i++) {
+					for (int k = 0; k < n; k++) {
+						w[k] += yv[i] * V[i][k];
+					}
+				}
+				applyPreconditioner(w, z);
+				for (int k = 0; k < n; k++) {
+					x[k] = x0[k] + z[k];
+				}
+				res.maxDiff = maxDiff(xPrev, x);
+				if (res.relResidual < epsilon && res.maxDiff < epsilon) {
+					done = true;
+					break;
+				}
+				if (hNext == 0.0) {
+					// Krylov subspace exhausted
+					exhausted = true;
+					break;
+				}
+			}
+			// Recompute the true residual
+			residual(A, b, x, r);
+			res.numMults++;
+			beta = norm(r);
+			double relResidual = beta / normB;
+			if (exhausted && !done && relResidual >= res.relResidual && res.relResidual >= epsilon) {
+				// Stagnation (Krylov subspace exhausted without convergence)
+				res.relResidual = relResidual;
+				break;
+			}
+			res.relResidual = relResidual;
+			// (the residual estimate may be inaccurate, so check the true one)
+			done = done && res.relResidual < epsilon;
+		}
+		res.converged = res.relResidual < epsilon && res.maxDiff < epsilon;
+		return res;
+	}
+
+	// Vector utilities
+
+	/**
+	 * Compute the maximum difference (relative or absolute, see {@link #absolute})
+	 * between successive iterates {@code xOld} and {@code xNew},
+	 * ignoring relative differences at the level of round-off.
+	 */
+	private double maxDiff(double[] xOld, double[] xNew)
+	{
+		if (absolute) {
+			return PrismUtils.measureSupNorm(xOld, xNew, true);
+		}
+		double maxAbs = 0.0;
+		for (int i = 0; i < xNew.length; i++) {
+			maxAbs = Math.max(maxAbs, Math.abs(xNew[i]));
+		}
+		double maxDiff = 0.0;
+		for (int i = 0; i < xNew.length; i++) {
+			double diff = Math.abs(xNew[i] - xOld[i]);
+			if (diff > ROUND_OFF * maxAbs) {
+				maxDiff = Math.max(maxDiff, diff / Math.abs(xNew[i]));
+			}
+		}
+		return maxDiff;
+	}
+
+	/** Compute {@code r = b - A x} */
+	private static void residual(SparseMatrix A, double[] b, double[] x, double[] r)
+	{
+		A.mult(x, r);
+		for (int i = 0; i < r.length; i++) {
+			r[i] = b[i] - r[i];
+		}
+	}
+
+	private static double dot(double[] u, double[] v)
+	{
+		double d = 0.0;
+		for (int i = 0; i < u.length; i++) {
+			d += u[i] * v[i];
+		}
+		return d;
+	}
+
+	private static double norm(double[] u)
+	{
+		return Math.sqrt(dot(u, u));
+	}
+}
@@ -660,7 +660,7 @@ public class LTLModelChecker extends PrismComponent
 				}
 				Distribution<Value> prodDistr = null;
 				if (modelType.nondeterministic()) {
-					prodDistr = new Distribution<>(model.getEvaluator());
+					prodDistr = Distribution.create(model.getEvaluator());
 				}
 
 				while (iter.hasNext()) {
@@ -26,6 +26,7 @@
 
 package explicit;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Iterator;
@@ -49,8 +50,19 @@ import explicit.rewards.MDPRewards;
 import explicit.rewards.Rewards;
 import io.ModelExportOptions;
 import parser.ast.Expression;
+import parser.ast.ExpressionFunc;
+import parser.ast.ExpressionProb;
+import parser.ast.ExpressionQuant;
+import parser.ast.ExpressionReward;
+import parser.ast.ExpressionTemporal;
+import parser.ast.RelOp;
+import parser.type.TypeBool;
 import parser.type.TypeDouble;
+import parser.type.TypeVoid;
 import prism.AccuracyFactory;
+import prism.OpRelOpBound;
+import prism.Operator;
+import prism.OpsAndBoundsList;
 import prism.OptionsIntervalIteration;
 import prism.Prism;
 import prism.PrismComponent;
@@ -61,6 +73,7 @@ import prism.PrismLog;
 import prism.PrismNotSupportedException;
 import prism.PrismSettings;
 import prism.PrismUtils;
+import prism.TileList;
 import strat.FMDStrategyProduct;
 import strat.FMDStrategyStep;
 import strat.MDStrategy;
@@ -186,6 +199,125 @@ public class MDPModelChecker extends ProbModelChecker
 		return rewards;
 	}
 	
+	@SuppressWarnings("unchecked")
+	@Override
+	protected StateValues checkExpressionMultiObjective(Model<?> model, ExpressionFunc expr, BitSet statesOfInterest) throws PrismException
+	{
+		if (doIntervalIteration) {
+			throw new PrismNotSupportedException("Interval iteration currently not supported for multi-objective reasoning");
+		}
+
+		// Make sure we are only expected to compute a value for a single state
+		int state;
+		if (statesOfInterest != null && statesOfInterest.cardinality() == 1) {
+			state = statesOfInterest.nextSetBit(0);
+		} else if (model.getNumInitialStates() == 1) {
+			state = model.getFirstInitialState();
+		} else {
+			throw new PrismException("Multi-objective model checking can only compute values from a single state");
+		}
+
+		// Check format and extract bounds/etc.
+		int numObjectives = expr.getNumOperands();
+		OpsAndBoundsList opsAndBounds = new OpsAndBoundsList(numObjectives);
+		List<BitSet> remain = new ArrayList<>();
+		List<BitSet> targets = new ArrayList<>();
+		List<MDPRewards<Double>> rewards = new ArrayList<>();
+		for (int i = 0; i < numObjectives; i++) {
+			extractInfoFromMultiObjectiveOperand(model, expr.getOperand(i), opsAndBounds, remain, targets, rewards, i);
+		}
+		// Replace min by max and <= by >= (for probabilities)
+		opsAndBounds.makeAllProbUp();
+
+		// Do multi-objective computation
+		MultiObjModelChecker mcMo = new MultiObjModelChecker(this);
+		Object value = mcMo.computeMultiObj((MDP<Double>) model, state, remain, targets, rewards, opsAndBounds);
+
+		// Return result (only computed for a single state)
+		// (a Pareto curve is just returned, not stored globally in TileList, since that is shared by all callers)
+		if (value instanceof TileList) {
+			return StateValues.createFromSingleValue(TypeVoid.getInstance(), value, model);
+		} else if (value instanceof Boolean) {
+			return StateValues.createFromSingleValue(TypeBool.getInstance(), value, model);
+		} else {
+			return StateValues.createFromSingleValue(TypeDouble.getInstance(), value, model);
+		}
+	}
+
+	/**
+	 * Extract the information from the operator defining one objective of a multi-objective query,
+	 * store the info in the passed in lists and do some checks.
+	 * @param model The model
+	 * @param expr The operator for the objective
+	 * @param opsAndBounds Where to add info about ops/bounds
+	 * @param remain Where to store the left-hand sides of until formulas (P operators only; null for F)
+	 * @param targets Where to store the targets (P operators only)
+	 * @param rewards Where to store the rewards (R operators only)
+	 * @param origPosition The position (starting from 0) at which this operand occurred in the call of multi(...)
+	 */
+	@SuppressWarnings("unchecked")
+	protected void extractInfoFromMultiObjectiveOperand(Model<?> model, Expression expr, OpsAndBoundsList opsAndBounds, List<BitSet> remain, List<BitSet> targets,
+			List<MDPRewards<Double>> rewards, int origPosition) throws PrismException
+	{
+		if (!(expr instanceof ExpressionProb || expr instanceof ExpressionReward)) {
+			throw new PrismException("Multi-objective properties can only contain P and R operators");
+		}
+		ExpressionQuant exprQuant = (ExpressionQuant) expr;
+		Expression exprSub = exprQuant.getExpression();
+		if (Expression.containsTemporalTimeBounds(exprSub)) {
+			throw new PrismNotSupportedException("Time-bounded objectives are not yet supported for multi-objective queries in the explicit engine");
+		}
+		boolean isProb = expr instanceof ExpressionProb;
+		if (isProb) {
+			// F or U (possibly nested in parentheses) are supported
+			exprSub = exprSub.isSimplePathFormula() ? Expression.convertSimplePathFormulaToCanonicalForm(exprSub) : null;
+			if (!(exprSub instanceof ExpressionTemporal) || ((ExpressionTemporal) exprSub).getOperator() != ExpressionTemporal.P_U) {
+				throw new PrismNotSupportedException("Only reachability (F) and until (U) objectives are supported for multi-objective queries in the explicit engine");
+			}
+			ExpressionTemporal exprTemp = (ExpressionTemporal) exprSub;
+			BitSet b1 = checkExpression(model, exprTemp.getOperand1(), null).getBitSet();
+			BitSet b2 = checkExpression(model, exprTemp.getOperand2(), null).getBitSet();
+			BitSet all = new BitSet();
+			all.set(0, model.getNumStates());
+			remain.add(b1.equals(all) ? null : b1);
+			targets.add(b2);
+		} else {
+			ExpressionTemporal exprTemp = (ExpressionTemporal) exprSub;
+			// We only allow the C reward operator, others such as F are not supported currently
+			if (exprTemp.getOperator() != ExpressionTemporal.R_C) {
+				throw new PrismException("Only the C reward operator is currently supported for multi-objective properties (not "
+						+ exprTemp.getOperatorSymbol() + ")");
+			}
+			int r = ((ExpressionReward) expr).getRewardStructIndexByIndexObject(rewardGen, constantValues);
+			rewards.add((MDPRewards<Double>) constructRewards(model, r));
+		}
+
+		// Get/check/store info about relational operator and bound
+		OpRelOpBound opInfo = exprQuant.getRelopBoundInfo(constantValues);
+		RelOp relOp = opInfo.getRelOp();
+		if (relOp.isStrict()) {
+			throw new PrismException("Multi-objective properties can not use strict inequalities on P/R operators");
+		}
+		Operator op;
+		if (relOp == RelOp.MAX) {
+			op = isProb ? Operator.P_MAX : Operator.R_MAX;
+		} else if (relOp == RelOp.GEQ) {
+			op = isProb ? Operator.P_GE : Operator.R_GE;
+		} else if (relOp == RelOp.MIN) {
+			op = isProb ? Operator.P_MIN : Operator.R_MIN;
+		} else if (relOp == RelOp.LEQ) {
+			op = isProb ? Operator.P_LE : Operator.R_LE;
+		} else {
+			throw new PrismException("Multi-objective properties can only contain P/R operators with max/min=? or lower/upper probability bounds");
+		}
+		// Find bound (subtracted from 1 if of the form P<=p)
+		double p = opInfo.isNumeric() ? -1.0 : opInfo.getBound();
+		if (opInfo.isProbabilistic() && relOp.isUpperBound()) {
+			p = 1 - p;
+		}
+		opsAndBounds.add(opInfo, op, p, -1, origPosition);
+	}
+
 	// Numerical computation functions
 
 	/**
@@ -348,6 +480,20 @@ public class MDPModelChecker extends ProbModelChecker
 				doPmaxQuotient = true;
 			}
 		}
+		if (mdpSolnMethod == MDPSolnMethod.OPTIMISTIC_VALUE_ITERATION) {
+			if (!min && genStrat) {
+				throw new PrismNotSupportedException("Currently, explicit engine does not support adversary construction for optimistic value iteration and Pmax");
+			}
+			if (init != null)
+				throw new PrismNotSupportedException("Optimistic value iteration currently not supported with provided initial values");
+			if (!(precomp && prob0 && prob1)) {
+				throw new PrismNotSupportedException("Precomputations (Prob0 & Prob1) must be enabled for optimistic value iteration");
+			}
+
+			if (!min) {
+				doPmaxQuotient = true;
+			}
+		}
 		if (mdpSolnMethod == MDPSolnMethod.POLICY_ITERATION || mdpSolnMethod == MDPSolnMethod.MODIFIED_POLICY_ITERATION) {
 			if (known != null) {
 				throw new PrismException("Policy iteration methods cannot be passed 'known' values for some states");
@@ -532,6 +678,9 @@ public class MDPModelChecker extends ProbModelChecker
 			}
 			res = computeReachProbsModPolIter(mdp, no, yes, min, strat);
 			break;
+		case OPTIMISTIC_VALUE_ITERATION:
+			res = doOptimisticValueIterationReachProbs(mdp, no, yes, min, init, known, strat);
+			break;
 		default:
 			throw new PrismException("Unknown MDP solution method " + mdpSolnMethod.fullName());
 		}
@@ -966,6 +1115,82 @@ public class MDPModelChecker extends ProbModelChecker
 		}
 	}
 
+	/**
+	 * Compute reachability probabilities using optimistic value iteration.
+	 * Optionally, store optimal (memoryless) strategy info.
+	 * @param mdp The MDP
+	 * @param no Probability 0 states
+	 * @param yes Probability 1 states
+	 * @param min Min or max probabilities (true=min, false=max)
+	 * @param init Optionally, an initial solution vector (will be overwritten)
+	 * @param known Optionally, a set of states for which the exact answer is known
+	 * @param strat Storage for (memoryless) strategy choice indices (ignored if null)
+	 * Note: if 'known' is specified (i.e. is non-null, 'init' must also be given and is used for the exact values.
+	 */
+	protected ModelCheckerResult doOptimisticValueIterationReachProbs(MDP<Double> mdp, BitSet no, BitSet yes, boolean min, double init[], BitSet known, int strat[])
+			throws PrismException
+	{
+		BitSet unknown;
+		int i, n;
+		double initBelow[];
+		long timer;
+
+		IterationMethod iterationMethod = new IterationMethodGS(termCrit == TermCrit.ABSOLUTE, termCritParam, false);
+
+		// Start value iteration
+		timer = System.currentTimeMillis();
+		String description = (min ? "min" : "max") + ", with " + iterationMethod.getDescriptionShort();
+
+		mainLog.println("Starting optimistic value iteration (" + description + ")...");
+
+		ExportIterations iterationsExport = null;
+		if (settings.getBoolean(PrismSettings.PRISM_EXPORT_ITERATIONS)) {
+			iterationsExport = new ExportIterations("Explicit MDP ReachProbs optimistic value iteration (" + description + ")");
+			mainLog.println("Exporting iterations to " + iterationsExport.getFileName());
+		}
+
+		// Store num states
+		n = mdp.getNumStates();
+
+		// Create solution vector
+		// (the initial upper bounds are guessed during the iteration)
+		initBelow = (init == null) ? new double[n] : init;
+
+		// Initialise solution vector. Use (where available) the following in order of preference:
+		// (1) exact answer, if already known; (2) 1.0/0.0 if in yes/no; (3) 0.0
+		if (known != null && init != null) {
+			for (i = 0; i < n; i++) {
+				initBelow[i] = known.get(i) ? init[i] : yes.get(i) ? 1.0 : 0.0;
+			}
+		} else {
+			for (i = 0; i < n; i++) {
+				initBelow[i] = yes.get(i) ? 1.0 : 0.0;
+			}
+		}
+
+		// Determine set of states actually need to compute values for
+		unknown = new BitSet();
+		unknown.set(0, n);
+		unknown.andNot(yes);
+		unknown.andNot(no);
+		if (known != null)
+			unknown.andNot(known);
+
+		if (iterationsExport != null) {
+			iterationsExport.exportVector(initBelow, 0);
+			iterationsExport.exportVector(initBelow, 1);
+		}
+
+		IterationMethod.IterationValIter below = iterationMethod.forMvMultMinMax(mdp, min, strat);
+		IterationMethod.IterationIntervalIter above = iterationMethod.forMvMultMinMaxInterval(mdp, min, null, false, false, false);
+		below.init(initBelow);
+
+		IntSet unknownStates = IntSet.asIntSet(unknown);
+
+		// run the actual optimistic value iteration
+		return iterationMethod.doOptimisticValueIteration(this, description, below, above, unknownStates, 1.0, timer, iterationsExport);
+	}
+
 	/**
 	 * Compute reachability probabilities using Gauss-Seidel (including Jacobi-style updates).
 	 * @param mdp The MDP
@@ -2058,7 +2283,7 @@ public class MDPModelChecker extends ProbModelChecker
 		MDPSolnMethod mdpSolnMethod = this.mdpSolnMethod;
 
 		// Switch to a supported method, if necessary
-		if (!(mdpSolnMethod == MDPSolnMethod.VALUE_ITERATION || mdpSolnMethod == MDPSolnMethod.GAUSS_SEIDEL || mdpSolnMethod == MDPSolnMethod.POLICY_ITERATION)) {
+		if (!(mdpSolnMethod == MDPSolnMethod.VALUE_ITERATION || mdpSolnMethod == MDPSolnMethod.GAUSS_SEIDEL || mdpSolnMethod == MDPSolnMethod.POLICY_ITERATION || mdpSolnMethod == MDPSolnMethod.OPTIMISTIC_VALUE_ITERATION)) {
 			mdpSolnMethod = MDPSolnMethod.GAUSS_SEIDEL;
 			mainLog.printWarning("Switching to MDP solution method \"" + mdpSolnMethod.fullName() + "\"");
 		}
@@ -2069,6 +2294,10 @@ public class MDPModelChecker extends ProbModelChecker
 				throw new PrismException("Policy iteration methods cannot be passed 'known' values for some states");
 			}
 		}
+		if (mdpSolnMethod == MDPSolnMethod.OPTIMISTIC_VALUE_ITERATION) {
+			if (init != null)
+				throw new PrismNotSupportedException("Optimistic value iteration currently not supported with provided initial values");
+		}
 		if (doIntervalIteration) {
 			if (mdpSolnMethod != MDPSolnMethod.VALUE_ITERATION && mdpSolnMethod != MDPSolnMethod.GAUSS_SEIDEL) {
 				throw new PrismNotSupportedException("Currently, explicit engine only supports interval iteration with value iteration or Gauss-Seidel for MDPs");
@@ -2227,6 +2456,9 @@ public class MDPModelChecker extends ProbModelChecker
 			}
 			res = computeReachRewardsPolIter(mdp, mdpRewards, target, inf, min, strat);
 			break;
+		case OPTIMISTIC_VALUE_ITERATION:
+			res = doOptimisticValueIterationReachRewards(mdp, mdpRewards, target, inf, min, init, known, strat);
+			break;
 		default:
 			throw new PrismException("Unknown MDP solution method " + method.fullName());
 		}
@@ -2346,6 +2578,82 @@ public class MDPModelChecker extends ProbModelChecker
 		}
 	}
 
+	/**
+	 * Compute expected reachability rewards using optimistic value iteration.
+	 * Optionally, store optimal (memoryless) strategy info.
+	 * @param mdp The MDP
+	 * @param mdpRewards The rewards
+	 * @param target Target states
+	 * @param inf States for which reward is infinite
+	 * @param min Min or max rewards (true=min, false=max)
+	 * @param init Optionally, an initial solution vector (will be overwritten)
+	 * @param known Optionally, a set of states for which the exact answer is known
+	 * @param strat Storage for (memoryless) strategy choice indices (ignored if null)
+	 * Note: if 'known' is specified (i.e. is non-null, 'init' must also be given and is used for the exact values.
+	 */
+	protected ModelCheckerResult doOptimisticValueIterationReachRewards(MDP<Double> mdp, MDPRewards<Double> mdpRewards, BitSet target, BitSet inf, boolean min, double init[], BitSet known, int strat[])
+			throws PrismException
+	{
+		BitSet unknown;
+		int i, n;
+		double initBelow[];
+		long timer;
+
+		IterationMethod iterationMethod = new IterationMethodGS(termCrit == TermCrit.ABSOLUTE, termCritParam, false);
+
+		// Start value iteration
+		timer = System.currentTimeMillis();
+		String description = (min ? "min" : "max") + ", with " + iterationMethod.getDescriptionShort();
+		mainLog.println("Starting optimistic value iteration (" + description + ")...");
+
+		ExportIterations iterationsExport = null;
+		if (settings.getBoolean(PrismSettings.PRISM_EXPORT_ITERATIONS)) {
+			iterationsExport = new ExportIterations("Explicit MDP ReachRewards optimistic value iteration (" + description + ")");
+			mainLog.println("Exporting iterations to " + iterationsExport.getFileName());
+		}
+
+		// Store num states
+		n = mdp.getNumStates();
+
+		// Create solution vector
+		// (the initial upper bounds are guessed during the iteration)
+		initBelow = (init == null) ? new double[n] : init;
+
+		// Initialise solution vector. Use (where available) the following in order of preference:
+		// (1) exact answer, if already known; (2) 0.0/infinity if in target/inf; (3) 0.0
+		if (known != null && init != null) {
+			for (i = 0; i < n; i++) {
+				initBelow[i] = known.get(i) ? init[i] : target.get(i) ? 0.0 : inf.get(i) ? Double.POSITIVE_INFINITY : 0.0;
+			}
+		} else {
+			for (i = 0; i < n; i++) {
+				initBelow[i] = target.get(i) ? 0.0 : inf.get(i) ? Double.POSITIVE_INFINITY : 0.0;
+			}
+		}
+
+		// Determine set of states actually need to compute values for
+		unknown = new BitSet();
+		unknown.set(0, n);
+		unknown.andNot(target);
+		unknown.andNot(inf);
+		if (known != null)
+			unknown.andNot(known);
+
+		if (iterationsExport != null) {
+			iterationsExport.exportVector(initBelow, 0);
+			iterationsExport.exportVector(initBelow, 1);
+		}
+
+		IterationMethod.IterationValIter below = iterationMethod.forMvMultRewMinMax(mdp, mdpRewards, min, strat);
+		IterationMethod.IterationIntervalIter above = iterationMethod.forMvMultRewMinMaxInterval(mdp, mdpRewards, min, null, false, false, false);
+		below.init(initBelow);
+
+		IntSet unknownStates = IntSet.asIntSet(unknown);
+
+		// run the actual optimistic value iteration
+		return iterationMethod.doOptimisticValueIteration(this, description, below, above, unknownStates, Double.POSITIVE_INFINITY, timer, iterationsExport);
+	}
+
 	/**
 	 * Compute expected reachability rewards using Gauss-Seidel (including Jacobi-style updates).
 	 * Optionally, store optimal (memoryless) strategy info. 
@@ -91,7 +91,7 @@ public class MDPSimple<Value> extends MDPExplicit<Value> implements NondetModelS
 		for (int s = 0; s < numStates; s++) {
 			List<Distribution<Value>> distrs = trans.get(s);
 			for (Distribution<Value> distr : mdp.trans.get(s)) {
-				distrs.add(new Distribution<>(distr));
+				distrs.add(distr.copy());
 			}
 		}
 		actions = new ChoiceActionsSimple(mdp.actions);
@@ -112,7 +112,7 @@ public class MDPSimple<Value> extends MDPExplicit<Value> implements NondetModelS
 		copyFrom(dtmc);
 		for (int s = 0; s < numStates; s++) {
 			// Note: DTMCSimple has no actions so can ignore these
-			addChoice(s, new Distribution<Value>(dtmc.getTransitions(s)));
+			addChoice(s, dtmc.getTransitions(s).copy());
 		}
 	}
 
@@ -131,7 +131,7 @@ public class MDPSimple<Value> extends MDPExplicit<Value> implements NondetModelS
 		for (int s = 0; s < numStates; s++) {
 			List<Distribution<Value>> distrs = trans.get(permut[s]);
 			for (Distribution<Value> distr : mdp.trans.get(s)) {
-				distrs.add(new Distribution<>(distr, permut));
+				distrs.add(distr.map(permut));
 			}
 		}
 		actions = new ChoiceActionsSimple(mdp.actions, permut);
@@ -179,7 +179,7 @@ public class MDPSimple<Value> extends MDPExplicit<Value> implements NondetModelS
 			int numChoices = mdp.getNumChoices(i);
 			for (int j = 0; j < numChoices; j++) {
 				Object action = mdp.getAction(i, j);
-				Distribution<Value> distr = new Distribution<>(eval);
+				Distribution<Value> distr = Distribution.create(eval);
 				Iterator<Map.Entry<Integer, T>> iter = mdp.getTransitionsIterator(i, j);
 				while (iter.hasNext()) {
 					Map.Entry<Integer, T> e = iter.next();
@@ -253,7 +253,7 @@ public class MDPSimple<Value> extends MDPExplicit<Value> implements NondetModelS
 		modelImporter.extractMDPTransitions((s, i, s2, v, a) -> {
 			// Add empty distributions as needed
 			while (i >= getNumChoices(s)) {
-				addChoice(s, new Distribution<>(getEvaluator()));
+				addChoice(s, Distribution.create(getEvaluator()));
 			}
 			// Then add transition (update stats since Distribution modified directly)
 			if (!getChoice(s, i).add(s2, v)) {
@@ -371,7 +371,7 @@ public class MDPSimple<Value> extends MDPExplicit<Value> implements NondetModelS
 			if (trans.get(i).isEmpty()) {
 				addDeadlockState(i);
 				if (fix) {
-					Distribution<Value> distr = new Distribution<>(getEvaluator());
+					Distribution<Value> distr = Distribution.create(getEvaluator());
 					distr.add(i, getEvaluator().one());
 					addChoice(i, distr);
 				}
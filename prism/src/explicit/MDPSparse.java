@@ -41,6 +41,7 @@ import explicit.rewards.MCRewards;
 import explicit.rewards.MDPRewards;
 import io.ExplicitModelImporter;
 import io.IOUtils;
+import io.PrismBinaryImporter;
 import parser.State;
 import prism.PrismException;
 import prism.PrismUtils;
@@ -394,33 +395,38 @@ public class MDPSparse extends MDPExplicit<Double>
 		cols = new int[numTransitions];
 		nonZeros = new double[numTransitions];
 		actions = new Object[numDistrs];
-		IOUtils.MDPTransitionConsumer<Double> cons = new IOUtils.MDPTransitionConsumer<Double>() {
-			int sLast = -1;
-			int iLast = -1;
-			int count = 0;
-			int countCh = 0;
-			@Override
-			public void accept(int s, int i, int s2, Double d, Object a)
-			{
-				if (s != sLast) {
-					rowStarts[s] = countCh;
-					sLast = s;
-					iLast = -1;
-				}
-				if (i != iLast) {
-					choiceStarts[countCh] = count;
-					actions[countCh] = a;
-					countCh++;
-					iLast = i;
+		// Binary files already store the model in this form: copy directly
+		if (modelImporter instanceof PrismBinaryImporter) {
+			((PrismBinaryImporter) modelImporter).extractMDPTransitions(rowStarts, choiceStarts, cols, nonZeros, actions);
+		} else {
+			IOUtils.MDPTransitionConsumer<Double> cons = new IOUtils.MDPTransitionConsumer<Double>() {
+				int sLast = -1;
+				int iLast = -1;
+				int count = 0;
+				int countCh = 0;
+				@Override
+				public void accept(int s, int i, int s2, Double d, Object a)
+				{
+					if (s != sLast) {
+						rowStarts[s] = countCh;
+						sLast = s;
+						iLast = -1;
+					}
+					if (i != iLast) {
+						choiceStarts[countCh] = count;
+						actions[countCh] = a;
+						countCh++;
+						iLast = i;
+					}
+					cols[count] = s2;
+					nonZeros[count] = d;
+					count++;
 				}
-				cols[count] = s2;
-				nonZeros[count] = d;
-				count++;
-			}
-		};
-		rowStarts[numStates] = numDistrs;
-		choiceStarts[numDistrs] = numTransitions;
-		modelImporter.extractMDPTransitions(cons);
+			};
+			rowStarts[numStates] = numDistrs;
+			choiceStarts[numDistrs] = numTransitions;
+			modelImporter.extractMDPTransitions(cons);
+		}
 		// Compute maxNumDistrs
 		maxNumDistrs = 0;
 		for (int s = 0; s < numStates; s++) {
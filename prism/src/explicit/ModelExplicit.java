@@ -78,8 +78,9 @@ public abstract class ModelExplicit<Value> implements Model<Value>
 	
 	/**
 	 * (Optionally) the stored predecessor relation. Becomes inaccurate after the model is changed!
+	 * (volatile since it may be created lazily by several threads checking properties concurrently)
 	 */
-	protected PredecessorRelation predecessorRelation = null;
+	protected volatile PredecessorRelation predecessorRelation = null;
 
 	// Mutators
 
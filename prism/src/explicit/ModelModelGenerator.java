@@ -38,6 +38,7 @@ import parser.type.Type;
 import prism.ModelGenerator;
 import prism.ModelInfo;
 import prism.ModelType;
+import prism.Pair;
 import prism.PrismException;
 import prism.PrismNotSupportedException;
 
@@ -59,6 +60,8 @@ public class ModelModelGenerator<Value> implements ModelGenerator<Value>
 	private class Transitions
 	{
 		Object action;
+		/** Per-transition actions (for DTMCs/CTMCs; null if not used) */
+		List<Object> actions;
 		List<Integer> succs;
 		List<Value> probs;
 		
@@ -131,15 +134,23 @@ public class ModelModelGenerator<Value> implements ModelGenerator<Value>
 	public void exploreState(State exploreState) throws PrismException
 	{
 		// Look up index of state to explore
-		sExplore = model.getStatesList().indexOf(exploreState);
+		exploreState(model.getStatesList().indexOf(exploreState));
+	}
+
+	/**
+	 * Explore a state, specified by its index in the model,
+	 * i.e., subsequent queries about transitions refer to this state.
+	 * This avoids looking up the state in the list of states.
+	 */
+	public void exploreState(int s) throws PrismException
+	{
+		sExplore = s;
 		// Extract transitions and store 
 		trans.clear();
 		switch (model.getModelType()) {
 		case CTMC:
-			storeTransitions(null, ((CTMC<Value>) model).getTransitionsIterator(sExplore));
-			break;
 		case DTMC:
-			storeTransitions(null, ((DTMC<Value>) model).getTransitionsIterator(sExplore));
+			storeTransitionsAndActions(((DTMC<Value>) model).getTransitionsAndActionsIterator(sExplore));
 			break;
 		case MDP:
 			int numChoices = ((MDP<Value>) model).getNumChoices(sExplore);
@@ -171,6 +182,22 @@ public class ModelModelGenerator<Value> implements ModelGenerator<Value>
 		}
 		trans.add(t);
 	}
+
+	/**
+	 * Store the transitions (and their actions) extracted from a Model-provided iterator.
+	 */
+	private void storeTransitionsAndActions(Iterator<Map.Entry<Integer, Pair<Value, Object>>> transitionsIterator)
+	{
+		Transitions t = new Transitions();
+		t.actions = new ArrayList<>();
+		while (transitionsIterator.hasNext()) {
+			Map.Entry<Integer, Pair<Value, Object>> e = transitionsIterator.next();
+			t.succs.add(e.getKey());
+			t.probs.add(e.getValue().first);
+			t.actions.add(e.getValue().second);
+		}
+		trans.add(t);
+	}
 	
 	@Override
 	public int getNumChoices() throws PrismException
@@ -187,7 +214,8 @@ public class ModelModelGenerator<Value> implements ModelGenerator<Value>
 	@Override
 	public Object getTransitionAction(int i, int offset) throws PrismException
 	{
-		return trans.get(i).action;
+		Transitions t = trans.get(i);
+		return t.actions == null ? t.action : t.actions.get(offset);
 	}
 
 	@Override
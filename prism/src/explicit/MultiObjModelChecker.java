@@ -0,0 +1,789 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import explicit.rewards.MDPRewards;
+import prism.Evaluator;
+import prism.MultiObjUtils;
+import prism.Operator;
+import prism.OpsAndBoundsList;
+import prism.Point;
+import prism.Prism;
+import prism.PrismComponent;
+import prism.PrismException;
+import prism.PrismNotSupportedException;
+import prism.PrismSettings;
+import prism.PrismUtils;
+import prism.Tile;
+import prism.TileList;
+
+/**
+ * Explicit-state multi-objective model checking for MDPs.
+ * <br><br>
+ * Objectives are (unbounded) probabilistic reachability/until objectives
+ * and expected total reward objectives. The MDP is first combined with the status
+ * (undecided, satisfied, violated) of each probabilistic objective, which turns
+ * these into one-off rewards, so that all objectives become expected total rewards.
+ * Minimising objectives are converted to maximising ones, i.e., probabilities
+ * {@code p} are replaced with {@code 1-p} and rewards are negated
+ * (as expected by {@link OpsAndBoundsList} and {@link Point#toRealProperties(OpsAndBoundsList)}).
+ * Pareto curves are computed using weighted value iteration; achievability and numerical
+ * queries either in the same way (approximating the set of achievable points from above)
+ * or by solving a linear program over the expected number of times each choice is taken.
+ */
+public class MultiObjModelChecker extends PrismComponent
+{
+	/** Model checker that this is used from (for termination criteria etc.) */
+	protected ProbModelChecker mc;
+
+	/**
+	 * Product of an MDP with the status of each probabilistic objective,
+	 * with all objectives encoded as (maximising) total reward objectives.
+	 */
+	protected static class MultiObjProduct
+	{
+		/** The product MDP */
+		public MDPSimple<Double> mdp;
+		/** Index of the initial state */
+		public int initState;
+		/** Number of objectives (probabilistic ones first, then reward ones) */
+		public int numObjectives;
+		/** Start of each state's choices in {@code rewards} (size numStates+1) */
+		public int[] choiceStarts;
+		/** Reward for each choice and objective, indexed as [choiceStarts[s]+j][objective] */
+		public double[][] rewards;
+		/** Constant value to be added to each objective */
+		public double[] offsets;
+	}
+
+	/**
+	 * Create a new MultiObjModelChecker, inheriting basic state from a model checker.
+	 */
+	public MultiObjModelChecker(ProbModelChecker mc) throws PrismException
+	{
+		super(mc);
+		this.mc = mc;
+	}
+
+	/**
+	 * Compute the result of a multi-objective query on an MDP, from a single state.
+	 * Probabilistic objectives are of the form {@code remain U target}, where {@code remain} can be
+	 * null for reachability ({@code F target}). Reward objectives are for expected total reward.
+	 * Objectives are passed in as in {@code opsAndBounds}, i.e., probabilistic ones first,
+	 * and {@link OpsAndBoundsList#makeAllProbUp()} should already have been called.
+	 * Returns a {@link TileList} for a Pareto query, a Double for a numerical one
+	 * and a Boolean for an achievability query.
+	 * @param mdp The MDP
+	 * @param initState The state to compute the value for
+	 * @param remain Left-hand sides of until objectives (entries can be null)
+	 * @param targets Targets of probabilistic objectives
+	 * @param rewards Rewards of reward objectives
+	 * @param opsAndBounds Operators and bounds of the objectives
+	 */
+	public Object computeMultiObj(MDP<Double> mdp, int initState, List<BitSet> remain, List<BitSet> targets, List<MDPRewards<Double>> rewards,
+			OpsAndBoundsList opsAndBounds) throws PrismException
+	{
+		int numNumerical = opsAndBounds.numberOfNumerical();
+		int numObjectives = opsAndBounds.probSize() + opsAndBounds.rewardSize();
+		int method = settings.getChoice(PrismSettings.PRISM_MDP_MULTI_SOLN_METHOD);
+
+		// Check for unsupported computations
+		if (numNumerical > 1 && numNumerical < numObjectives) {
+			throw new PrismException("Multiple min/max queries cannot be combined with boolean queries.");
+		}
+		if (numNumerical > 2) {
+			throw new PrismException("Pareto curve generation is currently only supported for 2 objectives");
+		}
+		if (method == Prism.MDP_MULTI_LP && numNumerical > 1) {
+			throw new PrismNotSupportedException("Pareto curve generation is not currently supported using linear programming");
+		}
+
+		// Build product
+		MultiObjProduct prod = buildProduct(mdp, initState, remain, targets, rewards, opsAndBounds);
+
+		// Compute
+		long timer = System.currentTimeMillis();
+		Object value;
+		if (method == Prism.MDP_MULTI_LP) {
+			value = computeMultiObjLP(prod, opsAndBounds);
+		} else if (numNumerical > 1) {
+			value = generateParetoCurve(prod, opsAndBounds);
+		} else {
+			value = targetDrivenMultiObj(prod, opsAndBounds);
+		}
+		timer = System.currentTimeMillis() - timer;
+		mainLog.println("Multi-objective computation took " + timer / 1000.0 + " seconds.");
+		return value;
+	}
+
+	/**
+	 * Build the product of an MDP with the status of each probabilistic objective
+	 * (see {@link #computeMultiObj(MDP, int, List, List, List, OpsAndBoundsList)} for the arguments).
+	 * For objectives with maximising rewards, choices inside end components that have positive
+	 * reward are removed (since otherwise the maximum reward is infinite).
+	 */
+	protected MultiObjProduct buildProduct(MDP<Double> mdp, int initState, List<BitSet> remain, List<BitSet> targets, List<MDPRewards<Double>> rewards,
+			OpsAndBoundsList opsAndBounds) throws PrismException
+	{
+		long timer = System.currentTimeMillis();
+		mainLog.println("\nBuilding multi-objective product...");
+		int dimProb = targets.size();
+		int dimReward = rewards.size();
+		int numObjectives = dimProb + dimReward;
+		if (dimProb > 19) {
+			throw new PrismNotSupportedException("Too many probabilistic objectives for multi-objective model checking");
+		}
+		// Signs of the objectives (-1 for those that were minimising)
+		double[] signs = new double[numObjectives];
+		for (int i = 0; i < dimProb; i++) {
+			signs[i] = opsAndBounds.isProbNegated(i) ? -1.0 : 1.0;
+		}
+		for (int i = 0; i < dimReward; i++) {
+			Operator op = opsAndBounds.getRewardOperator(i);
+			signs[dimProb + i] = (op == Operator.R_MIN || op == Operator.R_LE) ? -1.0 : 1.0;
+		}
+
+		// Status of probabilistic objectives is stored as base-3 digits (0 = undecided, 1 = satisfied, 2 = violated)
+		int[] pow3 = new int[dimProb + 1];
+		pow3[0] = 1;
+		for (int i = 0; i < dimProb; i++) {
+			pow3[i + 1] = pow3[i] * 3;
+		}
+		MultiObjProduct prod = new MultiObjProduct();
+		prod.numObjectives = numObjectives;
+		prod.mdp = new MDPSimple<>();
+		prod.offsets = new double[numObjectives];
+		Map<Long, Integer> index = new HashMap<>();
+		int[] origStates = new int[16];
+		int[] statuses = new int[16];
+		List<double[]> choiceRewards = new ArrayList<>();
+		List<Integer> choiceStarts = new ArrayList<>();
+
+		// Initial state
+		int initStatus = updateStatus(0, initState, remain, targets, pow3);
+		for (int i = 0; i < dimProb; i++) {
+			prod.offsets[i] = opsAndBounds.isProbNegated(i) ? 1.0 : 0.0;
+			if ((initStatus / pow3[i]) % 3 == 1) {
+				prod.offsets[i] += signs[i];
+			}
+		}
+		index.put((long) initState * pow3[dimProb] + initStatus, 0);
+		origStates[0] = initState;
+		statuses[0] = initStatus;
+		prod.mdp.addState();
+		prod.mdp.addInitialState(0);
+		prod.initState = 0;
+
+		// Explore
+		for (int ps = 0; ps < prod.mdp.getNumStates(); ps++) {
+			int s = origStates[ps];
+			int status = statuses[ps];
+			choiceStarts.add(choiceRewards.size());
+			int numChoices = mdp.getNumChoices(s);
+			for (int j = 0; j < numChoices; j++) {
+				Distribution<Double> distr = Distribution.create(Evaluator.forDouble());
+				double[] rews = new double[numObjectives];
+				for (Iterator<Map.Entry<Integer, Double>> it = mdp.getTransitionsIterator(s, j); it.hasNext();) {
+					Map.Entry<Integer, Double> e = it.next();
+					int t = e.getKey();
+					double prob = e.getValue();
+					int status2 = updateStatus(status, t, remain, targets, pow3);
+					long key = (long) t * pow3[dimProb] + status2;
+					Integer pt = index.get(key);
+					if (pt == null) {
+						pt = prod.mdp.addState();
+						index.put(key, pt);
+						if (pt == origStates.length) {
+							origStates = Arrays.copyOf(origStates, 2 * pt);
+							statuses = Arrays.copyOf(statuses, 2 * pt);
+						}
+						origStates[pt] = t;
+						statuses[pt] = status2;
+					}
+					distr.add(pt, prob);
+					// One-off reward for objectives that become satisfied
+					for (int i = 0; i < dimProb; i++) {
+						if ((status / pow3[i]) % 3 == 0 && (status2 / pow3[i]) % 3 == 1) {
+							rews[i] += signs[i] * prob;
+						}
+					}
+				}
+				for (int i = 0; i < dimReward; i++) {
+					MDPRewards<Double> mdpRewards = rewards.get(i);
+					rews[dimProb + i] = signs[dimProb + i] * (mdpRewards.getStateReward(s) + mdpRewards.getTransitionReward(s, j));
+				}
+				prod.mdp.addActionLabelledChoice(ps, distr, mdp.getAction(s, j));
+				choiceRewards.add(rews);
+			}
+		}
+		choiceStarts.add(choiceRewards.size());
+		prod.choiceStarts = choiceStarts.stream().mapToInt(Integer::intValue).toArray();
+		prod.rewards = choiceRewards.toArray(new double[0][]);
+
+		// Remove positive reward end components for maximising reward objectives
+		boolean hasMaxReward = false;
+		for (int i = dimProb; i < numObjectives; i++) {
+			hasMaxReward |= signs[i] > 0;
+		}
+		if (hasMaxReward) {
+			prod = removePositiveRewardECs(prod, signs);
+		}
+
+		timer = System.currentTimeMillis() - timer;
+		mainLog.print("Multi-objective product: " + prod.mdp.getNumStates() + " states, ");
+		mainLog.print(prod.mdp.getNumChoices() + " choices, " + prod.mdp.getNumTransitions() + " transitions");
+		mainLog.println(" (built in " + timer / 1000.0 + " seconds).");
+		return prod;
+	}
+
+	/**
+	 * Update the status (base-3 encoded, see {@link #buildProduct}) of probabilistic objectives
+	 * on entering state {@code s}.
+	 */
+	private static int updateStatus(int status, int s, List<BitSet> remain, List<BitSet> targets, int[] pow3)
+	{
+		for (int i = 0; i < targets.size(); i++) {
+			if ((status / pow3[i]) % 3 == 0) {
+				if (targets.get(i).get(s)) {
+					status += pow3[i];
+				} else if (remain.get(i) != null && !remain.get(i).get(s)) {
+					status += 2 * pow3[i];
+				}
+			}
+		}
+		return status;
+	}
+
+	/**
+	 * Remove choices that remain within an end component and have positive reward for
+	 * some (maximising) reward objective, i.e., those that would allow infinite reward.
+	 */
+	protected MultiObjProduct removePositiveRewardECs(MultiObjProduct prod, double[] signs) throws PrismException
+	{
+		int n = prod.mdp.getNumStates();
+		ECComputer ecComputer = ECComputer.createECComputer(this, prod.mdp);
+		ecComputer.computeMECStates();
+		boolean[] removed = new boolean[prod.rewards.length];
+		int numRemoved = 0;
+		for (BitSet mec : ecComputer.getMECStates()) {
+			for (int s = mec.nextSetBit(0); s >= 0; s = mec.nextSetBit(s + 1)) {
+				for (int j = 0, numChoices = prod.mdp.getNumChoices(s); j < numChoices; j++) {
+					int c = prod.choiceStarts[s] + j;
+					boolean positive = false;
+					for (int i = 0; i < prod.numObjectives; i++) {
+						positive |= signs[i] > 0 && prod.rewards[c][i] > 0;
+					}
+					if (positive && prod.mdp.allSuccessorsInSet(s, j, mec)) {
+						removed[c] = true;
+						numRemoved++;
+					}
+				}
+			}
+		}
+		if (numRemoved == 0) {
+			return prod;
+		}
+		mainLog.println("Removing " + numRemoved + " choices with positive reward in end components");
+		MultiObjProduct prodNew = new MultiObjProduct();
+		prodNew.numObjectives = prod.numObjectives;
+		prodNew.initState = prod.initState;
+		prodNew.offsets = prod.offsets;
+		prodNew.mdp = new MDPSimple<>(n);
+		prodNew.mdp.addInitialState(prod.initState);
+		prodNew.choiceStarts = new int[n + 1];
+		prodNew.rewards = new double[prod.rewards.length - numRemoved][];
+		int count = 0;
+		for (int s = 0; s < n; s++) {
+			prodNew.choiceStarts[s] = count;
+			for (int j = 0, numChoices = prod.mdp.getNumChoices(s); j < numChoices; j++) {
+				int c = prod.choiceStarts[s] + j;
+				if (!removed[c]) {
+					prodNew.mdp.addActionLabelledChoice(s, prod.mdp.getChoice(s, j), prod.mdp.getAction(s, j));
+					prodNew.rewards[count++] = prod.rewards[c];
+				}
+			}
+		}
+		prodNew.choiceStarts[n] = count;
+		return prodNew;
+	}
+
+	/**
+	 * Optimise a weighted sum of the objectives using value iteration, and return
+	 * the values of the individual objectives (from the initial state) for the resulting strategy.
+	 * As in the symbolic engines, the values of the individual objectives are computed alongside
+	 * the weighted sum, using the choices made in each iteration.
+	 * @param prod The product
+	 * @param weights The weights
+	 * @param useGS Use Gauss-Seidel?
+	 */
+	protected double[] weightedValueIteration(MultiObjProduct prod, double[] weights, boolean useGS) throws PrismException
+	{
+		MDPSimple<Double> mdp = prod.mdp;
+		int n = mdp.getNumStates();
+		int k = prod.numObjectives;
+		boolean absolute = mc.termCrit == ProbModelChecker.TermCrit.ABSOLUTE;
+
+		// Weighted rewards for each choice
+		double[] weightedRewards = new double[prod.rewards.length];
+		for (int c = 0; c < prod.rewards.length; c++) {
+			for (int i = 0; i < k; i++) {
+				if (weights[i] != 0.0) {
+					weightedRewards[c] += weights[i] * prod.rewards[c][i];
+				}
+			}
+		}
+
+		// Solution vectors (weighted sum, then individual objectives)
+		double[] soln = new double[n];
+		double[] soln2 = useGS ? soln : new double[n];
+		double[][] objs = new double[k][n];
+		double[][] objs2 = useGS ? objs : new double[k][n];
+		int[] strat = new int[n];
+		Arrays.fill(strat, -1);
+
+		// Iterate
+		int iters = 0;
+		boolean done = false;
+		while (!done && iters < mc.maxIters) {
+			iters++;
+			double maxDiff = 0.0;
+			for (int s = 0; s < n; s++) {
+				int numChoices = mdp.getNumChoices(s);
+				double best = 0.0;
+				int bestj = -1;
+				for (int j = 0; j < numChoices; j++) {
+					double d = weightedRewards[prod.choiceStarts[s] + j] + mdp.mvMultSingle(s, j, soln);
+					// Only change the choice if strictly better
+					if (bestj == -1 || d > best || (d == best && j == strat[s])) {
+						best = d;
+						bestj = j;
+					}
+				}
+				double diff = absolute ? Math.abs(best - soln[s]) : Math.abs(PrismUtils.measureSupNormRel(best, soln[s]));
+				maxDiff = Math.max(maxDiff, diff);
+				soln2[s] = best;
+				strat[s] = bestj;
+				// Individual objectives must also converge (the weighted sum may not change at all, e.g. if some weights are zero)
+				for (int i = 0; i < k; i++) {
+					double d = bestj == -1 ? 0.0 : prod.rewards[prod.choiceStarts[s] + bestj][i] + mdp.mvMultSingle(s, bestj, objs[i]);
+					diff = absolute ? Math.abs(d - objs[i][s]) : Math.abs(PrismUtils.measureSupNormRel(d, objs[i][s]));
+					maxDiff = Math.max(maxDiff, diff);
+					objs2[i][s] = d;
+				}
+			}
+			done = maxDiff < mc.termCritParam;
+			if (!useGS) {
+				double[] tmp = soln;
+				soln = soln2;
+				soln2 = tmp;
+				double[][] tmps = objs;
+				objs = objs2;
+				objs2 = tmps;
+			}
+		}
+
+		if (!done) {
+			String msg = "Iterative method did not converge within " + iters + " iterations.";
+			msg += "\nConsider using a different numerical method or increasing the maximum number of iterations";
+			throw new PrismException(msg);
+		}
+		mainLog.println("Weighted value iteration took " + iters + " iterations.");
+
+		double[] result = new double[k];
+		for (int i = 0; i < k; i++) {
+			result[i] = prod.offsets[i] + objs[i][prod.initState];
+		}
+		return result;
+	}
+
+	/**
+	 * Optimise a weighted sum of the objectives (see {@link #weightedValueIteration});
+	 * if that fails (e.g., because of non-convergence), retry with a direction
+	 * very close to objective {@code i}, as done in the symbolic engines.
+	 */
+	protected double[] weightedValueIterationForObjective(MultiObjProduct prod, Point direction, int i, boolean useGS) throws PrismException
+	{
+		mainLog.println("Optimising weighted sum for objective " + (i + 1) + "/" + prod.numObjectives + ": weights " + direction);
+		try {
+			return weightedValueIteration(prod, direction.getCoords(), useGS);
+		} catch (PrismException e) {
+			mainLog.println("Ignoring the last multi-objective computation since it did not complete successfully");
+			double large = 10000;
+			for (int j = 0; j < prod.numObjectives; j++) {
+				direction.setCoord(j, j == i ? large : 1);
+			}
+			direction = direction.normalize();
+			mainLog.println("Optimising weighted sum for objective " + (i + 1) + "/" + prod.numObjectives + ": weights " + direction);
+			return weightedValueIteration(prod, direction.getCoords(), useGS);
+		}
+	}
+
+	/**
+	 * Generate a Pareto curve using weighted value iteration.
+	 */
+	protected TileList generateParetoCurve(MultiObjProduct prod, OpsAndBoundsList opsAndBounds) throws PrismException
+	{
+		int dim = prod.numObjectives;
+		boolean useGS = settings.getChoice(PrismSettings.PRISM_MDP_MULTI_SOLN_METHOD) == Prism.MDP_MULTI_GAUSSSEIDEL;
+		double tolerance = settings.getDouble(PrismSettings.PRISM_PARETO_EPSILON);
+		int maxPoints = settings.getInteger(PrismSettings.PRISM_MULTI_MAX_POINTS);
+		int numberOfPoints = 0;
+
+		// Optimise each objective separately, to get the initial tile
+		ArrayList<Point> pointsForInitialTile = new ArrayList<>();
+		for (int i = 0; i < dim; i++) {
+			Point direction = new Point(dim);
+			direction.setCoord(i, 1);
+			Point point = new Point(weightedValueIterationForObjective(prod, direction, i, useGS));
+			numberOfPoints++;
+			mainLog.println("Computed point: " + point);
+			pointsForInitialTile.add(point);
+		}
+		TileList tileList = new TileList(new Tile(pointsForInitialTile), opsAndBounds, tolerance);
+
+		// Refine, until no tile can be improved
+		Point direction = tileList.getCandidateHyperplane();
+		boolean decided = direction == null;
+		int iters = 0;
+		while (!decided && iters < maxPoints) {
+			iters++;
+			mainLog.println("Optimising weighted sum of objectives: weights " + direction);
+			Point point = new Point(weightedValueIteration(prod, direction.getCoords(), useGS));
+			numberOfPoints++;
+			mainLog.println("Computed point: " + point);
+			tileList.addNewPoint(point);
+			direction = tileList.getCandidateHyperplane();
+			decided = direction == null;
+		}
+		mainLog.println("Number of weight vectors used: " + numberOfPoints);
+		if (!decided) {
+			throw new PrismException("The computation did not finish in " + maxPoints
+					+ " target point iterations, try increasing this number using the -multimaxpoints switch.");
+		}
+
+		// Export to file if required
+		String paretoFile = settings.getString(PrismSettings.PRISM_EXPORT_PARETO_FILENAME);
+		if (paretoFile != null && !paretoFile.equals("")) {
+			MultiObjUtils.exportPareto(tileList, paretoFile);
+			mainLog.println("Exported Pareto curve. To see it, run\n etc/scripts/prism-pareto.py " + paretoFile);
+		}
+		return tileList;
+	}
+
+	/**
+	 * Compute the result of a numerical (one objective to optimise, the others bounded)
+	 * or achievability (all objectives bounded) query using weighted value iteration:
+	 * points are computed in the direction of separating hyperplanes between
+	 * the target point and the points computed so far.
+	 */
+	protected Object targetDrivenMultiObj(MultiObjProduct prod, OpsAndBoundsList opsAndBounds) throws PrismException
+	{
+		int dimProb = opsAndBounds.probSize();
+		int dimReward = opsAndBounds.rewardSize();
+		int dim = prod.numObjectives;
+		boolean useGS = settings.getChoice(PrismSettings.PRISM_MDP_MULTI_SOLN_METHOD) == Prism.MDP_MULTI_GAUSSSEIDEL;
+		int maxPoints = settings.getInteger(PrismSettings.PRISM_MULTI_MAX_POINTS);
+		int numberOfPoints = 0;
+
+		// Objective to optimise, if any (if present, it is the first probabilistic/reward one)
+		boolean maximizingProb = dimProb > 0 && opsAndBounds.getProbOperator(0) == Operator.P_MAX;
+		boolean maximizingReward = dimReward > 0 && (opsAndBounds.getRewardOperator(0) == Operator.R_MAX || opsAndBounds.getRewardOperator(0) == Operator.R_MIN);
+		boolean maximizingNegated = maximizingReward && opsAndBounds.getRewardOperator(0) == Operator.R_MIN;
+		int maximizingCoord = maximizingProb ? 0 : maximizingReward ? dimProb : -1;
+
+		// Target point: the bounds, and an upper bound for the objective to optimise
+		Point targetPoint = new Point(dim);
+		for (int i = 0; i < dimProb; i++) {
+			targetPoint.setCoord(i, opsAndBounds.getProbBound(i));
+		}
+		for (int i = 0; i < dimReward; i++) {
+			double bound = opsAndBounds.getRewardBound(i);
+			targetPoint.setCoord(dimProb + i, opsAndBounds.getRewardOperator(i) == Operator.R_LE ? -bound : bound);
+		}
+		if (maximizingProb) {
+			targetPoint.setCoord(0, 1.0);
+		}
+		if (maximizingReward) {
+			double[] weights = new double[dim];
+			weights[dimProb] = 1.0;
+			targetPoint.setCoord(dimProb, weightedValueIteration(prod, weights, useGS)[dimProb]);
+			numberOfPoints++;
+		}
+
+		List<Point> computedPoints = new ArrayList<>();
+		List<Point> computedDirections = new ArrayList<>();
+		Point direction = MultiObjUtils.getWeights(targetPoint, computedPoints);
+		boolean decided = false;
+		boolean isAchievable = false;
+		int iters = 0;
+		while (iters < maxPoints) {
+			iters++;
+			Point newPoint = new Point(weightedValueIteration(prod, direction.getCoords(), useGS));
+			numberOfPoints++;
+			if (mc.getVerbosity() > 0) {
+				mainLog.println("New point is " + newPoint + ".");
+			}
+			computedPoints.add(newPoint);
+			computedDirections.add(direction);
+
+			// Check if the new point together with the direction shows the target is not achievable
+			double dNew = 0.0;
+			double dTarget = 0.0;
+			for (int i = 0; i < dim; i++) {
+				dNew += newPoint.getCoord(i) * direction.getCoord(i);
+				dTarget += targetPoint.getCoord(i) * direction.getCoord(i);
+			}
+			if (dTarget > dNew) {
+				if (maximizingCoord == -1) {
+					decided = true;
+					isAchievable = false;
+					break;
+				}
+				// Lower the target for the objective to optimise, if possible
+				double rest = dNew - (dTarget - direction.getCoord(maximizingCoord) * targetPoint.getCoord(maximizingCoord));
+				double lowered = rest / direction.getCoord(maximizingCoord);
+				if ((!maximizingNegated && rest < 0) || (maximizingNegated && rest > 0) || lowered == Double.NEGATIVE_INFINITY || Double.isNaN(lowered)) {
+					decided = true;
+					isAchievable = false;
+					targetPoint.setCoord(maximizingCoord, Double.NaN);
+					break;
+				}
+				targetPoint.setCoord(maximizingCoord, lowered);
+			}
+
+			// Compute new direction; if there is no hyperplane strictly separating the target
+			// from the computed points, the target is achievable
+			direction = MultiObjUtils.getWeights(targetPoint, computedPoints);
+			if (direction == null || computedDirections.contains(direction)) {
+				decided = true;
+				isAchievable = true;
+				break;
+			}
+		}
+		mainLog.println("Number of weight vectors used: " + numberOfPoints);
+		if (!decided) {
+			throw new PrismException("The computation did not finish in " + maxPoints
+					+ " target point iterations, try increasing this number using the -multimaxpoints switch.");
+		}
+
+		if (maximizingCoord == -1) {
+			return isAchievable;
+		}
+		return toRealValue(targetPoint.getCoord(maximizingCoord), maximizingCoord, opsAndBounds);
+	}
+
+	/**
+	 * Compute the result of a numerical or achievability query using linear programming.
+	 * Variables are the expected number of times each choice of the product is taken
+	 * and, for states in end components without reward, the probability of remaining there forever.
+	 */
+	protected Object computeMultiObjLP(MultiObjProduct prod, OpsAndBoundsList opsAndBounds) throws PrismException
+	{
+		MDPSimple<Double> mdp = prod.mdp;
+		int n = mdp.getNumStates();
+		int dimProb = opsAndBounds.probSize();
+		int dim = prod.numObjectives;
+		int numChoices = prod.rewards.length;
+
+		// Find states in which we can remain forever without collecting reward
+		MDPSimple<Double> mdpZero = new MDPSimple<>(n);
+		BitSet stoppable = new BitSet();
+		for (int s = 0; s < n; s++) {
+			if (mdp.getNumChoices(s) == 0) {
+				stoppable.set(s);
+			}
+			for (int j = 0; j < mdp.getNumChoices(s); j++) {
+				boolean zero = true;
+				for (int i = dimProb; i < dim; i++) {
+					zero &= prod.rewards[prod.choiceStarts[s] + j][i] == 0.0;
+				}
+				if (zero) {
+					mdpZero.addChoice(s, mdp.getChoice(s, j));
+				}
+			}
+		}
+		ECComputer ecComputer = ECComputer.createECComputer(this, mdpZero);
+		ecComputer.computeMECStates();
+		for (BitSet mec : ecComputer.getMECStates()) {
+			stoppable.or(mec);
+		}
+		int[] stopVar = new int[n];
+		int numVars = numChoices;
+		for (int s = stoppable.nextSetBit(0); s >= 0; s = stoppable.nextSetBit(s + 1)) {
+			stopVar[s] = numVars++;
+		}
+
+		// Objective to optimise, if any (if present, it is the first one)
+		int maximizingCoord = -1;
+		if (opsAndBounds.numberOfNumerical() > 0) {
+			maximizingCoord = (dimProb > 0 && opsAndBounds.getProbOperator(0) == Operator.P_MAX) ? 0 : dimProb;
+		}
+
+		mainLog.println("\nBuilding linear program (" + numVars + " variables)...");
+		lpsolve.LpSolve solver = null;
+		try {
+			solver = lpsolve.LpSolve.makeLp(0, numVars);
+			solver.setVerbose(lpsolve.LpSolve.CRITICAL);
+			solver.setAddRowmode(true);
+
+			// Flow constraints: sum_j y(s,j) + z(s) - sum_{s',j'} P(s',j',s) y(s',j') = init(s)
+			List<List<double[]>> inFlows = new ArrayList<>(n);
+			for (int s = 0; s < n; s++) {
+				inFlows.add(new ArrayList<>());
+			}
+			for (int s = 0; s < n; s++) {
+				for (int j = 0; j < mdp.getNumChoices(s); j++) {
+					final int var = prod.choiceStarts[s] + j;
+					mdp.forEachDoubleTransition(s, j, (s1, t, prob) -> inFlows.get(t).add(new double[] { var, prob }));
+				}
+			}
+			for (int s = 0; s < n; s++) {
+				Map<Integer, Double> row = new HashMap<>();
+				for (int j = 0; j < mdp.getNumChoices(s); j++) {
+					row.merge(prod.choiceStarts[s] + j, 1.0, Double::sum);
+				}
+				if (stoppable.get(s)) {
+					row.merge(stopVar[s], 1.0, Double::sum);
+				}
+				for (double[] in : inFlows.get(s)) {
+					row.merge((int) in[0], -in[1], Double::sum);
+				}
+				addLPConstraint(solver, row, lpsolve.LpSolve.EQ, s == prod.initState ? 1.0 : 0.0);
+			}
+			inFlows.clear();
+			// Remain forever with probability 1
+			Map<Integer, Double> row = new HashMap<>();
+			for (int s = stoppable.nextSetBit(0); s >= 0; s = stoppable.nextSetBit(s + 1)) {
+				row.put(stopVar[s], 1.0);
+			}
+			addLPConstraint(solver, row, lpsolve.LpSolve.EQ, 1.0);
+			// Bounds on objectives
+			for (int i = 0; i < dim; i++) {
+				if (i == maximizingCoord) {
+					continue;
+				}
+				double bound = i < dimProb ? opsAndBounds.getProbBound(i) : opsAndBounds.getRewardBound(i - dimProb);
+				if (i >= dimProb && opsAndBounds.getRewardOperator(i - dimProb) == Operator.R_LE) {
+					bound = -bound;
+				}
+				addLPConstraint(solver, objectiveRow(prod, i), lpsolve.LpSolve.GE, bound - prod.offsets[i]);
+			}
+			solver.setAddRowmode(false);
+			// Objective function
+			if (maximizingCoord >= 0) {
+				Map<Integer, Double> objRow = objectiveRow(prod, maximizingCoord);
+				int[] cols = new int[objRow.size()];
+				double[] vals = new double[objRow.size()];
+				int count = 0;
+				for (Map.Entry<Integer, Double> e : objRow.entrySet()) {
+					cols[count] = e.getKey() + 1;
+					vals[count++] = e.getValue();
+				}
+				solver.setObjFnex(count, vals, cols);
+				solver.setMaxim();
+			}
+
+			// Solve
+			mainLog.println("Solving linear program...");
+			int r = solver.solve();
+			if (r == lpsolve.LpSolve.INFEASIBLE) {
+				mainLog.println("The linear program is infeasible");
+				return maximizingCoord >= 0 ? Double.NaN : Boolean.FALSE;
+			} else if (r == lpsolve.LpSolve.UNBOUNDED) {
+				if (maximizingCoord >= 0) {
+					return toRealValue(Double.POSITIVE_INFINITY, maximizingCoord, opsAndBounds);
+				}
+				return Boolean.TRUE;
+			} else if (r != lpsolve.LpSolve.OPTIMAL) {
+				throw new PrismException("lp_solve returned an unexpected value: " + r);
+			}
+			if (maximizingCoord >= 0) {
+				return toRealValue(prod.offsets[maximizingCoord] + solver.getObjective(), maximizingCoord, opsAndBounds);
+			}
+			return Boolean.TRUE;
+		} catch (lpsolve.LpSolveException e) {
+			throw new PrismException("lp_solve threw an exception: " + e.getMessage());
+		} catch (UnsatisfiedLinkError e) {
+			throw new PrismException("Could not load the lp_solve library: " + e.getMessage());
+		} finally {
+			if (solver != null) {
+				solver.deleteLp();
+			}
+		}
+	}
+
+	/**
+	 * Get the (sparse) row of the linear program for the value of objective {@code i}, excluding its offset.
+	 */
+	private static Map<Integer, Double> objectiveRow(MultiObjProduct prod, int i)
+	{
+		Map<Integer, Double> row = new HashMap<>();
+		for (int c = 0; c < prod.rewards.length; c++) {
+			if (prod.rewards[c][i] != 0.0) {
+				row.put(c, prod.rewards[c][i]);
+			}
+		}
+		return row;
+	}
+
+	/**
+	 * Add a constraint, given as a sparse row (0-indexed variables), to a linear program.
+	 */
+	private static void addLPConstraint(lpsolve.LpSolve solver, Map<Integer, Double> row, int type, double rhs) throws lpsolve.LpSolveException
+	{
+		int[] cols = new int[row.size()];
+		double[] vals = new double[row.size()];
+		int count = 0;
+		for (Map.Entry<Integer, Double> e : row.entrySet()) {
+			if (e.getValue() != 0.0) {
+				cols[count] = e.getKey() + 1;
+				vals[count++] = e.getValue();
+			}
+		}
+		solver.addConstraintex(count, vals, cols, type, rhs);
+	}
+
+	/**
+	 * Convert the value of the {@code i}th objective, as used for the computation,
+	 * back to the value for the objective specified by the user.
+	 */
+	private static double toRealValue(double value, int i, OpsAndBoundsList opsAndBounds)
+	{
+		int dimProb = opsAndBounds.probSize();
+		if (i < dimProb) {
+			return opsAndBounds.isProbNegated(i) ? 1 - value : value;
+		}
+		Operator op = opsAndBounds.getRewardOperator(i - dimProb);
+		return (op == Operator.R_MIN || op == Operator.R_LE) ? -value : value;
+	}
+}
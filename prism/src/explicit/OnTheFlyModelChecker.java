@@ -0,0 +1,567 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import parser.State;
+import parser.Values;
+import parser.ast.Expression;
+import parser.ast.ExpressionProb;
+import parser.ast.ExpressionTemporal;
+import parser.ast.PropertiesFile;
+import parser.ast.RelOp;
+import prism.Accuracy;
+import prism.Accuracy.AccuracyLevel;
+import prism.Evaluator;
+import prism.ModelGenerator;
+import prism.ModelType;
+import prism.PrismComponent;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import prism.PrismLangException;
+import prism.PrismNotSupportedException;
+import prism.PrismSettings;
+import prism.Result;
+import simulator.RandomNumberGenerator;
+
+/**
+ * On-the-fly model checker for (unbounded) reachability probabilities, i.e., properties
+ * of the form P=? [ a U b ], Pmax=? [ F b ], P&gt;p [ F b ], etc., for DTMCs, CTMCs and MDPs.
+ * <br><br>
+ * Rather than building the whole model first, the model is explored from its initial state
+ * using a {@link ModelGenerator}, keeping a lower and upper bound on the probability for each explored state.
+ * Exploration is guided by bounded real-time dynamic programming (BRTDP): paths are sampled
+ * from the initial state, choosing actions that are optimal with respect to the bounds
+ * and successors with probability proportional to the gap between their bounds,
+ * and bounds are then updated backwards along the path.
+ * Periodically, the bounds are also computed exactly for the part of the model explored so far
+ * (treating unexplored states as having probability 0 or 1), which also takes care of end components.
+ * Exploration stops once the gap between the bounds for the initial state is at most
+ * {@link PrismSettings#PRISM_ON_THE_FLY_EPSILON} (or once the result of a P&gt;p query is known).
+ */
+public class OnTheFlyModelChecker extends PrismComponent
+{
+	/** Maximum length of a sampled path */
+	public static final int MAX_PATH_LENGTH = 10000;
+	/** Number of consecutive sampled paths without any new states after which exploration is done exhaustively instead */
+	public static final int MAX_FAILED_PATHS = 100;
+	/** Factor by which the number of explored states grows between exact computations of bounds */
+	public static final double GROWTH_FACTOR = 1.5;
+	/** Minimum number of new states explored between exact computations of bounds */
+	public static final int MIN_NEW_STATES = 1000;
+
+	// Model generator
+	private ModelGenerator<Double> modelGen;
+	// Properties file
+	private PropertiesFile propertiesFile;
+	// Constants from model/properties
+	private Values constantValues;
+	// Required gap between bounds
+	private double epsilon;
+
+	// Info about the current query
+	private ModelType modelType;
+	private Expression remain;
+	private Expression goal;
+	private boolean min;
+
+	// Explored part of the model: states, their indices, and transitions
+	// (unexplored states and those with known probabilities have a self-loop)
+	private IndexedSet<State> states;
+	private List<State> statesList;
+	private MDPSimple<Double> mdp;
+	// States that have been explored
+	private BitSet explored;
+	private int numExplored;
+	// States with known probability (1 for those in goal, 0 for those in sink)
+	private BitSet goalStates;
+	private BitSet sinkStates;
+	// Lower/upper bounds on probabilities for each state
+	private double lower[];
+	private double upper[];
+	// Accuracy of the bounds from the last (numerical) computation
+	private Accuracy lowerAcc;
+	private Accuracy upperAcc;
+	// Random number generator for sampling paths
+	private RandomNumberGenerator rng;
+
+	/**
+	 * Constructor.
+	 */
+	public OnTheFlyModelChecker(PrismComponent parent, ModelGenerator<Double> modelGen, PropertiesFile propertiesFile) throws PrismException
+	{
+		super(parent);
+		this.modelGen = modelGen;
+		this.propertiesFile = propertiesFile;
+		// Get combined constant values from model/properties
+		constantValues = new Values();
+		constantValues.addValues(modelGen.getConstantValues());
+		if (propertiesFile != null) {
+			constantValues.addValues(propertiesFile.getConstantValues());
+		}
+		epsilon = settings.getDouble(PrismSettings.PRISM_ON_THE_FLY_EPSILON);
+	}
+
+	/**
+	 * Check whether a property can be checked with this model checker,
+	 * i.e., it is of the form P~p [ a U b ] or P~p [ F b ] (or P=?, Pmin=?, Pmax=?) without time bounds,
+	 * where a and b are propositional (after expanding any labels) and the model is a DTMC, CTMC or MDP.
+	 */
+	public static boolean isSupported(ModelType modelType, Expression expr, PropertiesFile propertiesFile) throws PrismLangException
+	{
+		if (!(modelType == ModelType.DTMC || modelType == ModelType.CTMC || modelType == ModelType.MDP)) {
+			return false;
+		}
+		return getUntilOperands(expr, propertiesFile) != null;
+	}
+
+	/**
+	 * Get the operands a and b (expanded, and with a=true for F b) of a property
+	 * P~p [ a U b ] or P~p [ F b ], or null if it is not of this form.
+	 */
+	private static Expression[] getUntilOperands(Expression expr, PropertiesFile propertiesFile) throws PrismLangException
+	{
+		if (!(expr instanceof ExpressionProb) || ((ExpressionProb) expr).getModifier() != null) {
+			return null;
+		}
+		Expression exprPath = ((ExpressionProb) expr).getExpression();
+		if (!exprPath.isSimplePathFormula()) {
+			return null;
+		}
+		exprPath = Expression.convertSimplePathFormulaToCanonicalForm(exprPath.deepCopy());
+		if (!(exprPath instanceof ExpressionTemporal)) {
+			return null;
+		}
+		ExpressionTemporal exprTemp = (ExpressionTemporal) exprPath;
+		if (exprTemp.getOperator() != ExpressionTemporal.P_U || exprTemp.hasBounds()) {
+			return null;
+		}
+		Expression operands[] = new Expression[2];
+		operands[0] = exprTemp.getOperand1();
+		operands[1] = exprTemp.getOperand2();
+		for (int i = 0; i < 2; i++) {
+			if (propertiesFile != null) {
+				operands[i] = (Expression) operands[i].expandPropRefsAndLabels(propertiesFile, propertiesFile.getCombinedLabelList());
+			}
+			// Operands must be propositional and cannot use labels
+			// (including those, like "deadlock", that are not defined by expressions)
+			if (!operands[i].isProposition() || !operands[i].getAllLabels().isEmpty()) {
+				return null;
+			}
+		}
+		return operands;
+	}
+
+	/**
+	 * Model check a property, which should be supported (see {@link #isSupported(ModelType, Expression, PropertiesFile)}).
+	 */
+	public Result check(Expression expr) throws PrismException
+	{
+		long timer = System.currentTimeMillis();
+
+		// Extract info from property
+		modelType = modelGen.getModelType();
+		if (!isSupported(modelType, expr, propertiesFile)) {
+			throw new PrismNotSupportedException("On-the-fly model checking does not support this property");
+		}
+		Expression operands[] = getUntilOperands(expr, propertiesFile);
+		remain = operands[0];
+		goal = operands[1];
+		ExpressionProb exprProb = (ExpressionProb) expr;
+		RelOp relOp = exprProb.getRelOp();
+		Double bound = exprProb.getProb() == null ? null : exprProb.getProb().evaluateDouble(constantValues);
+		if (modelType == ModelType.MDP) {
+			if (relOp == RelOp.EQ && bound == null) {
+				throw new PrismException("Min/max operator required for the P operator on MDPs");
+			}
+			// P>p/P>=p is checked using min, P<p/P<=p using max
+			min = relOp.isMin() || relOp.isLowerBound();
+		} else {
+			min = false;
+		}
+		if (!modelGen.hasSingleInitialState()) {
+			throw new PrismNotSupportedException("On-the-fly model checking requires a single initial state");
+		}
+
+		// Explore the model and compute bounds
+		mainLog.println("\nStarting on-the-fly model checking (epsilon = " + epsilon + ")...");
+		initialise();
+		int init = addState(modelGen.getInitialState());
+		int numSolves = 0;
+		while (true) {
+			// Sample paths until enough new states have been explored
+			int target = Math.max((int) (numExplored * GROWTH_FACTOR), numExplored + MIN_NEW_STATES);
+			int numFailed = 0;
+			while (numExplored < target && !isDone(init, bound)) {
+				if (samplePath(init)) {
+					numFailed = 0;
+				} else if (++numFailed >= MAX_FAILED_PATHS) {
+					// Sampling is not making progress: explore exhaustively instead
+					numFailed = 0;
+					if (!expandReachableFrontier(init)) {
+						break;
+					}
+				}
+			}
+			// Compute bounds for the explored part of the model
+			boolean complete = computeBounds();
+			numSolves++;
+			mainLog.println("Explored " + numExplored + " states (" + states.size() + " found): bounds for initial state are [" + lower[init] + "," + upper[init] + "]");
+			if (complete || isDone(init, bound)) {
+				break;
+			}
+		}
+		timer = System.currentTimeMillis() - timer;
+		mainLog.println("On-the-fly model checking completed in " + (timer / 1000.0) + " secs (" + numExplored + " states explored, " + numSolves + " iterations).");
+
+		// Construct result
+		// (bounds are only as accurate as the numerical solution used to compute them)
+		double lo = lowerAcc == null ? lower[init] : lowerAcc.getResultLowerBound(lower[init]);
+		double hi = upperAcc == null ? upper[init] : upperAcc.getResultUpperBound(upper[init]);
+		hi = Math.max(lo, hi);
+		double value = (lo + hi) / 2;
+		Result res;
+		if (bound == null) {
+			res = new Result(value);
+			boolean estimated = lowerAcc == null || lowerAcc.getLevel() == AccuracyLevel.ESTIMATED_BOUNDED || upperAcc == null || upperAcc.getLevel() == AccuracyLevel.ESTIMATED_BOUNDED;
+			if (hi == lo) {
+				res.setAccuracy(new Accuracy(AccuracyLevel.EXACT_FLOATING_POINT));
+			} else {
+				res.setAccuracy(new Accuracy(estimated ? AccuracyLevel.ESTIMATED_BOUNDED : AccuracyLevel.BOUNDED, (hi - lo) / 2, true));
+			}
+		} else {
+			boolean sat;
+			if (relOp.isLowerBound() ? (relOp.isStrict() ? lo > bound : lo >= bound) : (relOp.isStrict() ? hi < bound : hi <= bound)) {
+				sat = true;
+			} else if (relOp.isLowerBound() ? (relOp.isStrict() ? hi <= bound : hi < bound) : (relOp.isStrict() ? lo >= bound : lo > bound)) {
+				sat = false;
+			} else {
+				mainLog.printWarning("Bounds [" + lo + "," + hi + "] do not determine the result for bound " + bound + " so it is based on the midpoint");
+				sat = relOp.isLowerBound() ? (relOp.isStrict() ? value > bound : value >= bound) : (relOp.isStrict() ? value < bound : value <= bound);
+			}
+			res = new Result(sat);
+		}
+		String resultString = "Result";
+		if (!("Result".equals(expr.getResultName()))) {
+			resultString += " (" + expr.getResultName().toLowerCase() + ")";
+		}
+		mainLog.print("\n" + resultString + ": " + res.getResultAndAccuracy() + "\n");
+		return res;
+	}
+
+	/**
+	 * Initialise data structures for exploration.
+	 */
+	private void initialise()
+	{
+		states = new IndexedSet<>();
+		statesList = new ArrayList<>();
+		mdp = new MDPSimple<>();
+		explored = new BitSet();
+		numExplored = 0;
+		goalStates = new BitSet();
+		sinkStates = new BitSet();
+		lower = new double[1024];
+		upper = new double[1024];
+		rng = new RandomNumberGenerator(0);
+	}
+
+	/**
+	 * Is the gap between the bounds for state {@code s} small enough
+	 * (or, if {@code bound} is non-null, do the bounds determine the result)?
+	 */
+	private boolean isDone(int s, Double bound)
+	{
+		if (upper[s] - lower[s] <= epsilon) {
+			return true;
+		}
+		return bound != null && (lower[s] > bound || upper[s] < bound);
+	}
+
+	/**
+	 * Add a state (if new) and return its index.
+	 */
+	private int addState(State state) throws PrismException
+	{
+		if (!states.add(state)) {
+			return states.getIndexOfLastAdd();
+		}
+		int s = states.getIndexOfLastAdd();
+		statesList.add(state);
+		mdp.addState();
+		if (s == 0) {
+			mdp.addInitialState(s);
+		}
+		if (s >= lower.length) {
+			lower = Arrays.copyOf(lower, lower.length * 2);
+			upper = Arrays.copyOf(upper, upper.length * 2);
+		}
+		if (goal.evaluateBoolean(constantValues, state)) {
+			goalStates.set(s);
+			lower[s] = upper[s] = 1.0;
+		} else if (!remain.evaluateBoolean(constantValues, state)) {
+			sinkStates.set(s);
+			lower[s] = upper[s] = 0.0;
+		} else {
+			lower[s] = 0.0;
+			upper[s] = 1.0;
+		}
+		mdp.addChoice(s, selfLoop(s));
+		return s;
+	}
+
+	/**
+	 * Explore state {@code s}, i.e., add its outgoing transitions (and any new successor states).
+	 */
+	private void expand(int s) throws PrismException
+	{
+		explored.set(s);
+		numExplored++;
+		if (goalStates.get(s) || sinkStates.get(s)) {
+			return;
+		}
+		modelGen.exploreState(statesList.get(s));
+		int nc = modelGen.getNumChoices();
+		List<Distribution<Double>> distrs = new ArrayList<>();
+		if (modelType == ModelType.MDP) {
+			for (int i = 0; i < nc; i++) {
+				Distribution<Double> distr = Distribution.create(Evaluator.forDouble());
+				int nt = modelGen.getNumTransitions(i);
+				for (int j = 0; j < nt; j++) {
+					distr.add(addState(modelGen.computeTransitionTarget(i, j)), modelGen.getTransitionProbability(i, j));
+				}
+				distrs.add(distr);
+			}
+		} else if (nc > 0) {
+			// For DTMCs/CTMCs, combine choices (and normalise rates for CTMCs, i.e., use the embedded DTMC)
+			Distribution<Double> distr = Distribution.create(Evaluator.forDouble());
+			for (int i = 0; i < nc; i++) {
+				int nt = modelGen.getNumTransitions(i);
+				for (int j = 0; j < nt; j++) {
+					distr.add(addState(modelGen.computeTransitionTarget(i, j)), modelGen.getTransitionProbability(i, j));
+				}
+			}
+			if (modelType == ModelType.CTMC) {
+				double sum = distr.sum();
+				Distribution<Double> distrNorm = Distribution.create(Evaluator.forDouble());
+				for (Map.Entry<Integer, Double> e : distr) {
+					distrNorm.add(e.getKey(), e.getValue() / sum);
+				}
+				distr = distrNorm;
+			}
+			distrs.add(distr);
+		}
+		// Replace self-loop (which remains for deadlocks)
+		if (!distrs.isEmpty()) {
+			mdp.clearState(s);
+			for (Distribution<Double> distr : distrs) {
+				mdp.addChoice(s, distr);
+			}
+		}
+	}
+
+	/**
+	 * Sample a path from state {@code init}, guided by the current bounds,
+	 * until reaching an unexplored state (which is then explored), and update bounds along it.
+	 * Sampling also stops if the path revisits a state (i.e., it is in a cycle).
+	 * Returns true if a state was explored.
+	 */
+	private boolean samplePath(int init) throws PrismException
+	{
+		List<Integer> path = new ArrayList<>();
+		BitSet onPath = new BitSet();
+		boolean expanded = false;
+		int s = init;
+		for (int len = 0; len < MAX_PATH_LENGTH && !onPath.get(s); len++) {
+			path.add(s);
+			onPath.set(s);
+			if (!explored.get(s)) {
+				expand(s);
+				expanded = true;
+				break;
+			}
+			if (goalStates.get(s) || sinkStates.get(s) || upper[s] - lower[s] <= epsilon) {
+				break;
+			}
+			// Pick a choice that is optimal for the upper (max) or lower (min) bounds
+			int numChoices = mdp.getNumChoices(s);
+			int best = 0;
+			double bestVal = 0.0;
+			for (int i = 0; i < numChoices; i++) {
+				double val = 0.0;
+				for (Iterator<Map.Entry<Integer, Double>> iter = mdp.getTransitionsIterator(s, i); iter.hasNext();) {
+					Map.Entry<Integer, Double> e = iter.next();
+					val += e.getValue() * (min ? lower[e.getKey()] : upper[e.getKey()]);
+				}
+				if (i == 0 || (min ? val < bestVal : val > bestVal)) {
+					best = i;
+					bestVal = val;
+				}
+			}
+			// Sample a successor, weighted by the gap between its bounds
+			double total = 0.0;
+			for (Iterator<Map.Entry<Integer, Double>> iter = mdp.getTransitionsIterator(s, best); iter.hasNext();) {
+				Map.Entry<Integer, Double> e = iter.next();
+				total += e.getValue() * (upper[e.getKey()] - lower[e.getKey()]);
+			}
+			if (total <= 0.0) {
+				break;
+			}
+			double x = rng.randomUnifDouble(total);
+			int next = -1;
+			for (Iterator<Map.Entry<Integer, Double>> iter = mdp.getTransitionsIterator(s, best); iter.hasNext();) {
+				Map.Entry<Integer, Double> e = iter.next();
+				double w = e.getValue() * (upper[e.getKey()] - lower[e.getKey()]);
+				if (w > 0.0) {
+					next = e.getKey();
+					x -= w;
+					if (x < 0.0) {
+						break;
+					}
+				}
+			}
+			s = next;
+		}
+		// Update bounds backwards along the path
+		for (int i = path.size() - 1; i >= 0; i--) {
+			update(path.get(i));
+		}
+		return expanded;
+	}
+
+	/**
+	 * Update the bounds for (explored) state {@code s} based on those of its successors.
+	 */
+	private void update(int s)
+	{
+		if (!explored.get(s) || goalStates.get(s) || sinkStates.get(s)) {
+			return;
+		}
+		int numChoices = mdp.getNumChoices(s);
+		double lo = 0.0, hi = 0.0;
+		for (int i = 0; i < numChoices; i++) {
+			double l = 0.0, u = 0.0;
+			for (Iterator<Map.Entry<Integer, Double>> iter = mdp.getTransitionsIterator(s, i); iter.hasNext();) {
+				Map.Entry<Integer, Double> e = iter.next();
+				l += e.getValue() * lower[e.getKey()];
+				u += e.getValue() * upper[e.getKey()];
+			}
+			if (i == 0) {
+				lo = l;
+				hi = u;
+			} else {
+				lo = min ? Math.min(lo, l) : Math.max(lo, l);
+				hi = min ? Math.min(hi, u) : Math.max(hi, u);
+			}
+		}
+		lower[s] = Math.max(lower[s], lo);
+		upper[s] = Math.min(upper[s], hi);
+	}
+
+	/**
+	 * Explore all unexplored states that are reachable from {@code init}
+	 * via explored states whose bounds have not converged.
+	 * Returns false if there were none.
+	 */
+	private boolean expandReachableFrontier(int init) throws PrismException
+	{
+		BitSet visited = new BitSet();
+		Deque<Integer> queue = new ArrayDeque<>();
+		List<Integer> frontier = new ArrayList<>();
+		visited.set(init);
+		queue.add(init);
+		while (!queue.isEmpty()) {
+			int s = queue.poll();
+			if (!explored.get(s)) {
+				frontier.add(s);
+				continue;
+			}
+			if (upper[s] - lower[s] <= epsilon) {
+				continue;
+			}
+			int numChoices = mdp.getNumChoices(s);
+			for (int i = 0; i < numChoices; i++) {
+				for (Iterator<Integer> iter = mdp.getSuccessorsIterator(s, i); iter.hasNext();) {
+					int t = iter.next();
+					if (!visited.get(t)) {
+						visited.set(t);
+						queue.add(t);
+					}
+				}
+			}
+		}
+		for (int s : frontier) {
+			expand(s);
+		}
+		return !frontier.isEmpty();
+	}
+
+	/**
+	 * Compute bounds for all states of the explored part of the model, treating unexplored states
+	 * as having probability 0 (for lower bounds) or 1 (for upper bounds).
+	 * Returns true if there are no unexplored states left (i.e., the bounds are exact).
+	 */
+	private boolean computeBounds() throws PrismException
+	{
+		int n = states.size();
+		BitSet frontier = new BitSet();
+		frontier.set(0, n);
+		frontier.andNot(explored);
+		frontier.andNot(goalStates);
+		frontier.andNot(sinkStates);
+		// (using a sparse copy of the model, for faster solution)
+		MDPSparse mdpSparse = new MDPSparse(mdp);
+		MDPModelChecker mc = new MDPModelChecker(this);
+		mc.setLog(new PrismDevNullLog());
+		ModelCheckerResult resLo = mc.computeReachProbs(mdpSparse, null, goalStates, min, Arrays.copyOf(lower, n), null);
+		BitSet goalOrFrontier = (BitSet) goalStates.clone();
+		goalOrFrontier.or(frontier);
+		ModelCheckerResult resHi = frontier.isEmpty() ? resLo : mc.computeReachProbs(mdpSparse, goalOrFrontier, min);
+		double lo[] = resLo.soln;
+		double hi[] = resHi.soln;
+		lowerAcc = resLo.accuracy;
+		upperAcc = resHi.accuracy;
+		for (int s = 0; s < n; s++) {
+			lower[s] = Math.max(lower[s], lo[s]);
+			upper[s] = frontier.isEmpty() ? lower[s] : Math.min(upper[s], hi[s]);
+		}
+		return frontier.isEmpty();
+	}
+
+	private static Distribution<Double> selfLoop(int s)
+	{
+		Distribution<Double> distr = Distribution.create(Evaluator.forDouble());
+		distr.add(s, 1.0);
+		return distr;
+	}
+}
@@ -0,0 +1,551 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import parser.State;
+import parser.VarList;
+import parser.ast.DeclarationBool;
+import parser.ast.DeclarationInt;
+import parser.ast.DeclarationType;
+
+/**
+ * Compact storage for an indexed set of states, used during reachability.
+ * <br><br>
+ * Rather than storing {@link State} objects (with boxed variable values) in a map,
+ * the value of each variable is encoded as an integer (using its declared range,
+ * see {@link VarList#encodeToInt(int, Object)}) and packed into a fixed-width bit field.
+ * Each state thus occupies a fixed number of {@code long}s, stored consecutively
+ * in index order, and an open-addressing hash table (of indices) is used for lookup.
+ * {@link State} objects are only created on demand, when states are retrieved.
+ * <br><br>
+ * Variables are packed from the most significant bit of the first word onwards
+ * (and never straddle two words), so that comparing the packed words as unsigned
+ * integers corresponds to {@link State#compareTo(State)}. This is used to build
+ * the same sorting permutation as a sorted {@link IndexedSet} would.
+ * <br><br>
+ * This is only applicable to models whose variables are all bounded integers or Booleans
+ * (see {@link #isSupported(VarList)}), and to states whose values are within the declared
+ * ranges (see {@link #fits(State)}).
+ */
+public class PackedStateStorage implements StateStorage<State>
+{
+	/** Maximum load factor of the hash table */
+	protected static final double MAX_LOAD = 0.75;
+	/** Initial number of states to allocate space for */
+	protected static final int INITIAL_CAPACITY = 1024;
+
+	/** Variable info */
+	protected VarList varList;
+	/** Number of variables */
+	protected int numVars;
+	/** Number of longs per state */
+	protected int numWords;
+	/** For each variable, index of the word containing it */
+	protected int[] varWord;
+	/** For each variable, bit offset of its field within the word */
+	protected int[] varShift;
+	/** For each variable, bit mask for its field (after shifting) */
+	protected long[] varMask;
+	/** For each variable, lower bound of its range */
+	protected int[] varLow;
+	/** For each variable, is it Boolean? */
+	protected boolean[] varIsBool;
+
+	/** Packed states, numWords per state, in index order */
+	protected long[] data;
+	/** Hash table: index + 1 of the state in each slot (0 if empty); size is a power of 2 */
+	protected int[] table;
+	/** Number of states stored */
+	protected int size;
+	/** Index of the state involved in the last call to add() */
+	protected int indexOfLastAdd;
+	/** Scratch space for packing states */
+	protected long[] packed;
+
+	/**
+	 * Check whether states of a model with variables {@code varList} can be stored by this class,
+	 * i.e., whether all variables are bounded integers or Booleans.
+	 */
+	public static boolean isSupported(VarList varList)
+	{
+		int numVars = varList.getNumVars();
+		for (int v = 0; v < numVars; v++) {
+			DeclarationType declType = varList.getDeclarationType(v);
+			if (!(declType instanceof DeclarationInt || declType instanceof DeclarationBool)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Create an empty storage for states over the variables in {@code varList}.
+	 * It is assumed that {@link #isSupported(VarList)} is true.
+	 */
+	public PackedStateStorage(VarList varList)
+	{
+		this.varList = varList;
+		numVars = varList.getNumVars();
+		varWord = new int[numVars];
+		varShift = new int[numVars];
+		varMask = new long[numVars];
+		varLow = new int[numVars];
+		varIsBool = new boolean[numVars];
+		// Allocate bit fields, most significant bits first
+		int word = 0;
+		int bitsLeft = 64;
+		for (int v = 0; v < numVars; v++) {
+			int bits = Math.max(1, varList.getRangeLogTwo(v));
+			if (bits > bitsLeft) {
+				word++;
+				bitsLeft = 64;
+			}
+			bitsLeft -= bits;
+			varWord[v] = word;
+			varShift[v] = bitsLeft;
+			varMask[v] = (1L << bits) - 1;
+			varLow[v] = varList.getLow(v);
+			varIsBool[v] = varList.getDeclarationType(v) instanceof DeclarationBool;
+		}
+		numWords = Math.max(1, word + (bitsLeft < 64 ? 1 : 0));
+		packed = new long[numWords];
+		clear();
+	}
+
+	// Packing/unpacking
+
+	/**
+	 * Check whether state {@code state} can be stored, i.e., whether the value of each variable
+	 * fits in its bit field (as is the case for any value within its declared range).
+	 * States with variables taken out of range by an update are valid (for explicit
+	 * model construction) but may not fit, in which case another storage should be used.
+	 */
+	public boolean fits(State state)
+	{
+		for (int v = 0; v < numVars; v++) {
+			if (!varIsBool[v]) {
+				Object val = state.varValues[v];
+				if (!(val instanceof Integer)) {
+					return false;
+				}
+				long enc = ((Integer) val) - (long) varLow[v];
+				if (enc < 0 || enc > varMask[v]) {
+					return false;
+				}
+			} else if (!(state.varValues[v] instanceof Boolean)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Pack state {@code state} into {@code dest}.
+	 * Throws an IllegalArgumentException if it does not fit (see {@link #fits(State)}).
+	 */
+	protected void pack(State state, long[] dest)
+	{
+		Arrays.fill(dest, 0L);
+		for (int v = 0; v < numVars; v++) {
+			Object val = state.varValues[v];
+			long enc;
+			if (varIsBool[v]) {
+				enc = ((Boolean) val) ? 1 : 0;
+			} else {
+				enc = ((Integer) val) - (long) varLow[v];
+				if (enc < 0 || enc > varMask[v]) {
+					throw new IllegalArgumentException("Value " + val + " out of range for variable " + varList.getName(v));
+				}
+			}
+			dest[varWord[v]] |= enc << varShift[v];
+		}
+	}
+
+	/**
+	 * Unpack the state stored at position {@code index} of array {@code src}.
+	 */
+	protected State unpack(long[] src, int index)
+	{
+		State state = new State(numVars);
+		int base = index * numWords;
+		for (int v = 0; v < numVars; v++) {
+			int enc = (int) ((src[base + varWord[v]] >>> varShift[v]) & varMask[v]);
+			state.varValues[v] = varIsBool[v] ? (Boolean) (enc != 0) : (Integer) (enc + varLow[v]);
+		}
+		return state;
+	}
+
+	/**
+	 * Get the state with index {@code i}.
+	 */
+	public State getState(int i)
+	{
+		if (i < 0 || i >= size) {
+			throw new IndexOutOfBoundsException("State index " + i + " out of range");
+		}
+		return unpack(data, i);
+	}
+
+	// Hash table
+
+	/**
+	 * Hash code of the packed state {@code words}.
+	 */
+	protected static int hash(long[] words)
+	{
+		long h = 0;
+		for (long w : words) {
+			h = h * 0x9E3779B97F4A7C15L + w;
+		}
+		// Final mixing (as in MurmurHash3)
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		return (int) h;
+	}
+
+	/**
+	 * Hash code of the state stored with index {@code index}.
+	 */
+	protected int hashOfStored(int index)
+	{
+		long h = 0;
+		int base = index * numWords;
+		for (int k = 0; k < numWords; k++) {
+			h = h * 0x9E3779B97F4A7C15L + data[base + k];
+		}
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		return (int) h;
+	}
+
+	/**
+	 * Is the state stored with index {@code index} equal to the packed state {@code words}?
+	 */
+	protected boolean storedEquals(int index, long[] words)
+	{
+		int base = index * numWords;
+		for (int k = 0; k < numWords; k++) {
+			if (data[base + k] != words[k]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Find the slot of the hash table containing the packed state {@code words},
+	 * or the (empty) slot where it would be inserted.
+	 */
+	protected int findSlot(long[] words)
+	{
+		int mask = table.length - 1;
+		int slot = hash(words) & mask;
+		while (true) {
+			int entry = table[slot];
+			if (entry == 0 || storedEquals(entry - 1, words)) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * Double the size of the hash table and re-insert all states.
+	 */
+	protected void growTable()
+	{
+		int[] newTable = new int[table.length * 2];
+		int mask = newTable.length - 1;
+		for (int i = 0; i < size; i++) {
+			int slot = hashOfStored(i) & mask;
+			while (newTable[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			newTable[slot] = i + 1;
+		}
+		table = newTable;
+	}
+
+	// Methods for StateStorage
+
+	@Override
+	public int get(State state)
+	{
+		// (states that do not fit cannot have been stored)
+		if (!fits(state)) {
+			return -1;
+		}
+		pack(state, packed);
+		int entry = table[findSlot(packed)];
+		return entry - 1;
+	}
+
+	@Override
+	public boolean add(State state)
+	{
+		// (throws an exception if the state does not fit, see fits())
+		pack(state, packed);
+		int slot = findSlot(packed);
+		if (table[slot] != 0) {
+			indexOfLastAdd = table[slot] - 1;
+			return false;
+		}
+		if (size == Integer.MAX_VALUE - 1) {
+			throw new IllegalStateException("Too many states to store");
+		}
+		// Store packed state
+		if ((long) (size + 1) * numWords > data.length) {
+			long newLength = Math.min((long) data.length * 3 / 2 + numWords, (long) Integer.MAX_VALUE - 8);
+			if (newLength < (long) (size + 1) * numWords) {
+				throw new IllegalStateException("Too many states to store");
+			}
+			data = Arrays.copyOf(data, (int) newLength);
+		}
+		System.arraycopy(packed, 0, data, size * numWords, numWords);
+		table[slot] = size + 1;
+		indexOfLastAdd = size;
+		size++;
+		// Grow hash table if needed
+		if (size > table.length * MAX_LOAD) {
+			growTable();
+		}
+		return true;
+	}
+
+	@Override
+	public void clear()
+	{
+		data = new long[INITIAL_CAPACITY * numWords];
+		table = new int[Integer.highestOneBit((int) (INITIAL_CAPACITY / MAX_LOAD)) * 2];
+		size = 0;
+		indexOfLastAdd = -1;
+	}
+
+	@Override
+	public boolean contains(State state)
+	{
+		return get(state) != -1;
+	}
+
+	@Override
+	public int getIndexOfLastAdd()
+	{
+		return indexOfLastAdd;
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	@Override
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Get access to the underlying set of map entries.
+	 * Note: this creates a (map) copy of the whole state set, so should be avoided for large models.
+	 */
+	@Override
+	public Set<Map.Entry<State, Integer>> getEntrySet()
+	{
+		Map<State, Integer> map = new LinkedHashMap<>();
+		for (int i = 0; i < size; i++) {
+			map.put(unpack(data, i), i);
+		}
+		return map.entrySet();
+	}
+
+	@Override
+	public ArrayList<State> toArrayList()
+	{
+		ArrayList<State> list = new ArrayList<State>(size);
+		toArrayList(list);
+		return list;
+	}
+
+	@Override
+	public void toArrayList(ArrayList<State> list)
+	{
+		for (int i = 0; i < size; i++) {
+			list.add(unpack(data, i));
+		}
+	}
+
+	@Override
+	public ArrayList<State> toPermutedArrayList(int permut[])
+	{
+		ArrayList<State> list = new ArrayList<State>(size);
+		toPermutedArrayList(permut, list);
+		return list;
+	}
+
+	@Override
+	public void toPermutedArrayList(int permut[], ArrayList<State> list)
+	{
+		for (int i = 0; i < size; i++) {
+			list.add(null);
+		}
+		for (int i = 0; i < size; i++) {
+			list.set(permut[i], unpack(data, i));
+		}
+	}
+
+	/**
+	 * Get a list of the states, ordered by permuted index (or by index if {@code permut} is null).
+	 * The list is an unmodifiable view onto a packed copy of the states,
+	 * whose {@link State} objects are created on demand.
+	 */
+	@Override
+	public List<State> toPermutedList(int permut[])
+	{
+		long[] listData;
+		if (permut == null) {
+			listData = Arrays.copyOf(data, size * numWords);
+		} else {
+			listData = new long[size * numWords];
+			for (int i = 0; i < size; i++) {
+				System.arraycopy(data, i * numWords, listData, permut[i] * numWords, numWords);
+			}
+		}
+		return new PackedStatesList(listData, size);
+	}
+
+	/**
+	 * Build sort permutation, i.e., a permutation (integer array) mapping current indices
+	 * to new indices under the ordering of {@link State#compareTo(State)}.
+	 */
+	@Override
+	public int[] buildSortingPermutation()
+	{
+		// Sort indices by packed state
+		int[] sorted = new int[size];
+		for (int i = 0; i < size; i++) {
+			sorted[i] = i;
+		}
+		mergeSort(sorted, new int[size], 0, size);
+		// Invert to get permutation
+		int[] perm = new int[size];
+		for (int i = 0; i < size; i++) {
+			perm[sorted[i]] = i;
+		}
+		return perm;
+	}
+
+	/**
+	 * Sort the indices {@code a[lo..hi)} by (packed) state, using {@code tmp} as scratch space.
+	 */
+	protected void mergeSort(int[] a, int[] tmp, int lo, int hi)
+	{
+		if (hi - lo < 2) {
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		mergeSort(a, tmp, lo, mid);
+		mergeSort(a, tmp, mid, hi);
+		if (compareStored(a[mid - 1], a[mid]) <= 0) {
+			return;
+		}
+		System.arraycopy(a, lo, tmp, lo, hi - lo);
+		int i = lo, j = mid, k = lo;
+		while (i < mid && j < hi) {
+			a[k++] = compareStored(tmp[j], tmp[i]) < 0 ? tmp[j++] : tmp[i++];
+		}
+		while (i < mid) {
+			a[k++] = tmp[i++];
+		}
+		while (j < hi) {
+			a[k++] = tmp[j++];
+		}
+	}
+
+	/**
+	 * Compare the states stored with indices {@code i1} and {@code i2}.
+	 */
+	protected int compareStored(int i1, int i2)
+	{
+		int base1 = i1 * numWords;
+		int base2 = i2 * numWords;
+		for (int k = 0; k < numWords; k++) {
+			int c = Long.compareUnsigned(data[base1 + k], data[base2 + k]);
+			if (c != 0) {
+				return c;
+			}
+		}
+		return 0;
+	}
+
+	@Override
+	public String toString()
+	{
+		return toPermutedList(null).toString();
+	}
+
+	/**
+	 * Unmodifiable list of packed states, whose {@link State} objects are created on demand.
+	 */
+	protected class PackedStatesList extends AbstractList<State> implements RandomAccess
+	{
+		/** Packed states, numWords per state */
+		protected long[] listData;
+		/** Number of states */
+		protected int listSize;
+
+		protected PackedStatesList(long[] listData, int listSize)
+		{
+			this.listData = listData;
+			this.listSize = listSize;
+		}
+
+		@Override
+		public State get(int index)
+		{
+			if (index < 0 || index >= listSize) {
+				throw new IndexOutOfBoundsException("Index " + index + " out of range");
+			}
+			return unpack(listData, index);
+		}
+
+		@Override
+		public int size()
+		{
+			return listSize;
+		}
+	}
+}
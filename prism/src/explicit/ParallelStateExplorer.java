@@ -0,0 +1,392 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import common.Interval;
+import parser.State;
+import parser.type.Type;
+import prism.ModelGenerator;
+import prism.ModelType;
+import prism.PrismException;
+
+/**
+ * Helper class for multi-threaded state space exploration, used by {@link ConstructModel}.
+ * <br><br>
+ * States are taken from the head of the exploration queue in batches,
+ * and their outgoing transitions are generated concurrently by a pool of worker threads,
+ * each using its own copy of the {@link ModelGenerator} (see {@link ModelGenerator#createCopyForExploration()}).
+ * The results are stored as {@link ExploredState} objects, which are then handed back
+ * (via {@link #explore(State, LinkedList)}) to the single thread that builds the model,
+ * in exactly the same order that states would be explored sequentially.
+ * Since indices are only assigned to new states by this thread, the resulting model
+ * (and state ordering) is identical to the one obtained by sequential exploration.
+ */
+public class ParallelStateExplorer<Value> implements AutoCloseable
+{
+	/** Number of states per thread to explore in each batch */
+	public static final int BATCH_SIZE_PER_THREAD = 1024;
+	/** Number of states that a worker claims from a batch at once */
+	public static final int GRAIN_SIZE = 16;
+
+	/** The original model generator (for model info) */
+	protected ModelGenerator<Value> modelGen;
+	/** Model generators, one per worker thread */
+	protected List<ModelGenerator<Value>> workerGens;
+	/** Thread pool */
+	protected ExecutorService executor;
+
+	/** Current batch of states being explored */
+	protected State[] batch;
+	/** Exploration results for the current batch */
+	protected ExploredState<Value>[] explored;
+	/** Errors (if any) that occurred for states in the current batch */
+	protected PrismException[] errors;
+	/** Size of the current batch */
+	protected int batchSize = 0;
+	/** Position of the next state to be returned from the current batch */
+	protected int batchPos = 0;
+
+	/**
+	 * Create a parallel state explorer, using {@code numThreads} threads.
+	 * Returns null if {@code modelGen} does not support concurrent exploration.
+	 * @param modelGen The ModelGenerator interface providing the model
+	 * @param numThreads Number of worker threads
+	 */
+	public static <Value> ParallelStateExplorer<Value> create(ModelGenerator<Value> modelGen, int numThreads) throws PrismException
+	{
+		// Symbolic evaluators (e.g. for rational functions) are not thread-safe
+		if (modelGen.getEvaluator().isSymbolic()) {
+			return null;
+		}
+		List<ModelGenerator<Value>> workerGens = new ArrayList<>(numThreads);
+		for (int i = 0; i < numThreads; i++) {
+			ModelGenerator<Value> workerGen = modelGen.createCopyForExploration();
+			if (workerGen == null) {
+				return null;
+			}
+			workerGens.add(workerGen);
+		}
+		return new ParallelStateExplorer<>(modelGen, workerGens);
+	}
+
+	@SuppressWarnings("unchecked")
+	protected ParallelStateExplorer(ModelGenerator<Value> modelGen, List<ModelGenerator<Value>> workerGens)
+	{
+		this.modelGen = modelGen;
+		this.workerGens = workerGens;
+		int numThreads = workerGens.size();
+		// Idle threads time out, so the pool does not outlive an exploration that is aborted with an error
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(numThreads, numThreads, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+			Thread thread = new Thread(r, "prism-explore");
+			thread.setDaemon(true);
+			return thread;
+		});
+		pool.allowCoreThreadTimeOut(true);
+		executor = pool;
+		int maxBatchSize = numThreads * BATCH_SIZE_PER_THREAD;
+		batch = new State[maxBatchSize];
+		explored = (ExploredState<Value>[]) new ExploredState<?>[maxBatchSize];
+		errors = new PrismException[maxBatchSize];
+	}
+
+	/**
+	 * Get the number of worker threads.
+	 */
+	public int getNumThreads()
+	{
+		return workerGens.size();
+	}
+
+	/**
+	 * Get the outgoing transitions of state {@code state}, which has just been removed
+	 * from the head of the exploration queue {@code explore}. If needed, a new batch of
+	 * states, comprising {@code state} and the states at the head of {@code explore},
+	 * is explored concurrently first. The returned object can be queried like a
+	 * ModelGenerator that has just explored {@code state}.
+	 * Any error that occurred while exploring {@code state} is thrown here.
+	 */
+	public ModelGenerator<Value> explore(State state, LinkedList<State> explore) throws PrismException
+	{
+		if (batchPos == batchSize) {
+			exploreBatch(state, explore);
+		}
+		if (batch[batchPos] != state) {
+			throw new PrismException("Parallel state exploration out of sync with exploration queue");
+		}
+		ExploredState<Value> res = explored[batchPos];
+		PrismException err = errors[batchPos];
+		batch[batchPos] = null;
+		explored[batchPos] = null;
+		errors[batchPos] = null;
+		batchPos++;
+		if (err != null) {
+			throw err;
+		}
+		return res;
+	}
+
+	/**
+	 * Explore a new batch of states, starting with {@code first} and followed by
+	 * as many as possible from the head of {@code explore} (which is left unmodified).
+	 */
+	protected void exploreBatch(State first, LinkedList<State> explore) throws PrismException
+	{
+		// Build batch
+		batchSize = 0;
+		batchPos = 0;
+		batch[batchSize++] = first;
+		Iterator<State> it = explore.iterator();
+		while (batchSize < batch.length && it.hasNext()) {
+			batch[batchSize++] = it.next();
+		}
+		// Small batches are not worth distributing
+		if (batchSize < GRAIN_SIZE) {
+			exploreStates(workerGens.get(0), 0, batchSize);
+			return;
+		}
+		// Explore batch concurrently: workers repeatedly claim
+		// a chunk of GRAIN_SIZE states, until the batch is exhausted
+		AtomicInteger next = new AtomicInteger(0);
+		List<Callable<Void>> tasks = new ArrayList<>(workerGens.size());
+		for (ModelGenerator<Value> workerGen : workerGens) {
+			tasks.add(() -> {
+				int lo;
+				while ((lo = next.getAndAdd(GRAIN_SIZE)) < batchSize) {
+					exploreStates(workerGen, lo, Math.min(lo + GRAIN_SIZE, batchSize));
+				}
+				return null;
+			});
+		}
+		try {
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PrismException("Parallel state exploration was interrupted");
+		} catch (ExecutionException e) {
+			// Rethrow errors from worker threads as they are (as for sequential exploration)
+			Throwable cause = e.getCause();
+			if (cause instanceof PrismException) {
+				throw (PrismException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new PrismException("Error during parallel state exploration: " + cause);
+		}
+	}
+
+	/**
+	 * Explore states {@code lo} (inclusive) to {@code hi} (exclusive) of the current batch,
+	 * using the model generator {@code gen}, storing the results (or errors).
+	 */
+	protected void exploreStates(ModelGenerator<Value> gen, int lo, int hi)
+	{
+		boolean uncertain = modelGen.getModelType().uncertain();
+		boolean hasProbs = modelGen.getModelType() != ModelType.LTS;
+		for (int k = lo; k < hi; k++) {
+			try {
+				gen.exploreState(batch[k]);
+				explored[k] = new ExploredState<>(modelGen, gen, uncertain, hasProbs);
+			} catch (PrismException e) {
+				errors[k] = e;
+			}
+		}
+	}
+
+	/**
+	 * Shut down the worker threads.
+	 */
+	@Override
+	public void close()
+	{
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Stored copy of the outgoing transitions of a state, as generated by a {@link ModelGenerator}.
+	 * Only the methods needed to query transitions (and basic model info) are supported.
+	 */
+	public static class ExploredState<Value> implements ModelGenerator<Value>
+	{
+		/** The original model generator (for model info) */
+		protected ModelGenerator<Value> modelGen;
+		/** Number of choices */
+		protected int numChoices;
+		/** Action for each choice */
+		protected Object[] choiceActions;
+		/** Start index (into transition arrays) for each choice; length numChoices + 1 */
+		protected int[] choiceStarts;
+		/** Target state for each transition */
+		protected State[] targets;
+		/** Action for each transition */
+		protected Object[] transitionActions;
+		/** Probability (Value or Interval&lt;Value&gt;) for each transition, or null if none */
+		protected Object[] probs;
+		/** Are probabilities intervals? */
+		protected boolean uncertain;
+		/** Index of a choice forming an ample set, for partial-order reduction (-1 if none) */
+		protected int ampleChoice;
+
+		/**
+		 * Store the transitions of the state most recently explored by {@code gen}.
+		 * @param modelGen The original model generator (for model info)
+		 * @param gen The model generator that explored the state
+		 * @param uncertain Store probability intervals (rather than probabilities)?
+		 * @param hasProbs Store probabilities at all? (not for LTSs)
+		 */
+		public ExploredState(ModelGenerator<Value> modelGen, ModelGenerator<Value> gen, boolean uncertain, boolean hasProbs) throws PrismException
+		{
+			this.modelGen = modelGen;
+			this.uncertain = uncertain;
+			numChoices = gen.getNumChoices();
+			ampleChoice = gen.getAmpleChoice();
+			choiceActions = new Object[numChoices];
+			choiceStarts = new int[numChoices + 1];
+			for (int i = 0; i < numChoices; i++) {
+				choiceActions[i] = gen.getChoiceAction(i);
+				choiceStarts[i + 1] = choiceStarts[i] + gen.getNumTransitions(i);
+			}
+			int numTransitions = choiceStarts[numChoices];
+			targets = new State[numTransitions];
+			transitionActions = new Object[numTransitions];
+			probs = hasProbs ? new Object[numTransitions] : null;
+			for (int i = 0; i < numChoices; i++) {
+				int nt = choiceStarts[i + 1] - choiceStarts[i];
+				for (int j = 0; j < nt; j++) {
+					int t = choiceStarts[i] + j;
+					targets[t] = gen.computeTransitionTarget(i, j);
+					transitionActions[t] = gen.getTransitionAction(i, j);
+					if (hasProbs) {
+						probs[t] = uncertain ? gen.getTransitionProbabilityInterval(i, j) : gen.getTransitionProbability(i, j);
+					}
+				}
+			}
+		}
+
+		@Override
+		public ModelType getModelType()
+		{
+			return modelGen.getModelType();
+		}
+
+		@Override
+		public List<String> getVarNames()
+		{
+			return modelGen.getVarNames();
+		}
+
+		@Override
+		public List<Type> getVarTypes()
+		{
+			return modelGen.getVarTypes();
+		}
+
+		@Override
+		public State getInitialState() throws PrismException
+		{
+			return modelGen.getInitialState();
+		}
+
+		@Override
+		public void exploreState(State exploreState) throws PrismException
+		{
+			throw new PrismException("Cannot explore states with a stored exploration result");
+		}
+
+		@Override
+		public int getNumChoices()
+		{
+			return numChoices;
+		}
+
+		@Override
+		public int getAmpleChoice()
+		{
+			return ampleChoice;
+		}
+
+		@Override
+		public int getNumTransitions(int i)
+		{
+			return choiceStarts[i + 1] - choiceStarts[i];
+		}
+
+		@Override
+		public Object getChoiceAction(int i)
+		{
+			return choiceActions[i];
+		}
+
+		@Override
+		public Object getTransitionAction(int i, int offset)
+		{
+			return transitionActions[choiceStarts[i] + offset];
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public Value getTransitionProbability(int i, int offset) throws PrismException
+		{
+			if (probs == null || uncertain) {
+				throw new PrismException("Cannot get scalar transition probability for " + getModelType());
+			}
+			return (Value) probs[choiceStarts[i] + offset];
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public Interval<Value> getTransitionProbabilityInterval(int i, int offset) throws PrismException
+		{
+			if (probs == null || !uncertain) {
+				throw new PrismException("Cannot get transition probability interval for " + getModelType());
+			}
+			return (Interval<Value>) probs[choiceStarts[i] + offset];
+		}
+
+		@Override
+		public State computeTransitionTarget(int i, int offset)
+		{
+			return targets[choiceStarts[i] + offset];
+		}
+	}
+}
@@ -29,6 +29,7 @@ package explicit;
 import static prism.PrismSettings.DEFAULT_EXPORT_MODEL_PRECISION;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.List;
 
@@ -37,6 +38,7 @@ import explicit.rewards.MCRewards;
 import explicit.rewards.MDPRewards;
 import explicit.rewards.Rewards;
 import explicit.rewards.STPGRewards;
+import parser.Values;
 import parser.ast.Coalition;
 import parser.ast.Expression;
 import parser.ast.ExpressionProb;
@@ -49,9 +51,11 @@ import parser.type.TypeBool;
 import parser.type.TypeDouble;
 import parser.type.TypePathBool;
 import parser.type.TypePathDouble;
+import prism.Accuracy;
 import prism.AccuracyFactory;
 import prism.Evaluator;
 import prism.IntegerBound;
+import prism.ModelType;
 import prism.OpRelOpBound;
 import prism.Prism;
 import prism.PrismComponent;
@@ -97,6 +101,14 @@ public class ProbModelChecker extends NonProbModelChecker
 	protected SolnMethod solnMethod = SolnMethod.VALUE_ITERATION;
 	// Is non-convergence of an iterative method an error?
 	protected boolean errorOnNonConverge = true;
+	// Number of threads for iterative numerical methods (where supported)
+	protected int numThreads = 1;
+	// Batch of bounds for a bounded until property that is checked repeatedly (optional)
+	protected TimeBoundBatch timeBoundBatch = null;
+	// Solutions kept between the checks of an experiment, for reuse (optional)
+	protected ExperimentWarmStart experimentWarmStart = null;
+	// Index of the reward structure for the R operator currently being checked (-1 if none)
+	protected int currentRewardStructIndex = -1;
 
 	// Delay between occasional updates for slow processes, e.g. numerical solution (milliseconds)
 	public static final int UPDATE_DELAY = 5000;
@@ -106,7 +118,7 @@ public class ProbModelChecker extends NonProbModelChecker
 
 	// Method used for numerical solution
 	public enum LinEqMethod {
-		POWER, JACOBI, GAUSS_SEIDEL, BACKWARDS_GAUSS_SEIDEL, JOR, SOR, BACKWARDS_SOR;
+		POWER, JACOBI, GAUSS_SEIDEL, BACKWARDS_GAUSS_SEIDEL, JOR, SOR, BACKWARDS_SOR, BICGSTAB, GMRES;
 		public String fullName()
 		{
 			switch (this) {
@@ -124,6 +136,10 @@ public class ProbModelChecker extends NonProbModelChecker
 				return "SOR";
 			case BACKWARDS_SOR:
 				return "Backwards SOR";
+			case BICGSTAB:
+				return "BiCGSTAB";
+			case GMRES:
+				return "GMRES";
 			default:
 				return this.toString();
 			}
@@ -132,7 +148,7 @@ public class ProbModelChecker extends NonProbModelChecker
 
 	// Method used for solving MDPs
 	public enum MDPSolnMethod {
-		VALUE_ITERATION, GAUSS_SEIDEL, POLICY_ITERATION, MODIFIED_POLICY_ITERATION, LINEAR_PROGRAMMING;
+		VALUE_ITERATION, GAUSS_SEIDEL, POLICY_ITERATION, MODIFIED_POLICY_ITERATION, LINEAR_PROGRAMMING, OPTIMISTIC_VALUE_ITERATION;
 		public String fullName()
 		{
 			switch (this) {
@@ -146,6 +162,8 @@ public class ProbModelChecker extends NonProbModelChecker
 				return "Modified policy iteration";
 			case LINEAR_PROGRAMMING:
 				return "Linear programming";
+			case OPTIMISTIC_VALUE_ITERATION:
+				return "Optimistic value iteration";
 			default:
 				return this.toString();
 			}
@@ -209,6 +227,10 @@ public class ProbModelChecker extends NonProbModelChecker
 				setLinEqMethod(LinEqMethod.SOR);
 			} else if (s.equals("Backwards SOR")) {
 				setLinEqMethod(LinEqMethod.BACKWARDS_SOR);
+			} else if (s.equals("BiCGSTAB")) {
+				setLinEqMethod(LinEqMethod.BICGSTAB);
+			} else if (s.equals("GMRES")) {
+				setLinEqMethod(LinEqMethod.GMRES);
 			} else {
 				throw new PrismNotSupportedException("Explicit engine does not support linear equation solution method \"" + s + "\"");
 			}
@@ -224,6 +246,8 @@ public class ProbModelChecker extends NonProbModelChecker
 				setMDPSolnMethod(MDPSolnMethod.MODIFIED_POLICY_ITERATION);
 			} else if (s.equals("Linear programming")) {
 				setMDPSolnMethod(MDPSolnMethod.LINEAR_PROGRAMMING);
+			} else if (s.equals("Optimistic value iteration")) {
+				setMDPSolnMethod(MDPSolnMethod.OPTIMISTIC_VALUE_ITERATION);
 			} else {
 				throw new PrismNotSupportedException("Explicit engine does not support MDP solution method \"" + s + "\"");
 			}
@@ -259,6 +283,8 @@ public class ProbModelChecker extends NonProbModelChecker
 			setProb1(settings.getBoolean(PrismSettings.PRISM_PROB1));
 			// PRISM_USE_PRE
 			setPreRel(settings.getBoolean(PrismSettings.PRISM_PRE_REL));
+			// PRISM_NUM_THREADS
+			setNumThreads(settings.getInteger(PrismSettings.PRISM_NUM_THREADS));
 			// PRISM_FAIRNESS
 			if (settings.getBoolean(PrismSettings.PRISM_FAIRNESS)) {
 				throw new PrismNotSupportedException("The explicit engine does not support model checking MDPs under fairness");
@@ -289,6 +315,7 @@ public class ProbModelChecker extends NonProbModelChecker
 		setValIterDir(other.getValIterDir());
 		setSolnMethod(other.getSolnMethod());
 		setErrorOnNonConverge(other.geterrorOnNonConverge());
+		setNumThreads(other.getNumThreads());
 	}
 
 	/**
@@ -310,6 +337,7 @@ public class ProbModelChecker extends NonProbModelChecker
 		mainLog.print("valIterDir = " + valIterDir + " ");
 		mainLog.print("solnMethod = " + solnMethod + " ");
 		mainLog.print("errorOnNonConverge = " + errorOnNonConverge + " ");
+		mainLog.print("numThreads = " + numThreads + " ");
 	}
 
 	// Set methods for flags/settings
@@ -446,6 +474,32 @@ public class ProbModelChecker extends NonProbModelChecker
 		this.errorOnNonConverge = errorOnNonConverge;
 	}
 
+	/**
+	 * Set the number of threads to use for iterative numerical methods
+	 * (currently, matrix-vector multiplication in the power and Jacobi methods and in uniformisation for CTMCs).
+	 */
+	public void setNumThreads(int numThreads)
+	{
+		this.numThreads = numThreads;
+	}
+
+	/**
+	 * Set the batch of bounds to use when checking a bounded until property
+	 * that is checked repeatedly for different bounds (null if none).
+	 */
+	public void setTimeBoundBatch(TimeBoundBatch timeBoundBatch)
+	{
+		this.timeBoundBatch = timeBoundBatch;
+	}
+
+	/**
+	 * Set the storage for solutions to be reused between the checks of an experiment (null if none).
+	 */
+	public void setExperimentWarmStart(ExperimentWarmStart experimentWarmStart)
+	{
+		this.experimentWarmStart = experimentWarmStart;
+	}
+
 	// Get methods for flags/settings
 
 	public int getVerbosity()
@@ -526,6 +580,11 @@ public class ProbModelChecker extends NonProbModelChecker
 		return errorOnNonConverge;
 	}
 
+	public int getNumThreads()
+	{
+		return numThreads;
+	}
+
 	// Model checking functions
 
 	@Override
@@ -627,8 +686,13 @@ public class ProbModelChecker extends NonProbModelChecker
 		OpRelOpBound opInfo = expr.getRelopBoundInfo(constantValues);
 		MinMax minMax = opInfo.getMinMax(model.getModelType(), forAll);
 
-		// Compute probabilities
-		StateValues probs = checkProbPathFormula(model, expr.getExpression(), minMax, statesOfInterest);
+		// Compute probabilities (or reuse them, if already computed for another property)
+		String cacheKey = coalition == null ? getSubFormulaCacheKey(model, "P" + getMinMaxCacheString(minMax), expr.getExpression()) : null;
+		StateValues cached = getCachedResult(cacheKey, statesOfInterest);
+		StateValues probs = cached != null ? cached : checkProbPathFormula(model, expr.getExpression(), minMax, statesOfInterest);
+		if (cached == null) {
+			storeCachedResult(cacheKey, statesOfInterest, probs);
+		}
 
 		// Print out probabilities
 		if (getVerbosity() > 5) {
@@ -643,6 +707,22 @@ public class ProbModelChecker extends NonProbModelChecker
 		return probs;
 	}
 
+	/**
+	 * Get a string identifying the min/max info {@code minMax}, for use in sub-formula cache keys.
+	 */
+	private static String getMinMaxCacheString(MinMax minMax)
+	{
+		String s = minMax.isMin() ? "min" : "max";
+		// Only include the remaining info if it differs from the default
+		if (minMax.isMin1() || minMax.isMin2()) {
+			s += "(" + (minMax.isMin1() ? "min" : "max") + "," + (minMax.isMin2() ? "min" : "max") + ")";
+		}
+		if (minMax.isMinUnc()) {
+			s += "(minunc)";
+		}
+		return s;
+	}
+
 	/**
 	 * Compute probabilities for the contents of a P operator.
 	 * @param statesOfInterest the states of interest, see checkExpression()
@@ -756,6 +836,28 @@ public class ProbModelChecker extends NonProbModelChecker
 		return StateValues.createFromArrayResult(res, model);
 	}
 
+	/**
+	 * If bounded until formula {@code expr} is the subject of the current time-bound batch,
+	 * get the values of all constants (model and properties file) for each check of the batch;
+	 * otherwise, return null.
+	 */
+	protected List<Values> getTimeBoundBatchConstantValues(ExpressionTemporal expr)
+	{
+		if (timeBoundBatch == null || !timeBoundBatch.isFor(expr)) {
+			return null;
+		}
+		List<Values> res = new ArrayList<>();
+		for (Values pfValues : timeBoundBatch.getPropertyConstantValues()) {
+			Values values = new Values();
+			if (modelInfo != null) {
+				values.addValues(modelInfo.getConstantValues());
+			}
+			values.addValues(pfValues);
+			res.add(values);
+		}
+		return res;
+	}
+
 	/**
 	 * Compute probabilities for a bounded until operator.
 	 */
@@ -825,7 +927,10 @@ public class ProbModelChecker extends NonProbModelChecker
 
 			switch (model.getModelType()) {
 			case DTMC:
-				res = ((DTMCModelChecker) this).computeBoundedUntilProbs((DTMC<Double>) model, remain, target, windowSize);
+				res = ((DTMCModelChecker) this).computeBoundedUntilProbsBatched((DTMC<Double>) model, expr, remain, target, windowSize);
+				if (res == null) {
+					res = ((DTMCModelChecker) this).computeBoundedUntilProbs((DTMC<Double>) model, remain, target, windowSize);
+				}
 				break;
 			case MDP:
 				res = ((MDPModelChecker) this).computeBoundedUntilProbs((MDP<Double>) model, remain, target, windowSize, minMax.isMin());
@@ -884,6 +989,23 @@ public class ProbModelChecker extends NonProbModelChecker
 		BitSet remain = checkExpression(model, expr.getOperand1(), null).getBitSet();
 		BitSet target = checkExpression(model, expr.getOperand2(), null).getBitSet();
 
+		// In an experiment, reuse the solution from a previous check if possible
+		String warmStartKey = null;
+		double init[] = null;
+		if (experimentWarmStart != null && (model.getModelType() == ModelType.DTMC || model.getModelType() == ModelType.CTMC || model.getModelType() == ModelType.MDP)) {
+			warmStartKey = model.getModelType() == ModelType.MDP ? (minMax.isMin() ? "P:min" : "P:max") : "P";
+			ModelCheckerResult res = experimentWarmStart.getResult(model, warmStartKey, remain, target);
+			if (res != null) {
+				mainLog.println("\nReusing probabilities from a previous check (same target/remain states)");
+				result.setStrategy(res.strat);
+				return StateValues.createFromArrayResult(res, model);
+			}
+			init = getWarmStartInitialValues(model, warmStartKey, remain, target, minMax);
+			if (init != null) {
+				mainLog.println("\nUsing probabilities from a previous check as initial values");
+			}
+		}
+
 		// Compute/return the probabilities
 		ModelCheckerResult res = null;
 		switch (model.getModelType()) {
@@ -891,10 +1013,10 @@ public class ProbModelChecker extends NonProbModelChecker
 			res = ((CTMCModelChecker) this).computeUntilProbs((CTMC<Double>) model, remain, target);
 			break;
 		case DTMC:
-			res = ((DTMCModelChecker) this).computeUntilProbs((DTMC<Double>) model, remain, target);
+			res = ((DTMCModelChecker) this).computeReachProbs((DTMC<Double>) model, remain, target, init, null);
 			break;
 		case MDP:
-			res = ((MDPModelChecker) this).computeUntilProbs((MDP<Double>) model, remain, target, minMax.isMin());
+			res = ((MDPModelChecker) this).computeReachProbs((MDP<Double>) model, remain, target, minMax.isMin(), init, null);
 			break;
 		case POMDP:
 			res = ((POMDPModelChecker) this).computeReachProbs((POMDP<Double>) model, remain, target, minMax.isMin(), statesOfInterest);
@@ -911,10 +1033,41 @@ public class ProbModelChecker extends NonProbModelChecker
 		default:
 			throw new PrismNotSupportedException("Cannot model check " + expr + " for " + model.getModelType() + "s");
 		}
+		if (warmStartKey != null) {
+			experimentWarmStart.store(model, warmStartKey, remain, target, res);
+		}
 		result.setStrategy(res.strat);
 		return StateValues.createFromArrayResult(res, model);
 	}
 
+	/**
+	 * Get initial values for the iterative computation of until probabilities,
+	 * from a solution kept from a previous check in an experiment, if there is one
+	 * and the numerical method used is guaranteed to converge correctly from it
+	 * (see {@link ExperimentWarmStart}). Returns null otherwise.
+	 */
+	protected double[] getWarmStartInitialValues(Model<?> model, String warmStartKey, BitSet remain, BitSet target, MinMax minMax)
+	{
+		if (doIntervalIteration) {
+			return null;
+		}
+		// Without prob0, the solution may not be unique (e.g. for non-target BSCCs),
+		// so we can only start from below
+		boolean unique = precomp && prob0;
+		switch (model.getModelType()) {
+		case DTMC:
+			return experimentWarmStart.getInitialValues(model, warmStartKey, remain, target, unique);
+		case MDP:
+			if (mdpSolnMethod != MDPSolnMethod.VALUE_ITERATION && mdpSolnMethod != MDPSolnMethod.GAUSS_SEIDEL) {
+				return null;
+			}
+			// For max, end components mean that we can only start from below
+			return experimentWarmStart.getInitialValues(model, warmStartKey, remain, target, unique && minMax.isMin());
+		default:
+			return null;
+		}
+	}
+
 	/**
 	 * Compute probabilities for an LTL path formula
 	 */
@@ -952,13 +1105,25 @@ public class ProbModelChecker extends NonProbModelChecker
 		OpRelOpBound opInfo = expr.getRelopBoundInfo(constantValues);
 		MinMax minMax = opInfo.getMinMax(model.getModelType(), forAll);
 
-		// Build rewards
+		// Reuse rewards, if already computed for another property
 		int r = expr.getRewardStructIndexByIndexObject(rewardGen, constantValues);
-		mainLog.println("Building reward structure...");
-		Rewards<?> rewards = Expression.usesInstantaneousReward(expr.getExpression()) ? constructRewards(model, r) : constructExpectedRewards(model, r);
-
-		// Compute rewards
-		StateValues rews = checkRewardFormula(model, rewards, expr.getExpression(), minMax, statesOfInterest);
+		String cacheKey = coalition == null ? getSubFormulaCacheKey(model, "R{" + r + "}" + getMinMaxCacheString(minMax), expr.getExpression()) : null;
+		StateValues rews = getCachedResult(cacheKey, statesOfInterest);
+		if (rews == null) {
+			// Build rewards
+			mainLog.println("Building reward structure...");
+			Rewards<?> rewards = Expression.usesInstantaneousReward(expr.getExpression()) ? constructRewards(model, r) : constructExpectedRewards(model, r);
+
+			// Compute rewards
+			int oldRewardStructIndex = currentRewardStructIndex;
+			currentRewardStructIndex = r;
+			try {
+				rews = checkRewardFormula(model, rewards, expr.getExpression(), minMax, statesOfInterest);
+			} finally {
+				currentRewardStructIndex = oldRewardStructIndex;
+			}
+			storeCachedResult(cacheKey, statesOfInterest, rews);
+		}
 
 		// Print out rewards
 		if (getVerbosity() > 5) {
@@ -968,7 +1133,8 @@ public class ProbModelChecker extends NonProbModelChecker
 
 		// For =? properties, just return values; otherwise compare against bound
 		if (!opInfo.isNumeric()) {
-			rews.applyPredicate(v -> opInfo.apply((double) v, rews.getAccuracy()));
+			Accuracy accuracy = rews.getAccuracy();
+			rews.applyPredicate(v -> opInfo.apply((double) v, accuracy));
 		}
 		return rews;
 	}
@@ -1176,6 +1342,18 @@ public class ProbModelChecker extends NonProbModelChecker
 		// Model check the operand for all states
 		BitSet target = checkExpression(model, expr.getOperand2(), null).getBitSet();
 
+		// In an experiment, reuse the solution from a previous check if possible
+		String warmStartKey = null;
+		if (experimentWarmStart != null && currentRewardStructIndex >= 0 && (model.getModelType() == ModelType.DTMC || model.getModelType() == ModelType.CTMC || model.getModelType() == ModelType.MDP)) {
+			warmStartKey = "R" + currentRewardStructIndex + (model.getModelType() == ModelType.MDP ? (minMax.isMin() ? ":min" : ":max") : "");
+			ModelCheckerResult res = experimentWarmStart.getResult(model, warmStartKey, null, target);
+			if (res != null) {
+				mainLog.println("\nReusing rewards from a previous check (same target states)");
+				result.setStrategy(res.strat);
+				return StateValues.createFromArrayResult(res, model);
+			}
+		}
+
 		// Compute/return the rewards
 		ModelCheckerResult res = null;
 		switch (model.getModelType()) {
@@ -1204,6 +1382,9 @@ public class ProbModelChecker extends NonProbModelChecker
 			throw new PrismNotSupportedException("Explicit engine does not yet handle the " + expr.getOperatorSymbol() + " reward operator for " + model.getModelType()
 					+ "s");
 		}
+		if (warmStartKey != null) {
+			experimentWarmStart.store(model, warmStartKey, null, target, res);
+		}
 		result.setStrategy(res.strat);
 		return StateValues.createFromArrayResult(res, model);
 	}
@@ -1226,8 +1407,13 @@ public class ProbModelChecker extends NonProbModelChecker
 		OpRelOpBound opInfo = expr.getRelopBoundInfo(constantValues);
 		MinMax minMax = opInfo.getMinMax(model.getModelType());
 
-		// Compute probabilities
-		StateValues probs = checkSteadyStateFormula(model, expr.getExpression(), minMax);
+		// Compute probabilities (or reuse them, if already computed for another property)
+		String cacheKey = getSubFormulaCacheKey(model, "S" + getMinMaxCacheString(minMax), expr.getExpression());
+		StateValues cached = getCachedResult(cacheKey, null);
+		StateValues probs = cached != null ? cached : checkSteadyStateFormula(model, expr.getExpression(), minMax);
+		if (cached == null) {
+			storeCachedResult(cacheKey, null, probs);
+		}
 
 		// Print out probabilities
 		if (getVerbosity() > 5) {
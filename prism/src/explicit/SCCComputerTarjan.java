@@ -27,10 +27,8 @@
 
 package explicit;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.function.IntPredicate;
 
 import prism.PrismComponent;
@@ -38,6 +36,10 @@ import prism.PrismException;
 
 /**
  * Tarjan's SCC algorithm operating on a Model object.
+ * <br>
+ * The depth-first search is implemented iteratively, using an explicit stack,
+ * so the depth of the search is not limited by the size of the thread stack.
+ * Per-state information is stored in primitive arrays.
  */
 public class SCCComputerTarjan extends SCCComputer
 {
@@ -48,12 +50,24 @@ public class SCCComputerTarjan extends SCCComputer
 
 	/* Next index to give to a node */
 	private int index = 0;
-	/* Stack of nodes */
-	private List<Integer> stack = new LinkedList<Integer>();
-	/* List of nodes in the graph. Invariant: {@code nodeList.get(i).id == i} */
-	private ArrayList<Node> nodeList;
+	/* DFS index of each node (-1 if not yet visited) */
+	private int[] nodeIndex;
+	/* Lowlink of each node (-1 if not yet visited) */
+	private int[] nodeLowlink;
+	/* Stack of nodes (of the SCCs currently being built) */
+	private int[] stack;
+	/* Size of {@code stack} */
+	private int stackSize = 0;
 	/* Nodes currently on the stack. */
 	private BitSet onStack;
+	/* DFS stack: nodes */
+	private int[] dfsNodes;
+	/* DFS stack: successor iterators of the nodes */
+	private SuccessorsIterator[] dfsSuccs;
+	/* DFS stack: whether a self-loop was seen for the nodes */
+	private boolean[] dfsSelfloop;
+	/* Size of the DFS stack */
+	private int dfsSize = 0;
 	/** Should we filter trivial SCCs? */
 	private boolean filterTrivialSCCs;
 	private IntPredicate restrict;
@@ -66,11 +80,16 @@ public class SCCComputerTarjan extends SCCComputer
 		super(parent, consumer);
 		this.model = model;
 		this.numNodes = model.getNumStates();
-		this.nodeList = new ArrayList<Node>(numNodes);
-		for (int i = 0; i < numNodes; i++) {
-			nodeList.add(new Node(i));
-		}
+		nodeIndex = new int[numNodes];
+		nodeLowlink = new int[numNodes];
+		Arrays.fill(nodeIndex, -1);
+		Arrays.fill(nodeLowlink, -1);
+		stack = new int[numNodes];
 		onStack = new BitSet();
+		int dfsCapacity = Math.min(numNodes, 64);
+		dfsNodes = new int[dfsCapacity];
+		dfsSuccs = new SuccessorsIterator[dfsCapacity];
+		dfsSelfloop = new boolean[dfsCapacity];
 	}
 
 	// Methods for SCCComputer interface
@@ -96,49 +115,95 @@ public class SCCComputerTarjan extends SCCComputer
 		for (int i = 0; i < numNodes; i++) {
 			if (restrict != null && !restrict.test(i))
 				continue; // skip state if not one of the relevant states
-			if (nodeList.get(i).lowlink == -1)
+			if (nodeLowlink[i] == -1)
 				tarjan(i);
 		}
 
 	}
 
+	/**
+	 * Depth-first search from node {@code i}, reporting any SCCs that are completed.
+	 * SCCs are found (and reported) in exactly the same order as for the
+	 * classical recursive formulation of the algorithm.
+	 */
 	private void tarjan(int i) throws PrismException
 	{
-		final Node v = nodeList.get(i);
-		v.index = index;
-		v.lowlink = index;
-		index++;
-		stack.add(0, i);
-		onStack.set(i);
+		visit(i);
+		while (dfsSize > 0) {
+			int top = dfsSize - 1;
+			int v = dfsNodes[top];
+			SuccessorsIterator it = dfsSuccs[top];
+			boolean descended = false;
+			while (it.hasNext()) {
+				int e = it.nextInt();
+
+				if (e == v) {
+					dfsSelfloop[top] = true;
+					continue;
+				}
 
-		boolean hadSelfloop = false;
-		SuccessorsIterator it = model.getSuccessors(i);
-		while (it.hasNext()) {
-			int e = it.nextInt();
+				if (restrict != null && !restrict.test(e)) {
+					continue; // ignore edge to state that is not relevant
+				}
 
-			if (e == i) {
-				hadSelfloop = true;
+				if (nodeIndex[e] == -1) {
+					// "recursive call": continue the search from e
+					visit(e);
+					descended = true;
+					break;
+				} else if (onStack.get(e)) {
+					nodeLowlink[v] = Math.min(nodeLowlink[v], nodeIndex[e]);
+				}
+			}
+			if (descended) {
 				continue;
 			}
-
-			if (restrict != null && !restrict.test(e)) {
-				continue; // ignore edge to state that is not relevant
+			// All successors of v done: pop from DFS stack, check for SCC
+			boolean hadSelfloop = dfsSelfloop[top];
+			dfsSuccs[top] = null;
+			dfsSize--;
+			finish(v, hadSelfloop);
+			// "return" to the parent of v (if any)
+			if (dfsSize > 0) {
+				int u = dfsNodes[dfsSize - 1];
+				nodeLowlink[u] = Math.min(nodeLowlink[u], nodeLowlink[v]);
 			}
+		}
+	}
 
-			Node n = nodeList.get(e);
-			if (n.index == -1) {
-				tarjan(e);
-				v.lowlink = Math.min(v.lowlink, n.lowlink);
-			} else if (onStack.get(e)) {
-				v.lowlink = Math.min(v.lowlink, n.index);
-			}
+	/**
+	 * Start visiting node {@code i}, pushing it onto the stacks.
+	 */
+	private void visit(int i)
+	{
+		nodeIndex[i] = index;
+		nodeLowlink[i] = index;
+		index++;
+		stack[stackSize++] = i;
+		onStack.set(i);
+		if (dfsSize == dfsNodes.length) {
+			int capacity = Math.min(numNodes, 2 * dfsSize);
+			dfsNodes = Arrays.copyOf(dfsNodes, capacity);
+			dfsSuccs = Arrays.copyOf(dfsSuccs, capacity);
+			dfsSelfloop = Arrays.copyOf(dfsSelfloop, capacity);
 		}
-		if (v.lowlink == v.index) {
+		dfsNodes[dfsSize] = i;
+		dfsSuccs[dfsSize] = model.getSuccessors(i);
+		dfsSelfloop[dfsSize] = false;
+		dfsSize++;
+	}
+
+	/**
+	 * Finish visiting node {@code i}, reporting an SCC if {@code i} is its root.
+	 */
+	private void finish(int i, boolean hadSelfloop) throws PrismException
+	{
+		if (nodeLowlink[i] == nodeIndex[i]) {
 			// this is a singleton SCC if the top of the stack equals i
-			boolean singletonSCC = (stack.get(0) == i);
+			boolean singletonSCC = (stack[stackSize - 1] == i);
 			if (singletonSCC && filterTrivialSCCs) {
 				if (!hadSelfloop) { // singleton SCC & no selfloop -> trivial
-					stack.remove(0);
+					stackSize--;
 					onStack.set(i, false);
 					return;
 				}
@@ -147,27 +212,11 @@ public class SCCComputerTarjan extends SCCComputer
 			int n;
 			consumer.notifyStartSCC();
 			do {
-				n = stack.remove(0);
+				n = stack[--stackSize];
 				onStack.set(n, false);
 				consumer.notifyStateInSCC(n);
 			} while (n != i);
 			consumer.notifyEndSCC();
 		}
 	}
-
-	/**
-	 * A small class wrapping a node.
-	 * It carries extra information necessary for Tarjan's algorithm.
-	 */
-	protected static class Node
-	{
-		public int lowlink = -1;
-		public int index = -1;
-		public int id;
-
-		public Node(int id)
-		{
-			this.id = id;
-		}
-	}
 }
@@ -208,7 +208,7 @@ public class STPGAbstrSimple<Value> extends ModelExplicit<Value> implements STPG
 						if (distrs != null) {
 							distrs.add(distr);
 						}
-						distr = new Distribution<>(getEvaluator());
+						distr = Distribution.create(getEvaluator());
 						// Only for a new state or distribution set...
 						if (i != iLast || k1 != k1Last) {
 							// Add any previous distribution set to the last state, create new one
@@ -352,7 +352,7 @@ public class STPGAbstrSimple<Value> extends ModelExplicit<Value> implements STPG
 				addDeadlockState(i);
 				if (fix) {
 					DistributionSet<Value> distrs = newDistributionSet(null);
-					Distribution<Value> distr = new Distribution<>(getEvaluator());
+					Distribution<Value> distr = Distribution.create(getEvaluator());
 					distr.add(i, getEvaluator().one());
 					distrs.add(distr);
 					addDistributionSet(i, distrs);
@@ -43,6 +43,7 @@ import io.DotExporter;
 import io.DRNExporter;
 import io.MatlabExporter;
 import io.ModelExportOptions;
+import io.PrismBinaryExporter;
 import io.PrismExplicitExporter;
 import io.PrismExplicitImporter;
 import parser.EvaluateContext.EvalMode;
@@ -138,6 +139,9 @@ public class StateModelChecker extends PrismComponent
 	// Do interval iteration?
 	protected boolean doIntervalIteration = false;
 
+	// Cache of sub-formula results, shared between properties (null if none)
+	protected SubFormulaCache subFormulaCache = null;
+
 	// Model info (for reward structures, etc.)
 	protected ModulesFile modulesFile = null;
 	protected ModelInfo modelInfo = null;
@@ -368,6 +372,14 @@ public class StateModelChecker extends PrismComponent
 		this.doIntervalIteration = doIntervalIteration;
 	}
 
+	/**
+	 * Set the cache of sub-formula results to be shared between properties (null if none).
+	 */
+	public void setSubFormulaCache(SubFormulaCache subFormulaCache)
+	{
+		this.subFormulaCache = subFormulaCache;
+	}
+
 	// Get methods for flags/settings
 
 	public int getVerbosity()
@@ -583,6 +595,11 @@ public class StateModelChecker extends PrismComponent
 			//model.exportStates(Prism.EXPORT_PLAIN, modelInfo.createVarList(), new PrismFileLog("bisim.sta"));
 		}
 
+		// Results of sub-formulas can be reused if this is the same model/constants as last time
+		if (subFormulaCache != null) {
+			subFormulaCache.setContext(model, modelInfo, propertiesFile, constantValues);
+		}
+
 		// Do model checking and store result vector
 		timer = System.currentTimeMillis();
 		// check expression for all states (null => statesOfInterest=all)
@@ -805,12 +822,21 @@ public class StateModelChecker extends PrismComponent
 		case ExpressionFunc.LOG:
 			return checkExpressionFuncBinary(model, expr, statesOfInterest);
 		case ExpressionFunc.MULTI:
-			throw new PrismNotSupportedException("Multi-objective model checking is not supported for " + model.getModelType() + "s with the explicit engine");
+			return checkExpressionMultiObjective(model, expr, statesOfInterest);
 		default:
 			throw new PrismException("Unrecognised function \"" + expr.getName() + "\"");
 		}
 	}
 
+	/**
+	 * Model check a multi-objective query, i.e., a multi(...) function.
+	 * @param statesOfInterest the states of interest, see checkExpression()
+	 */
+	protected StateValues checkExpressionMultiObjective(Model<?> model, ExpressionFunc expr, BitSet statesOfInterest) throws PrismException
+	{
+		throw new PrismNotSupportedException("Multi-objective model checking is not supported for " + model.getModelType() + "s with the explicit engine");
+	}
+
 	protected StateValues checkExpressionFuncUnary(Model<?> model, ExpressionFunc expr, BitSet statesOfInterest) throws PrismException
 	{
 		// Check operand recursively
@@ -969,14 +995,66 @@ public class StateModelChecker extends PrismComponent
 			if (ll != null) {
 				i = ll.getLabelIndex(expr.getName());
 				if (i != -1) {
-					// check recursively
-					return checkExpression(model, ll.getLabel(i), statesOfInterest);
+					// check recursively (or reuse an earlier result)
+					String cacheKey = getSubFormulaCacheKey(model, "label", expr);
+					StateValues res = getCachedResult(cacheKey, statesOfInterest);
+					if (res == null) {
+						res = checkExpression(model, ll.getLabel(i), statesOfInterest);
+						storeCachedResult(cacheKey, statesOfInterest, res);
+					}
+					return res;
 				}
 			}
 		}
 		throw new PrismException("Unknown label \"" + expr.getName() + "\"");
 }
 
+	// Sub-formula cache
+
+	/**
+	 * Get the key under which to cache the result of a computation of kind {@code kind}
+	 * (e.g. "Pmax") for sub-formula {@code expr}, or null if results cannot be cached/reused:
+	 * either because there is no cache, or it does not refer to this model and these constants,
+	 * or because model checking has side effects (strategy generation, exports)
+	 * that would be missed if a cached result was used.
+	 */
+	protected String getSubFormulaCacheKey(Model<?> model, String kind, Expression expr) throws PrismException
+	{
+		if (subFormulaCache == null || !subFormulaCache.isContext(model, modelInfo, propertiesFile, constantValues)) {
+			return null;
+		}
+		if (genStrat || exportTarget || exportProductTrans || exportProductStates || exportProductVector) {
+			return null;
+		}
+		return SubFormulaCache.createKey(kind, expr, constantValues);
+	}
+
+	/**
+	 * Get a copy of the result cached under {@code cacheKey} (if non-null) that is valid
+	 * for the states in {@code statesOfInterest}, or null if there is none.
+	 */
+	protected StateValues getCachedResult(String cacheKey, BitSet statesOfInterest) throws PrismException
+	{
+		if (cacheKey == null) {
+			return null;
+		}
+		StateValues res = subFormulaCache.get(cacheKey, statesOfInterest);
+		if (res != null) {
+			mainLog.println("\nReusing earlier result for " + cacheKey);
+		}
+		return res;
+	}
+
+	/**
+	 * Store (a copy of) the result {@code res} under {@code cacheKey} (if non-null).
+	 */
+	protected void storeCachedResult(String cacheKey, BitSet statesOfInterest, StateValues res) throws PrismException
+	{
+		if (cacheKey != null) {
+			subFormulaCache.store(cacheKey, statesOfInterest, res);
+		}
+	}
+
 	// Check property ref
 
 	protected StateValues checkExpressionProp(Model<?> model, ExpressionProp expr, BitSet statesOfInterest) throws PrismException
@@ -1540,6 +1618,26 @@ public class StateModelChecker extends PrismComponent
 		exporter.exportModel(model, (RewardGenerator<Value>) rewardGen, rewards, labelNames, labelStates, out);
 	}
 
+	/**
+	 * Export a model, including its states, labels and rewards, to a file in binary format.
+	 * @param model The model
+	 * @param labelNames Names of labels to include in export
+	 * @param file File to export to
+	 * @param exportOptions The options for export
+	 */
+	@SuppressWarnings("unchecked")
+	public <Value> void exportModelBinary(Model<Value> model, List<String> labelNames, File file, ModelExportOptions exportOptions) throws PrismException
+	{
+		List<Rewards<Value>> rewards = new ArrayList<>();
+		for (int r = 0; r < rewardGen.getNumRewardStructs(); r++) {
+			rewards.add(constructRewards(model, r));
+		}
+		List<BitSet> labelStates = checkLabels(model, labelNames);
+		VarList varList = modelInfo == null ? null : modelInfo.createVarList();
+		PrismBinaryExporter<Value> exporter = new PrismBinaryExporter<>(exportOptions);
+		exporter.exportModel(model, varList, (RewardGenerator<Value>) rewardGen, rewards, labelNames, labelStates, file);
+	}
+
 	/**
 	 * Export the transition matrix of a model.
 	 * @param model The model
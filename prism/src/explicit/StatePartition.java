@@ -0,0 +1,267 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import common.IntSet;
+import common.iterable.FunctionalPrimitiveIterator;
+import common.iterable.IterableArray;
+import prism.PrismException;
+
+/**
+ * Partition of a set of states into contiguous blocks, for row-partitioned
+ * multi-threaded iteration steps (e.g., matrix-vector multiplication in the
+ * two-vector iteration methods of {@link IterationMethod}).
+ * <br><br>
+ * Each block is processed by a single task and tasks are run on a shared pool
+ * of worker threads. Results of tasks are combined in block order,
+ * so that the outcome does not depend on the scheduling of the threads.
+ * Callers must ensure that tasks for different blocks do not interfere,
+ * i.e., that each only writes to the entries for states in its own block.
+ */
+class StatePartition
+{
+	/** Minimum number of states per block (sets that are too small are not partitioned) */
+	public static final int MIN_BLOCK_SIZE = 1024;
+	/** Number of blocks per thread, for load balancing between threads */
+	public static final int BLOCKS_PER_THREAD = 4;
+
+	/** Shared thread pool (created on demand) */
+	private static ThreadPoolExecutor executor;
+
+	/** The partitioned set of states */
+	protected final IntSet states;
+	/** Number of threads */
+	protected final int numThreads;
+	/** The blocks */
+	protected final IntSet[] blocks;
+
+	/**
+	 * A task to be performed for a block of states.
+	 */
+	@FunctionalInterface
+	public interface BlockTask
+	{
+		public void apply(IntSet block) throws PrismException;
+	}
+
+	/**
+	 * A check to be performed for a block of states.
+	 */
+	@FunctionalInterface
+	public interface BlockCheck
+	{
+		public boolean test(IntSet block) throws PrismException;
+	}
+
+	/**
+	 * Create a partition of {@code states} for processing with {@code numThreads} threads.
+	 * Returns null if only one thread is to be used or if there are too few states
+	 * for multi-threading to be worthwhile.
+	 */
+	public static StatePartition create(IntSet states, int numThreads)
+	{
+		if (numThreads <= 1) {
+			return null;
+		}
+		long numStates = states.cardinality();
+		int numBlocks = (int) Math.min((long) numThreads * BLOCKS_PER_THREAD, numStates / MIN_BLOCK_SIZE);
+		if (numBlocks < 2) {
+			return null;
+		}
+		return new StatePartition(states, numThreads, numBlocks);
+	}
+
+	/**
+	 * Constructor: split {@code states} into {@code numBlocks} blocks of (almost) equal size.
+	 */
+	protected StatePartition(IntSet states, int numThreads, int numBlocks)
+	{
+		this.states = states;
+		this.numThreads = numThreads;
+		int[] elements = states.stream().toArray();
+		blocks = new IntSet[numBlocks];
+		for (int b = 0; b < numBlocks; b++) {
+			int from = (int) ((long) elements.length * b / numBlocks);
+			int to = (int) ((long) elements.length * (b + 1) / numBlocks);
+			blocks[b] = new Block(elements, from, to);
+		}
+	}
+
+	/**
+	 * Is this a partition of {@code states} (the very same object) for {@code numThreads} threads?
+	 */
+	public boolean isFor(IntSet states, int numThreads)
+	{
+		return this.states == states && this.numThreads == numThreads;
+	}
+
+	/**
+	 * Get the number of blocks.
+	 */
+	public int getNumBlocks()
+	{
+		return blocks.length;
+	}
+
+	/**
+	 * Get the {@code b}th block.
+	 */
+	public IntSet getBlock(int b)
+	{
+		return blocks[b];
+	}
+
+	/**
+	 * Perform {@code task} for each block, concurrently,
+	 * and wait for all of them to finish.
+	 * If any of the tasks fail, the exception of the first failing block is thrown.
+	 */
+	public void forEach(BlockTask task) throws PrismException
+	{
+		run(block -> {
+			task.apply(block);
+			return true;
+		});
+	}
+
+	/**
+	 * Perform {@code check} for each block, concurrently, and
+	 * return true if it holds for all blocks.
+	 * If any of the checks fail, the exception of the first failing block is thrown.
+	 */
+	public boolean allMatch(BlockCheck check) throws PrismException
+	{
+		boolean res = true;
+		for (boolean b : run(check)) {
+			res &= b;
+		}
+		return res;
+	}
+
+	/**
+	 * Run {@code check} for each block, return the results in block order.
+	 */
+	protected boolean[] run(BlockCheck check) throws PrismException
+	{
+		List<Callable<Boolean>> tasks = new ArrayList<>(blocks.length);
+		for (IntSet block : blocks) {
+			tasks.add(() -> check.test(block));
+		}
+		boolean[] results = new boolean[blocks.length];
+		try {
+			List<Future<Boolean>> futures = getExecutor(numThreads).invokeAll(tasks);
+			for (int b = 0; b < blocks.length; b++) {
+				results[b] = futures.get(b).get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PrismException("Interrupted during multi-threaded iteration");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof PrismException) {
+				throw (PrismException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new PrismException("Error during multi-threaded iteration: " + cause);
+		}
+		return results;
+	}
+
+	/**
+	 * Get the shared thread pool, making sure that it has at least {@code numThreads} threads.
+	 * Worker threads are daemon threads that terminate when idle.
+	 */
+	protected static synchronized ThreadPoolExecutor getExecutor(int numThreads)
+	{
+		if (executor == null) {
+			executor = new ThreadPoolExecutor(numThreads, numThreads, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+				Thread thread = new Thread(r, "prism-iterate");
+				thread.setDaemon(true);
+				return thread;
+			});
+			executor.allowCoreThreadTimeOut(true);
+		} else if (executor.getMaximumPoolSize() < numThreads) {
+			executor.setMaximumPoolSize(numThreads);
+			executor.setCorePoolSize(numThreads);
+		}
+		return executor;
+	}
+
+	/**
+	 * A block of states, i.e., a slice of the (ordered) array of states.
+	 */
+	protected static class Block extends IterableArray.OfInt implements IntSet
+	{
+		public Block(int[] elements, int fromIndex, int toIndex)
+		{
+			super(elements, fromIndex, toIndex);
+		}
+
+		@Override
+		public FunctionalPrimitiveIterator.OfInt reversedIterator()
+		{
+			return new FunctionalPrimitiveIterator.OfInt()
+			{
+				int next = toIndex - 1;
+
+				@Override
+				public boolean hasNext()
+				{
+					return next >= fromIndex;
+				}
+
+				@Override
+				public int nextInt()
+				{
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					return elements[next--];
+				}
+			};
+		}
+
+		@Override
+		public String toString()
+		{
+			return asString();
+		}
+	}
+}
@@ -82,6 +82,18 @@ public interface StateStorage<T>
 	 * @param list An empty ArrayList in which to store the result.
 	 */
 	public void toPermutedArrayList(int permut[], ArrayList<T> list);
+
+	/**
+	 * Get a list of the states, ordered by permuted index (or by index if {@code permut} is null).
+	 * Index in new list is permut[old_index].
+	 * Unlike {@link #toPermutedArrayList(int[])}, implementations may return
+	 * an (unmodifiable) view of the states, as long as it remains valid after {@link #clear()}.
+	 * @param permut Permutation to apply (or null)
+	 */
+	public default List<T> toPermutedList(int permut[])
+	{
+		return permut == null ? toArrayList() : toPermutedArrayList(permut);
+	}
 	
 	/**
 	 * Build sort permutation. Assuming this was built as a sorted set,
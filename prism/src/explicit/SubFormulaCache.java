@@ -0,0 +1,229 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import parser.Values;
+import parser.ast.Expression;
+import parser.ast.PropertiesFile;
+import parser.type.TypeBool;
+import prism.ModelInfo;
+import prism.PrismException;
+import prism.PrismLangException;
+
+/**
+ * Results of model checking sub-formulas (labels, and the values computed for
+ * P, R and S operators), kept between the checking of different properties
+ * so that formulas shared between properties only need to be computed once.
+ * <br><br>
+ * Results are stored under a key comprising the kind of computation (e.g. "Pmax")
+ * and the sub-formula, after expansion of constants (see {@link #createKey(String, Expression, Values)}).
+ * All entries refer to a single context: a model, its model info, a properties file and the values
+ * of constants. Anything stored for a different context is discarded, so model checkers only
+ * use the cache when checking the model that it currently refers to.
+ * <br><br>
+ * The cache size is bounded by an (estimated) memory limit;
+ * when this is exceeded, the least recently used results are evicted first.
+ */
+public class SubFormulaCache
+{
+	/**
+	 * A cached result.
+	 */
+	private static class Entry
+	{
+		/** States for which the values are valid (null means "all") */
+		BitSet statesOfInterest;
+		/** The values (not shared with anything else) */
+		StateValues values;
+		/** Estimated memory usage (bytes) */
+		long size;
+	}
+
+	/** Maximum (estimated) memory usage of cached results (bytes) */
+	private final long maxSize;
+	/** Current (estimated) memory usage of cached results (bytes) */
+	private long size = 0;
+
+	// Context that cached results refer to
+	private Model<?> model = null;
+	private ModelInfo modelInfo = null;
+	private PropertiesFile propertiesFile = null;
+	private Values constantValues = null;
+
+	/** Cached results, in least recently used order */
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Create an empty cache, using at most (approximately) {@code maxSize} bytes.
+	 */
+	public SubFormulaCache(long maxSize)
+	{
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Set the context (model, model info, properties file, constant values)
+	 * that subsequently cached results refer to. If this differs from
+	 * the current one, the contents of the cache are discarded.
+	 */
+	public void setContext(Model<?> model, ModelInfo modelInfo, PropertiesFile propertiesFile, Values constantValues)
+	{
+		if (!isContext(model, modelInfo, propertiesFile, constantValues)) {
+			clear();
+			this.model = model;
+			this.modelInfo = modelInfo;
+			this.propertiesFile = propertiesFile;
+			this.constantValues = constantValues == null ? null : new Values(constantValues);
+		}
+	}
+
+	/**
+	 * Check whether the cache currently refers to the given model, model info, properties file and constant values.
+	 */
+	public boolean isContext(Model<?> model, ModelInfo modelInfo, PropertiesFile propertiesFile, Values constantValues)
+	{
+		if (model != this.model || modelInfo != this.modelInfo || propertiesFile != this.propertiesFile) {
+			return false;
+		}
+		return constantValues == null ? this.constantValues == null : constantValues.equals(this.constantValues);
+	}
+
+	/**
+	 * Get a copy of the result cached under {@code key}, if there is one
+	 * that is valid for (at least) the states in {@code statesOfInterest}; null otherwise.
+	 * The caller should have checked that the context is the right one (see {@link #isContext}).
+	 * @param key The key (see {@link #createKey(String, Expression, Values)})
+	 * @param statesOfInterest States for which values are needed (null means "all")
+	 */
+	public StateValues get(String key, BitSet statesOfInterest) throws PrismException
+	{
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.statesOfInterest != null) {
+			if (statesOfInterest == null) {
+				return null;
+			}
+			BitSet missing = (BitSet) statesOfInterest.clone();
+			missing.andNot(entry.statesOfInterest);
+			if (!missing.isEmpty()) {
+				return null;
+			}
+		}
+		return entry.values.deepCopy();
+	}
+
+	/**
+	 * Store (a copy of) the result {@code values} under {@code key},
+	 * evicting older results if needed to respect the memory limit.
+	 * The caller should have checked that the context is the right one (see {@link #isContext}).
+	 * @param key The key (see {@link #createKey(String, Expression, Values)})
+	 * @param statesOfInterest States for which the values are valid (null means "all")
+	 * @param values The values
+	 */
+	public void store(String key, BitSet statesOfInterest, StateValues values) throws PrismException
+	{
+		Entry entry = new Entry();
+		entry.statesOfInterest = statesOfInterest == null ? null : (BitSet) statesOfInterest.clone();
+		entry.size = estimateSize(values, statesOfInterest);
+		remove(key);
+		if (entry.size > maxSize) {
+			return;
+		}
+		entry.values = values.deepCopy();
+		entries.put(key, entry);
+		size += entry.size;
+		// Evict least recently used results, if needed
+		Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+		while (size > maxSize && it.hasNext()) {
+			size -= it.next().getValue().size;
+			it.remove();
+		}
+	}
+
+	/**
+	 * Remove any result cached under {@code key}.
+	 */
+	private void remove(String key)
+	{
+		Entry old = entries.remove(key);
+		if (old != null) {
+			size -= old.size;
+		}
+	}
+
+	/**
+	 * Discard all cached results.
+	 */
+	public void clear()
+	{
+		entries.clear();
+		size = 0;
+		model = null;
+		modelInfo = null;
+		propertiesFile = null;
+		constantValues = null;
+	}
+
+	/**
+	 * Get the number of cached results.
+	 */
+	public int getNumEntries()
+	{
+		return entries.size();
+	}
+
+	/**
+	 * Create a key for caching the result of a computation of kind {@code kind} (e.g. "Pmax")
+	 * on a (sub-)formula {@code expr}, normalised by replacing constants with their values.
+	 */
+	public static String createKey(String kind, Expression expr, Values constantValues) throws PrismLangException
+	{
+		Expression exprNorm = expr.deepCopy();
+		if (constantValues != null) {
+			exprNorm = (Expression) exprNorm.replaceConstants(constantValues);
+		}
+		return kind + " [ " + exprNorm + " ]";
+	}
+
+	/**
+	 * Estimate the memory (in bytes) used to store some values (and a set of states of interest).
+	 */
+	private static long estimateSize(StateValues values, BitSet statesOfInterest)
+	{
+		long n = values.getSize();
+		long size = values.getType() instanceof TypeBool ? n / 8 : n * 24;
+		if (statesOfInterest != null) {
+			size += n / 8;
+		}
+		return size + 64;
+	}
+}
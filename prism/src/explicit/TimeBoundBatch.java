@@ -0,0 +1,178 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package explicit;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import parser.Values;
+import parser.ast.Expression;
+import parser.ast.ExpressionFilter;
+import parser.ast.ExpressionProb;
+import parser.ast.ExpressionTemporal;
+import parser.ast.ExpressionUnaryOp;
+import parser.ast.PropertiesFile;
+import prism.PrismLangException;
+
+/**
+ * A property of the form P=? [ a U<=T b ] (or P>p [ F<=T b ], etc.) that is checked repeatedly,
+ * e.g. in an experiment, for different values of property constants that only affect the bound T.
+ * The first time the property is checked, probabilities are computed for the bounds
+ * of all (or, for large models, the next few) checks in a single pass and stored,
+ * so that the subsequent checks just look them up.
+ * This is currently done for step bounds in DTMCs and time bounds in CTMCs.
+ */
+public class TimeBoundBatch
+{
+	/** Maximum number of values stored for all bounds in total (i.e., bounds times states) */
+	public static final long MAX_STORED_VALUES = 1L << 24;
+
+	/** The path formula (in canonical form, without negation), as a string */
+	private final String pathFormula;
+	/** Values of the property constants, for each check of the property */
+	private final List<Values> pfConstantValuesList;
+
+	/** The model for which results are stored (null if none) */
+	private Model<?> model = null;
+	/** Stored results, for each bound */
+	private final Map<Object, ModelCheckerResult> results = new HashMap<>();
+
+	/**
+	 * Create a batch for checking property {@code expr} for several values of the property constants,
+	 * if the only ones that vary (those in {@code rangingConstants}) just appear in its (upper) time/step bound.
+	 * Returns null if this is not the case, or the property is not of the required form.
+	 * @param propertiesFile The properties file containing the property
+	 * @param expr The property
+	 * @param rangingConstants Names of the property constants that vary between checks
+	 * @param pfConstantValuesList Values of the property constants (all, not just the ranging ones), for each check
+	 */
+	public static TimeBoundBatch create(PropertiesFile propertiesFile, Expression expr, Collection<String> rangingConstants, List<Values> pfConstantValuesList)
+			throws PrismLangException
+	{
+		// Must be a P operator, possibly inside filters
+		// (probabilities for the path formula are stored, so bounds/filters are irrelevant)
+		while (expr instanceof ExpressionFilter) {
+			expr = ((ExpressionFilter) expr).getOperand();
+		}
+		if (!(expr instanceof ExpressionProb)) {
+			return null;
+		}
+		// Path formula must be (the negation of) an until with just an upper bound
+		Expression exprPath = ((ExpressionProb) expr).getExpression();
+		if (!exprPath.isSimplePathFormula()) {
+			return null;
+		}
+		exprPath = Expression.convertSimplePathFormulaToCanonicalForm(exprPath.deepCopy());
+		if (exprPath instanceof ExpressionUnaryOp && ((ExpressionUnaryOp) exprPath).getOperator() == ExpressionUnaryOp.NOT) {
+			exprPath = ((ExpressionUnaryOp) exprPath).getOperand();
+		}
+		if (!(exprPath instanceof ExpressionTemporal)) {
+			return null;
+		}
+		ExpressionTemporal exprTemp = (ExpressionTemporal) exprPath;
+		if (exprTemp.getOperator() != ExpressionTemporal.P_U || exprTemp.getLowerBound() != null || exprTemp.getUpperBound() == null) {
+			return null;
+		}
+		// Ranging constants cannot be used in the operands (including via labels or other constants)
+		for (Expression operand : new Expression[] { exprTemp.getOperand1(), exprTemp.getOperand2() }) {
+			List<String> consts = operand.getAllUndefinedConstantsRecursively(propertiesFile.getConstantList(), propertiesFile.getCombinedLabelList(), propertiesFile);
+			for (String c : consts) {
+				if (rangingConstants.contains(c)) {
+					return null;
+				}
+			}
+		}
+		return new TimeBoundBatch(exprTemp.toString(), pfConstantValuesList);
+	}
+
+	private TimeBoundBatch(String pathFormula, List<Values> pfConstantValuesList)
+	{
+		this.pathFormula = pathFormula;
+		this.pfConstantValuesList = pfConstantValuesList;
+	}
+
+	/**
+	 * Is this batch for (bounded until) path formula {@code expr}?
+	 */
+	public boolean isFor(ExpressionTemporal expr)
+	{
+		return pathFormula.equals(expr.toString());
+	}
+
+	/**
+	 * Get the values of the property constants, for each check of the property.
+	 */
+	public List<Values> getPropertyConstantValues()
+	{
+		return pfConstantValuesList;
+	}
+
+	/**
+	 * Get the stored result for bound {@code bound} on model {@code model}, or null if not available.
+	 */
+	public ModelCheckerResult getResult(Model<?> model, Object bound)
+	{
+		return model == this.model ? results.get(bound) : null;
+	}
+
+	/**
+	 * Get the (distinct) bounds for which results should be computed next, i.e., those of
+	 * the checks starting from the first one with bound {@code bound}, limited so that
+	 * at most {@link #MAX_STORED_VALUES} values are stored for a model with {@code numStates} states.
+	 * @param bounds The bounds for each check of the property (in order)
+	 * @param bound The bound that is needed now
+	 */
+	public <B> List<B> getBoundsToCompute(List<B> bounds, B bound, int numStates)
+	{
+		long maxBounds = Math.max(1, MAX_STORED_VALUES / Math.max(1, numStates));
+		List<B> res = new ArrayList<>();
+		int start = Math.max(0, bounds.indexOf(bound));
+		for (int i = start; i < bounds.size() && res.size() < maxBounds; i++) {
+			if (!res.contains(bounds.get(i))) {
+				res.add(bounds.get(i));
+			}
+		}
+		if (!res.contains(bound)) {
+			res.add(bound);
+		}
+		return res;
+	}
+
+	/**
+	 * Store the results for model {@code model}, for the bounds in {@code bounds}
+	 * (replacing any results stored previously).
+	 */
+	public <B> void setResults(Model<?> model, List<B> bounds, ModelCheckerResult res[])
+	{
+		this.model = model;
+		results.clear();
+		for (int i = 0; i < res.length; i++) {
+			results.put(bounds.get(i), res[i]);
+		}
+	}
+}
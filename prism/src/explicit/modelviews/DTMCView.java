@@ -71,7 +71,7 @@ public abstract class DTMCView<Value> extends ModelView<Value> implements DTMC<V
 			@Override
 			public final Entry<Integer, Distribution<Value>> apply(final int state)
 			{
-				final Distribution<Value> distribution = new Distribution<Value>(getTransitionsIterator(state), getEvaluator());
+				final Distribution<Value> distribution = Distribution.create(getTransitionsIterator(state), getEvaluator());
 				return new AbstractMap.SimpleImmutableEntry<>(state, distribution);
 			}
 		};
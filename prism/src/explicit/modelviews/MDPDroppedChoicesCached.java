@@ -227,7 +227,7 @@ public class MDPDroppedChoicesCached<Value> extends MDPView<Value>
 			@Override
 			public boolean test(int state, int choice)
 			{
-				final Distribution<Value> distribution = new Distribution<>(model.getTransitionsIterator(state, choice), model.getEvaluator());
+				final Distribution<Value> distribution = Distribution.create(model.getTransitionsIterator(state, choice), model.getEvaluator());
 				return !model.getEvaluator().geq(distribution.sum(), model.getEvaluator().one());
 			}
 		};
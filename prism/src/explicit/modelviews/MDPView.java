@@ -78,7 +78,7 @@ public abstract class MDPView<Value> extends ModelView<Value> implements MDP<Val
 				final Object action = getAction(state, choice);
 				if (action != null)
 					s += action + ":";
-				s += new Distribution<Value>(getTransitionsIterator(state, choice), getEvaluator());
+				s += Distribution.create(getTransitionsIterator(state, choice), getEvaluator());
 			}
 			s += "]";
 		}
@@ -39,6 +39,8 @@ import explicit.DTMC;
 import explicit.MDP;
 import explicit.Model;
 import explicit.NondetModel;
+import parser.CompiledExpression;
+import parser.EvaluateContext.EvalMode;
 import parser.State;
 import parser.Values;
 import parser.ast.ASTElement;
@@ -246,11 +248,13 @@ public class ConstructRewards extends PrismComponent
 		// Add rewards
 		int n = rewStr.getNumItems();
 		for (int i = 0; i < n; i++) {
-			Expression guard = rewStr.getStates(i);
+			// Guard/reward are evaluated in every state, so compile them first
+			CompiledExpression guard = CompiledExpression.compile(rewStr.getStates(i), constantValues, EvalMode.FP);
+			CompiledExpression reward = CompiledExpression.compile(rewStr.getReward(i), constantValues, EvalMode.FP);
 			String action = rewStr.getSynch(i);
 			for (int s = 0; s < numStates; s++) {
 				// Is guard satisfied?
-				if (guard.evaluateBoolean(constantValues, statesList.get(s))) {
+				if (guard.evaluateBoolean(statesList.get(s))) {
 					// Transition reward
 					if (rewStr.getRewardStructItem(i).isTransitionReward()) {
 						// Don't add rewards to transitions added to "fix" deadlock states
@@ -264,7 +268,7 @@ public class ConstructRewards extends PrismComponent
 							for (int k = 0; k < numChoices; k++) {
 								Object mdpAction = nondetModel.getAction(s, k);
 								if (mdpAction == null ? (action.isEmpty()) : mdpAction.equals(action)) {
-									double rew = rewStr.getReward(i).evaluateDouble(constantValues, statesList.get(s));
+									double rew = reward.evaluateDouble(statesList.get(s));
 									checkTransitionReward(rew, statesList.get(s), rewStr.getReward(i));
 									rewards.addToTransitionReward(s, k, rew);
 								}
@@ -277,7 +281,7 @@ public class ConstructRewards extends PrismComponent
 								Map.Entry<Integer, Pair<Double, Object>> e = iter.next();
 								Object mcAction = e.getValue().second;
 								if (mcAction == null ? (action.isEmpty()) : mcAction.equals(action)) {
-									double rew = rewStr.getReward(i).evaluateDouble(constantValues, statesList.get(s));
+									double rew = reward.evaluateDouble(statesList.get(s));
 									if (expectedRewards) {
 										double rewWeighted = e.getValue().first * rew;
 										rewards.addToStateReward(s, rewWeighted);
@@ -291,7 +295,7 @@ public class ConstructRewards extends PrismComponent
 					}
 					// State reward
 					else {
-						double rew = rewStr.getReward(i).evaluateDouble(constantValues, statesList.get(s));
+						double rew = reward.evaluateDouble(statesList.get(s));
 						checkStateReward(rew, statesList.get(s), rewStr.getReward(i));
 						rewards.addToStateReward(s, rew);
 					}
@@ -39,7 +39,7 @@ public class ModelExportOptions implements Cloneable
 	 * Model export formats
 	 */
 	public enum ModelExportFormat {
-		EXPLICIT, MATLAB, DOT, DRN;
+		EXPLICIT, MATLAB, DOT, DRN, BINARY;
 		public String description()
 		{
 			switch (this) {
@@ -51,6 +51,8 @@ public class ModelExportOptions implements Cloneable
 					return "in Dot format";
 				case DRN:
 					return "in DRN format";
+				case BINARY:
+					return "in binary format";
 				default:
 					return this.toString();
 			}
@@ -0,0 +1,443 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import explicit.DTMC;
+import explicit.MDP;
+import explicit.Model;
+import explicit.rewards.Rewards;
+import parser.State;
+import parser.VarList;
+import parser.type.TypeBool;
+import parser.type.TypeInt;
+import prism.Evaluator;
+import prism.ModelType;
+import prism.Pair;
+import prism.PrismException;
+import prism.PrismNotSupportedException;
+import prism.RewardGenerator;
+
+/**
+ * Class to manage export of built models to PRISM's binary model format,
+ * which can be re-imported, without any parsing, using {@link PrismBinaryImporter}.
+ * <br><br>
+ * The file comprises a header (model type, sizes, variables, label/reward names, actions)
+ * followed by a sequence of 8-byte aligned sections of little-endian primitive arrays,
+ * which store the model in compressed sparse row form, with a row per state
+ * (and, for nondeterministic models, a row per choice).
+ * Currently, DTMCs, CTMCs and MDPs with double-valued probabilities/rates are supported.
+ */
+public class PrismBinaryExporter<Value> extends Exporter<Value>
+{
+	/** Magic number at the start of binary model files */
+	public static final byte[] MAGIC = "PRISMBIN".getBytes(StandardCharsets.US_ASCII);
+	/** Version of the binary model format */
+	public static final int VERSION = 1;
+
+	/** Variable type codes */
+	public static final byte TYPE_INT = 0;
+	public static final byte TYPE_BOOL = 1;
+
+	/** Size of the buffer used for writing */
+	private static final int BUFFER_SIZE = 1 << 20;
+
+	// Output channel and buffer (during export)
+	private FileChannel channel;
+	private ByteBuffer buffer;
+	private long position;
+
+	public PrismBinaryExporter()
+	{
+		super();
+	}
+
+	public PrismBinaryExporter(ModelExportOptions modelExportOptions)
+	{
+		super(modelExportOptions);
+	}
+
+	/**
+	 * Is a model of this type supported by the binary format?
+	 */
+	public static boolean isSupported(ModelType modelType)
+	{
+		return modelType == ModelType.DTMC || modelType == ModelType.CTMC || modelType == ModelType.MDP;
+	}
+
+	/**
+	 * Export a model.
+	 * @param model The model
+	 * @param varList The variables of the model (only needed if the model has a list of states)
+	 * @param rewardGen The RewardGenerator for reward info
+	 * @param allRewards All the rewards
+	 * @param labelNames The names of the labels to export
+	 * @param labelStates The states that satisfy each label, specified as a BitSet
+	 * @param file File to export to
+	 */
+	public void exportModel(Model<Value> model, VarList varList, RewardGenerator<Value> rewardGen, List<Rewards<Value>> allRewards, List<String> labelNames, List<BitSet> labelStates, File file) throws PrismException
+	{
+		setEvaluator(model.getEvaluator());
+		ModelType modelType = model.getModelType();
+		if (!isSupported(modelType)) {
+			throw new PrismNotSupportedException("Binary export not supported for " + modelType + "s");
+		}
+		if (eval.exact() || eval.isSymbolic() || rewardGen.getRewardEvaluator().exact() || rewardGen.getRewardEvaluator().isSymbolic()) {
+			throw new PrismNotSupportedException("Binary export only supported for models with floating-point values");
+		}
+		boolean nondet = modelType.nondeterministic();
+		int numStates = model.getNumStates();
+		int numChoices = nondet ? ((MDP<Value>) model).getNumChoices() : numStates;
+		int numTransitions = model.getNumTransitions();
+		// Transition rewards are per choice for nondeterministic models, per transition otherwise
+		int numTransRewards = nondet ? numChoices : numTransitions;
+
+		// Variables (only if there is state info)
+		List<State> statesList = model.getStatesList();
+		boolean hasStates = statesList != null && varList != null;
+		int numVars = hasStates ? varList.getNumVars() : 0;
+		if (hasStates) {
+			for (int i = 0; i < numVars; i++) {
+				if (!(varList.getType(i) instanceof TypeInt || varList.getType(i) instanceof TypeBool)) {
+					throw new PrismNotSupportedException("Binary export not supported for variables of type " + varList.getType(i));
+				}
+			}
+		}
+
+		// Labels (init is stored as the initial states; deadlock is kept,
+		// since deadlocks may have been fixed, and so cannot be recomputed on import)
+		List<String> exportLabelNames = new ArrayList<>();
+		List<BitSet> exportLabelStates = new ArrayList<>();
+		for (int l = 0; l < labelNames.size(); l++) {
+			String labelName = labelNames.get(l);
+			if (!"init".equals(labelName)) {
+				exportLabelNames.add(labelName);
+				exportLabelStates.add(labelStates.get(l));
+			}
+		}
+
+		// Determine which rewards are non-zero
+		Evaluator<Value> evalRewards = rewardGen.getRewardEvaluator();
+		int numRewards = allRewards.size();
+		boolean[] hasStateRewards = new boolean[numRewards];
+		boolean[] hasTransRewards = new boolean[numRewards];
+		for (int r = 0; r < numRewards; r++) {
+			Rewards<Value> rewards = allRewards.get(r);
+			for (int s = 0; s < numStates && !hasStateRewards[r]; s++) {
+				hasStateRewards[r] = !evalRewards.isZero(rewards.getStateReward(s));
+			}
+			for (int s = 0; s < numStates && !hasTransRewards[r]; s++) {
+				int n = nondet ? ((MDP<Value>) model).getNumChoices(s) : ((DTMC<Value>) model).getNumTransitions(s);
+				for (int j = 0; j < n && !hasTransRewards[r]; j++) {
+					hasTransRewards[r] = !evalRewards.isZero(rewards.getTransitionReward(s, j));
+				}
+			}
+		}
+
+		// Collect actions (if there are any)
+		Map<Object, Integer> actionIndices = new LinkedHashMap<>();
+		forEachAction(model, a -> {
+			if (a != null && !actionIndices.containsKey(a)) {
+				actionIndices.put(a, actionIndices.size());
+			}
+		});
+		boolean hasActions = !actionIndices.isEmpty();
+
+		try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			channel = fc;
+			buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			position = 0;
+
+			// Header
+			putBytes(MAGIC);
+			putInt(VERSION);
+			putString(modelType.name());
+			putInt(numStates);
+			putInt(numChoices);
+			putInt(numTransitions);
+			putInt(numVars);
+			for (int i = 0; i < numVars; i++) {
+				putString(varList.getName(i));
+				boolean isBool = varList.getType(i) instanceof TypeBool;
+				putByte(isBool ? TYPE_BOOL : TYPE_INT);
+				putInt(isBool ? 0 : varList.getLow(i));
+				putInt(isBool ? 1 : varList.getHigh(i));
+			}
+			putInt(exportLabelNames.size());
+			for (String labelName : exportLabelNames) {
+				putString(labelName);
+			}
+			putInt(numRewards);
+			for (int r = 0; r < numRewards; r++) {
+				String name = rewardGen.getRewardStructName(r);
+				putString(name == null ? "" : name);
+				putByte((byte) (hasStateRewards[r] ? 1 : 0));
+				putByte((byte) (hasTransRewards[r] ? 1 : 0));
+			}
+			putInt(actionIndices.size());
+			for (Object a : actionIndices.keySet()) {
+				putString(a.toString());
+			}
+			putByte((byte) (hasStates ? 1 : 0));
+			int numInitialStates = model.getNumInitialStates();
+			putInt(numInitialStates);
+
+			// Row starts: first choice (or transition) for each state
+			align();
+			int count = 0;
+			for (int s = 0; s < numStates; s++) {
+				putInt(count);
+				count += nondet ? ((MDP<Value>) model).getNumChoices(s) : ((DTMC<Value>) model).getNumTransitions(s);
+			}
+			putInt(count);
+			// Choice starts: first transition for each choice
+			if (nondet) {
+				align();
+				MDP<Value> mdp = (MDP<Value>) model;
+				count = 0;
+				for (int s = 0; s < numStates; s++) {
+					int n = mdp.getNumChoices(s);
+					for (int j = 0; j < n; j++) {
+						putInt(count);
+						count += mdp.getNumTransitions(s, j);
+					}
+				}
+				putInt(count);
+			}
+			// Transitions: successors, then probabilities/rates
+			align();
+			forEachTransition(model, e -> putInt(e.getKey()));
+			align();
+			forEachTransition(model, e -> putDouble(eval.toDouble(e.getValue())));
+			// Actions, as indices into the action list (-1 = none)
+			if (hasActions) {
+				align();
+				forEachAction(model, a -> putInt(a == null ? -1 : actionIndices.get(a)));
+			}
+			// Initial states
+			align();
+			for (int s : model.getInitialStates()) {
+				putInt(s);
+			}
+			// Labels, as bit sets over states
+			align();
+			int numWords = (numStates + 63) / 64;
+			for (BitSet bs : exportLabelStates) {
+				long[] words = bs.toLongArray();
+				for (int w = 0; w < numWords; w++) {
+					putLong(w < words.length ? words[w] : 0L);
+				}
+			}
+			// States, as variable values
+			if (hasStates) {
+				align();
+				for (int s = 0; s < numStates; s++) {
+					Object[] values = statesList.get(s).varValues;
+					for (int i = 0; i < numVars; i++) {
+						putInt(values[i] instanceof Boolean ? ((Boolean) values[i] ? 1 : 0) : ((Integer) values[i]).intValue());
+					}
+				}
+			}
+			// Rewards
+			for (int r = 0; r < numRewards; r++) {
+				Rewards<Value> rewards = allRewards.get(r);
+				if (hasStateRewards[r]) {
+					align();
+					for (int s = 0; s < numStates; s++) {
+						putDouble(evalRewards.toDouble(rewards.getStateReward(s)));
+					}
+				}
+				if (hasTransRewards[r]) {
+					align();
+					int written = 0;
+					for (int s = 0; s < numStates; s++) {
+						int n = nondet ? ((MDP<Value>) model).getNumChoices(s) : ((DTMC<Value>) model).getNumTransitions(s);
+						for (int j = 0; j < n; j++) {
+							putDouble(evalRewards.toDouble(rewards.getTransitionReward(s, j)));
+						}
+						written += n;
+					}
+					if (written != numTransRewards) {
+						throw new PrismException("Inconsistent number of transition rewards");
+					}
+				}
+			}
+			align();
+			flush();
+		} catch (IOException e) {
+			throw new PrismException("File I/O error writing to \"" + file + "\": " + e.getMessage());
+		} finally {
+			channel = null;
+			buffer = null;
+		}
+	}
+
+	/**
+	 * Perform {@code action} for each transition of the model, in order.
+	 */
+	private void forEachTransition(Model<Value> model, IOConsumer<Map.Entry<Integer, Value>> action) throws IOException
+	{
+		int numStates = model.getNumStates();
+		if (model.getModelType().nondeterministic()) {
+			MDP<Value> mdp = (MDP<Value>) model;
+			for (int s = 0; s < numStates; s++) {
+				int n = mdp.getNumChoices(s);
+				for (int j = 0; j < n; j++) {
+					for (Iterator<Map.Entry<Integer, Value>> it = mdp.getTransitionsIterator(s, j); it.hasNext();) {
+						action.accept(it.next());
+					}
+				}
+			}
+		} else {
+			DTMC<Value> dtmc = (DTMC<Value>) model;
+			for (int s = 0; s < numStates; s++) {
+				for (Iterator<Map.Entry<Integer, Value>> it = dtmc.getTransitionsIterator(s); it.hasNext();) {
+					action.accept(it.next());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Perform {@code consumer} for the action of each choice (nondeterministic models)
+	 * or transition (Markov chains) of the model, in order.
+	 */
+	private void forEachAction(Model<Value> model, IOConsumer<Object> consumer) throws PrismException
+	{
+		int numStates = model.getNumStates();
+		try {
+			if (model.getModelType().nondeterministic()) {
+				MDP<Value> mdp = (MDP<Value>) model;
+				for (int s = 0; s < numStates; s++) {
+					int n = mdp.getNumChoices(s);
+					for (int j = 0; j < n; j++) {
+						consumer.accept(mdp.getAction(s, j));
+					}
+				}
+			} else {
+				DTMC<Value> dtmc = (DTMC<Value>) model;
+				for (int s = 0; s < numStates; s++) {
+					for (Iterator<Map.Entry<Integer, Pair<Value, Object>>> it = dtmc.getTransitionsAndActionsIterator(s); it.hasNext();) {
+						consumer.accept(it.next().getValue().second);
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new PrismException("File I/O error: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * A consumer that can throw an IOException.
+	 */
+	@FunctionalInterface
+	private interface IOConsumer<T>
+	{
+		void accept(T t) throws IOException;
+	}
+
+	// Low-level output
+
+	private void ensure(int n) throws IOException
+	{
+		if (buffer.remaining() < n) {
+			flush();
+		}
+	}
+
+	private void flush() throws IOException
+	{
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	private void putByte(byte b) throws IOException
+	{
+		ensure(1);
+		buffer.put(b);
+		position++;
+	}
+
+	private void putBytes(byte[] bytes) throws IOException
+	{
+		for (byte b : bytes) {
+			putByte(b);
+		}
+	}
+
+	private void putInt(int i) throws IOException
+	{
+		ensure(4);
+		buffer.putInt(i);
+		position += 4;
+	}
+
+	private void putLong(long l) throws IOException
+	{
+		ensure(8);
+		buffer.putLong(l);
+		position += 8;
+	}
+
+	private void putDouble(double d) throws IOException
+	{
+		ensure(8);
+		buffer.putDouble(d);
+		position += 8;
+	}
+
+	private void putString(String s) throws IOException
+	{
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		putInt(bytes.length);
+		putBytes(bytes);
+	}
+
+	/**
+	 * Pad the output to a multiple of 8 bytes (the start of each section).
+	 */
+	private void align() throws IOException
+	{
+		while (position % 8 != 0) {
+			putByte((byte) 0);
+		}
+	}
+}
@@ -0,0 +1,725 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import parser.ast.DeclarationBool;
+import parser.ast.DeclarationInt;
+import parser.ast.DeclarationType;
+import parser.ast.Expression;
+import parser.type.Type;
+import parser.type.TypeBool;
+import parser.type.TypeInt;
+import prism.Evaluator;
+import prism.ModelInfo;
+import prism.ModelType;
+import prism.PrismException;
+import prism.RewardGenerator;
+
+/**
+ * Class to manage importing models from PRISM's binary model format (see {@link PrismBinaryExporter}).
+ * <br><br>
+ * The header is read on construction. The remaining sections of the file are memory-mapped
+ * and copied in bulk, without any parsing. For double-valued DTMCs and MDPs, the compressed
+ * sparse row arrays can be filled directly (see e.g. {@link #extractMDPTransitions(int[], int[], int[], double[], Object[])}),
+ * which is what {@link explicit.DTMCSparse} and {@link explicit.MDPSparse} do.
+ */
+public class PrismBinaryImporter implements ExplicitModelImporter
+{
+	/** Maximum size of a single memory-mapped region */
+	private static final long MAX_MAP_SIZE = 1L << 30;
+
+	// File being imported from, and its size
+	private File file;
+	private long fileSize;
+
+	// Model info from header
+	private ModelType modelType;
+	private int numStates;
+	private int numChoices;
+	private int numTransitions;
+	private List<String> varNames;
+	private List<Type> varTypes;
+	private int[] varMins;
+	private int[] varMaxs;
+	private List<String> labelNames;
+	private int numLabelsInFile;
+	private int deadlockLabelIndex = -1;
+	private List<String> rewardNames;
+	private boolean[] hasStateRewards;
+	private boolean[] hasTransRewards;
+	private String[] actionNames;
+	private boolean hasStates;
+	private int numInitialStates;
+	private ModelInfo modelInfo;
+	private RewardGenerator<?> rewardInfo;
+
+	// Offsets of the sections of the file
+	private long rowStartsOffset;
+	private long choiceStartsOffset;
+	private long columnsOffset;
+	private long valuesOffset;
+	private long actionsOffset;
+	private long initOffset;
+	private long labelsOffset;
+	private long statesOffset;
+	private long[] stateRewardsOffsets;
+	private long[] transRewardsOffsets;
+	private long endOffset;
+
+	/**
+	 * Constructor: read the header of a binary model file.
+	 * @param file The file to import from
+	 */
+	public PrismBinaryImporter(File file) throws PrismException
+	{
+		this.file = file;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			fileSize = channel.size();
+			MappedByteBuffer header = map(channel, 0, Math.min(fileSize, MAX_MAP_SIZE));
+			readHeader(header);
+			computeOffsets(header.position());
+		} catch (IOException e) {
+			throw new PrismException("File I/O error reading from \"" + file + "\"");
+		} catch (BufferUnderflowException | IllegalArgumentException e) {
+			throw new PrismException("Error reading binary model file \"" + file + "\" (file is truncated or corrupt)");
+		}
+		if (endOffset > fileSize) {
+			throw new PrismException("Error reading binary model file \"" + file + "\" (file is truncated)");
+		}
+	}
+
+	/**
+	 * Get the file being imported from.
+	 */
+	public File getFile()
+	{
+		return file;
+	}
+
+	/**
+	 * Read the header of the file from {@code buf}, leaving it positioned just after the header.
+	 */
+	private void readHeader(MappedByteBuffer buf) throws PrismException
+	{
+		byte[] magic = new byte[PrismBinaryExporter.MAGIC.length];
+		buf.get(magic);
+		if (!Arrays.equals(magic, PrismBinaryExporter.MAGIC)) {
+			throw new PrismException("File \"" + file + "\" is not a PRISM binary model file");
+		}
+		int version = buf.getInt();
+		if (version != PrismBinaryExporter.VERSION) {
+			throw new PrismException("Unsupported version " + version + " of binary model file \"" + file + "\"");
+		}
+		String modelTypeName = getString(buf);
+		try {
+			modelType = ModelType.valueOf(modelTypeName);
+		} catch (IllegalArgumentException e) {
+			throw new PrismException("Unknown model type \"" + modelTypeName + "\" in binary model file \"" + file + "\"");
+		}
+		if (!PrismBinaryExporter.isSupported(modelType)) {
+			throw new PrismException("Unsupported model type " + modelType + " in binary model file \"" + file + "\"");
+		}
+		numStates = checkSize(buf.getInt());
+		numChoices = checkSize(buf.getInt());
+		numTransitions = checkSize(buf.getInt());
+		int numVars = checkSize(buf.getInt());
+		varNames = new ArrayList<>(numVars);
+		varTypes = new ArrayList<>(numVars);
+		varMins = new int[numVars];
+		varMaxs = new int[numVars];
+		for (int i = 0; i < numVars; i++) {
+			varNames.add(getString(buf));
+			varTypes.add(buf.get() == PrismBinaryExporter.TYPE_BOOL ? TypeBool.getInstance() : TypeInt.getInstance());
+			varMins[i] = buf.getInt();
+			varMaxs[i] = buf.getInt();
+		}
+		// Labels (the "deadlock" label, if present, is stored separately)
+		numLabelsInFile = checkSize(buf.getInt());
+		labelNames = new ArrayList<>(numLabelsInFile);
+		for (int l = 0; l < numLabelsInFile; l++) {
+			String labelName = getString(buf);
+			if ("deadlock".equals(labelName)) {
+				deadlockLabelIndex = l;
+			} else {
+				labelNames.add(labelName);
+			}
+		}
+		int numRewards = checkSize(buf.getInt());
+		rewardNames = new ArrayList<>(numRewards);
+		hasStateRewards = new boolean[numRewards];
+		hasTransRewards = new boolean[numRewards];
+		for (int r = 0; r < numRewards; r++) {
+			rewardNames.add(getString(buf));
+			hasStateRewards[r] = buf.get() != 0;
+			hasTransRewards[r] = buf.get() != 0;
+		}
+		int numActions = checkSize(buf.getInt());
+		actionNames = new String[numActions];
+		for (int a = 0; a < numActions; a++) {
+			actionNames[a] = getString(buf);
+		}
+		hasStates = buf.get() != 0;
+		numInitialStates = checkSize(buf.getInt());
+		// Without state info, use a dummy variable (as for explicit text files)
+		if (!hasStates) {
+			varNames = new ArrayList<>(List.of("x"));
+			varTypes = new ArrayList<>(List.of(TypeInt.getInstance()));
+			varMins = new int[] { 0 };
+			varMaxs = new int[] { numStates - 1 };
+		}
+	}
+
+	/**
+	 * Compute the offsets of the sections of the file, given the size of the header.
+	 */
+	private void computeOffsets(long headerSize)
+	{
+		boolean nondet = modelType.nondeterministic();
+		long offset = align(headerSize);
+		rowStartsOffset = offset;
+		offset = align(offset + 4L * (numStates + 1));
+		choiceStartsOffset = offset;
+		if (nondet) {
+			offset = align(offset + 4L * (numChoices + 1));
+		}
+		columnsOffset = offset;
+		offset = align(offset + 4L * numTransitions);
+		valuesOffset = offset;
+		offset = align(offset + 8L * numTransitions);
+		actionsOffset = offset;
+		if (actionNames.length > 0) {
+			offset = align(offset + 4L * (nondet ? numChoices : numTransitions));
+		}
+		initOffset = offset;
+		offset = align(offset + 4L * numInitialStates);
+		labelsOffset = offset;
+		offset = align(offset + 8L * getNumLabelWords() * numLabelsInFile);
+		statesOffset = offset;
+		if (hasStates) {
+			offset = align(offset + 4L * numStates * varNames.size());
+		}
+		int numRewards = rewardNames.size();
+		stateRewardsOffsets = new long[numRewards];
+		transRewardsOffsets = new long[numRewards];
+		for (int r = 0; r < numRewards; r++) {
+			stateRewardsOffsets[r] = offset;
+			if (hasStateRewards[r]) {
+				offset = align(offset + 8L * numStates);
+			}
+			transRewardsOffsets[r] = offset;
+			if (hasTransRewards[r]) {
+				offset = align(offset + 8L * (nondet ? numChoices : numTransitions));
+			}
+		}
+		endOffset = offset;
+	}
+
+	private int getNumLabelWords()
+	{
+		return (numStates + 63) / 64;
+	}
+
+	@Override
+	public boolean providesStates()
+	{
+		return hasStates;
+	}
+
+	@Override
+	public boolean providesLabels()
+	{
+		return true;
+	}
+
+	@Override
+	public String sourceString()
+	{
+		return "\"" + file + "\"";
+	}
+
+	@Override
+	public ModelInfo getModelInfo() throws PrismException
+	{
+		if (modelInfo == null) {
+			modelInfo = new ModelInfo()
+			{
+				@Override
+				public ModelType getModelType()
+				{
+					return modelType;
+				}
+
+				@Override
+				public List<String> getVarNames()
+				{
+					return varNames;
+				}
+
+				@Override
+				public List<Type> getVarTypes()
+				{
+					return varTypes;
+				}
+
+				@Override
+				public DeclarationType getVarDeclarationType(int i) throws PrismException
+				{
+					if (varTypes.get(i) instanceof TypeInt) {
+						return new DeclarationInt(Expression.Int(varMins[i]), Expression.Int(varMaxs[i]));
+					} else {
+						return new DeclarationBool();
+					}
+				}
+
+				@Override
+				public List<String> getLabelNames()
+				{
+					return labelNames;
+				}
+			};
+		}
+		return modelInfo;
+	}
+
+	@Override
+	public int getNumStates()
+	{
+		return numStates;
+	}
+
+	@Override
+	public int getNumChoices()
+	{
+		return numChoices;
+	}
+
+	@Override
+	public int getNumTransitions()
+	{
+		return numTransitions;
+	}
+
+	@Override
+	public String getModelTypeString()
+	{
+		return modelType + " (from binary file)";
+	}
+
+	@Override
+	public RewardGenerator<?> getRewardInfo()
+	{
+		if (rewardInfo == null) {
+			rewardInfo = new RewardGenerator<>()
+			{
+				@Override
+				public List<String> getRewardStructNames()
+				{
+					return rewardNames;
+				}
+
+				@Override
+				public boolean rewardStructHasTransitionRewards(int r)
+				{
+					return hasTransRewards[r];
+				}
+			};
+		}
+		return rewardInfo;
+	}
+
+	@Override
+	public void extractStates(IOUtils.StateDefnConsumer storeStateDefn) throws PrismException
+	{
+		if (!hasStates) {
+			for (int s = 0; s < numStates; s++) {
+				storeStateDefn.accept(s, 0, s);
+			}
+			return;
+		}
+		int numVars = varNames.size();
+		if (numVars == 0) {
+			return;
+		}
+		// Read the variable values in blocks of states, so that each block fits in an array
+		int blockSize = (int) Math.max(1, Math.min(numStates, (MAX_MAP_SIZE / 4) / numVars));
+		int[] values = new int[blockSize * numVars];
+		int start = 0;
+		while (start < numStates) {
+			int numBlockStates = Math.min(blockSize, numStates - start);
+			readInts(statesOffset + 4L * start * numVars, values, numBlockStates * numVars);
+			for (int j = 0; j < numBlockStates; j++) {
+				for (int i = 0; i < numVars; i++) {
+					int v = values[j * numVars + i];
+					if (varTypes.get(i) instanceof TypeBool) {
+						storeStateDefn.accept(start + j, i, v != 0);
+					} else {
+						storeStateDefn.accept(start + j, i, v);
+					}
+				}
+			}
+			start += numBlockStates;
+		}
+	}
+
+	@Override
+	public int computeMaxNumChoices() throws PrismException
+	{
+		if (!modelType.nondeterministic()) {
+			return 1;
+		}
+		int[] rowStarts = readInts(rowStartsOffset, numStates + 1);
+		int max = 0;
+		for (int s = 0; s < numStates; s++) {
+			max = Math.max(max, rowStarts[s + 1] - rowStarts[s]);
+		}
+		return max;
+	}
+
+	/**
+	 * Extract the transitions of a Markov chain directly into compressed sparse row arrays.
+	 * @param rows Array of size (num states + 1) to store the start of each state's transitions
+	 * @param columns Array of size (num transitions) to store the successor states
+	 * @param probabilities Array of size (num transitions) to store the probabilities/rates
+	 * @param actions Array of size (num transitions) to store the actions (or null to ignore actions)
+	 */
+	public void extractMCTransitions(int[] rows, int[] columns, double[] probabilities, Object[] actions) throws PrismException
+	{
+		checkMC();
+		readInts(rowStartsOffset, rows, numStates + 1);
+		readInts(columnsOffset, columns, numTransitions);
+		readDoubles(valuesOffset, probabilities, numTransitions);
+		if (actions != null) {
+			extractActions(actions, numTransitions);
+		}
+	}
+
+	/**
+	 * Extract the transitions of an MDP directly into compressed sparse row arrays.
+	 * @param rowStarts Array of size (num states + 1) to store the start of each state's choices
+	 * @param choiceStarts Array of size (num choices + 1) to store the start of each choice's transitions
+	 * @param cols Array of size (num transitions) to store the successor states
+	 * @param nonZeros Array of size (num transitions) to store the probabilities
+	 * @param actions Array of size (num choices) to store the actions (or null to ignore actions)
+	 */
+	public void extractMDPTransitions(int[] rowStarts, int[] choiceStarts, int[] cols, double[] nonZeros, Object[] actions) throws PrismException
+	{
+		checkMDP();
+		readInts(rowStartsOffset, rowStarts, numStates + 1);
+		readInts(choiceStartsOffset, choiceStarts, numChoices + 1);
+		readInts(columnsOffset, cols, numTransitions);
+		readDoubles(valuesOffset, nonZeros, numTransitions);
+		if (actions != null) {
+			extractActions(actions, numChoices);
+		}
+	}
+
+	@Override
+	public <Value> void extractMCTransitions(IOUtils.MCTransitionConsumer<Value> storeTransition, Evaluator<Value> eval) throws PrismException
+	{
+		checkMC();
+		int[] rows = readInts(rowStartsOffset, numStates + 1);
+		int[] columns = readInts(columnsOffset, numTransitions);
+		double[] values = readDoubles(valuesOffset, numTransitions);
+		Object[] actions = new Object[numTransitions];
+		extractActions(actions, numTransitions);
+		for (int s = 0; s < numStates; s++) {
+			for (int k = rows[s]; k < rows[s + 1]; k++) {
+				storeTransition.accept(s, columns[k], fromDouble(values[k], eval), actions[k]);
+			}
+		}
+	}
+
+	@Override
+	public <Value> void extractMDPTransitions(IOUtils.MDPTransitionConsumer<Value> storeTransition, Evaluator<Value> eval) throws PrismException
+	{
+		checkMDP();
+		int[] rowStarts = readInts(rowStartsOffset, numStates + 1);
+		int[] choiceStarts = readInts(choiceStartsOffset, numChoices + 1);
+		int[] cols = readInts(columnsOffset, numTransitions);
+		double[] values = readDoubles(valuesOffset, numTransitions);
+		Object[] actions = new Object[numChoices];
+		extractActions(actions, numChoices);
+		for (int s = 0; s < numStates; s++) {
+			for (int c = rowStarts[s]; c < rowStarts[s + 1]; c++) {
+				int i = c - rowStarts[s];
+				for (int k = choiceStarts[c]; k < choiceStarts[c + 1]; k++) {
+					storeTransition.accept(s, i, cols[k], fromDouble(values[k], eval), actions[c]);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void extractLTSTransitions(IOUtils.LTSTransitionConsumer storeTransition) throws PrismException
+	{
+		throw new PrismException("Binary model file \"" + file + "\" does not contain an LTS");
+	}
+
+	@Override
+	public void extractLabelsAndInitialStates(BiConsumer<Integer, Integer> storeLabel, Consumer<Integer> storeInit) throws PrismException
+	{
+		for (int s : readInts(initOffset, numInitialStates)) {
+			storeInit.accept(s);
+		}
+		for (int l = 0, lFile = 0; lFile < numLabelsInFile; lFile++) {
+			if (lFile != deadlockLabelIndex) {
+				BitSet bs = readLabel(lFile);
+				for (int s = bs.nextSetBit(0); s >= 0; s = bs.nextSetBit(s + 1)) {
+					storeLabel.accept(s, l);
+				}
+				l++;
+			}
+		}
+	}
+
+	/**
+	 * Extract the states that were deadlocks when the model was exported
+	 * (which, if deadlocks were fixed, cannot be recomputed from the transitions).
+	 * @param storeDeadlock Function to be called for each deadlock state
+	 */
+	public void extractDeadlockStates(Consumer<Integer> storeDeadlock) throws PrismException
+	{
+		if (deadlockLabelIndex == -1) {
+			return;
+		}
+		BitSet bs = readLabel(deadlockLabelIndex);
+		for (int s = bs.nextSetBit(0); s >= 0; s = bs.nextSetBit(s + 1)) {
+			storeDeadlock.accept(s);
+		}
+	}
+
+	@Override
+	public <Value> void extractStateRewards(int rewardIndex, BiConsumer<Integer, Value> storeReward, Evaluator<Value> eval) throws PrismException
+	{
+		if (!hasStateRewards[rewardIndex]) {
+			return;
+		}
+		double[] rewards = readDoubles(stateRewardsOffsets[rewardIndex], numStates);
+		for (int s = 0; s < numStates; s++) {
+			if (rewards[s] != 0.0) {
+				storeReward.accept(s, fromDouble(rewards[s], eval));
+			}
+		}
+	}
+
+	@Override
+	public <Value> void extractMCTransitionRewards(int rewardIndex, IOUtils.TransitionRewardConsumer<Value> storeReward, Evaluator<Value> eval) throws PrismException
+	{
+		checkMC();
+		if (!hasTransRewards[rewardIndex]) {
+			return;
+		}
+		int[] rows = readInts(rowStartsOffset, numStates + 1);
+		int[] columns = readInts(columnsOffset, numTransitions);
+		double[] rewards = readDoubles(transRewardsOffsets[rewardIndex], numTransitions);
+		for (int s = 0; s < numStates; s++) {
+			for (int k = rows[s]; k < rows[s + 1]; k++) {
+				if (rewards[k] != 0.0) {
+					storeReward.accept(s, columns[k], fromDouble(rewards[k], eval));
+				}
+			}
+		}
+	}
+
+	@Override
+	public <Value> void extractMDPTransitionRewards(int rewardIndex, IOUtils.TransitionStateRewardConsumer<Value> storeReward, Evaluator<Value> eval) throws PrismException
+	{
+		checkMDP();
+		if (!hasTransRewards[rewardIndex]) {
+			return;
+		}
+		int[] rowStarts = readInts(rowStartsOffset, numStates + 1);
+		int[] choiceStarts = readInts(choiceStartsOffset, numChoices + 1);
+		int[] cols = readInts(columnsOffset, numTransitions);
+		double[] rewards = readDoubles(transRewardsOffsets[rewardIndex], numChoices);
+		for (int s = 0; s < numStates; s++) {
+			for (int c = rowStarts[s]; c < rowStarts[s + 1]; c++) {
+				if (rewards[c] != 0.0) {
+					Value v = fromDouble(rewards[c], eval);
+					// Reward is attached to every successor of the choice
+					for (int k = choiceStarts[c]; k < choiceStarts[c + 1]; k++) {
+						storeReward.accept(s, c - rowStarts[s], cols[k], v);
+					}
+				}
+			}
+		}
+	}
+
+	// Utility methods
+
+	private void checkMC() throws PrismException
+	{
+		if (modelType.nondeterministic()) {
+			throw new PrismException("Binary model file \"" + file + "\" does not contain a Markov chain");
+		}
+	}
+
+	private void checkMDP() throws PrismException
+	{
+		if (!modelType.nondeterministic()) {
+			throw new PrismException("Binary model file \"" + file + "\" does not contain an MDP");
+		}
+	}
+
+	/**
+	 * Extract the action (if any) for each of the first {@code n} choices/transitions into {@code actions}.
+	 */
+	private void extractActions(Object[] actions, int n) throws PrismException
+	{
+		if (actionNames.length == 0) {
+			Arrays.fill(actions, 0, n, null);
+			return;
+		}
+		int[] indices = readInts(actionsOffset, n);
+		for (int k = 0; k < n; k++) {
+			int a = indices[k];
+			if (a < -1 || a >= actionNames.length) {
+				throw new PrismException("Invalid action index " + a + " in binary model file \"" + file + "\"");
+			}
+			actions[k] = a == -1 ? null : actionNames[a];
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <Value> Value fromDouble(double d, Evaluator<Value> eval)
+	{
+		// (cast is safe: Value is Double if the evaluator's values are Doubles)
+		if (eval.one() instanceof Double) {
+			return (Value) Double.valueOf(d);
+		}
+		return eval.fromString(Double.toString(d));
+	}
+
+	private int checkSize(int n) throws PrismException
+	{
+		if (n < 0) {
+			throw new PrismException("Error reading binary model file \"" + file + "\" (file is corrupt)");
+		}
+		return n;
+	}
+
+	private static String getString(MappedByteBuffer buf)
+	{
+		byte[] bytes = new byte[buf.getInt()];
+		buf.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static long align(long offset)
+	{
+		return (offset + 7) & ~7L;
+	}
+
+	private static MappedByteBuffer map(FileChannel channel, long offset, long size) throws IOException
+	{
+		MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+		buf.order(ByteOrder.LITTLE_ENDIAN);
+		return buf;
+	}
+
+	// Bulk reads from memory-mapped sections of the file
+
+	private int[] readInts(long offset, int n) throws PrismException
+	{
+		int[] array = new int[n];
+		readInts(offset, array, n);
+		return array;
+	}
+
+	private void readInts(long offset, int[] array, int n) throws PrismException
+	{
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			int chunk = (int) (MAX_MAP_SIZE / 4);
+			int done = 0;
+			while (done < n) {
+				int len = Math.min(chunk, n - done);
+				map(channel, offset + 4L * done, 4L * len).asIntBuffer().get(array, done, len);
+				done += len;
+			}
+		} catch (IOException e) {
+			throw new PrismException("File I/O error reading from \"" + file + "\": " + e.getMessage());
+		}
+	}
+
+	private double[] readDoubles(long offset, int n) throws PrismException
+	{
+		double[] array = new double[n];
+		readDoubles(offset, array, n);
+		return array;
+	}
+
+	private void readDoubles(long offset, double[] array, int n) throws PrismException
+	{
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			int chunk = (int) (MAX_MAP_SIZE / 8);
+			int done = 0;
+			while (done < n) {
+				int len = Math.min(chunk, n - done);
+				map(channel, offset + 8L * done, 8L * len).asDoubleBuffer().get(array, done, len);
+				done += len;
+			}
+		} catch (IOException e) {
+			throw new PrismException("File I/O error reading from \"" + file + "\": " + e.getMessage());
+		}
+	}
+
+	private BitSet readLabel(int l) throws PrismException
+	{
+		int numWords = getNumLabelWords();
+		return BitSet.valueOf(readLongs(labelsOffset + 8L * numWords * l, numWords));
+	}
+
+	private long[] readLongs(long offset, int n) throws PrismException
+	{
+		long[] array = new long[n];
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			int chunk = (int) (MAX_MAP_SIZE / 8);
+			int done = 0;
+			while (done < n) {
+				int len = Math.min(chunk, n - done);
+				map(channel, offset + 8L * done, 8L * len).asLongBuffer().get(array, done, len);
+				done += len;
+			}
+		} catch (IOException e) {
+			throw new PrismException("File I/O error reading from \"" + file + "\": " + e.getMessage());
+		}
+		return array;
+	}
+}
@@ -0,0 +1,933 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package parser;
+
+import common.SafeCast;
+import parser.EvaluateContext.EvalMode;
+import parser.ast.Expression;
+import parser.ast.ExpressionBinaryOp;
+import parser.ast.ExpressionFunc;
+import parser.ast.ExpressionITE;
+import parser.ast.ExpressionUnaryOp;
+import parser.ast.ExpressionVar;
+import parser.type.Type;
+import parser.type.TypeBool;
+import parser.type.TypeDouble;
+import parser.type.TypeInt;
+import prism.PrismLangException;
+import prism.PrismUtils;
+
+/**
+ * An expression prepared for repeated evaluation over many states,
+ * e.g. a guard, update or reward evaluated during model construction or simulation.
+ * <br><br>
+ * The expression is translated once into a tree of evaluators specialised
+ * for boolean, int and double values, which read variable values directly from
+ * a {@link State}, have constants already evaluated and, unlike {@link Expression#evaluate(EvaluateContext)},
+ * do not create an Object for every intermediate result.
+ * This is only done for floating point evaluation ({@link EvalMode#FP})
+ * and for the basic operators/functions over booleans, integers and doubles;
+ * anything else is evaluated as usual, by {@link Expression#evaluate(EvaluateContext)}.
+ * <br><br>
+ * Results are identical to the usual evaluation. If an error occurs
+ * (e.g. an integer overflow), the original expression is re-evaluated
+ * so that the same exception (message, position) is thrown.
+ * <br><br>
+ * Note: not thread-safe (an evaluation context is stored and re-used).
+ */
+public class CompiledExpression
+{
+	/** The expression */
+	private Expression expr;
+	/** Evaluation context (constant values, evaluation mode), for anything not compiled */
+	private EvaluateContextState ec;
+	/** Root of the compiled evaluator (null if the expression is not compiled) */
+	private Node root;
+
+	/**
+	 * Prepare expression {@code expr} for repeated evaluation, using (optionally)
+	 * the values of constants in {@code constantValues} and evaluation mode {@code evalMode}.
+	 * The expression should already have been type checked.
+	 * It is stored, not copied, so should not be modified later.
+	 */
+	public static CompiledExpression compile(Expression expr, Values constantValues, EvalMode evalMode)
+	{
+		return new CompiledExpression(expr, constantValues, evalMode);
+	}
+
+	private CompiledExpression(Expression expr, Values constantValues, EvalMode evalMode)
+	{
+		this.expr = expr;
+		ec = new EvaluateContextState(constantValues, new State(0));
+		ec.setEvaluationMode(evalMode);
+		root = evalMode == EvalMode.FP ? compileNode(expr) : null;
+	}
+
+	/**
+	 * Get the (original) expression.
+	 */
+	public Expression getExpression()
+	{
+		return expr;
+	}
+
+	/**
+	 * Get the values for constants used for evaluation (may be null).
+	 */
+	public Values getConstantValues()
+	{
+		return ec.getConstantValues();
+	}
+
+	/**
+	 * Is the expression (at least partly) compiled,
+	 * rather than just evaluated as usual?
+	 */
+	public boolean isCompiled()
+	{
+		return root != null;
+	}
+
+	/**
+	 * Evaluate the expression in state {@code state},
+	 * as for {@link Expression#evaluate(EvaluateContext)}.
+	 */
+	public Object evaluate(State state) throws PrismLangException
+	{
+		return root == null ? expr.evaluate(ec.setState(state)) : root.evaluate(state);
+	}
+
+	/**
+	 * Evaluate the expression as a boolean in state {@code state},
+	 * as for {@link Expression#evaluateBoolean(EvaluateContext)}.
+	 */
+	public boolean evaluateBoolean(State state) throws PrismLangException
+	{
+		return root == null ? expr.evaluateBoolean(ec.setState(state)) : root.evaluateBoolean(state);
+	}
+
+	/**
+	 * Evaluate the expression as an int in state {@code state},
+	 * as for {@link Expression#evaluateInt(EvaluateContext)}.
+	 */
+	public int evaluateInt(State state) throws PrismLangException
+	{
+		return root == null ? expr.evaluateInt(ec.setState(state)) : root.evaluateInt(state);
+	}
+
+	/**
+	 * Evaluate the expression as a double in state {@code state},
+	 * as for {@link Expression#evaluateDouble(EvaluateContext)}.
+	 */
+	public double evaluateDouble(State state) throws PrismLangException
+	{
+		return root == null ? expr.evaluateDouble(ec.setState(state)) : root.evaluateDouble(state);
+	}
+
+	@Override
+	public String toString()
+	{
+		return expr.toString();
+	}
+
+	// Compilation
+
+	/** Kinds of (compiled) values */
+	private static final int BOOL = 0;
+	private static final int INT = 1;
+	private static final int DOUBLE = 2;
+
+	/**
+	 * Get the kind of value (BOOL/INT/DOUBLE) for a type, or -1 if not supported.
+	 */
+	private static int kindOf(Type type)
+	{
+		if (type instanceof TypeBool) {
+			return BOOL;
+		} else if (type instanceof TypeInt) {
+			return INT;
+		} else if (type instanceof TypeDouble) {
+			return DOUBLE;
+		} else {
+			return -1;
+		}
+	}
+
+	/**
+	 * Compile an expression (or subexpression); returns null if its type is not supported.
+	 */
+	private Node compileNode(Expression e)
+	{
+		int kind = kindOf(e.getType());
+		if (kind == -1) {
+			return null;
+		}
+		// Constant subexpressions (e.g. literals, constants) are evaluated now, if possible
+		if (e.isConstant()) {
+			try {
+				return constantNode(e, kind, e.evaluate(ec));
+			} catch (PrismLangException ex) {
+				// Errors will be reported at evaluation time
+			}
+		}
+		Node node = null;
+		if (e instanceof ExpressionVar) {
+			node = compileVar((ExpressionVar) e, kind);
+		} else if (e instanceof ExpressionUnaryOp) {
+			node = compileUnaryOp((ExpressionUnaryOp) e, kind);
+		} else if (e instanceof ExpressionBinaryOp) {
+			node = compileBinaryOp((ExpressionBinaryOp) e, kind);
+		} else if (e instanceof ExpressionITE) {
+			node = compileITE((ExpressionITE) e, kind);
+		} else if (e instanceof ExpressionFunc) {
+			node = compileFunc((ExpressionFunc) e, kind);
+		}
+		// Anything else is evaluated as usual
+		return node != null && node.kind() == kind ? node : interpretedNode(e, kind);
+	}
+
+	/**
+	 * Compile all operands of an expression; returns null if any is not supported.
+	 */
+	private Node[] compileOperands(Expression... operands)
+	{
+		Node[] nodes = new Node[operands.length];
+		for (int i = 0; i < operands.length; i++) {
+			nodes[i] = compileNode(operands[i]);
+			if (nodes[i] == null) {
+				return null;
+			}
+		}
+		return nodes;
+	}
+
+	private Node constantNode(Expression e, int kind, Object value) throws PrismLangException
+	{
+		switch (kind) {
+		case BOOL:
+			boolean b = TypeBool.getInstance().castValueTo(value, EvalMode.FP);
+			return new BoolNode(e)
+			{
+				boolean evaluateBoolean(State s)
+				{
+					return b;
+				}
+			};
+		case INT:
+			int i = (Integer) TypeInt.getInstance().castValueTo(value, EvalMode.FP);
+			return new IntNode(e)
+			{
+				int evaluateInt(State s)
+				{
+					return i;
+				}
+			};
+		default:
+			double d = (Double) TypeDouble.getInstance().castValueTo(value, EvalMode.FP);
+			return new DoubleNode(e)
+			{
+				double evaluateDouble(State s)
+				{
+					return d;
+				}
+			};
+		}
+	}
+
+	private Node interpretedNode(Expression e, int kind)
+	{
+		switch (kind) {
+		case BOOL:
+			return new BoolNode(e)
+			{
+				boolean evaluateBoolean(State s) throws PrismLangException
+				{
+					return e.evaluateBoolean(ec.setState(s));
+				}
+			};
+		case INT:
+			return new IntNode(e)
+			{
+				int evaluateInt(State s) throws PrismLangException
+				{
+					return e.evaluateInt(ec.setState(s));
+				}
+			};
+		default:
+			return new DoubleNode(e)
+			{
+				double evaluateDouble(State s) throws PrismLangException
+				{
+					return e.evaluateDouble(ec.setState(s));
+				}
+			};
+		}
+	}
+
+	private Node compileVar(ExpressionVar e, int kind)
+	{
+		int v = e.getIndex();
+		if (v < 0) {
+			return null;
+		}
+		// Values are read directly from the state if of the expected class
+		switch (kind) {
+		case BOOL:
+			return new BoolNode(e)
+			{
+				boolean evaluateBoolean(State s) throws PrismLangException
+				{
+					Object o = s.varValues[v];
+					return o instanceof Boolean ? (Boolean) o : e.evaluateBoolean(ec.setState(s));
+				}
+			};
+		case INT:
+			return new IntNode(e)
+			{
+				int evaluateInt(State s) throws PrismLangException
+				{
+					Object o = s.varValues[v];
+					return o instanceof Integer ? (Integer) o : e.evaluateInt(ec.setState(s));
+				}
+			};
+		default:
+			return new DoubleNode(e)
+			{
+				double evaluateDouble(State s) throws PrismLangException
+				{
+					Object o = s.varValues[v];
+					return o instanceof Double ? (Double) o : e.evaluateDouble(ec.setState(s));
+				}
+			};
+		}
+	}
+
+	private Node compileUnaryOp(ExpressionUnaryOp e, int kind)
+	{
+		Node[] ops = compileOperands(e.getOperand());
+		if (ops == null) {
+			return null;
+		}
+		Node op = ops[0];
+		switch (e.getOperator()) {
+		case ExpressionUnaryOp.NOT:
+			return new BoolNode(e)
+			{
+				boolean evaluateBoolean(State s) throws PrismLangException
+				{
+					return !op.evaluateBoolean(s);
+				}
+			};
+		case ExpressionUnaryOp.MINUS:
+			if (kind == INT) {
+				return new IntNode(e)
+				{
+					int evaluateInt(State s) throws PrismLangException
+					{
+						try {
+							return Math.negateExact(op.evaluateInt(s));
+						} catch (ArithmeticException ex) {
+							throw error(s);
+						}
+					}
+				};
+			} else {
+				return new DoubleNode(e)
+				{
+					double evaluateDouble(State s) throws PrismLangException
+					{
+						return -op.evaluateDouble(s);
+					}
+				};
+			}
+		case ExpressionUnaryOp.PARENTH:
+			return kindOf(e.getOperand().getType()) == kind ? op : null;
+		default:
+			return null;
+		}
+	}
+
+	private Node compileBinaryOp(ExpressionBinaryOp e, int kind)
+	{
+		Node[] ops = compileOperands(e.getOperand1(), e.getOperand2());
+		if (ops == null) {
+			return null;
+		}
+		Node op1 = ops[0];
+		Node op2 = ops[1];
+		int kind1 = kindOf(e.getOperand1().getType());
+		int kind2 = kindOf(e.getOperand2().getType());
+		boolean ints = kind1 == INT && kind2 == INT;
+		switch (e.getOperator()) {
+		case ExpressionBinaryOp.IMPLIES:
+			return new BoolNode(e)
+			{
+				boolean evaluateBoolean(State s) throws PrismLangException
+				{
+					return !op1.evaluateBoolean(s) || op2.evaluateBoolean(s);
+				}
+			};
+		case ExpressionBinaryOp.IFF:
+			return new BoolNode(e)
+			{
+				boolean evaluateBoolean(State s) throws PrismLangException
+				{
+					return op1.evaluateBoolean(s) == op2.evaluateBoolean(s);
+				}
+			};
+		case ExpressionBinaryOp.OR:
+			return new BoolNode(e)
+			{
+				boolean evaluateBoolean(State s) throws PrismLangException
+				{
+					return op1.evaluateBoolean(s) || op2.evaluateBoolean(s);
+				}
+			};
+		case ExpressionBinaryOp.AND:
+			return new BoolNode(e)
+			{
+				boolean evaluateBoolean(State s) throws PrismLangException
+				{
+					return op1.evaluateBoolean(s) && op2.evaluateBoolean(s);
+				}
+			};
+		case ExpressionBinaryOp.EQ:
+		case ExpressionBinaryOp.NE:
+			return compileEquality(e, op1, op2, kind1, kind2, e.getOperator() == ExpressionBinaryOp.EQ);
+		case ExpressionBinaryOp.GT:
+		case ExpressionBinaryOp.GE:
+		case ExpressionBinaryOp.LT:
+		case ExpressionBinaryOp.LE:
+			if (kind1 == BOOL || kind2 == BOOL) {
+				return null;
+			}
+			return compileRelOp(e, op1, op2, ints, e.getOperator());
+		case ExpressionBinaryOp.PLUS:
+		case ExpressionBinaryOp.MINUS:
+		case ExpressionBinaryOp.TIMES:
+			if (kind1 == BOOL || kind2 == BOOL) {
+				return null;
+			}
+			return compileArithOp(e, op1, op2, ints, e.getOperator());
+		case ExpressionBinaryOp.DIVIDE:
+			return new DoubleNode(e)
+			{
+				double evaluateDouble(State s) throws PrismLangException
+				{
+					return op1.evaluateDouble(s) / op2.evaluateDouble(s);
+				}
+			};
+		case ExpressionBinaryOp.POW:
+			return compilePow(e, op1, op2, kind);
+		default:
+			return null;
+		}
+	}
+
+	private Node compileEquality(ExpressionBinaryOp e, Node op1, Node op2, int kind1, int kind2, boolean eq)
+	{
+		// Booleans/ints compared as is; if either is a double, both compared as doubles
+		// (using Double.compare, which matches Double.equals() used by Expression.evaluate())
+		if (kind1 == BOOL && kind2 == BOOL) {
+			return new BoolNode(e)
+			{
+				boolean evaluateBoolean(State s) throws PrismLangException
+				{
+					return (op1.evaluateBoolean(s) == op2.evaluateBoolean(s)) == eq;
+				}
+			};
+		} else if (kind1 == INT && kind2 == INT) {
+			return new BoolNode(e)
+			{
+				boolean evaluateBoolean(State s) throws PrismLangException
+				{
+					return (op1.evaluateInt(s) == op2.evaluateInt(s)) == eq;
+				}
+			};
+		} else if (kind1 != BOOL && kind2 != BOOL) {
+			return new BoolNode(e)
+			{
+				boolean evaluateBoolean(State s) throws PrismLangException
+				{
+					return (Double.compare(op1.evaluateDouble(s), op2.evaluateDouble(s)) == 0) == eq;
+				}
+			};
+		}
+		return null;
+	}
+
+	private Node compileRelOp(ExpressionBinaryOp e, Node op1, Node op2, boolean ints, int op)
+	{
+		if (ints) {
+			switch (op) {
+			case ExpressionBinaryOp.GT:
+				return new BoolNode(e)
+				{
+					boolean evaluateBoolean(State s) throws PrismLangException
+					{
+						return op1.evaluateInt(s) > op2.evaluateInt(s);
+					}
+				};
+			case ExpressionBinaryOp.GE:
+				return new BoolNode(e)
+				{
+					boolean evaluateBoolean(State s) throws PrismLangException
+					{
+						return op1.evaluateInt(s) >= op2.evaluateInt(s);
+					}
+				};
+			case ExpressionBinaryOp.LT:
+				return new BoolNode(e)
+				{
+					boolean evaluateBoolean(State s) throws PrismLangException
+					{
+						return op1.evaluateInt(s) < op2.evaluateInt(s);
+					}
+				};
+			default:
+				return new BoolNode(e)
+				{
+					boolean evaluateBoolean(State s) throws PrismLangException
+					{
+						return op1.evaluateInt(s) <= op2.evaluateInt(s);
+					}
+				};
+			}
+		} else {
+			switch (op) {
+			case ExpressionBinaryOp.GT:
+				return new BoolNode(e)
+				{
+					boolean evaluateBoolean(State s) throws PrismLangException
+					{
+						return op1.evaluateDouble(s) > op2.evaluateDouble(s);
+					}
+				};
+			case ExpressionBinaryOp.GE:
+				return new BoolNode(e)
+				{
+					boolean evaluateBoolean(State s) throws PrismLangException
+					{
+						return op1.evaluateDouble(s) >= op2.evaluateDouble(s);
+					}
+				};
+			case ExpressionBinaryOp.LT:
+				return new BoolNode(e)
+				{
+					boolean evaluateBoolean(State s) throws PrismLangException
+					{
+						return op1.evaluateDouble(s) < op2.evaluateDouble(s);
+					}
+				};
+			default:
+				return new BoolNode(e)
+				{
+					boolean evaluateBoolean(State s) throws PrismLangException
+					{
+						return op1.evaluateDouble(s) <= op2.evaluateDouble(s);
+					}
+				};
+			}
+		}
+	}
+
+	private Node compileArithOp(ExpressionBinaryOp e, Node op1, Node op2, boolean ints, int op)
+	{
+		if (ints) {
+			// Integer overflow is an error, as for Expression.evaluate()
+			switch (op) {
+			case ExpressionBinaryOp.PLUS:
+				return new IntNode(e)
+				{
+					int evaluateInt(State s) throws PrismLangException
+					{
+						try {
+							return Math.addExact(op1.evaluateInt(s), op2.evaluateInt(s));
+						} catch (ArithmeticException ex) {
+							throw error(s);
+						}
+					}
+				};
+			case ExpressionBinaryOp.MINUS:
+				return new IntNode(e)
+				{
+					int evaluateInt(State s) throws PrismLangException
+					{
+						try {
+							return Math.subtractExact(op1.evaluateInt(s), op2.evaluateInt(s));
+						} catch (ArithmeticException ex) {
+							throw error(s);
+						}
+					}
+				};
+			default:
+				return new IntNode(e)
+				{
+					int evaluateInt(State s) throws PrismLangException
+					{
+						try {
+							return Math.multiplyExact(op1.evaluateInt(s), op2.evaluateInt(s));
+						} catch (ArithmeticException ex) {
+							throw error(s);
+						}
+					}
+				};
+			}
+		} else {
+			switch (op) {
+			case ExpressionBinaryOp.PLUS:
+				return new DoubleNode(e)
+				{
+					double evaluateDouble(State s) throws PrismLangException
+					{
+						return op1.evaluateDouble(s) + op2.evaluateDouble(s);
+					}
+				};
+			case ExpressionBinaryOp.MINUS:
+				return new DoubleNode(e)
+				{
+					double evaluateDouble(State s) throws PrismLangException
+					{
+						return op1.evaluateDouble(s) - op2.evaluateDouble(s);
+					}
+				};
+			default:
+				return new DoubleNode(e)
+				{
+					double evaluateDouble(State s) throws PrismLangException
+					{
+						return op1.evaluateDouble(s) * op2.evaluateDouble(s);
+					}
+				};
+			}
+		}
+	}
+
+	private Node compilePow(Expression e, Node op1, Node op2, int kind)
+	{
+		// As for ExpressionFunc.applyPow()
+		if (kind == INT) {
+			return new IntNode(e)
+			{
+				int evaluateInt(State s) throws PrismLangException
+				{
+					int iBase = op1.evaluateInt(s);
+					int iExp = op2.evaluateInt(s);
+					if (iExp < 0) {
+						throw error(s);
+					}
+					try {
+						return SafeCast.toIntExact(Math.pow(iBase, iExp));
+					} catch (ArithmeticException ex) {
+						throw error(s);
+					}
+				}
+			};
+		} else {
+			return new DoubleNode(e)
+			{
+				double evaluateDouble(State s) throws PrismLangException
+				{
+					return Math.pow(op1.evaluateDouble(s), op2.evaluateDouble(s));
+				}
+			};
+		}
+	}
+
+	private Node compileITE(ExpressionITE e, int kind)
+	{
+		Node[] ops = compileOperands(e.getOperand1(), e.getOperand2(), e.getOperand3());
+		if (ops == null || kindOf(e.getOperand1().getType()) != BOOL) {
+			return null;
+		}
+		Node cond = ops[0];
+		Node op1 = ops[1];
+		Node op2 = ops[2];
+		switch (kind) {
+		case BOOL:
+			return new BoolNode(e)
+			{
+				boolean evaluateBoolean(State s) throws PrismLangException
+				{
+					return cond.evaluateBoolean(s) ? op1.evaluateBoolean(s) : op2.evaluateBoolean(s);
+				}
+			};
+		case INT:
+			return new IntNode(e)
+			{
+				int evaluateInt(State s) throws PrismLangException
+				{
+					return cond.evaluateBoolean(s) ? op1.evaluateInt(s) : op2.evaluateInt(s);
+				}
+			};
+		default:
+			return new DoubleNode(e)
+			{
+				double evaluateDouble(State s) throws PrismLangException
+				{
+					return cond.evaluateBoolean(s) ? op1.evaluateDouble(s) : op2.evaluateDouble(s);
+				}
+			};
+		}
+	}
+
+	private Node compileFunc(ExpressionFunc e, int kind)
+	{
+		int n = e.getNumOperands();
+		Expression[] operands = new Expression[n];
+		for (int i = 0; i < n; i++) {
+			operands[i] = e.getOperand(i);
+			if (kindOf(operands[i].getType()) == BOOL) {
+				return null;
+			}
+		}
+		Node[] ops = compileOperands(operands);
+		if (ops == null) {
+			return null;
+		}
+		switch (e.getNameCode()) {
+		case ExpressionFunc.MIN:
+		case ExpressionFunc.MAX:
+			boolean min = e.getNameCode() == ExpressionFunc.MIN;
+			if (kind == INT) {
+				return new IntNode(e)
+				{
+					int evaluateInt(State s) throws PrismLangException
+					{
+						int res = ops[0].evaluateInt(s);
+						for (int i = 1; i < ops.length; i++) {
+							res = min ? Math.min(res, ops[i].evaluateInt(s)) : Math.max(res, ops[i].evaluateInt(s));
+						}
+						return res;
+					}
+				};
+			} else {
+				return new DoubleNode(e)
+				{
+					double evaluateDouble(State s) throws PrismLangException
+					{
+						double res = ops[0].evaluateDouble(s);
+						for (int i = 1; i < ops.length; i++) {
+							res = min ? Math.min(res, ops[i].evaluateDouble(s)) : Math.max(res, ops[i].evaluateDouble(s));
+						}
+						return res;
+					}
+				};
+			}
+		case ExpressionFunc.FLOOR:
+			return new IntNode(e)
+			{
+				int evaluateInt(State s) throws PrismLangException
+				{
+					try {
+						return SafeCast.toIntExact(Math.floor(ops[0].evaluateDouble(s)));
+					} catch (ArithmeticException ex) {
+						throw error(s);
+					}
+				}
+			};
+		case ExpressionFunc.CEIL:
+			return new IntNode(e)
+			{
+				int evaluateInt(State s) throws PrismLangException
+				{
+					try {
+						return SafeCast.toIntExact(Math.ceil(ops[0].evaluateDouble(s)));
+					} catch (ArithmeticException ex) {
+						throw error(s);
+					}
+				}
+			};
+		case ExpressionFunc.ROUND:
+			return new IntNode(e)
+			{
+				int evaluateInt(State s) throws PrismLangException
+				{
+					try {
+						return SafeCast.toIntExact(Math.round(ops[0].evaluateDouble(s)));
+					} catch (ArithmeticException ex) {
+						throw error(s);
+					}
+				}
+			};
+		case ExpressionFunc.POW:
+			return compilePow(e, ops[0], ops[1], kind);
+		case ExpressionFunc.MOD:
+			if (kindOf(operands[0].getType()) != INT || kindOf(operands[1].getType()) != INT) {
+				return null;
+			}
+			return new IntNode(e)
+			{
+				int evaluateInt(State s) throws PrismLangException
+				{
+					int i1 = ops[0].evaluateInt(s);
+					int i2 = ops[1].evaluateInt(s);
+					if (i2 <= 0) {
+						throw error(s);
+					}
+					int rem = i1 % i2;
+					return (rem < 0) ? rem + i2 : rem;
+				}
+			};
+		case ExpressionFunc.LOG:
+			return new DoubleNode(e)
+			{
+				double evaluateDouble(State s) throws PrismLangException
+				{
+					return PrismUtils.log(ops[0].evaluateDouble(s), ops[1].evaluateDouble(s));
+				}
+			};
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Get the exception to throw for an error when evaluating in state {@code s},
+	 * by re-evaluating the original expression as usual.
+	 */
+	private PrismLangException error(State s)
+	{
+		try {
+			expr.evaluate(ec.setState(s));
+		} catch (PrismLangException e) {
+			return e;
+		}
+		return new PrismLangException("Could not evaluate expression", expr);
+	}
+
+	// Compiled evaluators
+
+	/**
+	 * Evaluator for a (sub)expression. Subclasses for each kind of value
+	 * implement the corresponding method, and casts to other kinds
+	 * are done as for {@link Expression#evaluate(EvaluateContext)}.
+	 */
+	private abstract class Node
+	{
+		/** The (sub)expression */
+		protected Expression e;
+
+		Node(Expression e)
+		{
+			this.e = e;
+		}
+
+		boolean evaluateBoolean(State s) throws PrismLangException
+		{
+			return e.evaluateBoolean(ec.setState(s));
+		}
+
+		int evaluateInt(State s) throws PrismLangException
+		{
+			return e.evaluateInt(ec.setState(s));
+		}
+
+		double evaluateDouble(State s) throws PrismLangException
+		{
+			return e.evaluateDouble(ec.setState(s));
+		}
+
+		abstract Object evaluate(State s) throws PrismLangException;
+
+		/** Kind of value (BOOL/INT/DOUBLE) */
+		abstract int kind();
+	}
+
+	private abstract class BoolNode extends Node
+	{
+		BoolNode(Expression e)
+		{
+			super(e);
+		}
+
+		@Override
+		int kind()
+		{
+			return BOOL;
+		}
+
+		@Override
+		abstract boolean evaluateBoolean(State s) throws PrismLangException;
+
+		@Override
+		Object evaluate(State s) throws PrismLangException
+		{
+			return evaluateBoolean(s);
+		}
+	}
+
+	private abstract class IntNode extends Node
+	{
+		IntNode(Expression e)
+		{
+			super(e);
+		}
+
+		@Override
+		int kind()
+		{
+			return INT;
+		}
+
+		@Override
+		abstract int evaluateInt(State s) throws PrismLangException;
+
+		@Override
+		double evaluateDouble(State s) throws PrismLangException
+		{
+			return evaluateInt(s);
+		}
+
+		@Override
+		Object evaluate(State s) throws PrismLangException
+		{
+			return evaluateInt(s);
+		}
+	}
+
+	private abstract class DoubleNode extends Node
+	{
+		DoubleNode(Expression e)
+		{
+			super(e);
+		}
+
+		@Override
+		int kind()
+		{
+			return DOUBLE;
+		}
+
+		@Override
+		abstract double evaluateDouble(State s) throws PrismLangException;
+
+		@Override
+		Object evaluate(State s) throws PrismLangException
+		{
+			return evaluateDouble(s);
+		}
+	}
+}
@@ -70,7 +70,7 @@ public class TypeArray extends Type
 		return "array of " + subType.getTypeString();
 	}
 	
-	public static TypeArray getInstance(Type subType)
+	public static synchronized TypeArray getInstance(Type subType)
 	{
 		if (!singletons.containsKey(subType))
 			singletons.put(subType, new TypeArray(subType));
@@ -49,7 +49,7 @@ public class TypeInterval extends Type
 		this.subType = subType;
 	}
 
-	public static TypeInterval getInstance(Type subType)
+	public static synchronized TypeInterval getInstance(Type subType)
 	{
 		return singletons.computeIfAbsent(subType, TypeInterval::new);
 	}
@@ -0,0 +1,339 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package prism;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import explicit.ExplicitFiles2Model;
+import explicit.Model;
+import explicit.ModelExplicit;
+import explicit.NondetModel;
+import io.PrismBinaryExporter;
+import io.PrismBinaryImporter;
+import parser.Values;
+import parser.VarList;
+import parser.ast.ModulesFile;
+
+/**
+ * Cache of built (explicit engine) models, so that repeatedly building the same model,
+ * e.g. from the same PRISM model file and constant values, can skip model construction.
+ * <br><br>
+ * Models are identified by a key, which is a hash of the (normalised) text of the model,
+ * the values of its undefined constants and any options that affect model construction
+ * (see {@link #computeKey(ModulesFile, Values, boolean, boolean)}).
+ * There are two levels of cache:
+ * <ul>
+ * <li> in memory: a least-recently-used cache, bounded by the (estimated) memory used by the stored models;
+ *      each instance of {@link Prism} has its own, since models are mutable and so must not be
+ *      shared between independent users (e.g. the copies of {@link Prism} used by worker threads);
+ * <li> on disk (optional): a directory of models stored in PRISM's binary model format
+ *      (see {@link PrismBinaryExporter}), which persists between runs, also size-bounded
+ *      (least recently used files are deleted first).
+ * </ul>
+ * The cache is configured via {@link PrismSettings#PRISM_MODEL_CACHE} and related settings.
+ */
+public class BuiltModelCache
+{
+	/** Version of the cache key scheme (change if the meaning of cached models changes) */
+	private static final String KEY_VERSION = "1";
+	/** File name extension for models in the on-disk cache */
+	private static final String FILE_EXTENSION = ".prb";
+
+	/** Models in memory, in order of last use (least recent first) */
+	private final LinkedHashMap<String, Model<?>> models = new LinkedHashMap<>(16, 0.75f, true);
+	/** Estimated sizes (in bytes) of the models in memory */
+	private final Map<String, Long> sizes = new HashMap<>();
+	/** Total estimated size (in bytes) of the models in memory */
+	private long totalSize = 0;
+
+	/**
+	 * Compute the cache key for a PRISM model.
+	 * @param modulesFile The PRISM model
+	 * @param constantValues Values for the model's undefined constants (may be null)
+	 * @param exact Were the constants evaluated exactly?
+	 * @param fixDeadlocks Are deadlocks fixed during model construction?
+	 */
+	public static String computeKey(ModulesFile modulesFile, Values constantValues, boolean exact, boolean fixDeadlocks)
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append("version:").append(KEY_VERSION).append("\n");
+		sb.append("type:").append(modulesFile.getModelType()).append("\n");
+		sb.append("constants:").append(constantValues == null ? "" : constantValues.toString()).append("\n");
+		sb.append("exact:").append(exact).append("\n");
+		sb.append("fixdl:").append(fixDeadlocks).append("\n");
+		sb.append(modulesFile.toString());
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] hash = digest.digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+			StringBuilder hex = new StringBuilder();
+			for (byte b : hash) {
+				hex.append(String.format("%02x", b));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			// SHA-256 is always available
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Look up a built model in the cache (first in memory, then on disk, if enabled).
+	 * Returns null if it is not present.
+	 * @param parent Component providing settings and log
+	 * @param key The key for the model (see {@link #computeKey(ModulesFile, Values, boolean, boolean)})
+	 * @param varList Variables of the model (needed for models loaded from disk)
+	 * @param constantValues Values of the model's constants (attached to models loaded from disk)
+	 */
+	public synchronized Model<?> get(PrismComponent parent, String key, VarList varList, Values constantValues) throws PrismException
+	{
+		PrismLog log = parent.getLog();
+		Model<?> model = models.get(key);
+		if (model != null) {
+			log.println("Built model cache: hit (in memory) for key " + shortKey(key));
+			return model;
+		}
+		File dir = getCacheDir(parent);
+		File file = dir == null ? null : new File(dir, key + FILE_EXTENSION);
+		if (file != null && file.isFile()) {
+			try {
+				model = load(parent, file, varList, constantValues);
+			} catch (PrismException e) {
+				log.printWarning("Could not load cached model from \"" + file + "\" (" + e.getMessage() + ")");
+				file.delete();
+				model = null;
+			}
+			if (model != null) {
+				log.println("Built model cache: hit (on disk) for key " + shortKey(key));
+				// Record use (for least-recently-used eviction)
+				file.setLastModified(System.currentTimeMillis());
+				putInMemory(parent, key, model);
+				return model;
+			}
+		}
+		log.println("Built model cache: miss for key " + shortKey(key));
+		return null;
+	}
+
+	/**
+	 * Store a built model in the cache (in memory, and on disk, if enabled).
+	 * @param parent Component providing settings and log
+	 * @param key The key for the model (see {@link #computeKey(ModulesFile, Values, boolean, boolean)})
+	 * @param model The model
+	 * @param varList Variables of the model (needed for models stored on disk)
+	 */
+	public synchronized void put(PrismComponent parent, String key, Model<?> model, VarList varList) throws PrismException
+	{
+		putInMemory(parent, key, model);
+		File dir = getCacheDir(parent);
+		if (dir != null && PrismBinaryExporter.isSupported(model.getModelType())) {
+			store(parent, dir, key, model, varList);
+		}
+	}
+
+	/**
+	 * Remove all models from the in-memory cache.
+	 */
+	public synchronized void clear()
+	{
+		models.clear();
+		sizes.clear();
+		totalSize = 0;
+	}
+
+	/**
+	 * Get the number of models in the in-memory cache.
+	 */
+	public synchronized int size()
+	{
+		return models.size();
+	}
+
+	// In-memory cache
+
+	private void putInMemory(PrismComponent parent, String key, Model<?> model) throws PrismException
+	{
+		long maxSize = 1024L * PrismUtils.convertMemoryStringtoKB(parent.getSettings().getString(PrismSettings.PRISM_MODEL_CACHE_MAX_MEM));
+		long size = estimateSize(model);
+		if (models.containsKey(key)) {
+			return;
+		}
+		if (size > maxSize) {
+			parent.getLog().println("Built model cache: model too large to keep in memory (" + PrismUtils.convertBytesToMemoryString(size) + ")");
+			return;
+		}
+		// Evict least recently used models until there is space
+		int numEvicted = 0;
+		Iterator<Map.Entry<String, Model<?>>> it = models.entrySet().iterator();
+		while (totalSize + size > maxSize && it.hasNext()) {
+			String oldKey = it.next().getKey();
+			it.remove();
+			totalSize -= sizes.remove(oldKey);
+			numEvicted++;
+		}
+		if (numEvicted > 0) {
+			parent.getLog().println("Built model cache: evicted " + numEvicted + " model(s) from memory");
+		}
+		models.put(key, model);
+		sizes.put(key, size);
+		totalSize += size;
+	}
+
+	/**
+	 * Estimate the memory used by a built model (in bytes).
+	 */
+	private static long estimateSize(Model<?> model)
+	{
+		long numStates = model.getNumStates();
+		long size = 8L * numStates + 12L * model.getNumTransitions();
+		if (model instanceof NondetModel) {
+			size += 8L * ((NondetModel<?>) model).getNumChoices();
+		}
+		if (model.getStatesList() != null && numStates > 0) {
+			size += numStates * (16L + 8L * model.getStatesList().get(0).varValues.length);
+		}
+		return size;
+	}
+
+	// On-disk cache
+
+	/**
+	 * Get the directory for the on-disk cache (or null if not enabled).
+	 */
+	private static File getCacheDir(PrismComponent parent) throws PrismException
+	{
+		String dirName = parent.getSettings().getString(PrismSettings.PRISM_MODEL_CACHE_DIR);
+		if (dirName == null || dirName.isEmpty()) {
+			return null;
+		}
+		File dir = new File(dirName);
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			throw new PrismException("Could not create model cache directory \"" + dir + "\"");
+		}
+		return dir;
+	}
+
+	private static Model<?> load(PrismComponent parent, File file, VarList varList, Values constantValues) throws PrismException
+	{
+		PrismBinaryImporter importer = new PrismBinaryImporter(file);
+		Model<?> model = new ExplicitFiles2Model(parent).build(importer);
+		// Restore info that is not stored in the file
+		if (model instanceof ModelExplicit) {
+			((ModelExplicit<?>) model).setVarList(varList);
+			((ModelExplicit<?>) model).setConstantValues(constantValues == null ? null : new Values(constantValues));
+		}
+		return model;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <Value> void store(PrismComponent parent, File dir, String key, Model<Value> model, VarList varList) throws PrismException
+	{
+		File file = new File(dir, key + FILE_EXTENSION);
+		File tmpFile = null;
+		try {
+			// Labels attached to the model, plus deadlocks
+			List<String> labelNames = new ArrayList<>(model.getLabels());
+			List<BitSet> labelStates = new ArrayList<>();
+			for (String labelName : labelNames) {
+				labelStates.add(model.getLabelStates(labelName));
+			}
+			BitSet deadlocks = new BitSet();
+			model.getDeadlockStates().forEach(deadlocks::set);
+			labelNames.add("deadlock");
+			labelStates.add(deadlocks);
+			// Write to a temporary file first, so that no partial files are ever visible
+			tmpFile = File.createTempFile(key, ".tmp", dir);
+			RewardGenerator<Value> noRewards = new RewardGenerator<Value>()
+			{
+				@Override
+				public Evaluator<Value> getRewardEvaluator()
+				{
+					return model.getEvaluator();
+				}
+			};
+			new PrismBinaryExporter<Value>().exportModel(model, varList, noRewards, new ArrayList<>(), labelNames, labelStates, tmpFile);
+			Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			tmpFile = null;
+		} catch (IOException | PrismException e) {
+			parent.getLog().printWarning("Could not store built model in cache directory \"" + dir + "\" (" + e.getMessage() + ")");
+			return;
+		} finally {
+			if (tmpFile != null) {
+				tmpFile.delete();
+			}
+		}
+		evictFromDisk(parent, dir, file);
+	}
+
+	/**
+	 * Delete least recently used files from the on-disk cache until it is within its size bound
+	 * (never deleting {@code keep}, the file just added).
+	 */
+	private static void evictFromDisk(PrismComponent parent, File dir, File keep) throws PrismException
+	{
+		long maxSize = 1024L * PrismUtils.convertMemoryStringtoKB(parent.getSettings().getString(PrismSettings.PRISM_MODEL_CACHE_DIR_MAX_SIZE));
+		File[] files = dir.listFiles((d, name) -> name.endsWith(FILE_EXTENSION));
+		if (files == null) {
+			return;
+		}
+		long total = 0;
+		for (File f : files) {
+			total += f.length();
+		}
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+		int numEvicted = 0;
+		for (int i = 0; i < files.length && total > maxSize; i++) {
+			if (!files[i].equals(keep)) {
+				long len = files[i].length();
+				if (files[i].delete()) {
+					total -= len;
+					numEvicted++;
+				}
+			}
+		}
+		if (numEvicted > 0) {
+			parent.getLog().println("Built model cache: evicted " + numEvicted + " model(s) from disk");
+		}
+	}
+
+	private static String shortKey(String key)
+	{
+		return key.substring(0, 12);
+	}
+}
@@ -30,6 +30,7 @@ import common.Interval;
 import param.BigRational;
 import param.Function;
 import param.FunctionFactory;
+import parser.CompiledExpression;
 import parser.EvaluateContext.EvalMode;
 import parser.EvaluateContextState;
 import parser.State;
@@ -164,6 +165,16 @@ public interface Evaluator<Value>
 		return evaluate(expr, null, state);
 	}
 
+	/**
+	 * Evaluate a (compiled) expression in a state to type {@code Value}.
+	 * By default, this just evaluates the original expression, as for
+	 * {@link #evaluate(Expression, Values, State)}.
+	 */
+	public default Value evaluate(CompiledExpression expr, State state) throws PrismLangException
+	{
+		return evaluate(expr.getExpression(), expr.getConstantValues(), state);
+	}
+
 	/**
 	 * Parse a value from a string.
 	 * Throws NumberFormatException in case of a parsing error.
@@ -368,6 +379,12 @@ public interface Evaluator<Value>
 			return expr.evaluateDouble(constantValues, state);
 		}
 
+		@Override
+		public Double evaluate(CompiledExpression expr, State state) throws PrismLangException
+		{
+			return expr.evaluateDouble(state);
+		}
+
 		@Override
 		public double toDouble(Double x)
 		{
@@ -97,6 +97,30 @@ public interface ModelGenerator<Value> extends ModelInfo
 	 */
 	public void exploreState(State exploreState) throws PrismException;
 
+	/**
+	 * Create a copy of this ModelGenerator which has its own, independent exploration state,
+	 * i.e., which can be used to explore states concurrently with this one (e.g. from another thread).
+	 * The copy should describe the same model (and have the same constant values) as this one.
+	 * Returns null if this is not supported, which is the default.
+	 */
+	public default ModelGenerator<Value> createCopyForExploration() throws PrismException
+	{
+		// Not supported by default
+		return null;
+	}
+
+	/**
+	 * For partial-order reduction, get the index of a choice in the current state that forms an ample set
+	 * on its own, i.e., which can be explored instead of all choices (if this does not close a cycle
+	 * of reduced states, which is checked separately, e.g. by {@link explicit.ConstructModel}).
+	 * Returns -1 if there is no such choice or partial-order reduction is not supported, which is the default.
+	 */
+	public default int getAmpleChoice() throws PrismException
+	{
+		// Not supported by default
+		return -1;
+	}
+
 	/**
 	 * Get the number of nondeterministic choices in the current state.
 	 */
@@ -0,0 +1,218 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package prism;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import parser.State;
+import parser.Values;
+import parser.VarList;
+import parser.ast.Command;
+import parser.ast.Expression;
+import parser.ast.Module;
+import parser.ast.ModulesFile;
+import parser.ast.SystemDefn;
+
+/**
+ * The differences between two versions of a PRISM model (each with values for its constants),
+ * used for incremental model construction (see {@link explicit.ConstructModel#setPreviousModel}).
+ * <br><br>
+ * Models are compared module by module, command by command, after replacing constants
+ * (and, since they have been expanded by then, formulas) with their definitions.
+ * If their type, variables, modules or synchronisation structure differ, they are not comparable
+ * in this way (see {@link #getStructuralChange()}). Otherwise, the transitions of a state can
+ * only differ between the two if the guard of some added, removed or modified command is true
+ * in the state (see {@link #isAffected(State)}): the two models are otherwise identical,
+ * and a disabled command contributes no transitions, either on its own or by synchronisation.
+ */
+public class ModulesFileDiff
+{
+	/**
+	 * Summary of a PRISM model (with values for its constants),
+	 * comprising the information needed to compare it with another one.
+	 */
+	public static class Snapshot
+	{
+		/** Model type */
+		private ModelType modelType;
+		/** Variables (name, type, range and module) */
+		private List<String> vars = new ArrayList<>();
+		/** Module names */
+		private List<String> moduleNames = new ArrayList<>();
+		/** Synchronisation structure (module alphabets and system definition) */
+		private List<String> synchs = new ArrayList<>();
+		/** Commands of each module, as strings (with constants replaced) */
+		private List<List<String>> commands = new ArrayList<>();
+		/** Guards of the commands of each module (with constants replaced) */
+		private List<List<Expression>> guards = new ArrayList<>();
+
+		/**
+		 * Create a snapshot of a PRISM model, whose constants must have been defined.
+		 */
+		public Snapshot(ModulesFile modulesFile) throws PrismException
+		{
+			Values constantValues = modulesFile.getConstantValues();
+			modelType = modulesFile.getModelType();
+			VarList varList = modulesFile.createVarList();
+			for (int i = 0; i < varList.getNumVars(); i++) {
+				vars.add(varList.getName(i) + ":" + varList.getType(i) + "[" + varList.getLow(i) + ".." + varList.getHigh(i) + "]@" + varList.getModule(i));
+			}
+			for (int m = 0; m < modulesFile.getNumModules(); m++) {
+				Module module = modulesFile.getModule(m);
+				moduleNames.add(module.getName());
+				synchs.add(module.getName() + ":" + module.getAllSynchs());
+				List<String> moduleCommands = new ArrayList<>();
+				List<Expression> moduleGuards = new ArrayList<>();
+				for (int c = 0; c < module.getNumCommands(); c++) {
+					Command command = module.getCommand(c);
+					Expression guard = (Expression) command.getGuard().deepCopy().replaceConstants(constantValues);
+					String updates = command.getUpdates().deepCopy().replaceConstants(constantValues).toString();
+					moduleCommands.add("[" + command.getSynch() + "] " + guard + " -> " + updates);
+					moduleGuards.add(guard);
+				}
+				commands.add(moduleCommands);
+				guards.add(moduleGuards);
+			}
+			SystemDefn systemDefn = modulesFile.getSystemDefn();
+			synchs.add(systemDefn == null ? "" : systemDefn.toString());
+		}
+	}
+
+	/** Reason why the models cannot be compared command by command (null if they can) */
+	private String structuralChange = null;
+	/** Number of commands added, removed or modified */
+	private int numChangedCommands = 0;
+	/** Guards of commands added, removed or modified (without duplicates) */
+	private List<Expression> changedGuards = new ArrayList<>();
+
+	/**
+	 * Compare two versions of a PRISM model.
+	 * @param oldModel Snapshot of the old version
+	 * @param newModel Snapshot of the new version
+	 */
+	public ModulesFileDiff(Snapshot oldModel, Snapshot newModel)
+	{
+		if (oldModel.modelType != newModel.modelType) {
+			structuralChange = "model type changed";
+		} else if (!oldModel.vars.equals(newModel.vars)) {
+			structuralChange = "variables changed";
+		} else if (!oldModel.moduleNames.equals(newModel.moduleNames)) {
+			structuralChange = "modules changed";
+		} else if (!oldModel.synchs.equals(newModel.synchs)) {
+			structuralChange = "synchronisation changed";
+		}
+		if (structuralChange != null) {
+			return;
+		}
+		Map<String, Expression> guards = new LinkedHashMap<>();
+		for (int m = 0; m < oldModel.moduleNames.size(); m++) {
+			List<String> oldCommands = oldModel.commands.get(m);
+			List<String> newCommands = newModel.commands.get(m);
+			// Find commands of each version that do not appear (as often) in the other one
+			List<String> oldCommon = new ArrayList<>();
+			List<String> newCommon = new ArrayList<>();
+			List<Expression> removed = findUnmatched(oldCommands, oldModel.guards.get(m), newCommands, oldCommon);
+			List<Expression> added = findUnmatched(newCommands, newModel.guards.get(m), oldCommands, newCommon);
+			// The remaining commands must be in the same order
+			// (which determines the order of choices/transitions)
+			if (!oldCommon.equals(newCommon)) {
+				structuralChange = "commands reordered in module " + oldModel.moduleNames.get(m);
+				return;
+			}
+			numChangedCommands += Math.max(removed.size(), added.size());
+			for (Expression guard : removed) {
+				guards.putIfAbsent(guard.toString(), guard);
+			}
+			for (Expression guard : added) {
+				guards.putIfAbsent(guard.toString(), guard);
+			}
+		}
+		changedGuards.addAll(guards.values());
+	}
+
+	/**
+	 * Find the commands in {@code commands} not matched by one in {@code others}
+	 * (counting multiplicities) and return their guards; matched commands are added to {@code common}.
+	 */
+	private static List<Expression> findUnmatched(List<String> commands, List<Expression> guards, List<String> others, List<String> common)
+	{
+		Map<String, Integer> counts = new HashMap<>();
+		for (String other : others) {
+			counts.merge(other, 1, Integer::sum);
+		}
+		List<Expression> unmatched = new ArrayList<>();
+		for (int c = 0; c < commands.size(); c++) {
+			String command = commands.get(c);
+			int count = counts.getOrDefault(command, 0);
+			if (count > 0) {
+				counts.put(command, count - 1);
+				common.add(command);
+			} else {
+				unmatched.add(guards.get(c));
+			}
+		}
+		return unmatched;
+	}
+
+	/**
+	 * Get the reason why the two models cannot be compared command by command,
+	 * e.g. because their variables differ, or null if they can.
+	 */
+	public String getStructuralChange()
+	{
+		return structuralChange;
+	}
+
+	/**
+	 * Get the number of commands that have been added, removed or modified.
+	 */
+	public int getNumChangedCommands()
+	{
+		return numChangedCommands;
+	}
+
+	/**
+	 * Check whether the transitions from a state may differ between the two models,
+	 * i.e., whether any command that has been added, removed or modified is enabled in it
+	 * (in either version). If a guard cannot be evaluated, the state is assumed to be affected.
+	 */
+	public boolean isAffected(State state)
+	{
+		for (Expression guard : changedGuards) {
+			try {
+				if (guard.evaluateBoolean(state)) {
+					return true;
+				}
+			} catch (PrismLangException e) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
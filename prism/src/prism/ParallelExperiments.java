@@ -0,0 +1,260 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package prism;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import parser.EvaluateContext;
+import parser.Values;
+import parser.ast.ModulesFile;
+import parser.ast.PropertiesFile;
+import parser.ast.Property;
+
+/**
+ * Checks the points of an experiment, i.e., a set of properties for a range of
+ * constant values, concurrently using a pool of worker threads.
+ * Each worker has its own {@link Prism} object (see {@link Prism#createWorker(PrismLog)})
+ * and its own copies of the model and properties file, so this is only supported for the explicit engine.
+ * Workers either build the model themselves or, if all points use the same model constants,
+ * share a single built model (see {@link #setSharedModel(Prism)}).
+ * The output of each point is buffered and results are passed back in the same order as the points were given,
+ * so that they can be displayed/stored exactly as if the points had been checked one at a time.
+ */
+public class ParallelExperiments
+{
+	/**
+	 * A point of an experiment: a property and values for the model/property constants.
+	 */
+	public static class Point
+	{
+		/** Index of the property (in the list passed to the constructor) */
+		public final int propIndex;
+		/** Values of the undefined model constants */
+		public final Values mfValues;
+		/** Values of the undefined properties file constants */
+		public final Values pfValues;
+
+		public Point(int propIndex, Values mfValues, Values pfValues)
+		{
+			this.propIndex = propIndex;
+			this.mfValues = mfValues;
+			this.pfValues = pfValues;
+		}
+	}
+
+	/**
+	 * The result of checking a point of an experiment.
+	 */
+	public static class PointResult
+	{
+		/** The point */
+		public final Point point;
+		/** Result of model checking (storing an exception in case of error) */
+		public final Result result;
+		/** Log output produced while checking the point */
+		public final String log;
+		/** Values of all model constants */
+		public final Values mfConstantValues;
+		/** Values of all properties file constants */
+		public final Values pfConstantValues;
+
+		private PointResult(Point point, Result result, String log, Values mfConstantValues, Values pfConstantValues)
+		{
+			this.point = point;
+			this.result = result;
+			this.log = log;
+			this.mfConstantValues = mfConstantValues;
+			this.pfConstantValues = pfConstantValues;
+		}
+	}
+
+	/**
+	 * A worker: a Prism object, with its own copy of the model/properties and a buffered log.
+	 */
+	private static class Worker
+	{
+		Prism prism;
+		PropertiesFile propertiesFile;
+		List<Property> properties;
+		ByteArrayOutputStream buffer;
+		PrismLog log;
+	}
+
+	/** Thread pool */
+	private ExecutorService executor;
+	/** Workers not currently in use */
+	private LinkedBlockingQueue<Worker> idleWorkers;
+	/** Are constants evaluated exactly? */
+	private boolean exact;
+	/** Prism object whose built model is shared by the workers (null if they build their own) */
+	private Prism sharedModel = null;
+
+	/**
+	 * Create a pool of {@code numThreads} workers for checking properties {@code properties}
+	 * (all from {@code propertiesFile}) on PRISM model {@code modulesFile}.
+	 * @param prism Prism object whose settings are used by the workers
+	 * @param modulesFile The PRISM model
+	 * @param propertiesFile The properties file
+	 * @param properties The properties to be checked
+	 * @param exact Evaluate constants exactly?
+	 * @param numThreads Number of worker threads
+	 */
+	public ParallelExperiments(Prism prism, ModulesFile modulesFile, PropertiesFile propertiesFile, List<Property> properties, boolean exact, int numThreads) throws PrismException
+	{
+		this.exact = exact;
+		// Find indices of properties
+		int propIndices[] = new int[properties.size()];
+		for (int i = 0; i < properties.size(); i++) {
+			propIndices[i] = -1;
+			for (int j = 0; j < propertiesFile.getNumProperties(); j++) {
+				if (propertiesFile.getPropertyObject(j) == properties.get(i)) {
+					propIndices[i] = j;
+					break;
+				}
+			}
+			if (propIndices[i] == -1) {
+				throw new PrismException("Property \"" + properties.get(i) + "\" not found in properties file");
+			}
+		}
+		// Create workers
+		idleWorkers = new LinkedBlockingQueue<>();
+		for (int w = 0; w < numThreads; w++) {
+			Worker worker = new Worker();
+			worker.buffer = new ByteArrayOutputStream();
+			worker.log = new PrismPrintStreamLog(new PrintStream(worker.buffer, true, StandardCharsets.UTF_8));
+			worker.log.setVerbosityLevel(prism.getMainLog().getVerbosityLevel());
+			worker.prism = prism.createWorker(worker.log);
+			ModulesFile modulesFileCopy = (ModulesFile) modulesFile.deepCopy();
+			worker.propertiesFile = (PropertiesFile) propertiesFile.deepCopy();
+			worker.propertiesFile.setModelInfo(modulesFileCopy);
+			worker.properties = new ArrayList<>(properties.size());
+			for (int i = 0; i < properties.size(); i++) {
+				worker.properties.add(worker.propertiesFile.getPropertyObject(propIndices[i]));
+			}
+			worker.prism.loadPRISMModel(modulesFileCopy);
+			worker.prism.setPartialOrderReductionProperties(worker.propertiesFile);
+			idleWorkers.add(worker);
+		}
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(numThreads, numThreads, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+			Thread thread = new Thread(r, "prism-experiment");
+			thread.setDaemon(true);
+			return thread;
+		});
+		pool.allowCoreThreadTimeOut(true);
+		executor = pool;
+	}
+
+	/**
+	 * Make the workers use the model already built (with the explicit engine) by {@code prism},
+	 * rather than each building their own copy. All points checked subsequently
+	 * must use the model constant values that this model was built for.
+	 */
+	public void setSharedModel(Prism prism)
+	{
+		sharedModel = prism;
+	}
+
+	/**
+	 * Check a list of experiment points concurrently, passing each result to {@code callback}
+	 * (in the calling thread, in the same order as the points), as soon as it and all previous points are done.
+	 * Errors during model checking are stored in the results; any other exceptions are rethrown.
+	 */
+	public void run(List<Point> points, Consumer<PointResult> callback)
+	{
+		List<Future<PointResult>> futures = new ArrayList<>(points.size());
+		for (Point point : points) {
+			futures.add(executor.submit(() -> check(point)));
+		}
+		try {
+			for (Future<PointResult> future : futures) {
+				callback.accept(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		} finally {
+			for (Future<PointResult> future : futures) {
+				future.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * Check a single experiment point, using whichever worker is free.
+	 */
+	private PointResult check(Point point) throws InterruptedException
+	{
+		Worker worker = idleWorkers.take();
+		try {
+			worker.buffer.reset();
+			Result res;
+			try {
+				worker.prism.setPRISMModelConstants(point.mfValues, exact);
+				if (sharedModel != null && !worker.prism.modelIsBuilt()) {
+					worker.prism.shareBuiltModel(sharedModel);
+				}
+				worker.propertiesFile.setSomeUndefinedConstants(EvaluateContext.create(point.pfValues, exact));
+				res = worker.prism.modelCheck(worker.propertiesFile, worker.properties.get(point.propIndex));
+			} catch (PrismException e) {
+				worker.log.println("\nError: " + e.getMessage() + ".");
+				res = new Result(e);
+			}
+			worker.log.flush();
+			String log = worker.buffer.toString(StandardCharsets.UTF_8);
+			Values mfConstantValues = new Values(worker.prism.getPRISMModel().getConstantValues());
+			Values pfConstantValues = new Values(worker.propertiesFile.getConstantValues());
+			return new PointResult(point, res, log, mfConstantValues, pfConstantValues);
+		} finally {
+			idleWorkers.put(worker);
+		}
+	}
+
+	/**
+	 * Shut down the worker threads.
+	 */
+	public void close()
+	{
+		executor.shutdownNow();
+	}
+}
@@ -45,6 +45,7 @@ import explicit.ExplicitFiles2Rewards;
 import explicit.FastAdaptiveUniformisation;
 import explicit.FastAdaptiveUniformisationModelChecker;
 import explicit.ModelModelGenerator;
+import explicit.OnTheFlyModelChecker;
 import hybrid.PrismHybrid;
 import io.ExplicitModelImporter;
 import io.ModelExportOptions;
@@ -61,14 +62,22 @@ import parser.PrismParser;
 import parser.State;
 import parser.Values;
 import parser.ast.Expression;
+import parser.ast.ExpressionFilter;
+import parser.ast.ExpressionLabel;
+import parser.ast.ExpressionProb;
+import parser.ast.ExpressionReward;
+import parser.ast.ExpressionSS;
+import parser.ast.ExpressionTemporal;
 import parser.ast.ForLoop;
 import parser.ast.LabelList;
 import parser.ast.ModulesFile;
 import parser.ast.PropertiesFile;
 import parser.ast.Property;
+import parser.visitor.ASTTraverse;
 import pta.DigitalClocks;
 import pta.PTAModelChecker;
 import simulator.GenerateSimulationPath;
+import simulator.ModuleSymmetry;
 import simulator.ModulesFileModelGenerator;
 import simulator.SimulatorEngine;
 import simulator.method.SimulationMethod;
@@ -129,6 +138,8 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 	public static final int BSOR = 9;
 	public static final int PSOR = 10;
 	public static final int BPSOR = 11;
+	public static final int BICGSTAB = 12;
+	public static final int GMRES = 13;
 
 	// methods for solving MDPs
 	public static final int MDP_VALITER = 1;
@@ -136,6 +147,7 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 	public static final int MDP_POLITER = 3;
 	public static final int MDP_MODPOLITER = 4;
 	public static final int MDP_LP = 5;
+	public static final int MDP_OVI = 6;
 
 	// methods for solving multi-objective queries on MDPs
 	public static final int MDP_MULTI_VALITER = 1;
@@ -346,6 +358,28 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 
 	// The last strategy that was generated
 	private Strategy<?> strategy = null;
+
+	// Batch of time/step bounds for a property being checked in an experiment (if any)
+	private explicit.TimeBoundBatch timeBoundBatch = null;
+
+	// Solutions kept between the checks of a property in an experiment (if any)
+	private explicit.ExperimentWarmStart experimentWarmStart = null;
+
+	// Built models kept for reuse (explicit engine), if enabled
+	private BuiltModelCache builtModelCache = null;
+
+	// Results of sub-formulas kept between properties (explicit engine), if enabled
+	private explicit.SubFormulaCache subFormulaCache = null;
+
+	// Last PRISM model built with the explicit engine, for incremental construction (if enabled)
+	private explicit.Model<?> incrementalBuildModel = null;
+	private ModulesFileDiff.Snapshot incrementalBuildSnapshot = null;
+
+	// Properties to be preserved by partial-order reduction during model construction (if any)
+	private PropertiesFile porPropertiesFile = null;
+
+	// Symmetry used to reduce the currently built model (explicit engine), if any
+	private ModuleSymmetry builtModelSymmetry = null;
 	
 	// Info for explicit files load
 	private ExplicitModelImporter modelImporter;
@@ -383,6 +417,31 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		modelListeners = new ArrayList<PrismModelListener>();
 	}
 
+	/**
+	 * Create a new Prism object with the same settings and options as this one,
+	 * but no loaded model, e.g. for use in a separate thread.
+	 * The CUDD library is not (re-)initialised, so the new object should only be used
+	 * with the explicit engine.
+	 * @param mainLog PrismLog where all output will be sent.
+	 */
+	public Prism createWorker(PrismLog mainLog)
+	{
+		Prism worker = new Prism(mainLog);
+		worker.settings = new PrismSettings(settings);
+		worker.settings.addSettingsListener(worker);
+		worker.storeVector = storeVector;
+		worker.genStrat = genStrat;
+		worker.restrictStratToReach = restrictStratToReach;
+		worker.doBisim = doBisim;
+		worker.doReach = doReach;
+		worker.bsccComp = bsccComp;
+		worker.checkZeroLoops = checkZeroLoops;
+		worker.construction = construction;
+		worker.ordering = ordering;
+		worker.reachMethod = reachMethod;
+		return worker;
+	}
+
 	/**
 	 * Read in PRISM settings from the default file (see PrismSettings.getLocationForSettingsFile()).
 	 * If no file exists, attempt to create a new one with default settings.
@@ -1087,6 +1146,10 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		PrismSparse.SetExportIterations(settings.getBoolean(PrismSettings.PRISM_EXPORT_ITERATIONS));
 		PrismHybrid.SetExportIterations(settings.getBoolean(PrismSettings.PRISM_EXPORT_ITERATIONS));
 		PrismMTBDD.SetExportIterations(settings.getBoolean(PrismSettings.PRISM_EXPORT_ITERATIONS));
+		// Cached sub-formula results may depend on the settings, so discard them
+		subFormulaCache = null;
+		// As may the last built model (e.g. whether actions were distinguished)
+		clearIncrementalBuild();
 	}
 
 	//------------------------------------------------------------------------------
@@ -1812,6 +1875,28 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		setBuiltModel(ModelBuildType.SYMBOLIC, model);
 	}
 
+	/**
+	 * Use the model built (with the explicit engine) by another Prism object {@code other}
+	 * as the built model for the currently loaded PRISM model, rather than building it again.
+	 * The model is shared, not copied, so this is intended for worker objects
+	 * (see {@link #createWorker(PrismLog)}) that check properties concurrently;
+	 * explicit models are not modified during model checking.
+	 * The caller must ensure that the PRISM model and its constant values
+	 * are the same as the ones that {@code other} built the model from.
+	 * @param other Prism object with a built explicit model
+	 */
+	public void shareBuiltModel(Prism other) throws PrismException
+	{
+		if (other.getBuiltModelType() != ModelBuildType.EXPLICIT) {
+			throw new PrismException("There is no built explicit model to share");
+		}
+		clearBuiltModel();
+		// Create this object's own model generator, as building would (it is also used for rewards)
+		getModelGenerator();
+		setBuiltModel(ModelBuildType.EXPLICIT, other.getBuiltModelExplicit());
+		builtModelSymmetry = other.builtModelSymmetry;
+	}
+
 	/**
 	 * Load files containing an explicit list of transitions/etc. for subsequent model building.
 	 * @param statesFile File containing a list of states (optional, can be null)
@@ -2119,6 +2204,17 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		return strategy;
 	}
 
+	/**
+	 * Specify the properties that should be preserved if partial-order reduction
+	 * is used for explicit model construction (see {@link PrismSettings#PRISM_PARTIAL_ORDER_REDUCTION}).
+	 * This applies to models built subsequently. Labels of the model are always preserved.
+	 * @param propertiesFile Properties (null if none)
+	 */
+	public void setPartialOrderReductionProperties(PropertiesFile propertiesFile)
+	{
+		porPropertiesFile = propertiesFile;
+	}
+
 	/**
 	 * Build the currently loaded PRISM model and store for later use.
 	 * The built model can be accessed subsequently via either
@@ -2179,6 +2275,151 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		}
 	}
 
+	/**
+	 * Enable or disable partial-order reduction in the current model generator, according to the settings,
+	 * for explicit model construction. This is only possible for MDPs described as PRISM models.
+	 * Returns true if it is enabled.
+	 */
+	private boolean setUpPartialOrderReduction() throws PrismException
+	{
+		if (!(getModelGenerator() instanceof ModulesFileModelGenerator)) {
+			return false;
+		}
+		ModulesFileModelGenerator<?> mfmg = (ModulesFileModelGenerator<?>) getModelGenerator();
+		boolean por = settings.getBoolean(PrismSettings.PRISM_PARTIAL_ORDER_REDUCTION);
+		if (por && getModelType() != ModelType.MDP) {
+			mainLog.printWarning("Partial-order reduction is only supported for MDPs so will not be used");
+			por = false;
+		}
+		if (por && mfmg.getSymmetry() != null) {
+			mainLog.printWarning("Partial-order reduction cannot be combined with symmetry reduction so will not be used");
+			por = false;
+		}
+		if (por && porPropertiesFile == null) {
+			mainLog.printWarning("Partial-order reduction needs the properties to be preserved (none were given) so will not be used");
+			por = false;
+		}
+		if (por && !isPreservedByPartialOrderReduction(porPropertiesFile)) {
+			mainLog.printWarning("Partial-order reduction does not preserve next-step, time/step-bounded, reward, steady-state or nested properties, or filters over non-initial states, so will not be used");
+			por = false;
+		}
+		if (!por) {
+			mfmg.setPartialOrderReduction(null);
+			return false;
+		}
+		// Preserve all properties and the labels they use
+		List<Expression> visibleExprs = new ArrayList<>();
+		for (int i = 0; i < porPropertiesFile.getNumProperties(); i++) {
+			visibleExprs.add(porPropertiesFile.getProperty(i));
+		}
+		LabelList labelList = porPropertiesFile.getLabelList();
+		for (int i = 0; i < labelList.size(); i++) {
+			visibleExprs.add(labelList.getLabel(i));
+		}
+		mfmg.setPartialOrderReduction(visibleExprs);
+		mainLog.println("Using partial-order reduction (preserves min/max probabilities of LTL properties without next-step operators)");
+		return true;
+	}
+
+	/**
+	 * Check whether partial-order reduction preserves all the properties in a properties file,
+	 * i.e., none contain next-step operators, time/step-bounded temporal operators,
+	 * or R/S operators (the reduced model does not preserve path lengths or long-run behaviour).
+	 * The values of P operators are only preserved in the initial states, so nested P operators
+	 * and filters over states other than the initial ones (e.g. {@code filter(forall, ..., x=1)})
+	 * are not allowed either. Supported are, e.g., {@code Pmin=? [ a U b ]}, {@code P>0.5 [ G F a ]},
+	 * boolean combinations of these, and {@code filter(op, ..., "init")}.
+	 */
+	private static boolean isPreservedByPartialOrderReduction(PropertiesFile propertiesFile)
+	{
+		try {
+			propertiesFile.accept(new ASTTraverse()
+			{
+				// Number of P operators enclosing the current node
+				private int probDepth = 0;
+
+				public void visitPre(ExpressionProb e) throws PrismLangException
+				{
+					if (probDepth++ > 0)
+						throw new PrismLangException("Found one", e);
+				}
+
+				public void visitPost(ExpressionProb e) throws PrismLangException
+				{
+					probDepth--;
+				}
+
+				public void visitPost(ExpressionFilter e) throws PrismLangException
+				{
+					Expression filter = e.getFilter();
+					if (!(filter instanceof ExpressionLabel && ((ExpressionLabel) filter).isInitLabel()))
+						throw new PrismLangException("Found one", e);
+				}
+
+				public void visitPost(ExpressionTemporal e) throws PrismLangException
+				{
+					if (e.getOperator() == ExpressionTemporal.P_X || e.hasBounds())
+						throw new PrismLangException("Found one", e);
+				}
+
+				public void visitPost(ExpressionReward e) throws PrismLangException
+				{
+					throw new PrismLangException("Found one", e);
+				}
+
+				public void visitPost(ExpressionSS e) throws PrismLangException
+				{
+					throw new PrismLangException("Found one", e);
+				}
+			});
+		} catch (PrismLangException e) {
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Enable or disable symmetry reduction in the current model generator, according to the settings,
+	 * for explicit model construction. This is only possible for DTMCs, CTMCs and MDPs described as PRISM models.
+	 * Returns the symmetry used, or null if none.
+	 */
+	private ModuleSymmetry setUpSymmetryReduction() throws PrismException
+	{
+		if (!(getModelGenerator() instanceof ModulesFileModelGenerator)) {
+			return null;
+		}
+		ModulesFileModelGenerator<?> mfmg = (ModulesFileModelGenerator<?>) getModelGenerator();
+		boolean symm = settings.getBoolean(PrismSettings.PRISM_AUTO_SYMMETRY);
+		if (symm && !(getModelType() == ModelType.DTMC || getModelType() == ModelType.CTMC || getModelType() == ModelType.MDP)) {
+			mainLog.printWarning("Symmetry reduction is only supported for DTMCs, CTMCs and MDPs so will not be used");
+			symm = false;
+		}
+		ModuleSymmetry symmetry = mfmg.setSymmetryReduction(symm);
+		if (symm) {
+			if (symmetry == null) {
+				mainLog.println("No symmetric modules found, so symmetry reduction will not be used");
+			} else {
+				mainLog.println("Using symmetry reduction (symmetric modules: " + symmetry + ")");
+			}
+		}
+		return symmetry;
+	}
+
+	/**
+	 * Check that a property can be checked on the currently built model, if it has been reduced by symmetry,
+	 * i.e., that the property is symmetric too. Throws an exception if not.
+	 */
+	private void checkSymmetricProperty(PropertiesFile propertiesFile, Expression expr) throws PrismException
+	{
+		if (builtModelSymmetry == null) {
+			return;
+		}
+		Expression exprExp = (Expression) expr.deepCopy().expandPropRefsAndLabels(propertiesFile, propertiesFile.getCombinedLabelList());
+		if (!builtModelSymmetry.isSymmetric(exprExp)) {
+			throw new PrismException("Property is not symmetric so cannot be checked on model built with symmetry reduction");
+		}
+	}
+
 	/**
 	 * Build the currently loaded PRISM model and store for later use.
 	 * The built model can be accessed subsequently via either
@@ -2212,6 +2453,7 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 					Modules2MTBDD mod2mtbdd = new Modules2MTBDD(this, getPRISMModel());
 					newModelSymb = mod2mtbdd.translate();
 					setBuiltModel(ModelBuildType.SYMBOLIC, newModelSymb);
+					builtModelSymmetry = mod2mtbdd.getAutoSymmetry();
 					break;
 				case MODEL_GENERATOR:
 					ModelGenerator2MTBDD modelGen2mtbdd = new ModelGenerator2MTBDD(this);
@@ -2242,10 +2484,48 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 					} catch (PrismException e){
 						throw e.prepend("Explicit engine: ");
 					}
-					ConstructModel constructModel = new ConstructModel(this);
-					constructModel.setFixDeadlocks(getFixDeadlocks());
-					newModelExpl = constructModel.constructModel(getModelGenerator());
+					// Set up symmetry/partial-order reduction, if requested
+					ModuleSymmetry symmetry = setUpSymmetryReduction();
+					boolean por = setUpPartialOrderReduction();
+					// If enabled, see if the model has already been built (explicit engine, PRISM models only)
+					// (not for partial-order/symmetry reduction, since a different model is built)
+					String cacheKey = null;
+					newModelExpl = null;
+					// If enabled, summarise the model for comparison with the next one built (incremental construction)
+					ModulesFileDiff.Snapshot snapshot = null;
+					if (getCurrentEngine() == PrismEngine.EXPLICIT && getModelSource() == ModelSource.PRISM_MODEL && settings.getBoolean(PrismSettings.PRISM_INCREMENTAL_BUILD) && !isModelSourceDigitalClocks() && !por && symmetry == null) {
+						snapshot = new ModulesFileDiff.Snapshot(getPRISMModel());
+					} else {
+						clearIncrementalBuild();
+					}
+					if (getCurrentEngine() == PrismEngine.EXPLICIT && getModelSource() == ModelSource.PRISM_MODEL && settings.getBoolean(PrismSettings.PRISM_MODEL_CACHE) && !por && symmetry == null) {
+						cacheKey = BuiltModelCache.computeKey(getPRISMModel(), getUndefinedModelValues(), areUndefinedModelValuesExact(), getFixDeadlocks());
+						newModelExpl = getBuiltModelCache().get(this, cacheKey, getPRISMModel().createVarList(), getModelGenerator().getConstantValues());
+					}
+					if (newModelExpl == null) {
+						ConstructModel constructModel = new ConstructModel(this);
+						constructModel.setFixDeadlocks(getFixDeadlocks());
+						if (snapshot != null) {
+							setUpIncrementalBuild(constructModel, snapshot);
+						}
+						try {
+							newModelExpl = constructModel.constructModel(getModelGenerator());
+						} finally {
+							// Symmetry reduction only applies to construction (not e.g. simulation)
+							if (symmetry != null) {
+								((ModulesFileModelGenerator<?>) getModelGenerator()).setSymmetryReduction(false);
+							}
+						}
+						if (cacheKey != null) {
+							getBuiltModelCache().put(this, cacheKey, newModelExpl, getPRISMModel().createVarList());
+						}
+					}
 					setBuiltModel(getModelBuildTypeForEngine(getCurrentEngine()), newModelExpl);
+					builtModelSymmetry = symmetry;
+					if (snapshot != null) {
+						incrementalBuildModel = newModelExpl;
+						incrementalBuildSnapshot = snapshot;
+					}
 					break;
 				case EXPLICIT_FILES:
 					ExplicitFiles2Model expf2model = new ExplicitFiles2Model(this);
@@ -2343,6 +2623,41 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		}
 	}
 
+	/**
+	 * Set up incremental construction of the current PRISM model, i.e., reuse of the transitions
+	 * of the last model built (with the explicit engine) for states unaffected by changes to it.
+	 * If the two cannot be compared command by command, the model is built from scratch.
+	 * @param constructModel The model constructor
+	 * @param snapshot Summary of the current PRISM model
+	 */
+	private void setUpIncrementalBuild(ConstructModel constructModel, ModulesFileDiff.Snapshot snapshot)
+	{
+		if (incrementalBuildModel == null) {
+			return;
+		}
+		ModulesFileDiff diff = new ModulesFileDiff(incrementalBuildSnapshot, snapshot);
+		String reason = diff.getStructuralChange();
+		ModelType modelType = incrementalBuildModel.getModelType();
+		if (reason == null && !(modelType == ModelType.DTMC || modelType == ModelType.CTMC || modelType == ModelType.MDP)) {
+			reason = "not supported for " + modelType + "s";
+		}
+		if (reason != null) {
+			mainLog.println("Incremental construction: building model from scratch (" + reason + ")");
+			return;
+		}
+		mainLog.println("Incremental construction: " + diff.getNumChangedCommands() + " command(s) changed since the last model was built");
+		constructModel.setPreviousModel(incrementalBuildModel, diff::isAffected);
+	}
+
+	/**
+	 * Discard the last model kept for incremental construction, if any.
+	 */
+	private void clearIncrementalBuild()
+	{
+		incrementalBuildModel = null;
+		incrementalBuildSnapshot = null;
+	}
+
 	private void doBuildModelDigitalClocksChecks() throws PrismException
 	{
 		// For digital clocks, by construction, deadlocks can only occur from timelocks (and are not allowed)
@@ -2464,7 +2779,7 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		buildModelIfRequired();
 
 		if (getBuiltModelType() == ModelBuildType.SYMBOLIC) {
-			mainLog.println("\nDRN export currently only supported by explicit engine");
+			mainLog.println("\n" + (exportOptions.getFormat() == ModelExportFormat.BINARY ? "Binary" : "DRN") + " export currently only supported by explicit engine");
 			return;
 		}
 
@@ -2477,12 +2792,20 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		exportOptions = newMergedModelExportOptions(exportOptions);
 
 		// Export (explicit engine only)
+		List<String> labelNames = new ArrayList<String>();
+		labelNames.add("init");
+		labelNames.add("deadlock");
+		labelNames.addAll(getModelInfo().getLabelNames());
+		explicit.StateModelChecker mcExpl = createModelCheckerExplicit(null);
+		// Binary format is written directly to a file
+		if (exportOptions.getFormat() == ModelExportFormat.BINARY) {
+			if (file == null) {
+				throw new PrismException("Binary model export requires a file");
+			}
+			mcExpl.exportModelBinary(getBuiltModelExplicit(), labelNames, file, exportOptions);
+			return;
+		}
 		try (PrismLog out = getPrismLogForFile(file)) {
-			List<String> labelNames = new ArrayList<String>();
-			labelNames.add("init");
-			labelNames.add("deadlock");
-			labelNames.addAll(getModelInfo().getLabelNames());
-			explicit.StateModelChecker mcExpl = createModelCheckerExplicit(null);
 			mcExpl.exportModelCombined(getBuiltModelExplicit(), labelNames, out, exportOptions);
 		}
 	}
@@ -3214,6 +3537,17 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 			fauMC = new FastAdaptiveUniformisationModelChecker(this, getPRISMModel(), propertiesFile);
 			return fauMC.check(prop.getExpression());
 		}
+		// For on-the-fly model checking (explicit engine, if supported for this property)
+		if (settings.getBoolean(PrismSettings.PRISM_ON_THE_FLY) && getCurrentEngine() == PrismEngine.EXPLICIT && (getModelSource() == ModelSource.PRISM_MODEL || getModelSource() == ModelSource.MODEL_GENERATOR)) {
+			if (OnTheFlyModelChecker.isSupported(getModelType(), prop.getExpression(), propertiesFile) && getModelGenerator().hasSingleInitialState()) {
+				// (explicit engine, so the model generator is for doubles)
+				@SuppressWarnings("unchecked")
+				ModelGenerator<Double> modelGenDbl = (ModelGenerator<Double>) getModelGenerator();
+				OnTheFlyModelChecker otfMC = new OnTheFlyModelChecker(this, modelGenDbl, propertiesFile);
+				return otfMC.check(prop.getExpression());
+			}
+			mainLog.printWarning("On-the-fly model checking is not supported for this property so the model will be built.");
+		}
 		// Heuristic choices of engine/method
 		if (settings.getString(PrismSettings.PRISM_HEURISTIC).equals("Speed")) {
 			mainLog.printWarning("Switching to sparse engine and (backwards) Gauss Seidel (default for heuristic=speed).");
@@ -3233,6 +3567,15 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 				setEngine(Prism.EXPLICIT);
 			}
 		}
+		if (getModelType() == ModelType.DTMC || getModelType() == ModelType.CTMC) {
+			if ((getLinEqMethod() == Prism.BICGSTAB || getLinEqMethod() == Prism.GMRES) && getCurrentEngine() == PrismEngine.SYMBOLIC) {
+				mainLog.printWarning("Switching to explicit engine to allow use of chosen linear equation solution method.");
+				engineSwitch = true;
+				lastEngine = getEngine();
+				switchedToExplicitEngine = true;
+				setEngine(Prism.EXPLICIT);
+			}
+		}
 		if (Expression.containsNonProbLTLFormula(prop.getExpression()) && getCurrentEngine() == PrismEngine.SYMBOLIC) {
 			mainLog.printWarning("Switching to explicit engine to allow non-probabilistic LTL model checking.");
 			engineSwitch = true;
@@ -3267,6 +3610,9 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 			// Build model, if necessary
 			buildModelIfRequired();
 
+			// If the model was reduced by symmetry, the property must be symmetric
+			checkSymmetricProperty(propertiesFile, prop.getExpression());
+
 			// Compatibility check
 			if (genStrat && getModelType().nondeterministic() && getCurrentEngine() == PrismEngine.SYMBOLIC) {
 				if (!((NondetModel) getBuiltModelSymbolic()).areAllChoiceActionsUnique())
@@ -3329,6 +3675,61 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		return res;
 	}
 
+	/**
+	 * Prepare for model checking a property for each of the values of the property constants
+	 * in {@code undefinedConstants}, as is done for an experiment. If the constants that vary
+	 * only appear in the time/step bound of a P=? [ a U<=T b ] (or F<=T) property, then, for DTMCs
+	 * and CTMCs with the explicit engine, probabilities for all bounds are computed in a single pass
+	 * when the property is first model checked, rather than separately for each check.
+	 * Also, if {@link PrismSettings#PRISM_EXPERIMENT_WARM_START} is enabled, solutions of unbounded
+	 * until/reachability reward computations are kept between checks, for reuse (explicit engine).
+	 * Call {@link #clearExperimentBatch()} once all values have been checked.
+	 * @param propertiesFile Properties file containing the property
+	 * @param undefinedConstants Details of constant ranges defining the experiment
+	 * @param prop The property to check
+	 */
+	public void prepareExperimentBatch(PropertiesFile propertiesFile, UndefinedConstants undefinedConstants, Property prop)
+	{
+		timeBoundBatch = null;
+		experimentWarmStart = null;
+		int numIters = undefinedConstants.getNumPropertyIterations();
+		if (propertiesFile == null || numIters < 2) {
+			return;
+		}
+		if (settings.getBoolean(PrismSettings.PRISM_EXPERIMENT_WARM_START)) {
+			experimentWarmStart = new explicit.ExperimentWarmStart();
+		}
+		List<String> rangingConstants = new ArrayList<>();
+		for (DefinedConstant<?> dc : undefinedConstants.getRangingConstants()) {
+			if (propertiesFile.getConstantList().getConstantIndex(dc.getName()) != -1) {
+				rangingConstants.add(dc.getName());
+			}
+		}
+		try {
+			// Get the values of all properties file constants for each check
+			// (iterating through all of them brings us back to the first)
+			List<Values> pfConstantValuesList = new ArrayList<>();
+			for (int i = 0; i < numIters; i++) {
+				propertiesFile.setSomeUndefinedConstants(undefinedConstants.getPFConstantValues());
+				pfConstantValuesList.add(new Values(propertiesFile.getConstantValues()));
+				undefinedConstants.iterateProperty();
+			}
+			timeBoundBatch = explicit.TimeBoundBatch.create(propertiesFile, prop.getExpression(), rangingConstants, pfConstantValuesList);
+		} catch (PrismException e) {
+			// Just check each case separately (any errors will be reported then)
+			timeBoundBatch = null;
+		}
+	}
+
+	/**
+	 * Clear any information stored by {@link #prepareExperimentBatch(PropertiesFile, UndefinedConstants, Property)}.
+	 */
+	public void clearExperimentBatch()
+	{
+		timeBoundBatch = null;
+		experimentWarmStart = null;
+	}
+
 	/**
 	 * Perform model checking of a property on the currently loaded PTA PRISM model and return result.
 	 * @param propertiesFile Parent property file of property (for labels/constants/...)
@@ -4225,6 +4626,10 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		}
 		currentModelDetails.modelExpl = null;
 		currentModelDetails.modelBuildType = null;
+		builtModelSymmetry = null;
+		if (subFormulaCache != null) {
+			subFormulaCache.clear();
+		}
 		clearStrategy();
 	}
 
@@ -4285,10 +4690,42 @@ public class Prism extends PrismComponent implements PrismSettingsListener
 		mc.setGenStrat(genStrat);
 		mc.setRestrictStratToReach(restrictStratToReach);
 		mc.setDoBisim(doBisim);
+		if (mc instanceof explicit.ProbModelChecker) {
+			((explicit.ProbModelChecker) mc).setTimeBoundBatch(timeBoundBatch);
+			((explicit.ProbModelChecker) mc).setExperimentWarmStart(experimentWarmStart);
+		}
+		mc.setSubFormulaCache(getSubFormulaCache());
 
 		return mc;
 	}
 
+	/**
+	 * Get the cache of built models for the explicit engine (owned by this instance),
+	 * creating it first if needed.
+	 */
+	private BuiltModelCache getBuiltModelCache()
+	{
+		if (builtModelCache == null) {
+			builtModelCache = new BuiltModelCache();
+		}
+		return builtModelCache;
+	}
+
+	/**
+	 * Get the cache of sub-formula results for the explicit engine,
+	 * creating it first if needed, or null if it is disabled.
+	 */
+	private explicit.SubFormulaCache getSubFormulaCache() throws PrismException
+	{
+		if (!settings.getBoolean(PrismSettings.PRISM_SUB_FORMULA_CACHE)) {
+			subFormulaCache = null;
+		} else if (subFormulaCache == null) {
+			long maxSize = 1024L * PrismUtils.convertMemoryStringtoKB(settings.getString(PrismSettings.PRISM_SUB_FORMULA_CACHE_MAX_MEM));
+			subFormulaCache = new explicit.SubFormulaCache(maxSize);
+		}
+		return subFormulaCache;
+	}
+
 	/**
 	 * Either create a new PrismFileLog for {@code file} or,
 	 * if {@code file} is null, return {@code mainLog}.
@@ -43,6 +43,7 @@ import common.StackTraceHelper;
 import csv.CsvFormatException;
 import io.ModelExportOptions;
 import io.ModelExportOptions.ModelExportFormat;
+import io.PrismBinaryImporter;
 import parser.Values;
 import parser.ast.Expression;
 import parser.ast.ExpressionReward;
@@ -73,6 +74,7 @@ public class PrismCL implements PrismModelListener
 	private boolean importpepa = false;
 	private boolean importprismpp = false;
 	private boolean importtrans = false;
+	private boolean importbinary = false;
 	private boolean importstates = false;
 	private boolean importlabels = false;
 	private boolean importstaterewards = false;
@@ -354,6 +356,33 @@ public class PrismCL implements PrismModelListener
 			results[i] = new ResultsCollection(undefinedConstants[i], propertiesToCheck.get(i).getExpression().getResultName());
 		}
 
+		// if requested (and possible), check the points of an experiment concurrently
+		int numExperimentThreads = prism.getSettings().getInteger(PrismSettings.PRISM_EXPERIMENT_THREADS);
+		if (numExperimentThreads > 1 && getNumExperimentPoints() > 1) {
+			String reason = getParallelExperimentsProblem();
+			if (reason == null) {
+				doParallelExperiments(numExperimentThreads);
+				if (exportresults) {
+					exportResults();
+				}
+				closeDown();
+				return;
+			}
+			mainLog.printWarning("Experiment points will be checked sequentially (" + reason + ").");
+		}
+
+		// if requested (and possible), check properties concurrently, sharing each built model
+		int numPropertyThreads = prism.getSettings().getInteger(PrismSettings.PRISM_PROPERTY_THREADS);
+		boolean concurrentProperties = false;
+		if (numPropertyThreads > 1 && getNumExperimentPoints() > undefinedMFConstants.getNumModelIterations()) {
+			String reason = getConcurrentPropertiesProblem();
+			if (reason == null) {
+				concurrentProperties = true;
+			} else {
+				mainLog.printWarning("Properties will be checked sequentially (" + reason + ").");
+			}
+		}
+
 		// iterate through as many models as necessary
 		for (i = 0; i < undefinedMFConstants.getNumModelIterations(); i++) {
 
@@ -408,8 +437,13 @@ public class PrismCL implements PrismModelListener
 			if (modelBuildFail)
 				continue;
 
-			// Work through list of properties to be checked
-			for (j = 0; j < numPropertiesToCheck; j++) {
+			// Check properties concurrently on the built model, if requested
+			if (concurrentProperties) {
+				doConcurrentProperties(numPropertyThreads);
+			}
+
+			// Otherwise, work through list of properties to be checked
+			for (j = 0; j < numPropertiesToCheck && !concurrentProperties; j++) {
 
 				// for simulation we can do multiple values of property constants simultaneously
 				if (simulate && undefinedConstants[j].getNumPropertyIterations() > 1) {
@@ -427,7 +461,11 @@ public class PrismCL implements PrismModelListener
 					}
 				}
 				// otherwise, treat each case individually
+				// (but where only a time/step bound varies, results may be computed together, see Prism.prepareExperimentBatch)
 				else {
+					if (!simulate) {
+						prism.prepareExperimentBatch(propertiesFile, undefinedConstants[j], propertiesToCheck.get(j));
+					}
 					for (k = 0; k < undefinedConstants[j].getNumPropertyIterations(); k++) {
 
 						try {
@@ -523,6 +561,7 @@ public class PrismCL implements PrismModelListener
 						// iterate to next property
 						undefinedConstants[j].iterateProperty();
 					}
+					prism.clearExperimentBatch();
 				}
 
 				// in case of build failure during model checking, store as result for any further properties and continue
@@ -562,6 +601,184 @@ public class PrismCL implements PrismModelListener
 
 	}
 
+	/**
+	 * Get the total number of points (property/constant value combinations) to be checked.
+	 */
+	private long getNumExperimentPoints()
+	{
+		long numPropertyPoints = 0;
+		for (int j = 0; j < numPropertiesToCheck; j++) {
+			numPropertyPoints += undefinedConstants[j].getNumPropertyIterations();
+		}
+		return undefinedMFConstants.getNumModelIterations() * numPropertyPoints;
+	}
+
+	/**
+	 * Check whether the points of an experiment can be checked concurrently
+	 * (see {@link #doParallelExperiments(int)}). Returns null if so, or otherwise the reason why not.
+	 */
+	private String getParallelExperimentsProblem()
+	{
+		String reason = getConcurrentCheckingProblem();
+		if (reason != null) {
+			return reason;
+		}
+		if (simpath) {
+			return "not supported for simulation";
+		}
+		if (steadystate || dotransient) {
+			return "not supported for steady-state/transient computation";
+		}
+		boolean modelExports = exportprismconst || exporttrans || exportstaterewards || exporttransrewards || exportstates || exportobservations || exportspy
+				|| exportdot || exporttransdot || exporttransdotstates || exportmodeldotview || exportmodellabels || exportproplabels || exportmodelcombined
+				|| exportsccs || exportbsccs || exportmecs;
+		if (modelExports) {
+			return "not supported with exports";
+		}
+		return null;
+	}
+
+	/**
+	 * Check whether properties can be checked concurrently on a shared built model
+	 * (see {@link #doConcurrentProperties(int)}). Returns null if so, or otherwise the reason why not.
+	 */
+	private String getConcurrentPropertiesProblem()
+	{
+		String reason = getConcurrentCheckingProblem();
+		if (reason != null) {
+			return reason;
+		}
+		if (prism.getModelType().realTime()) {
+			return "not supported for " + prism.getModelType() + "s";
+		}
+		if (prism.getSettings().getBoolean(PrismSettings.PRISM_ON_THE_FLY)) {
+			return "not supported for on-the-fly model checking";
+		}
+		return null;
+	}
+
+	/**
+	 * Check the requirements shared by all forms of concurrent model checking
+	 * (a PRISM model, the explicit engine, no simulation, no exports during model checking).
+	 * Returns null if they are met, or otherwise the reason why not.
+	 */
+	private String getConcurrentCheckingProblem()
+	{
+		if (prism.getModelSource() != Prism.ModelSource.PRISM_MODEL || propertiesFile == null) {
+			return "only supported for PRISM models";
+		}
+		if (prism.getCurrentEngine() != Prism.PrismEngine.EXPLICIT) {
+			return "only supported for the explicit engine";
+		}
+		if (simulate) {
+			return "not supported for simulation";
+		}
+		boolean checkingExports = exportstrat || exportvector || prism.getExportTarget() || prism.getExportProductTrans() || prism.getExportProductStates()
+				|| prism.getExportProductVector() || prism.getSettings().getChoice(PrismSettings.PRISM_EXPORT_ADV) != Prism.EXPORT_ADV_NONE;
+		if (checkingExports) {
+			return "not supported with exports";
+		}
+		return null;
+	}
+
+	/**
+	 * Check all points of an experiment (properties and values for undefined constants)
+	 * concurrently, using {@code numThreads} threads, each with its own copy of the model.
+	 * Output and results are displayed/stored in the same order as for sequential checking.
+	 */
+	private void doParallelExperiments(int numThreads)
+	{
+		// Enumerate points, in the same order as they would be checked sequentially
+		List<ParallelExperiments.Point> points = new ArrayList<>();
+		for (int i = 0; i < undefinedMFConstants.getNumModelIterations(); i++) {
+			Values mfValues = undefinedMFConstants.getMFConstantValues();
+			for (int j = 0; j < numPropertiesToCheck; j++) {
+				for (int k = 0; k < undefinedConstants[j].getNumPropertyIterations(); k++) {
+					points.add(new ParallelExperiments.Point(j, mfValues, undefinedConstants[j].getPFConstantValues()));
+					undefinedConstants[j].iterateProperty();
+				}
+			}
+			undefinedMFConstants.iterateModel();
+			for (int j = 0; j < numPropertiesToCheck; j++) {
+				undefinedConstants[j].iterateModel();
+			}
+		}
+		mainLog.println("\nChecking " + points.size() + " experiment points using " + numThreads + " threads...");
+		runParallelExperiments(points, numThreads, false);
+	}
+
+	/**
+	 * Check all properties (and values for their undefined constants) for the current model constants
+	 * concurrently, using {@code numThreads} threads, all sharing the same built model.
+	 * Output and results are displayed/stored in the same order as for sequential checking.
+	 */
+	private void doConcurrentProperties(int numThreads)
+	{
+		// Build the model first (in this thread), so that it can be shared
+		try {
+			prism.buildModelIfRequired();
+		} catch (PrismException e) {
+			// in case of error, report it and store as result for all properties
+			error(e.getMessage());
+			for (int j = 0; j < numPropertiesToCheck; j++) {
+				results[j].setMultipleErrors(definedMFConstants, null, e);
+				if (test) {
+					doResultTest(propertiesToCheck.get(j), new Result(e), modulesFile.getConstantValues(), null);
+				}
+			}
+			return;
+		}
+		// Enumerate points, in the same order as they would be checked sequentially
+		List<ParallelExperiments.Point> points = new ArrayList<>();
+		for (int j = 0; j < numPropertiesToCheck; j++) {
+			for (int k = 0; k < undefinedConstants[j].getNumPropertyIterations(); k++) {
+				points.add(new ParallelExperiments.Point(j, definedMFConstants, undefinedConstants[j].getPFConstantValues()));
+				undefinedConstants[j].iterateProperty();
+			}
+		}
+		numThreads = Math.min(numThreads, points.size());
+		mainLog.println("\nChecking " + points.size() + " properties using " + numThreads + " threads (sharing the built model)...");
+		runParallelExperiments(points, numThreads, true);
+	}
+
+	/**
+	 * Check a list of experiment points using {@code numThreads} threads, displaying/storing results
+	 * in order. If {@code shareModel} is true, the threads use the model currently built by {@code prism}.
+	 */
+	private void runParallelExperiments(List<ParallelExperiments.Point> points, int numThreads, boolean shareModel)
+	{
+		ParallelExperiments experiments = null;
+		try {
+			experiments = new ParallelExperiments(prism, modulesFile, propertiesFile, propertiesToCheck, exactConstants, numThreads);
+			if (shareModel) {
+				experiments.setSharedModel(prism);
+			}
+			experiments.run(points, pointResult -> {
+				int j = pointResult.point.propIndex;
+				Result res = pointResult.result;
+				mainLog.print(pointResult.log);
+				mainLog.flush();
+				// store result of model checking
+				results[j].setResult(pointResult.point.mfValues, pointResult.point.pfValues, res.getResult());
+				// if a counterexample was generated, display it
+				if (res.getCounterexample() != null) {
+					mainLog.println("\nCounterexample/witness:");
+					mainLog.println(res.getCounterexample());
+				}
+				// if required, check result against expected value
+				if (test) {
+					doResultTest(propertiesToCheck.get(j), res, pointResult.mfConstantValues, pointResult.pfConstantValues);
+				}
+			});
+		} catch (PrismException e) {
+			errorAndExit(e.getMessage());
+		} finally {
+			if (experiments != null) {
+				experiments.close();
+			}
+		}
+	}
+
 	/**
 	 * Import results from a data frame in a CSV file.
 	 */
@@ -675,6 +892,8 @@ public class PrismCL implements PrismModelListener
 				String prismppParamsList[] = ("? " + prismppParams).split(" ");
 				modulesFile = prism.importPrismPreprocFile(new File(modelFilename), prismppParamsList);
 				prism.loadPRISMModel(modulesFile);
+			} else if (importbinary) {
+				prism.loadModelFromExplicitFiles(new PrismBinaryImporter(new File(modelFilename)));
 			} else if (importtrans) {
 				if (importstates) {
 					sf = new File(importStatesFilename);
@@ -746,6 +965,9 @@ public class PrismCL implements PrismModelListener
 				mainLog.println("(" + (i + 1) + ") " + propertiesFile.getPropertyObject(i));
 			}
 		}
+
+		// properties need to be preserved by partial-order reduction, if used
+		prism.setPartialOrderReductionProperties(propertiesFile);
 	}
 
 	/**
@@ -2001,6 +2223,18 @@ public class PrismCL implements PrismModelListener
 						errorAndExit("No value specified for -" + sw + " switch");
 					}
 				}
+				// simulation random seed
+				else if (sw.equals("simseed")) {
+					if (i < args.length - 1) {
+						try {
+							prism.setSimulatorSeed(Integer.parseInt(args[++i]));
+						} catch (NumberFormatException e) {
+							errorAndExit("Invalid value for -" + sw + " switch");
+						}
+					} else {
+						errorAndExit("No value specified for -" + sw + " switch");
+					}
+				}
 
 				// FURTHER OPTIONS - NEED TIDYING/FIXING
 
@@ -2165,12 +2399,20 @@ public class PrismCL implements PrismModelListener
 				getStateRewardsFilenames(basename, true);
 			} else if (ext.equals("trew")) {
 				getTransRewardsFilenames(basename, true);
+			} else if (ext.equals("prb")) {
+				importtrans = true;
+				importbinary = true;
+				modelFilename = basename + ".prb";
 			}
 			// Unknown extension
 			else {
 				throw new PrismException("Unknown extension \"" + ext + "\" for -importmodel switch");
 			}
 		}
+		// A binary file contains the whole model
+		if (importbinary && exts.length > 1) {
+			throw new PrismException("Binary model files (.prb) cannot be imported together with other files for -importmodel");
+		}
 		// Check at least the transition matrix was imported
 		if (!importtrans) {
 			throw new PrismException("You must import the transition matrix when using -importmodel (use option \"tra\" or \"all\")");
@@ -2363,6 +2605,13 @@ public class PrismCL implements PrismModelListener
 				exportmodelcombined = true;
 				exportModelCombinedFilename = basename.equals("stdout") ? "stdout" : basename + ".drn";
 				exportModelCombinedOptions = new ModelExportOptions(ModelExportFormat.DRN);
+			} else if (ext.equals("prb")) {
+				if (basename.equals("stdout")) {
+					throw new PrismException("Binary model export (.prb) cannot be sent to stdout");
+				}
+				exportmodelcombined = true;
+				exportModelCombinedFilename = basename + ".prb";
+				exportModelCombinedOptions = new ModelExportOptions(ModelExportFormat.BINARY);
 			}
 			// Unknown extension
 			else {
@@ -2884,6 +3133,7 @@ public class PrismCL implements PrismModelListener
 		mainLog.println("-simvar <n> .................... Set the minimum number of samples to know the variance is null or not");
 		mainLog.println("-simmaxrwd <x> ................. Set the maximum reward -- useful to display the CI/ACI methods progress");
 		mainLog.println("-simpathlen <n> ................ Set the maximum path length for the simulator");
+		mainLog.println("-simseed <n> ................... Set the random seed for the simulator (for reproducible results)");
 
 		mainLog.println();
 		mainLog.println("You can also use \"prism -help xxx\" for help on some switches -xxx with non-obvious syntax.");
@@ -2927,6 +3177,9 @@ public class PrismCL implements PrismModelListener
 			mainLog.println("Possible extensions are: .tra, .sta, .lab, .srew, .trew");
 			mainLog.println("Use extension .all to import all, e.g.:");
 			mainLog.println("\n -importmodel in.all\n");
+			mainLog.println("Alternatively, use extension .prb to import a model previously exported");
+			mainLog.println("in binary format (see -exportmodel), which is much faster to load, e.g.:");
+			mainLog.println("\n -importmodel in.prb\n");
 		}
 		// -importresults
 		else if (sw.equals("importresults")) {
@@ -2967,8 +3220,8 @@ public class PrismCL implements PrismModelListener
 			mainLog.println("Export the built model to file(s) (or to the screen if <file>=\"stdout\").");
 			mainLog.println("Use a list of file extensions to indicate which files should be generated, e.g.:");
 			mainLog.println("\n -exportmodel out.tra,sta\n");
-			mainLog.println("Possible extensions are: .tra, .srew, .trew, .sta, .lab, .obs, .dot, .drn");
-			mainLog.println("Use extension .all to export all (except .dot/.drn) and .rew to export both .srew/.trew, e.g.:");
+			mainLog.println("Possible extensions are: .tra, .srew, .trew, .sta, .lab, .obs, .dot, .drn, .prb");
+			mainLog.println("Use extension .all to export all (except .dot/.drn/.prb) and .rew to export both .srew/.trew, e.g.:");
 			mainLog.println("\n -exportmodel out.all\n");
 			mainLog.println("Omit the file basename to use the basename of the model file, e.g.:");
 			mainLog.println("\n -exportmodel .all\n");
@@ -2977,6 +3230,8 @@ public class PrismCL implements PrismModelListener
 			mainLog.println(" * rows - export matrices with one row/distribution on each line");
 			mainLog.println(" * proplabels - export labels from a properties file into the same file, too");
 			mainLog.println(" * actions (=true/false) - shows actions on choices/transitions");
+			mainLog.println("Extension .prb exports the whole model (states, transitions, labels, rewards)");
+			mainLog.println("in a binary format, for fast re-import with -importmodel (explicit engine only).");
 		}
 		// -exportstrat
 		else if (sw.equals("exportstrat")) {
@@ -90,6 +90,8 @@ public class PrismSettings implements Observer
 	public static final	String PRISM_COMPACT						= "prism.compact";
 	public static final	String PRISM_LIN_EQ_METHOD					= "prism.linEqMethod";//"prism.iterativeMethod";
 	public static final	String PRISM_LIN_EQ_METHOD_PARAM			= "prism.linEqMethodParam";//"prism.overRelaxation";
+	public static final	String PRISM_KRYLOV_PRECONDITIONER			= "prism.krylovPreconditioner";
+	public static final	String PRISM_GMRES_RESTART					= "prism.gmresRestart";
 	public static final String PRISM_TOPOLOGICAL_VI					= "prism.topologicalVI";
 	public static final	String PRISM_PMAX_QUOTIENT					= "prism.pmaxQuotient";
 	public static final	String PRISM_INTERVAL_ITER					= "prism.intervalIter";
@@ -121,6 +123,22 @@ public class PrismSettings implements Observer
 	public static final	String PRISM_EXACT_ENABLED					= "prism.exact.enabled";
 	public static final String PRISM_PTA_METHOD					= "prism.ptaMethod";
 	public static final String PRISM_TRANSIENT_METHOD				= "prism.transientMethod";
+	public static final String PRISM_NUM_THREADS					= "prism.numThreads";
+	public static final String PRISM_EXPERIMENT_THREADS			= "prism.experimentThreads";
+	public static final String PRISM_PROPERTY_THREADS				= "prism.propertyThreads";
+	public static final String PRISM_EXPERIMENT_WARM_START			= "prism.experimentWarmStart";
+	public static final String PRISM_PACKED_STATES					= "prism.packedStates";
+	public static final String PRISM_MODEL_CACHE					= "prism.modelCache";
+	public static final String PRISM_MODEL_CACHE_MAX_MEM			= "prism.modelCacheMaxMem";
+	public static final String PRISM_MODEL_CACHE_DIR				= "prism.modelCacheDir";
+	public static final String PRISM_MODEL_CACHE_DIR_MAX_SIZE		= "prism.modelCacheDirMaxSize";
+	public static final String PRISM_SUB_FORMULA_CACHE				= "prism.subFormulaCache";
+	public static final String PRISM_SUB_FORMULA_CACHE_MAX_MEM		= "prism.subFormulaCacheMaxMem";
+	public static final String PRISM_INCREMENTAL_BUILD				= "prism.incrementalBuild";
+	public static final String PRISM_PARTIAL_ORDER_REDUCTION		= "prism.partialOrderReduction";
+	public static final String PRISM_AUTO_SYMMETRY					= "prism.autoSymmetry";
+	public static final String PRISM_ON_THE_FLY					= "prism.onTheFly";
+	public static final String PRISM_ON_THE_FLY_EPSILON			= "prism.onTheFlyEpsilon";
 	public static final String PRISM_AR_OPTIONS					= "prism.arOptions";
 	public static final String PRISM_PATH_VIA_AUTOMATA				= "prism.pathViaAutomata";
 	public static final String PRISM_NO_DA_SIMPLIFY				= "prism.noDaSimplify";
@@ -252,9 +270,45 @@ public class PrismSettings implements Observer
 																			"Which method to use for model checking of PTAs." },
 			{ CHOICE_TYPE,		PRISM_TRANSIENT_METHOD,					"Transient probability computation method",	"3.3",		"Uniformisation",															"Uniformisation,Fast adaptive uniformisation",																
 																			"Which method to use for computing transient probabilities in CTMCs." },
+			{ INTEGER_TYPE,		PRISM_NUM_THREADS,						"Number of threads",					"4.8.1",		Integer.valueOf(1),																"1,",
+																			"Number of threads to use for parallelised parts of PRISM (e.g. explicit engine model construction and value iteration, simulation)." },
+			{ INTEGER_TYPE,		PRISM_EXPERIMENT_THREADS,				"Number of experiment threads",			"4.8.1",		Integer.valueOf(1),																"1,",
+																			"Number of threads to use to check the points of an experiment (ranging constants) concurrently, each with a separate copy of the model (explicit engine only)." },
+			{ INTEGER_TYPE,		PRISM_PROPERTY_THREADS,					"Number of property threads",			"4.8.1",		Integer.valueOf(1),																"1,",
+																			"Number of threads to use to check properties concurrently, all sharing the same built model (explicit engine only)." },
+			{ BOOLEAN_TYPE,		PRISM_EXPERIMENT_WARM_START,			"Warm start experiments",				"4.8.1",		Boolean.valueOf(false),															"",
+																			"When a property is checked for a range of property constant values (explicit engine), reuse solutions of unbounded until/reachability reward computations from previous checks, either directly or as initial values for iterative methods, where this is valid." },
+			{ BOOLEAN_TYPE,		PRISM_PACKED_STATES,					"Use packed state storage",				"4.8.1",		Boolean.valueOf(true),															"",
+																			"Store states compactly (as bit-packed variable values) during explicit model construction, where possible." },
+			{ BOOLEAN_TYPE,		PRISM_MODEL_CACHE,						"Cache built models",					"4.8.1",		Boolean.valueOf(false),															"",
+																			"Keep built models (explicit engine) in a cache, keyed by model, constant values and build options, so that they do not need to be rebuilt." },
+			{ STRING_TYPE,		PRISM_MODEL_CACHE_MAX_MEM,				"Model cache max. memory",				"4.8.1",		new String("1g"),																"",
+																			"Maximum (estimated) memory used by the cache of built models, e.g. 125k, 50m, 4g." },
+			{ STRING_TYPE,		PRISM_MODEL_CACHE_DIR,					"Model cache directory",				"4.8.1",		"",																				"",
+																			"Directory in which to also store cached built models on disk, so that they persist between runs (empty for none)." },
+			{ STRING_TYPE,		PRISM_MODEL_CACHE_DIR_MAX_SIZE,			"Model cache directory max. size",		"4.8.1",		new String("4g"),																"",
+																			"Maximum total size of the models stored in the model cache directory, e.g. 500m, 4g." },
+			{ BOOLEAN_TYPE,		PRISM_SUB_FORMULA_CACHE,				"Cache sub-formula results",			"4.8.1",		Boolean.valueOf(false),															"",
+																			"Keep results for labels and P/R/S operators (explicit engine) between properties, so that sub-formulas shared by several properties are only computed once for the same model and constants." },
+			{ STRING_TYPE,		PRISM_SUB_FORMULA_CACHE_MAX_MEM,		"Sub-formula cache max. memory",		"4.8.1",		new String("256m"),																"",
+																			"Maximum (estimated) memory used by the cache of sub-formula results, e.g. 125k, 50m, 4g." },
+			{ BOOLEAN_TYPE,		PRISM_INCREMENTAL_BUILD,				"Incremental model construction",		"4.8.1",		Boolean.valueOf(false),															"",
+																			"When rebuilding a PRISM model with the explicit engine after only some commands or constants have changed, reuse the transitions of the previously built model for states in which no changed command is enabled." },
+			{ BOOLEAN_TYPE,		PRISM_PARTIAL_ORDER_REDUCTION,			"Partial-order reduction",				"4.8.1",		Boolean.valueOf(false),															"",
+																			"Use partial-order reduction during explicit model construction for MDPs, preserving minimum/maximum probabilities, in the initial states, of LTL properties without next-step operators or time bounds (it is not used for properties with these, with rewards, nested P operators or filters over other states, or if no properties are given)." },
+			{ BOOLEAN_TYPE,		PRISM_AUTO_SYMMETRY,					"Automatic symmetry reduction",			"4.8.1",		Boolean.valueOf(false),															"",
+																			"Automatically detect symmetric (renamed) modules and build the quotient model for DTMCs, CTMCs and MDPs (symbolic engines: only if not set manually with symmRedParams; properties must also be symmetric)." },
+			{ BOOLEAN_TYPE,		PRISM_ON_THE_FLY,						"On-the-fly model checking",			"4.8.1",		Boolean.valueOf(false),															"",
+																			"Check unbounded reachability properties (P operators with F/U) for DTMCs, CTMCs and MDPs on the fly, exploring only the relevant part of the model, rather than building it first." },
+			{ DOUBLE_TYPE,		PRISM_ON_THE_FLY_EPSILON,				"On-the-fly model checking epsilon",	"4.8.1",		Double.valueOf(1.0E-6),															"0.0,",
+																			"Maximum (absolute) difference between the lower and upper bounds computed for on-the-fly model checking." },
 			// NUMERICAL SOLUTION OPTIONS:
-			{ CHOICE_TYPE,		PRISM_LIN_EQ_METHOD,					"Linear equations method",				"2.1",			"Jacobi",																	"Power,Jacobi,Gauss-Seidel,Backwards Gauss-Seidel,Pseudo-Gauss-Seidel,Backwards Pseudo-Gauss-Seidel,JOR,SOR,Backwards SOR,Pseudo-SOR,Backwards Pseudo-SOR",
+			{ CHOICE_TYPE,		PRISM_LIN_EQ_METHOD,					"Linear equations method",				"2.1",			"Jacobi",																	"Power,Jacobi,Gauss-Seidel,Backwards Gauss-Seidel,Pseudo-Gauss-Seidel,Backwards Pseudo-Gauss-Seidel,JOR,SOR,Backwards SOR,Pseudo-SOR,Backwards Pseudo-SOR,BiCGSTAB,GMRES",
 																			"Which iterative method to use when solving linear equation systems." },
+			{ CHOICE_TYPE,		PRISM_KRYLOV_PRECONDITIONER,			"Krylov preconditioner",				"4.8.1",		"ILU(0)",																	"None,Jacobi,ILU(0)",
+																			"Which preconditioner to use for Krylov subspace methods (BiCGSTAB/GMRES) when solving linear equation systems (explicit engine)." },
+			{ INTEGER_TYPE,		PRISM_GMRES_RESTART,					"GMRES restart",						"4.8.1",		Integer.valueOf(30),															"1,",
+																			"Number of iterations after which GMRES is restarted (explicit engine)." },
 			{ DOUBLE_TYPE,		PRISM_LIN_EQ_METHOD_PARAM,				"Over-relaxation parameter",			"2.1",			Double.valueOf(0.9),															"",																							
 																			"Over-relaxation parameter for iterative numerical methods such as JOR/SOR." },
 			{ BOOLEAN_TYPE,		PRISM_TOPOLOGICAL_VI,				"Use topological value iteration",				"4.3.1",		false,																		"",
@@ -265,7 +319,7 @@ public class PrismSettings implements Observer
 																				"Use interval iteration (from above and below) in iterative numerical methods."},
 			{ STRING_TYPE,		PRISM_INTERVAL_ITER_OPTIONS,				"Interval iteration options",				"4.3.1",		"",																		"",
 																	"Interval iteration options, a comma-separated list of the following:\n" + OptionsIntervalIteration.getOptionsDescription() },
-			{ CHOICE_TYPE,		PRISM_MDP_SOLN_METHOD,					"MDP solution method",				"4.0",			"Value iteration",																"Value iteration,Gauss-Seidel,Policy iteration,Modified policy iteration,Linear programming",
+			{ CHOICE_TYPE,		PRISM_MDP_SOLN_METHOD,					"MDP solution method",				"4.0",			"Value iteration",																"Value iteration,Gauss-Seidel,Policy iteration,Modified policy iteration,Linear programming,Optimistic value iteration",
 																			"Which method to use when solving Markov decision processes." },
 			{ CHOICE_TYPE,		PRISM_MDP_MULTI_SOLN_METHOD,			"MDP multi-objective solution method",				"4.0.3",			"Value iteration",											"Value iteration,Gauss-Seidel,Linear programming",
 																			"Which method to use when solving multi-objective queries on Markov decision processes." },
@@ -1067,6 +1121,141 @@ public class PrismSettings implements Observer
 				throw new PrismException("No parameter specified for -" + sw + " switch");
 			}
 		}
+		// Number of threads (explicit engine)
+		else if (sw.equals("threads")) {
+			if (i < args.length - 1) {
+				try {
+					j = Integer.parseInt(args[++i]);
+					if (j < 1)
+						throw new NumberFormatException("");
+					set(PRISM_NUM_THREADS, j);
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value for -" + sw + " switch");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
+		// Warm starts for experiments (explicit engine)
+		else if (sw.equals("warmstart")) {
+			set(PRISM_EXPERIMENT_WARM_START, true);
+		}
+		else if (sw.equals("nowarmstart")) {
+			set(PRISM_EXPERIMENT_WARM_START, false);
+		}
+		// Number of threads for experiments (explicit engine)
+		else if (sw.equals("experimentthreads")) {
+			if (i < args.length - 1) {
+				try {
+					j = Integer.parseInt(args[++i]);
+					if (j < 1)
+						throw new NumberFormatException("");
+					set(PRISM_EXPERIMENT_THREADS, j);
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value for -" + sw + " switch");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
+		else if (sw.equals("propertythreads")) {
+			if (i < args.length - 1) {
+				try {
+					j = Integer.parseInt(args[++i]);
+					if (j < 1)
+						throw new NumberFormatException("");
+					set(PRISM_PROPERTY_THREADS, j);
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value for -" + sw + " switch");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
+		// Packed state storage (explicit engine)
+		else if (sw.equals("packedstates")) {
+			set(PRISM_PACKED_STATES, true);
+		}
+		else if (sw.equals("nopackedstates")) {
+			set(PRISM_PACKED_STATES, false);
+		}
+		// Cache of built models (explicit engine)
+		else if (sw.equals("modelcache")) {
+			set(PRISM_MODEL_CACHE, true);
+		}
+		else if (sw.equals("modelcachemaxmem")) {
+			if (i < args.length - 1) {
+				set(PRISM_MODEL_CACHE_MAX_MEM, args[++i]);
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
+		else if (sw.equals("modelcachedir")) {
+			if (i < args.length - 1) {
+				set(PRISM_MODEL_CACHE, true);
+				set(PRISM_MODEL_CACHE_DIR, args[++i]);
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
+		else if (sw.equals("modelcachedirmaxsize")) {
+			if (i < args.length - 1) {
+				set(PRISM_MODEL_CACHE_DIR_MAX_SIZE, args[++i]);
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
+		// Cache of sub-formula results (explicit engine)
+		else if (sw.equals("subformulacache")) {
+			set(PRISM_SUB_FORMULA_CACHE, true);
+		}
+		else if (sw.equals("subformulacachemaxmem")) {
+			if (i < args.length - 1) {
+				set(PRISM_SUB_FORMULA_CACHE, true);
+				set(PRISM_SUB_FORMULA_CACHE_MAX_MEM, args[++i]);
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
+		// Incremental model construction (explicit engine)
+		else if (sw.equals("incrementalbuild")) {
+			set(PRISM_INCREMENTAL_BUILD, true);
+		}
+		// Partial-order reduction (explicit engine)
+		else if (sw.equals("por")) {
+			set(PRISM_PARTIAL_ORDER_REDUCTION, true);
+		}
+		else if (sw.equals("nopor")) {
+			set(PRISM_PARTIAL_ORDER_REDUCTION, false);
+		}
+		// Automatic symmetry reduction (explicit engine)
+		else if (sw.equals("autosymm")) {
+			set(PRISM_AUTO_SYMMETRY, true);
+		}
+		else if (sw.equals("noautosymm")) {
+			set(PRISM_AUTO_SYMMETRY, false);
+		}
+		// On-the-fly model checking (explicit engine)
+		else if (sw.equals("onthefly")) {
+			set(PRISM_ON_THE_FLY, true);
+		}
+		else if (sw.equals("noonthefly")) {
+			set(PRISM_ON_THE_FLY, false);
+		}
+		else if (sw.equals("ontheflyepsilon")) {
+			if (i < args.length - 1) {
+				try {
+					d = Double.parseDouble(args[++i]);
+					if (d < 0)
+						throw new NumberFormatException("");
+					set(PRISM_ON_THE_FLY_EPSILON, d);
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value for -" + sw + " switch");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		}
 
 		// NUMERICAL SOLUTION OPTIONS:
 		
@@ -1096,6 +1285,38 @@ public class PrismSettings implements Observer
 			set(PRISM_LIN_EQ_METHOD, "Pseudo-SOR");
 		} else if (sw.equals("bpsor")) {
 			set(PRISM_LIN_EQ_METHOD, "Backwards Pseudo-SOR");
+		} else if (sw.equals("bicgstab")) {
+			set(PRISM_LIN_EQ_METHOD, "BiCGSTAB");
+		} else if (sw.equals("gmres")) {
+			set(PRISM_LIN_EQ_METHOD, "GMRES");
+		} else if (sw.equals("krylovprecond")) {
+			if (i < args.length - 1) {
+				String p = args[++i].toLowerCase();
+				if (p.equals("none")) {
+					set(PRISM_KRYLOV_PRECONDITIONER, "None");
+				} else if (p.equals("jacobi")) {
+					set(PRISM_KRYLOV_PRECONDITIONER, "Jacobi");
+				} else if (p.equals("ilu0") || p.equals("ilu(0)")) {
+					set(PRISM_KRYLOV_PRECONDITIONER, "ILU(0)");
+				} else {
+					throw new PrismException("Unknown value \"" + args[i] + "\" for -" + sw + " switch (should be none, jacobi or ilu0)");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
+		} else if (sw.equals("gmresrestart")) {
+			if (i < args.length - 1) {
+				try {
+					j = Integer.parseInt(args[++i]);
+					if (j < 1)
+						throw new NumberFormatException("");
+					set(PRISM_GMRES_RESTART, j);
+				} catch (NumberFormatException e) {
+					throw new PrismException("Invalid value for -" + sw + " switch");
+				}
+			} else {
+				throw new PrismException("No value specified for -" + sw + " switch");
+			}
 		} else if (sw.equals("valiter")) {
 			set(PRISM_MDP_SOLN_METHOD, "Value iteration");
 			set(PRISM_MDP_MULTI_SOLN_METHOD, "Value iteration");
@@ -1104,6 +1325,8 @@ public class PrismSettings implements Observer
 			set(PRISM_MDP_SOLN_METHOD, "Policy iteration");
 		} else if (sw.equals("modpoliter")) {
 			set(PRISM_MDP_SOLN_METHOD, "Modified policy iteration");
+		} else if (sw.equals("optvaliter") || sw.equals("ovi")) {
+			set(PRISM_MDP_SOLN_METHOD, "Optimistic value iteration");
 		} else if (sw.equals("linprog") || sw.equals("lp")) {
 			set(PRISM_MDP_SOLN_METHOD, "Linear programming");
 			set(PRISM_MDP_MULTI_SOLN_METHOD, "Linear programming");
@@ -1843,6 +2066,22 @@ public class PrismSettings implements Observer
 		mainLog.println("-ptamethod <name> .............. Specify PTA engine (games, digital, backwards) [default: games]");
 		mainLog.println("-transientmethod <name> ........ CTMC transient analysis methof (unif, fau) [default: unif]");
 		mainLog.println("-heuristic <mode> .............. Automatic choice of engines/settings (none, speed, memory) [default: none]");
+		mainLog.println("-threads <n> ................... Number of threads to use (explicit engine, simulation) [default: 1]");
+		mainLog.println("-experimentthreads <n> ......... Number of experiment points to check concurrently (explicit engine) [default: 1]");
+		mainLog.println("-propertythreads <n> ........... Number of properties to check concurrently on the built model (explicit engine) [default: 1]");
+		mainLog.println("-warmstart ..................... Reuse solutions between points of an experiment (explicit engine)");
+		mainLog.println("-nopackedstates ................ Don't use bit-packed state storage in explicit model construction");
+		mainLog.println("-modelcache .................... Cache built models (explicit engine) to avoid rebuilding them");
+		mainLog.println("-modelcachemaxmem <n> .......... Set max. memory for cached built models, e.g. 125k, 50m, 4g [default: 1g]");
+		mainLog.println("-modelcachedir <dir> ........... Also cache built models on disk, in directory <dir> (implies -modelcache)");
+		mainLog.println("-modelcachedirmaxsize <n> ...... Set max. total size of the on-disk model cache, e.g. 500m, 4g [default: 4g]");
+		mainLog.println("-subformulacache ............... Reuse results for sub-formulas shared between properties (explicit engine)");
+		mainLog.println("-subformulacachemaxmem <n> ..... Set max. memory for cached sub-formula results, e.g. 125k, 50m [default: 256m]");
+		mainLog.println("-incrementalbuild .............. Rebuild models incrementally, reusing unaffected parts of the last model (explicit engine)");
+		mainLog.println("-por ........................... Use partial-order reduction in explicit model construction (MDPs)");
+		mainLog.println("-autosymm ...................... Use symmetry reduction for automatically detected symmetric modules");
+		mainLog.println("-onthefly ...................... Check reachability properties on the fly, without building the model (explicit engine)");
+		mainLog.println("-ontheflyepsilon <x> ........... Set max. gap between bounds for on-the-fly model checking [default: 1e-6]");
 		mainLog.println();
 		mainLog.println("SOLUTION METHODS (LINEAR EQUATIONS):");
 		mainLog.println("-power (or -pow, -pwr) ......... Use the Power method for numerical computation");
@@ -1857,12 +2096,17 @@ public class PrismSettings implements Observer
 		mainLog.println("-psor .......................... Use Pseudo SOR for numerical computation");
 		mainLog.println("-bpsor ......................... Use Backwards Pseudo SOR for numerical computation");
 		mainLog.println("-omega <x> ..................... Set over-relaxation parameter (for JOR/SOR/...) [default: 0.9]");
+		mainLog.println("-bicgstab ...................... Use BiCGSTAB for numerical computation (explicit engine)");
+		mainLog.println("-gmres ......................... Use restarted GMRES for numerical computation (explicit engine)");
+		mainLog.println("-krylovprecond <p> ............. Set preconditioner for BiCGSTAB/GMRES (none, jacobi, ilu0) [default: ilu0]");
+		mainLog.println("-gmresrestart <n> .............. Set number of iterations after which GMRES restarts [default: 30]");
 		mainLog.println();
 		mainLog.println("SOLUTION METHODS (MDPS):");
 		mainLog.println("-valiter ....................... Use value iteration for solving MDPs [default]");
 		mainLog.println("-gaussseidel (or -gs) .......... Use Gauss-Seidel value iteration for solving MDPs");
 		mainLog.println("-politer ....................... Use policy iteration for solving MDPs");
 		mainLog.println("-modpoliter .................... Use modified policy iteration for solving MDPs");
+		mainLog.println("-optvaliter (or -ovi) .......... Use optimistic value iteration (with guaranteed error bounds) for solving MDPs");
 		mainLog.println("-intervaliter (or -ii) ......... Use interval iteration to solve MDPs/MCs (see -help -ii)");
 		mainLog.println("-topological ................... Use topological value iteration");
 		mainLog.println();
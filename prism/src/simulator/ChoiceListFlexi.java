@@ -60,6 +60,9 @@ public class ChoiceListFlexi<Value> implements Choice<Value>
 	// target states are just stored as lists of updates (for efficiency)
 	protected List<List<Update>> updates;
 	protected List<Value> probability;
+	// Compiled versions of the lists of updates, used (if present) to compute target states
+	// (element i is null if there is no compiled version for the ith list of updates)
+	protected List<List<CompiledUpdate>> compiledUpdates;
 	
 	// For real-time models, the clock guard,
 	// i.e., an expression over clock variables
@@ -76,6 +79,7 @@ public class ChoiceListFlexi<Value> implements Choice<Value>
 		// Initialise
 		updates = new ArrayList<List<Update>>();
 		probability = new ArrayList<Value>();
+		compiledUpdates = new ArrayList<List<CompiledUpdate>>();
 		clockGuard = null;
 	}
 
@@ -99,6 +103,10 @@ public class ChoiceListFlexi<Value> implements Choice<Value>
 		for (Value p : ch.probability) {
 			probability.add(p);
 		}
+		compiledUpdates = new ArrayList<List<CompiledUpdate>>(ch.compiledUpdates.size());
+		for (List<CompiledUpdate> list : ch.compiledUpdates) {
+			compiledUpdates.add(list == null ? null : new ArrayList<CompiledUpdate>(list));
+		}
 		clockGuard = ch.clockGuard;
 	}
 
@@ -128,9 +136,21 @@ public class ChoiceListFlexi<Value> implements Choice<Value>
 	 * @param ups List of Update objects defining transition
 	 */
 	public void add(Value probability, List<Update> ups)
+	{
+		add(probability, ups, null);
+	}
+
+	/**
+	 * Add a transition to this choice.
+	 * @param probability Probability (or rate) of the transition
+	 * @param ups List of Update objects defining transition
+	 * @param compiledUps Compiled versions of {@code ups} (null if not available)
+	 */
+	public void add(Value probability, List<Update> ups, List<CompiledUpdate> compiledUps)
 	{
 		this.updates.add(ups);
 		this.probability.add(probability);
+		this.compiledUpdates.add(compiledUps);
 	}
 
 	@Override
@@ -149,6 +169,7 @@ public class ChoiceListFlexi<Value> implements Choice<Value>
 	public void productWith(ChoiceListFlexi<Value> ch)
 	{
 		List<Update> list;
+		List<CompiledUpdate> compiledList;
 		int i, j, n, n2;
 		Value pi;
 
@@ -167,7 +188,13 @@ public class ChoiceListFlexi<Value> implements Choice<Value>
 				for (Update u : ch.updates.get(i)) {
 					list.add(u);
 				}
-				add(eval.multiply(pi, getProbability(j)), list);
+				compiledList = null;
+				if (compiledUpdates.get(j) != null && ch.compiledUpdates.get(i) != null) {
+					compiledList = new ArrayList<CompiledUpdate>(list.size());
+					compiledList.addAll(compiledUpdates.get(j));
+					compiledList.addAll(ch.compiledUpdates.get(i));
+				}
+				add(eval.multiply(pi, getProbability(j)), list, compiledList);
 			}
 		}
 		// Modify elements of current choice to get (0,j) elements of product
@@ -176,6 +203,11 @@ public class ChoiceListFlexi<Value> implements Choice<Value>
 			for (Update u : ch.updates.get(0)) {
 				updates.get(j).add(u);
 			}
+			if (compiledUpdates.get(j) != null && ch.compiledUpdates.get(0) != null) {
+				compiledUpdates.get(j).addAll(ch.compiledUpdates.get(0));
+			} else {
+				compiledUpdates.set(j, null);
+			}
 			probability.set(j, eval.multiply(pi, probability.get(j)));
 		}
 		if (ch.clockGuard != null) {
@@ -255,16 +287,21 @@ public class ChoiceListFlexi<Value> implements Choice<Value>
 	public State computeTarget(int i, State currentState, VarList varList) throws PrismLangException
 	{
 		State newState = new State(currentState);
-		for (Update up : updates.get(i))
-			up.update(currentState, newState, eval.exact(), varList);
+		computeTarget(i, currentState, newState, varList);
 		return newState;
 	}
 
 	@Override
 	public void computeTarget(int i, State currentState, State newState, VarList varList) throws PrismLangException
 	{
-		for (Update up : updates.get(i))
-			up.update(currentState, newState, eval.exact(), varList);
+		List<CompiledUpdate> compiledList = compiledUpdates.get(i);
+		if (compiledList != null) {
+			for (CompiledUpdate up : compiledList)
+				up.update(currentState, newState);
+		} else {
+			for (Update up : updates.get(i))
+				up.update(currentState, newState, eval.exact(), varList);
+		}
 	}
 
 	@Override
@@ -0,0 +1,70 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package simulator;
+
+import parser.CompiledExpression;
+import parser.EvaluateContext.EvalMode;
+import parser.State;
+import parser.ast.Update;
+import parser.type.Type;
+import prism.PrismLangException;
+
+/**
+ * An {@link Update} with its expressions compiled (see {@link CompiledExpression}),
+ * for (floating point) execution in many states.
+ */
+public class CompiledUpdate
+{
+	// Indices and types of the updated variables
+	private int varIndices[];
+	private Type types[];
+	// The (compiled) expressions for the new values
+	private CompiledExpression exprs[];
+
+	public CompiledUpdate(Update update)
+	{
+		int n = update.getNumElements();
+		varIndices = new int[n];
+		types = new Type[n];
+		exprs = new CompiledExpression[n];
+		for (int i = 0; i < n; i++) {
+			varIndices[i] = update.getVarIndex(i);
+			types[i] = update.getType(i);
+			exprs[i] = CompiledExpression.compile(update.getExpression(i), null, EvalMode.FP);
+		}
+	}
+
+	/**
+	 * Execute this update, as for {@link Update#update(State, State, boolean, parser.VarList)} with exact=false,
+	 * i.e., evaluate the new variable values in {@code oldState} and store them in {@code newState}.
+	 */
+	public void update(State oldState, State newState) throws PrismLangException
+	{
+		int n = exprs.length;
+		for (int i = 0; i < n; i++) {
+			newState.setValue(varIndices[i], types[i].castValueTo(exprs[i].evaluate(oldState)));
+		}
+	}
+}
@@ -0,0 +1,365 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package simulator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import parser.State;
+import parser.Values;
+import parser.VarList;
+import parser.ast.DeclarationBool;
+import parser.ast.DeclarationInt;
+import parser.ast.DeclarationType;
+import parser.ast.Expression;
+import parser.ast.ExpressionBinaryOp;
+import parser.ast.ExpressionUnaryOp;
+import parser.ast.ExpressionVar;
+import parser.type.TypeBool;
+import parser.type.TypeInt;
+import prism.PrismLangException;
+
+/**
+ * Index over the guards of a set of commands (typically those of one module),
+ * used to find the commands that are potentially enabled in a state
+ * without evaluating all of their guards.
+ * <br><br>
+ * For each guard, the top-level conjuncts of the form {@code x op c}, {@code b} or {@code !b},
+ * where {@code x} is a bounded integer variable, {@code b} a Boolean variable,
+ * {@code op} one of {@code =, <, <=, >, >=} and {@code c} a constant expression,
+ * are used to determine an interval of values of each variable for which the guard may be true.
+ * These are arranged in a decision diagram: each node branches on the value of one variable
+ * and each leaf lists the (indices of) commands whose guards may be true.
+ * Guards of the commands returned still need to be evaluated.
+ */
+public class GuardIndex
+{
+	/** Maximum range of a variable that is branched on */
+	public static final int MAX_RANGE = 4096;
+	/** Maximum depth of the diagram (number of variables on a path) */
+	public static final int MAX_DEPTH = 4;
+	/** Maximum size (total number of children) of the diagram */
+	public static final int MAX_SIZE = 1 << 16;
+	/** Nodes with at most this many commands are not split further */
+	public static final int MIN_SPLIT = 4;
+
+	/**
+	 * A node of the diagram.
+	 */
+	private static class Node
+	{
+		/** Indices of the commands whose guards may be true at this node (in ascending order) */
+		int commands[];
+		/** Index of the variable branched on (-1 for a leaf) */
+		int var = -1;
+		/** Lowest value of the variable */
+		int low;
+		/** Children, for each value of the variable from {@code low} upwards */
+		Node children[];
+	}
+
+	/** Root of the diagram */
+	private Node root;
+
+	// Info used during construction
+	private VarList varList;
+	private int numCommands;
+	private int size;
+	// Intervals of values (low/high) for which each command's guard may be true,
+	// for each variable (only those that are constrained)
+	private List<Map<Integer, int[]>> intervals;
+
+	/**
+	 * Build an index for a list of guards. Returns null if no useful index can be built,
+	 * i.e., if every state would need all guards to be evaluated.
+	 * @param guards The guards
+	 * @param varList Info about the model variables
+	 * @param constantValues Values of the constants used in the guards
+	 */
+	public static GuardIndex build(List<Expression> guards, VarList varList, Values constantValues)
+	{
+		GuardIndex index = new GuardIndex(guards, varList, constantValues);
+		return index.root.var == -1 ? null : index;
+	}
+
+	private GuardIndex(List<Expression> guards, VarList varList, Values constantValues)
+	{
+		this.varList = varList;
+		numCommands = guards.size();
+		intervals = new ArrayList<>(numCommands);
+		for (Expression guard : guards) {
+			Map<Integer, int[]> map = new HashMap<>();
+			extractIntervals(guard, constantValues, map);
+			intervals.add(map);
+		}
+		int all[] = new int[numCommands];
+		for (int i = 0; i < numCommands; i++) {
+			all[i] = i;
+		}
+		size = 0;
+		root = buildNode(all, new HashSet<>(), 0);
+		// Construction info no longer needed
+		this.varList = null;
+		intervals = null;
+	}
+
+	/**
+	 * Get the indices (in ascending order) of the commands whose guards may be true in state {@code state}.
+	 * The returned array should not be modified.
+	 */
+	public int[] getCandidates(State state)
+	{
+		Node node = root;
+		while (node.var != -1) {
+			Object val = state.varValues[node.var];
+			int k;
+			if (val instanceof Integer) {
+				k = (Integer) val - node.low;
+			} else if (val instanceof Boolean) {
+				k = ((Boolean) val) ? 1 : 0;
+			} else {
+				return node.commands;
+			}
+			if (k < 0 || k >= node.children.length) {
+				return node.commands;
+			}
+			node = node.children[k];
+		}
+		return node.commands;
+	}
+
+	/**
+	 * Build a node of the diagram for the commands {@code commands},
+	 * branching on a variable not already in {@code usedVars}, if worthwhile.
+	 */
+	private Node buildNode(int commands[], Set<Integer> usedVars, int depth)
+	{
+		Node node = new Node();
+		node.commands = commands;
+		if (commands.length <= MIN_SPLIT || depth >= MAX_DEPTH) {
+			return node;
+		}
+		// Pick the variable minimising the average number of commands per value
+		int bestVar = -1;
+		double bestAvg = commands.length;
+		Set<Integer> vars = new HashSet<>();
+		for (int c : commands) {
+			vars.addAll(intervals.get(c).keySet());
+		}
+		for (int v : vars) {
+			if (usedVars.contains(v)) {
+				continue;
+			}
+			int low = varList.getLow(v);
+			int high = varList.getHigh(v);
+			int range = high - low + 1;
+			if (range > MAX_RANGE || size + range > MAX_SIZE) {
+				continue;
+			}
+			long total = 0;
+			for (int c : commands) {
+				int interval[] = intervals.get(c).get(v);
+				if (interval == null) {
+					total += range;
+				} else {
+					total += Math.max(0, Math.min(high, interval[1]) - Math.max(low, interval[0]) + 1);
+				}
+			}
+			double avg = ((double) total) / range;
+			if (avg < bestAvg) {
+				bestAvg = avg;
+				bestVar = v;
+			}
+		}
+		// Only branch if this is a (reasonable) improvement
+		if (bestVar == -1 || bestAvg > 0.9 * commands.length) {
+			return node;
+		}
+		// Create children, sharing them between values with identical command lists
+		int low = varList.getLow(bestVar);
+		int range = varList.getHigh(bestVar) - low + 1;
+		size += range;
+		node.var = bestVar;
+		node.low = low;
+		node.children = new Node[range];
+		Set<Integer> usedVarsChild = new HashSet<>(usedVars);
+		usedVarsChild.add(bestVar);
+		Map<List<Integer>, Node> childMap = new HashMap<>();
+		for (int k = 0; k < range; k++) {
+			List<Integer> list = new ArrayList<>();
+			for (int c : commands) {
+				int interval[] = intervals.get(c).get(bestVar);
+				if (interval == null || (interval[0] <= low + k && low + k <= interval[1])) {
+					list.add(c);
+				}
+			}
+			Node child = childMap.get(list);
+			if (child == null) {
+				int childCommands[] = new int[list.size()];
+				for (int i = 0; i < childCommands.length; i++) {
+					childCommands[i] = list.get(i);
+				}
+				child = buildNode(childCommands, usedVarsChild, depth + 1);
+				childMap.put(list, child);
+			}
+			node.children[k] = child;
+		}
+		return node;
+	}
+
+	/**
+	 * Extract intervals of variable values from the top-level conjuncts of {@code expr}
+	 * and add them (intersecting with any existing ones) to {@code map}.
+	 */
+	private void extractIntervals(Expression expr, Values constantValues, Map<Integer, int[]> map)
+	{
+		expr = stripParentheses(expr);
+		if (Expression.isAnd(expr)) {
+			extractIntervals(((ExpressionBinaryOp) expr).getOperand1(), constantValues, map);
+			extractIntervals(((ExpressionBinaryOp) expr).getOperand2(), constantValues, map);
+			return;
+		}
+		// b / !b
+		if (expr instanceof ExpressionVar) {
+			addInterval((ExpressionVar) expr, 1, 1, map);
+			return;
+		}
+		if (Expression.isNot(expr)) {
+			Expression op = stripParentheses(((ExpressionUnaryOp) expr).getOperand());
+			if (op instanceof ExpressionVar) {
+				addInterval((ExpressionVar) op, 0, 0, map);
+			}
+			return;
+		}
+		// x op c / c op x
+		if (!(expr instanceof ExpressionBinaryOp)) {
+			return;
+		}
+		ExpressionBinaryOp exprBinOp = (ExpressionBinaryOp) expr;
+		int op = exprBinOp.getOperator();
+		Expression e1 = stripParentheses(exprBinOp.getOperand1());
+		Expression e2 = stripParentheses(exprBinOp.getOperand2());
+		if (!(e1 instanceof ExpressionVar)) {
+			Expression tmp = e1;
+			e1 = e2;
+			e2 = tmp;
+			op = flipRelOp(op);
+		}
+		if (!(e1 instanceof ExpressionVar) || !e2.isConstant()) {
+			return;
+		}
+		int c;
+		try {
+			if (e2.getType() instanceof TypeInt) {
+				c = e2.evaluateInt(constantValues);
+			} else if (e2.getType() instanceof TypeBool) {
+				c = e2.evaluateBoolean(constantValues) ? 1 : 0;
+			} else {
+				return;
+			}
+		} catch (PrismLangException e) {
+			return;
+		}
+		switch (op) {
+		case ExpressionBinaryOp.EQ:
+			addInterval((ExpressionVar) e1, c, c, map);
+			break;
+		case ExpressionBinaryOp.GT:
+			if (c < Integer.MAX_VALUE) {
+				addInterval((ExpressionVar) e1, c + 1, Integer.MAX_VALUE, map);
+			}
+			break;
+		case ExpressionBinaryOp.GE:
+			addInterval((ExpressionVar) e1, c, Integer.MAX_VALUE, map);
+			break;
+		case ExpressionBinaryOp.LT:
+			if (c > Integer.MIN_VALUE) {
+				addInterval((ExpressionVar) e1, Integer.MIN_VALUE, c - 1, map);
+			}
+			break;
+		case ExpressionBinaryOp.LE:
+			addInterval((ExpressionVar) e1, Integer.MIN_VALUE, c, map);
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Add interval {@code low..high} for variable {@code exprVar} to {@code map},
+	 * if it is a bounded integer or Boolean variable.
+	 */
+	private void addInterval(ExpressionVar exprVar, int low, int high, Map<Integer, int[]> map)
+	{
+		int v = exprVar.getIndex();
+		if (v < 0 || v >= varList.getNumVars()) {
+			return;
+		}
+		DeclarationType declType = varList.getDeclarationType(v);
+		boolean isInt = declType instanceof DeclarationInt && exprVar.getType() instanceof TypeInt;
+		boolean isBool = declType instanceof DeclarationBool && exprVar.getType() instanceof TypeBool;
+		if (!(isInt || isBool)) {
+			return;
+		}
+		int interval[] = map.get(v);
+		if (interval == null) {
+			map.put(v, new int[] { low, high });
+		} else {
+			interval[0] = Math.max(interval[0], low);
+			interval[1] = Math.min(interval[1], high);
+		}
+	}
+
+	/**
+	 * Get the relational operator {@code op'} such that {@code a op b} iff {@code b op' a}.
+	 */
+	private static int flipRelOp(int op)
+	{
+		switch (op) {
+		case ExpressionBinaryOp.GT:
+			return ExpressionBinaryOp.LT;
+		case ExpressionBinaryOp.GE:
+			return ExpressionBinaryOp.LE;
+		case ExpressionBinaryOp.LT:
+			return ExpressionBinaryOp.GT;
+		case ExpressionBinaryOp.LE:
+			return ExpressionBinaryOp.GE;
+		default:
+			return op;
+		}
+	}
+
+	private static Expression stripParentheses(Expression expr)
+	{
+		while (expr instanceof ExpressionUnaryOp && ((ExpressionUnaryOp) expr).getOperator() == ExpressionUnaryOp.PARENTH) {
+			expr = ((ExpressionUnaryOp) expr).getOperand();
+		}
+		return expr;
+	}
+}
@@ -0,0 +1,466 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package simulator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import parser.State;
+import parser.VarList;
+import parser.ast.Command;
+import parser.ast.Declaration;
+import parser.ast.Expression;
+import parser.ast.ExpressionBinaryOp;
+import parser.ast.ExpressionFormula;
+import parser.ast.ExpressionFunc;
+import parser.ast.ExpressionUnaryOp;
+import parser.ast.ExpressionVar;
+import parser.ast.Module;
+import parser.ast.ModulesFile;
+import parser.ast.RewardStruct;
+import parser.ast.Update;
+import parser.ast.Updates;
+import parser.visitor.ASTTraverseModify;
+import prism.ModelType;
+import prism.PrismLangException;
+
+/**
+ * Full symmetry between groups of modules of a PRISM model, i.e., between modules defined
+ * by renaming the same base module, such that any permutation of the modules in a group
+ * (and of their local variables) leaves the model unchanged.
+ * <br><br>
+ * Symmetry is detected syntactically: the model (its modules, variable declarations,
+ * initial states and reward structures) must be unchanged by swapping
+ * the variables of any two adjacent modules in a group, up to reordering
+ * the operands of commutative operators and the commands of modules.
+ * <br><br>
+ * States are reduced to a canonical representative of their equivalence class by sorting
+ * the blocks of variable values of the modules in each group (see {@link #canonicalise(State)}),
+ * which yields the quotient model if done for all states during model construction.
+ * Properties checked on the quotient model, and any labels that they use, must themselves be symmetric
+ * (see {@link #isSymmetric(Expression)}).
+ */
+public class ModuleSymmetry
+{
+	/** Names of the modules in each group */
+	private List<List<String>> groupModules = new ArrayList<>();
+	/** Variable indices for each module of each group ([group][module][var]) */
+	private int blocks[][][];
+	/** Variable names for each module of each group ([group][module][var]) */
+	private String blockNames[][][];
+
+	/**
+	 * Detect the (fully) symmetric groups of modules in a model.
+	 * Returns null if there are none.
+	 * @param modulesFile The model
+	 * @param varList Info about the model's variables
+	 */
+	public static ModuleSymmetry detect(ModulesFile modulesFile, VarList varList) throws PrismLangException
+	{
+		// Only for (non-real-time, fully observable) Markov models without a system definition
+		ModelType modelType = modulesFile.getModelType();
+		if (!(modelType == ModelType.DTMC || modelType == ModelType.CTMC || modelType == ModelType.MDP)) {
+			return null;
+		}
+		if (modulesFile.getSystemDefn() != null) {
+			return null;
+		}
+		// Candidate groups: base modules plus modules renamed from them
+		Map<String, List<Integer>> candidates = new LinkedHashMap<>();
+		int numModules = modulesFile.getNumModules();
+		for (int i = 0; i < numModules; i++) {
+			String base = modulesFile.getModule(i).getBaseModule();
+			if (base != null && modulesFile.getModuleIndex(base) != -1) {
+				candidates.computeIfAbsent(base, b -> new ArrayList<>(List.of(modulesFile.getModuleIndex(b)))).add(i);
+			}
+		}
+		ModuleSymmetry symm = new ModuleSymmetry();
+		List<int[][]> blocksList = new ArrayList<>();
+		List<String[][]> blockNamesList = new ArrayList<>();
+		for (List<Integer> group : candidates.values()) {
+			// Modules must declare the same number of variables
+			int numVars = modulesFile.getModule(group.get(0)).getNumDeclarations();
+			if (numVars == 0) {
+				continue;
+			}
+			int groupBlocks[][] = new int[group.size()][numVars];
+			String groupBlockNames[][] = new String[group.size()][numVars];
+			boolean ok = true;
+			for (int k = 0; k < group.size() && ok; k++) {
+				Module module = modulesFile.getModule(group.get(k));
+				ok = module.getNumDeclarations() == numVars;
+				for (int v = 0; v < numVars && ok; v++) {
+					groupBlockNames[k][v] = module.getDeclaration(v).getName();
+					groupBlocks[k][v] = varList.getIndex(groupBlockNames[k][v]);
+					ok = groupBlocks[k][v] != -1;
+				}
+			}
+			// Check the model is invariant under swapping adjacent modules
+			for (int k = 0; k < group.size() - 1 && ok; k++) {
+				ok = isInvariant(modulesFile, group, groupBlockNames, k);
+			}
+			if (ok) {
+				List<String> names = new ArrayList<>();
+				for (int i : group) {
+					names.add(modulesFile.getModuleName(i));
+				}
+				symm.groupModules.add(names);
+				blocksList.add(groupBlocks);
+				blockNamesList.add(groupBlockNames);
+			}
+		}
+		if (blocksList.isEmpty()) {
+			return null;
+		}
+		symm.blocks = blocksList.toArray(new int[0][][]);
+		symm.blockNames = blockNamesList.toArray(new String[0][][]);
+		return symm;
+	}
+
+	/**
+	 * Get the names of the modules in each symmetric group.
+	 */
+	public List<List<String>> getGroupModules()
+	{
+		return groupModules;
+	}
+
+	/**
+	 * Get the (maximum) number of states in the original model that each state of the quotient represents.
+	 */
+	public double getMaxOrbitSize()
+	{
+		double size = 1;
+		for (int g = 0; g < blocks.length; g++) {
+			for (int k = 2; k <= blocks[g].length; k++) {
+				size *= k;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Replace {@code state} with the canonical representative of its equivalence class
+	 * (i.e., sort the blocks of values of the variables of the modules in each group).
+	 */
+	public void canonicalise(State state)
+	{
+		Object values[] = state.varValues;
+		for (int g = 0; g < blocks.length; g++) {
+			int groupBlocks[][] = blocks[g];
+			// Insertion sort of the blocks
+			for (int k = 1; k < groupBlocks.length; k++) {
+				for (int l = k; l > 0 && compareBlocks(values, groupBlocks[l - 1], groupBlocks[l]) > 0; l--) {
+					swapBlocks(values, groupBlocks[l - 1], groupBlocks[l]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Check whether an expression (e.g. a property) is symmetric, i.e., unchanged by permuting the modules
+	 * in any group, so that it can be evaluated on the quotient model.
+	 * Any labels (including those of the model) or references to properties should be expanded first.
+	 */
+	public boolean isSymmetric(Expression expr) throws PrismLangException
+	{
+		for (int g = 0; g < blocks.length; g++) {
+			for (int k = 0; k < blocks[g].length - 1; k++) {
+				Map<String, String> swap = createSwap(blockNames[g], k);
+				if (!normalise(expr, swap).equals(normalise(expr, null))) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String toString()
+	{
+		List<String> groups = new ArrayList<>();
+		for (List<String> names : groupModules) {
+			groups.add(String.join(",", names));
+		}
+		return String.join("; ", groups);
+	}
+
+	// Private methods
+
+	/**
+	 * Check whether the model is invariant under swapping the {@code k}th and {@code (k+1)}th modules of a group.
+	 */
+	private static boolean isInvariant(ModulesFile modulesFile, List<Integer> group, String groupBlockNames[][], int k) throws PrismLangException
+	{
+		Map<String, String> swap = createSwap(groupBlockNames, k);
+		// Modules (and their variables)
+		int numModules = modulesFile.getNumModules();
+		for (int i = 0; i < numModules; i++) {
+			int iImage = i;
+			if (i == group.get(k)) {
+				iImage = group.get(k + 1);
+			} else if (i == group.get(k + 1)) {
+				iImage = group.get(k);
+			}
+			Module module = modulesFile.getModule(i);
+			Module moduleImage = modulesFile.getModule(iImage);
+			if (!normaliseCommands(module, swap).equals(normaliseCommands(moduleImage, null))) {
+				return false;
+			}
+			if (module.getNumDeclarations() != moduleImage.getNumDeclarations()) {
+				return false;
+			}
+			for (int v = 0; v < module.getNumDeclarations(); v++) {
+				Declaration decl = module.getDeclaration(v);
+				String name = swap.getOrDefault(decl.getName(), decl.getName());
+				Declaration declImage = null;
+				for (Declaration d : moduleImage.getDeclarations()) {
+					if (d.getName().equals(name)) {
+						declImage = d;
+					}
+				}
+				if (declImage == null || !normalise(decl, swap).equals(normalise(declImage, null))) {
+					return false;
+				}
+			}
+		}
+		// Global variables
+		for (int i = 0; i < modulesFile.getNumGlobals(); i++) {
+			Declaration decl = modulesFile.getGlobal(i);
+			if (!normalise(decl, swap).equals(normalise(decl, null))) {
+				return false;
+			}
+		}
+		// Initial states
+		Expression init = modulesFile.getInitialStates();
+		if (init != null && !normalise(init, swap).equals(normalise(init, null))) {
+			return false;
+		}
+		// Reward structures
+		for (int r = 0; r < modulesFile.getNumRewardStructs(); r++) {
+			RewardStruct rewStr = modulesFile.getRewardStruct(r);
+			List<String> items = new ArrayList<>();
+			List<String> itemsImage = new ArrayList<>();
+			for (int i = 0; i < rewStr.getNumItems(); i++) {
+				String synch = rewStr.getSynch(i) == null ? "" : "[" + rewStr.getSynch(i) + "] ";
+				items.add(synch + normalise(rewStr.getStates(i), swap) + " : " + normalise(rewStr.getReward(i), swap));
+				itemsImage.add(synch + normalise(rewStr.getStates(i), null) + " : " + normalise(rewStr.getReward(i), null));
+			}
+			Collections.sort(items);
+			Collections.sort(itemsImage);
+			if (!items.equals(itemsImage)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Create a map (between variable names) that swaps the variables of the {@code k}th and {@code (k+1)}th modules of a group.
+	 */
+	private static Map<String, String> createSwap(String groupBlockNames[][], int k)
+	{
+		Map<String, String> swap = new HashMap<>();
+		for (int v = 0; v < groupBlockNames[k].length; v++) {
+			swap.put(groupBlockNames[k][v], groupBlockNames[k + 1][v]);
+			swap.put(groupBlockNames[k + 1][v], groupBlockNames[k][v]);
+		}
+		return swap;
+	}
+
+	/**
+	 * Get a normalised (sorted) list of the commands of a module, as strings,
+	 * after renaming variables according to {@code rename} (if non-null).
+	 */
+	private static List<String> normaliseCommands(Module module, Map<String, String> rename) throws PrismLangException
+	{
+		List<String> commands = new ArrayList<>();
+		for (int i = 0; i < module.getNumCommands(); i++) {
+			Command command = module.getCommand(i);
+			Updates ups = command.getUpdates();
+			List<String> updates = new ArrayList<>();
+			for (int j = 0; j < ups.getNumUpdates(); j++) {
+				Update up = ups.getUpdate(j);
+				List<String> elements = new ArrayList<>();
+				for (int l = 0; l < up.getNumElements(); l++) {
+					String var = rename == null ? up.getVar(l) : rename.getOrDefault(up.getVar(l), up.getVar(l));
+					elements.add("(" + var + "'=" + normalise(up.getExpression(l), rename) + ")");
+				}
+				Collections.sort(elements);
+				Expression prob = ups.getProbability(j);
+				updates.add((prob == null ? "" : normalise(prob, rename)) + ":" + String.join("&", elements));
+			}
+			Collections.sort(updates);
+			commands.add("[" + command.getSynch() + "] " + normalise(command.getGuard(), rename) + " -> " + String.join(" + ", updates));
+		}
+		Collections.sort(commands);
+		return commands;
+	}
+
+	/**
+	 * Get a normalised string for a variable declaration (excluding its name),
+	 * after renaming variables according to {@code rename} (if non-null).
+	 */
+	private static String normalise(Declaration decl, Map<String, String> rename) throws PrismLangException
+	{
+		return decl.getDeclType() + " init " + normalise(decl.getStartOrDefault(), rename);
+	}
+
+	/**
+	 * Get a normalised string for an expression, after renaming variables according to {@code rename}
+	 * (if non-null), where the operands of commutative operators are sorted.
+	 */
+	private static String normalise(Expression expr, Map<String, String> rename) throws PrismLangException
+	{
+		Expression copy = (Expression) expr.deepCopy().accept(new ASTTraverseModify()
+		{
+			@Override
+			public Object visit(ExpressionVar e) throws PrismLangException
+			{
+				if (rename != null && rename.containsKey(e.getName())) {
+					ExpressionVar eNew = new ExpressionVar(rename.get(e.getName()), e.getType());
+					eNew.setIndex(e.getIndex());
+					return eNew;
+				}
+				return e;
+			}
+
+			@Override
+			public Object visit(ExpressionFormula e) throws PrismLangException
+			{
+				// Formulas are compared by their definitions
+				return e.getDefinition() == null ? e : e.getDefinition().deepCopy().accept(this);
+			}
+
+			@Override
+			public Object visit(ExpressionBinaryOp e) throws PrismLangException
+			{
+				super.visit(e);
+				int op = e.getOperator();
+				switch (op) {
+				case ExpressionBinaryOp.AND:
+				case ExpressionBinaryOp.OR:
+				case ExpressionBinaryOp.PLUS:
+				case ExpressionBinaryOp.TIMES:
+					List<Expression> operands = new ArrayList<>();
+					flatten(e, op, operands);
+					return rebuild(op, operands);
+				case ExpressionBinaryOp.EQ:
+				case ExpressionBinaryOp.NE:
+				case ExpressionBinaryOp.IFF:
+					return rebuild(op, new ArrayList<>(List.of(e.getOperand1(), e.getOperand2())));
+				default:
+					return e;
+				}
+			}
+
+			@Override
+			public Object visit(ExpressionFunc e) throws PrismLangException
+			{
+				super.visit(e);
+				if (e.getNameCode() == ExpressionFunc.MIN || e.getNameCode() == ExpressionFunc.MAX) {
+					List<Expression> operands = new ArrayList<>();
+					for (int i = 0; i < e.getNumOperands(); i++) {
+						operands.add(e.getOperand(i));
+					}
+					operands.sort((e1, e2) -> e1.toString().compareTo(e2.toString()));
+					for (int i = 0; i < e.getNumOperands(); i++) {
+						e.setOperand(i, operands.get(i));
+					}
+				}
+				return e;
+			}
+		});
+		return copy.toString();
+	}
+
+	/**
+	 * Collect the operands of a chain of (associative) binary operator {@code op} in {@code expr}.
+	 */
+	private static void flatten(Expression expr, int op, List<Expression> operands)
+	{
+		while (expr instanceof ExpressionUnaryOp && ((ExpressionUnaryOp) expr).getOperator() == ExpressionUnaryOp.PARENTH) {
+			expr = ((ExpressionUnaryOp) expr).getOperand();
+		}
+		if (expr instanceof ExpressionBinaryOp && ((ExpressionBinaryOp) expr).getOperator() == op) {
+			flatten(((ExpressionBinaryOp) expr).getOperand1(), op, operands);
+			flatten(((ExpressionBinaryOp) expr).getOperand2(), op, operands);
+		} else {
+			operands.add(expr);
+		}
+	}
+
+	/**
+	 * Build a (fully parenthesised) chain of binary operator {@code op} over the operands, sorted by their string representation.
+	 */
+	private static Expression rebuild(int op, List<Expression> operands)
+	{
+		operands.sort((e1, e2) -> e1.toString().compareTo(e2.toString()));
+		Expression res = Expression.Parenth(operands.get(0));
+		for (int i = 1; i < operands.size(); i++) {
+			res = Expression.Parenth(new ExpressionBinaryOp(op, res, Expression.Parenth(operands.get(i))));
+		}
+		return res;
+	}
+
+	/**
+	 * Compare two blocks of variable values lexicographically.
+	 */
+	private static int compareBlocks(Object values[], int block1[], int block2[])
+	{
+		for (int v = 0; v < block1.length; v++) {
+			int c = compareValues(values[block1[v]], values[block2[v]]);
+			if (c != 0) {
+				return c;
+			}
+		}
+		return 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static int compareValues(Object o1, Object o2)
+	{
+		if (o1 instanceof Boolean && o2 instanceof Boolean) {
+			return Boolean.compare((Boolean) o1, (Boolean) o2);
+		} else if (o1 instanceof Comparable && o1.getClass() == o2.getClass()) {
+			return ((Comparable<Object>) o1).compareTo(o2);
+		} else {
+			return o1.toString().compareTo(o2.toString());
+		}
+	}
+
+	private static void swapBlocks(Object values[], int block1[], int block2[])
+	{
+		for (int v = 0; v < block1.length; v++) {
+			Object tmp = values[block1[v]];
+			values[block1[v]] = values[block2[v]];
+			values[block2[v]] = tmp;
+		}
+	}
+}
@@ -1,12 +1,14 @@
 package simulator;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 import common.Interval;
 import param.BigRational;
 import param.Function;
 import param.FunctionFactory;
+import parser.CompiledExpression;
 import parser.EvaluateContext;
 import parser.EvaluateContextState;
 import parser.State;
@@ -57,6 +59,11 @@ public class ModulesFileModelGenerator<Value> implements ModelGenerator<Value>,
 	protected LabelList labelList;
 	protected List<String> labelNames;
 	
+	// Compiled expressions for labels and reward structures (guards and rewards of each item)
+	protected CompiledExpression compiledLabels[];
+	protected CompiledExpression compiledRewardGuards[][];
+	protected CompiledExpression compiledRewards[][];
+	
 	// Model exploration info
 	
 	// State currently being explored
@@ -79,6 +86,12 @@ public class ModulesFileModelGenerator<Value> implements ModelGenerator<Value>,
 	// Global clock invariant (conjunction of per-module invariants)
 	protected Expression invariant;
 	
+	// Expressions to be preserved by partial-order reduction (null if it is disabled)
+	protected List<Expression> porVisibleExprs;
+	
+	// Symmetry between modules, used to reduce states during exploration (null if it is disabled)
+	protected ModuleSymmetry symmetry;
+	
 	/**
 	 * Build a ModulesFileModelGenerator for a particular PRISM model, represented by a {@link ModulesFile} instance.
 	 * This method assumes that doubles are used to represent probabilities (rather than, say, exact arithmetic).
@@ -249,6 +262,42 @@ public class ModulesFileModelGenerator<Value> implements ModelGenerator<Value>,
 		ec.setEvaluationMode(eval.evalMode());
 	}
 	
+	/**
+	 * Copy constructor, used by {@link #createCopyForExploration()}.
+	 * The copy shares read-only model info with {@code other} but has its own
+	 * copy of the (constant-expanded) modules file and its own exploration data structures.
+	 */
+	protected ModulesFileModelGenerator(ModulesFileModelGenerator<Value> other) throws PrismException
+	{
+		parent = other.parent;
+		eval = other.eval;
+		evalInt = other.evalInt;
+		originalModulesFile = other.originalModulesFile;
+		modulesFile = (ModulesFile) other.modulesFile.deepCopy();
+		modelType = other.modelType;
+		mfConstants = other.mfConstants;
+		varList = other.varList;
+		labelList = modulesFile.getLabelList();
+		labelNames = labelList.getLabelNames();
+		// Create data structures for exploring model
+		if (!modelType.uncertain()) {
+			updater = new Updater<Value>(modulesFile, varList, eval, parent);
+			transitionList = new TransitionList<Value>(eval);
+		} else {
+			updaterInt = new Updater<Interval<Value>>(modulesFile, varList, evalInt, parent);
+			transitionListInt = new TransitionList<Interval<Value>>(evalInt);
+		}
+		transitionListBuilt = false;
+		transitionListIntBuilt = false;
+		compileExpressions();
+		porVisibleExprs = other.porVisibleExprs;
+		initialisePartialOrderReduction();
+		symmetry = other.symmetry;
+		// Create evaluate context for re-use
+		ec = new EvaluateContextState(mfConstants, new State(modulesFile.getNumVars()));
+		ec.setEvaluationMode(eval.evalMode());
+	}
+	
 	/**
 	 * (Re-)Initialise the class ready for model exploration
 	 * (can only be done once any constants needed have been provided)
@@ -303,6 +352,34 @@ public class ModulesFileModelGenerator<Value> implements ModelGenerator<Value>,
 		}
 		transitionListBuilt = false;
 		transitionListIntBuilt = false;
+		compileExpressions();
+		initialisePartialOrderReduction();
+	}
+	
+	/**
+	 * Compile the expressions for labels and reward structures
+	 * (see {@link CompiledExpression}), for repeated evaluation.
+	 */
+	private void compileExpressions()
+	{
+		int numLabels = labelList.size();
+		compiledLabels = new CompiledExpression[numLabels];
+		for (int i = 0; i < numLabels; i++) {
+			compiledLabels[i] = CompiledExpression.compile(labelList.getLabel(i), mfConstants, eval.evalMode());
+		}
+		int numRewardStructs = modulesFile.getNumRewardStructs();
+		compiledRewardGuards = new CompiledExpression[numRewardStructs][];
+		compiledRewards = new CompiledExpression[numRewardStructs][];
+		for (int r = 0; r < numRewardStructs; r++) {
+			RewardStruct rewStr = modulesFile.getRewardStruct(r);
+			int n = rewStr.getNumItems();
+			compiledRewardGuards[r] = new CompiledExpression[n];
+			compiledRewards[r] = new CompiledExpression[n];
+			for (int i = 0; i < n; i++) {
+				compiledRewardGuards[r][i] = CompiledExpression.compile(rewStr.getStates(i), mfConstants, eval.evalMode());
+				compiledRewards[r][i] = CompiledExpression.compile(rewStr.getReward(i), modulesFile.getConstantValues(), eval.evalMode());
+			}
+		}
 	}
 	
 	// Methods for ModelInfo interface
@@ -449,7 +526,11 @@ public class ModulesFileModelGenerator<Value> implements ModelGenerator<Value>,
 	public State getInitialState() throws PrismException
 	{
 		if (modulesFile.getInitialStates() == null) {
-			return modulesFile.getDefaultInitialState();
+			State state = modulesFile.getDefaultInitialState();
+			if (symmetry != null) {
+				symmetry.canonicalise(state);
+			}
+			return state;
 		} else {
 			// Inefficient but probably won't be called
 			return getInitialStates().get(0);
@@ -463,6 +544,9 @@ public class ModulesFileModelGenerator<Value> implements ModelGenerator<Value>,
 		// Easy (normal) case: just one initial state
 		if (modulesFile.getInitialStates() == null) {
 			State state = modulesFile.getDefaultInitialState();
+			if (symmetry != null) {
+				symmetry.canonicalise(state);
+			}
 			initStates.add(state);
 		}
 		// Otherwise, there may be multiple initial states
@@ -472,6 +556,14 @@ public class ModulesFileModelGenerator<Value> implements ModelGenerator<Value>,
 			List<State> allPossStates = varList.getAllStates();
 			for (State possState : allPossStates) {
 				if (init.evaluateBoolean(ec.setState(possState))) {
+					// With symmetry reduction, just keep canonical states
+					if (symmetry != null) {
+						State canonState = new State(possState);
+						symmetry.canonicalise(canonState);
+						if (!canonState.equals(possState)) {
+							continue;
+						}
+					}
 					initStates.add(possState);
 				}
 			}
@@ -486,6 +578,94 @@ public class ModulesFileModelGenerator<Value> implements ModelGenerator<Value>,
 		transitionListBuilt = false;
 	}
 	
+	/**
+	 * Enable partial-order reduction during model exploration (see {@link #getAmpleChoice()}),
+	 * such that the values of the model's labels and of the expressions in {@code visibleExprs}
+	 * (typically, the properties to be checked and any labels they use) are preserved.
+	 * Pass null to disable it. This is only supported for MDPs.
+	 */
+	public void setPartialOrderReduction(List<Expression> visibleExprs) throws PrismException
+	{
+		if (visibleExprs != null && modelType != ModelType.MDP) {
+			throw new PrismNotSupportedException("Partial-order reduction is not supported for " + modelType + "s");
+		}
+		porVisibleExprs = visibleExprs;
+		if (updater != null) {
+			initialisePartialOrderReduction();
+		}
+	}
+	
+	/**
+	 * Set up partial-order reduction in the updater, if enabled,
+	 * treating all variables used in labels or {@code porVisibleExprs} as visible.
+	 */
+	private void initialisePartialOrderReduction() throws PrismException
+	{
+		if (porVisibleExprs == null || updater == null) {
+			return;
+		}
+		BitSet visibleVars = new BitSet();
+		List<Expression> exprs = new ArrayList<>(porVisibleExprs);
+		for (int i = 0; i < labelList.size(); i++) {
+			exprs.add(labelList.getLabel(i));
+		}
+		for (Expression expr : exprs) {
+			for (String var : expr.getAllVars()) {
+				int v = varList.getIndex(var);
+				if (v != -1) {
+					visibleVars.set(v);
+				}
+			}
+		}
+		updater.setPartialOrderReduction(visibleVars);
+	}
+	
+	/**
+	 * Enable or disable symmetry reduction during model exploration, i.e., replacing each state
+	 * with a canonical representative under permutations of the symmetric modules of the model
+	 * (see {@link ModuleSymmetry}), so that exploration yields the quotient model.
+	 * Returns the symmetry used, or null if it is disabled or no symmetry was found.
+	 * This is only supported for DTMCs, CTMCs and MDPs.
+	 */
+	public ModuleSymmetry setSymmetryReduction(boolean enable) throws PrismException
+	{
+		symmetry = null;
+		if (enable) {
+			if (!(modelType == ModelType.DTMC || modelType == ModelType.CTMC || modelType == ModelType.MDP)) {
+				throw new PrismNotSupportedException("Symmetry reduction is not supported for " + modelType + "s");
+			}
+			symmetry = ModuleSymmetry.detect(modulesFile, varList);
+		}
+		return symmetry;
+	}
+	
+	/**
+	 * Get the symmetry used to reduce states during model exploration (null if none).
+	 */
+	public ModuleSymmetry getSymmetry()
+	{
+		return symmetry;
+	}
+	
+	@Override
+	public int getAmpleChoice() throws PrismException
+	{
+		if (porVisibleExprs == null) {
+			return -1;
+		}
+		return updater.getAmpleChoice(getTransitionListScalars());
+	}
+	
+	@Override
+	public ModelGenerator<Value> createCopyForExploration() throws PrismException
+	{
+		// Only possible once all constants have been defined
+		if (mfConstants == null) {
+			return null;
+		}
+		return new ModulesFileModelGenerator<>(this);
+	}
+	
 	@Override
 	public int getNumChoices() throws PrismException
 	{
@@ -640,14 +820,17 @@ public class ModulesFileModelGenerator<Value> implements ModelGenerator<Value>,
 	@Override
 	public State computeTransitionTarget(int index, int offset) throws PrismException
 	{
-		return getTransitionList().getChoice(index).computeTarget(offset, exploreState, varList);
+		State target = getTransitionList().getChoice(index).computeTarget(offset, exploreState, varList);
+		if (symmetry != null) {
+			symmetry.canonicalise(target);
+		}
+		return target;
 	}
 
 	@Override
 	public boolean isLabelTrue(int i) throws PrismException
 	{
-		Expression expr = labelList.getLabel(i);
-		return expr.evaluateBoolean(ec.setState(exploreState));
+		return compiledLabels[i].evaluateBoolean(exploreState);
 	}
 	
 	@Override
@@ -726,10 +909,9 @@ public class ModulesFileModelGenerator<Value> implements ModelGenerator<Value>,
 		Value d = eval.zero();
 		for (int i = 0; i < n; i++) {
 			if (!rewStr.getRewardStructItem(i).isTransitionReward()) {
-				Expression guard = rewStr.getStates(i);
-				boolean guardSat = guard.evaluateBoolean(ec.setState(state));
+				boolean guardSat = compiledRewardGuards[r][i].evaluateBoolean(state);
 				if (guardSat) {
-					Value rew = eval.evaluate(rewStr.getReward(i), modulesFile.getConstantValues(), state);
+					Value rew = eval.evaluate(compiledRewards[r][i], state);
 					// Check reward is finite/non-negative (would be checked at model construction time,
 					// but more fine grained error reporting can be done here)
 					// We omit the check in symbolic (parametric) cases - too expensive
@@ -757,12 +939,11 @@ public class ModulesFileModelGenerator<Value> implements ModelGenerator<Value>,
 		Value d = eval.zero();
 		for (int i = 0; i < n; i++) {
 			if (rewStr.getRewardStructItem(i).isTransitionReward()) {
-				Expression guard = rewStr.getStates(i);
 				String cmdAction = rewStr.getSynch(i);
 				if (action == null ? (cmdAction.isEmpty()) : action.equals(cmdAction)) {
-					boolean guardSat = guard.evaluateBoolean(ec.setState(state));
+					boolean guardSat = compiledRewardGuards[r][i].evaluateBoolean(state);
 					if (guardSat) {
-						Value rew = eval.evaluate(rewStr.getReward(i), modulesFile.getConstantValues(), state);
+						Value rew = eval.evaluate(compiledRewards[r][i], state);
 						// Check reward is finite/non-negative (would be checked at model construction time,
 						// but more fine grained error reporting can be done here)
 						// We omit the check in symbolic (parametric) cases - too expensive
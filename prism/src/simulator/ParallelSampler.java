@@ -0,0 +1,248 @@
+//==============================================================================
+//
+//	Copyright (c) 2026-
+//
+//------------------------------------------------------------------------------
+//
+//	This file is part of PRISM.
+//
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//
+//==============================================================================
+
+package simulator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import parser.State;
+import prism.PrismException;
+import simulator.sampler.Sampler;
+
+/**
+ * Helper class for multi-threaded generation of sample paths,
+ * used by {@link SimulatorEngine} for statistical model checking.
+ * <br><br>
+ * Each thread has its own copy of the simulator engine (and thus its own model generator,
+ * path and samplers). Paths are generated in blocks of {@link SimulatorEngine#PATHS_PER_BLOCK},
+ * each with a random number generator seeded according to the index of the block,
+ * exactly as for sequential sampling. Blocks are generated in rounds: in each round,
+ * the threads generate a number of consecutive blocks, recording the path lengths
+ * and the resulting values of the samplers. These are then handed back
+ * (via {@link #nextPath()} and {@link #updateStats(List)}) to the main engine
+ * in order, so that the statistics and stopping criteria of the simulation methods
+ * are evaluated exactly as for sequential sampling.
+ * Hence, results for a given seed are the same, regardless of the number of threads.
+ * Paths generated in the final round that are not needed are discarded.
+ */
+class ParallelSampler implements AutoCloseable
+{
+	/** Maximum number of blocks of paths generated by each thread in a round */
+	public static final int MAX_BLOCKS_PER_THREAD = 64;
+
+	/** Simulator engines, one per thread */
+	protected SimulatorEngine[] workers;
+	/** Initial state for paths (if null, is selected randomly) */
+	protected State initialState;
+	/** Maximum path length */
+	protected long maxPathLength;
+	/** Seed from which those for each block of paths are derived */
+	protected int baseSeed;
+	/** Thread pool */
+	protected ExecutorService executor;
+
+	/** Index of the first block in the current round */
+	protected long firstBlock = 0;
+	/** Number of blocks in the current round */
+	protected int numBlocks = 0;
+	/** Lengths of the paths generated in the current round, per block (-1 if not all sampler values known) */
+	protected long[][] pathLengths;
+	/** Sampler values for the paths generated in the current round, per block */
+	protected Object[][][] pathValues;
+	/** Errors (if any) that occurred in the current round, per block */
+	protected PrismException[] errors;
+	/** Index of the path for which the error (if any) occurred, per block */
+	protected int[] errorPaths;
+	/** Index (within the current round) of the next path to be returned */
+	protected int next = 0;
+	/** Index (within the current round) of the block of the last path returned */
+	protected int lastBlock = -1;
+	/** Index (within its block) of the last path returned */
+	protected int lastPath = -1;
+
+	/**
+	 * Create a parallel sampler for the model and properties currently loaded in {@code engine},
+	 * using {@code numThreads} threads. Returns null if this is not supported.
+	 * @param engine The main simulator engine
+	 * @param initialState Initial state (if null, is selected randomly)
+	 * @param maxPathLength The maximum path length for sampling
+	 * @param numThreads Number of threads
+	 * @param baseSeed Seed from which those for each block of paths are derived
+	 */
+	public static ParallelSampler create(SimulatorEngine engine, State initialState, long maxPathLength, int numThreads, int baseSeed) throws PrismException
+	{
+		SimulatorEngine[] workers = new SimulatorEngine[numThreads];
+		for (int w = 0; w < numThreads; w++) {
+			workers[w] = engine.createCopyForSampling(0);
+			if (workers[w] == null) {
+				return null;
+			}
+		}
+		return new ParallelSampler(workers, initialState, maxPathLength, baseSeed);
+	}
+
+	/**
+	 * Constructor.
+	 */
+	protected ParallelSampler(SimulatorEngine[] workers, State initialState, long maxPathLength, int baseSeed)
+	{
+		this.workers = workers;
+		this.initialState = initialState;
+		this.maxPathLength = maxPathLength;
+		this.baseSeed = baseSeed;
+		int numThreads = workers.length;
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(numThreads, numThreads, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+			Thread thread = new Thread(r, "prism-sample");
+			thread.setDaemon(true);
+			return thread;
+		});
+		pool.allowCoreThreadTimeOut(true);
+		executor = pool;
+	}
+
+	/**
+	 * Get the next sample path, generating a new round of paths if needed.
+	 * Returns the length of the path, or -1 if not all samplers could produce values.
+	 * The values of the samplers for the path can then be passed to the
+	 * main engine's samplers using {@link #updateStats(List)}.
+	 */
+	public long nextPath() throws PrismException
+	{
+		if (next >= numBlocks * SimulatorEngine.PATHS_PER_BLOCK) {
+			generatePaths();
+			next = 0;
+		}
+		lastBlock = next / SimulatorEngine.PATHS_PER_BLOCK;
+		lastPath = next % SimulatorEngine.PATHS_PER_BLOCK;
+		next++;
+		if (errors[lastBlock] != null && errorPaths[lastBlock] == lastPath) {
+			throw errors[lastBlock];
+		}
+		return pathLengths[lastBlock][lastPath];
+	}
+
+	/**
+	 * Update the statistics of {@code samplers} (the samplers of the main engine)
+	 * using the values for the path last returned by {@link #nextPath()}.
+	 */
+	public void updateStats(List<Sampler> samplers)
+	{
+		Object[] values = pathValues[lastBlock][lastPath];
+		int numSamplers = samplers.size();
+		for (int j = 0; j < numSamplers; j++) {
+			samplers.get(j).updateStats(values[j]);
+		}
+	}
+
+	/**
+	 * Generate a new round of paths, concurrently.
+	 */
+	protected void generatePaths() throws PrismException
+	{
+		int numThreads = workers.length;
+		int numSamplers = workers[0].getPropertySamplers().size();
+		// Rounds get larger as sampling progresses
+		firstBlock += numBlocks;
+		numBlocks = (numBlocks == 0) ? numThreads : Math.min(2 * numBlocks, numThreads * MAX_BLOCKS_PER_THREAD);
+		if (pathLengths == null || pathLengths.length != numBlocks) {
+			pathLengths = new long[numBlocks][SimulatorEngine.PATHS_PER_BLOCK];
+			pathValues = new Object[numBlocks][SimulatorEngine.PATHS_PER_BLOCK][numSamplers];
+			errors = new PrismException[numBlocks];
+			errorPaths = new int[numBlocks];
+		}
+		List<Callable<Void>> tasks = new ArrayList<>(numThreads);
+		for (int w = 0; w < numThreads; w++) {
+			final int worker = w;
+			tasks.add(() -> {
+				// Blocks are shared out between the threads in turn
+				for (int b = worker; b < numBlocks; b += numThreads) {
+					generatePaths(worker, b);
+				}
+				return null;
+			});
+		}
+		try {
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PrismException("Interrupted during sampling");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new PrismException("Error during sampling: " + cause);
+		}
+	}
+
+	/**
+	 * Generate the paths for block {@code b} of the current round, using thread {@code w}.
+	 * If an error occurs, it is stored, along with the index of the path,
+	 * so that it can be reported (in order) by {@link #nextPath()}.
+	 */
+	protected void generatePaths(int w, int b)
+	{
+		SimulatorEngine worker = workers[w];
+		List<Sampler> samplers = worker.getPropertySamplers();
+		worker.setRandomNumberGeneratorSeed(SimulatorEngine.blockSeed(baseSeed, firstBlock + b));
+		errors[b] = null;
+		for (int p = 0; p < SimulatorEngine.PATHS_PER_BLOCK; p++) {
+			try {
+				long pathLength = worker.generateSamplePath(initialState, maxPathLength);
+				pathLengths[b][p] = pathLength;
+				// Stop early if the path is unusable (sampling will stop here anyway)
+				if (pathLength < 0) {
+					break;
+				}
+				Object[] values = pathValues[b][p];
+				for (int j = 0; j < values.length; j++) {
+					values[j] = samplers.get(j).getCurrentValue();
+				}
+			} catch (PrismException e) {
+				errors[b] = e;
+				errorPaths[b] = p;
+				break;
+			}
+		}
+	}
+
+	@Override
+	public void close()
+	{
+		executor.shutdownNow();
+	}
+}
@@ -31,6 +31,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import parser.CompiledExpression;
+import parser.EvaluateContext.EvalMode;
 import parser.State;
 import parser.Values;
 import parser.VarList;
@@ -50,6 +52,7 @@ import prism.PrismFileLog;
 import prism.PrismLangException;
 import prism.PrismLog;
 import prism.PrismNotSupportedException;
+import prism.PrismSettings;
 import prism.PrismUtils;
 import prism.Result;
 import prism.ResultsCollection;
@@ -125,6 +128,7 @@ public class SimulatorEngine extends PrismComponent
 
 	// Labels + properties info
 	protected List<Expression> labels;
+	protected List<CompiledExpression> compiledLabels;
 	private List<Expression> properties;
 	private List<Sampler> propertySamplers;
 
@@ -150,6 +154,14 @@ public class SimulatorEngine extends PrismComponent
 	// Random number generator
 	private RandomNumberGenerator rng;
 
+	/**
+	 * Number of consecutive sample paths generated with the same random number generator
+	 * (after which it is re-seeded; see {@link #blockSeed(int, long)}). Since these blocks
+	 * of paths do not depend on each other, sampling gives the same results for a given
+	 * seed, whether paths are generated sequentially or by any number of threads.
+	 */
+	static final int PATHS_PER_BLOCK = 16;
+
 	/**
 	 * Utility class to store a reference to a transition,
 	 * broken up into the index of its (nondetermnistic) choice {@code i}
@@ -177,6 +189,7 @@ public class SimulatorEngine extends PrismComponent
 		numVars = 0;
 		mfConstants = null;
 		labels = null;
+		compiledLabels = null;
 		properties = null;
 		propertySamplers = null;
 		path = null;
@@ -250,6 +263,7 @@ public class SimulatorEngine extends PrismComponent
 
 		// Create storage for labels/properties
 		labels = new ArrayList<Expression>();
+		compiledLabels = new ArrayList<CompiledExpression>();
 		properties = new ArrayList<Expression>();
 		propertySamplers = new ArrayList<Sampler>();
 	}
@@ -773,6 +787,7 @@ public class SimulatorEngine extends PrismComponent
 		labelNew = (Expression) labelNew.simplify();
 		// Add to list and return index
 		labels.add(labelNew);
+		compiledLabels.add(CompiledExpression.compile(labelNew, null, EvalMode.FP));
 		return labels.size() - 1;
 	}
 
@@ -848,7 +863,7 @@ public class SimulatorEngine extends PrismComponent
 	 */
 	public boolean queryLabel(int index) throws PrismLangException
 	{
-		return labels.get(index).evaluateBoolean(path.getCurrentState());
+		return compiledLabels.get(index).evaluateBoolean(path.getCurrentState());
 	}
 
 	/**
@@ -858,7 +873,7 @@ public class SimulatorEngine extends PrismComponent
 	 */
 	public boolean queryLabel(int index, int step) throws PrismLangException
 	{
-		return labels.get(index).evaluateBoolean(((PathFull) path).getState(step));
+		return compiledLabels.get(index).evaluateBoolean(((PathFull) path).getState(step));
 	}
 
 	/**
@@ -2002,8 +2017,6 @@ public class SimulatorEngine extends PrismComponent
 		boolean stoppedEarly = false;
 		boolean deadlocksFound = false;
 		boolean allDone = false;
-		boolean allKnown = false;
-		boolean someUnknownButBounded = false;
 		boolean shouldStopSampling = false;
 		// Path stats
 		double avgPathLength = 0;
@@ -2017,6 +2030,18 @@ public class SimulatorEngine extends PrismComponent
 
 		// Start
 		start = System.currentTimeMillis();
+		// Seed from which those for each block of paths are derived
+		int baseSeed = randomSeed();
+		RandomNumberGenerator rngMain = rng;
+		// If requested (and possible), generate paths using multiple threads
+		int numThreads = (settings == null) ? 1 : settings.getInteger(PrismSettings.PRISM_NUM_THREADS);
+		ParallelSampler parallelSampler = null;
+		if (numThreads > 1) {
+			parallelSampler = ParallelSampler.create(this, initialState, maxPathLength, numThreads, baseSeed);
+			if (parallelSampler != null) {
+				mainLog.println("\nGenerating sample paths using " + numThreads + " threads");
+			}
+		}
 		mainLog.print("\nSampling progress: [");
 		mainLog.flush();
 
@@ -2044,53 +2069,43 @@ public class SimulatorEngine extends PrismComponent
 				mainLog.flush();
 			}
 
-			iters++;
-
-			// Start the new path for this iteration (sample)
-			initialisePath(initialState);
-
-			// Generate a path
-			allKnown = false;
-			someUnknownButBounded = false;
-			i = 0;
-			while ((!allKnown && i < maxPathLength) || someUnknownButBounded) {
-				// Check status of samplers
-				allKnown = true;
-				someUnknownButBounded = false;
-				for (Sampler sampler : propertySamplers) {
-					if (!sampler.isCurrentValueKnown()) {
-						allKnown = false;
-						if (sampler.needsBoundedNumSteps())
-							someUnknownButBounded = true;
-					}
+			// Generate a path (or, if multi-threaded, get the next one that was generated)
+			if (parallelSampler == null) {
+				if (iters % PATHS_PER_BLOCK == 0) {
+					rng = new RandomNumberGenerator(blockSeed(baseSeed, iters / PATHS_PER_BLOCK));
 				}
-				// Stop when all answers are known or we have reached max path length
-				// (but don't stop yet if there are "bounded" samplers with unkown values)
-				if ((allKnown || i >= maxPathLength) && !someUnknownButBounded)
-					break;
-				// Make a random transition
-				automaticTransition();
-				i++;
+				i = generateSamplePath(initialState, maxPathLength);
+			} else {
+				i = parallelSampler.nextPath();
 			}
+			iters++;
 
 			// TODO: Detect deadlocks so we can report a warning
 
-			// Update path length statistics
-			avgPathLength = (avgPathLength * (iters - 1) + (i)) / iters;
-			minPathFound = (iters == 1) ? i : Math.min(minPathFound, i);
-			maxPathFound = (iters == 1) ? i : Math.max(maxPathFound, i);
-
 			// If not all samplers could produce values, this an error
-			if (!allKnown) {
+			if (i < 0) {
 				stoppedEarly = true;
 				break;
 			}
 
+			// Update path length statistics
+			avgPathLength = (avgPathLength * (iters - 1) + (i)) / iters;
+			minPathFound = (iters == 1) ? i : Math.min(minPathFound, i);
+			maxPathFound = (iters == 1) ? i : Math.max(maxPathFound, i);
+
 			// Update state of samplers based on last path
-			for (Sampler sampler : propertySamplers) {
-				sampler.updateStats();
+			if (parallelSampler == null) {
+				for (Sampler sampler : propertySamplers) {
+					sampler.updateStats();
+				}
+			} else {
+				parallelSampler.updateStats(propertySamplers);
 			}
 		}
+		if (parallelSampler != null) {
+			parallelSampler.close();
+		}
+		rng = rngMain;
 
 		// Print details
 		if (!stoppedEarly) {
@@ -2124,6 +2139,124 @@ public class SimulatorEngine extends PrismComponent
 		}
 	}
 
+	/**
+	 * Generate a sample path, from the specified initial state and up to the maximum length,
+	 * updating the samplers for all loaded properties as the path is extended.
+	 * Paths are extended until the values of all samplers are known or the
+	 * maximum path length is reached (but samplers that only need a bounded
+	 * number of steps are always allowed to finish).
+	 * Returns the length of the path, or -1 if not all samplers could produce values.
+	 * @param initialState Initial state (if null, is selected randomly)
+	 * @param maxPathLength The maximum path length for sampling
+	 */
+	long generateSamplePath(State initialState, long maxPathLength) throws PrismException
+	{
+		boolean allKnown = false;
+		boolean someUnknownButBounded = false;
+		long i;
+
+		// Start the new path for this iteration (sample)
+		initialisePath(initialState);
+
+		// Generate a path
+		i = 0;
+		while ((!allKnown && i < maxPathLength) || someUnknownButBounded) {
+			// Check status of samplers
+			allKnown = true;
+			someUnknownButBounded = false;
+			for (Sampler sampler : propertySamplers) {
+				if (!sampler.isCurrentValueKnown()) {
+					allKnown = false;
+					if (sampler.needsBoundedNumSteps())
+						someUnknownButBounded = true;
+				}
+			}
+			// Stop when all answers are known or we have reached max path length
+			// (but don't stop yet if there are "bounded" samplers with unkown values)
+			if ((allKnown || i >= maxPathLength) && !someUnknownButBounded)
+				break;
+			// Make a random transition
+			automaticTransition();
+			i++;
+		}
+
+		return allKnown ? i : -1;
+	}
+
+	/**
+	 * Create a copy of this simulator engine, with the current model and properties loaded,
+	 * which can be used to generate sample paths concurrently with this one
+	 * (see {@link #generateSamplePath(State, long)}), using its own random number generator.
+	 * Returns null if this is not supported (e.g., if a strategy is loaded
+	 * or the model generator cannot be copied).
+	 * @param seed Seed for the random number generator of the copy
+	 */
+	SimulatorEngine createCopyForSampling(int seed) throws PrismException
+	{
+		// Strategies are not supported
+		if (stratGen != null) {
+			return null;
+		}
+		// Get copies of the model/reward generators
+		ModelGenerator<Double> modelGenCopy = modelGen.createCopyForExploration();
+		if (modelGenCopy == null) {
+			return null;
+		}
+		// (rewards can be shared only if they come from the (copied) model generator itself)
+		RewardGenerator<Double> rewardGenCopy = null;
+		if (rewardGen == modelGen) {
+			if (!(modelGenCopy instanceof ModulesFileModelGenerator)) {
+				return null;
+			}
+			rewardGenCopy = (ModulesFileModelGenerator<Double>) modelGenCopy;
+		} else if (rewardGen.getNumRewardStructs() > 0) {
+			return null;
+		}
+		// Create engine, load model/properties
+		SimulatorEngine copy = new SimulatorEngine(this);
+		copy.rng = new RandomNumberGenerator(seed);
+		copy.loadModel(modelGenCopy, rewardGenCopy);
+		copy.createNewOnTheFlyPath();
+		for (Expression prop : properties) {
+			// (properties have already been processed, so just create samplers)
+			copy.properties.add(prop);
+			copy.propertySamplers.add(Sampler.createSampler(prop, copy.modelGen, copy.rewardGen));
+		}
+		return copy;
+	}
+
+	/**
+	 * Get the samplers for the currently loaded properties.
+	 */
+	List<Sampler> getPropertySamplers()
+	{
+		return propertySamplers;
+	}
+
+	/**
+	 * Get a random integer, e.g. for seeding another random number generator
+	 * (obtained from this engine's random number generator).
+	 */
+	int randomSeed()
+	{
+		return rng.randomUnifInt(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Get the seed for the random number generator used for block {@code block}
+	 * of sample paths (see {@link #PATHS_PER_BLOCK}), given the seed {@code baseSeed}
+	 * for the whole sampling process. The two are mixed thoroughly, so that
+	 * the generators for different blocks are unrelated.
+	 */
+	static int blockSeed(int baseSeed, long block)
+	{
+		// (the finaliser of the SplitMix64 generator)
+		long z = ((long) baseSeed << 32) + block;
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return (int) (z ^ (z >>> 31));
+	}
+
 	/**
 	 * Halt the sampling algorithm in its tracks (not implemented).
 	 */
@@ -33,8 +33,11 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
+import parser.CompiledExpression;
+import parser.EvaluateContext.EvalMode;
 import parser.EvaluateContextState;
 import parser.State;
+import parser.Values;
 import parser.VarList;
 import parser.ast.Command;
 import parser.ast.Expression;
@@ -75,12 +78,18 @@ public class Updater<Value> extends PrismComponent
 	protected int numRewardStructs;
 	// For real-time models, info about which vars are clocks (bitset over variable indices)
 	protected BitSet clockVars;
+	// Commands, with compiled expressions, indexed by module and then command
+	protected CompiledCommand compiledCommands[][];
+	// Index over the guards of each module (null if none), used to skip disabled commands
+	protected GuardIndex guardIndexes[];
+	// Is partial-order reduction enabled? (see setPartialOrderReduction)
+	protected boolean partialOrderReduction = false;
 	
 	// Temporary storage:
 
-	// Element i,j of updateLists is a list of the updates from module i labelled with action j
+	// Element i,j of updateLists is a list of the (commands for) updates from module i labelled with action j
 	// (where j=0 denotes independent, otherwise 1-indexed action label)
-	protected List<List<List<Updates>>> updateLists;
+	protected List<List<List<CompiledCommand>>> updateLists;
 	// Bit j of enabledSynchs is set iff action j is currently enabled
 	// (where j=0 denotes independent, otherwise 1-indexed action label)
 	protected BitSet enabledSynchs;
@@ -144,12 +153,33 @@ public class Updater<Value> extends PrismComponent
 			}
 		}
 
+		// Compile guards, probabilities/rates and updates of all commands
+		compiledCommands = new CompiledCommand[numModules][];
+		for (int i = 0; i < numModules; i++) {
+			Module module = modulesFile.getModule(i);
+			int n = module.getNumCommands();
+			compiledCommands[i] = new CompiledCommand[n];
+			for (int j = 0; j < n; j++) {
+				compiledCommands[i][j] = new CompiledCommand(module.getCommand(j), ec.getConstantValues(), eval.evalMode(), !modelType.realTime(), !eval.exact());
+			}
+		}
+
+		// Build indexes over the guards of each module
+		guardIndexes = new GuardIndex[numModules];
+		for (int i = 0; i < numModules; i++) {
+			List<Expression> guards = new ArrayList<>();
+			for (CompiledCommand cc : compiledCommands[i]) {
+				guards.add(cc.command.getGuard());
+			}
+			guardIndexes[i] = GuardIndex.build(guards, varList, ec.getConstantValues());
+		}
+
 		// Build lists/bitsets for later use
-		updateLists = new ArrayList<List<List<Updates>>>(numModules);
+		updateLists = new ArrayList<List<List<CompiledCommand>>>(numModules);
 		for (int i = 0; i < numModules; i++) {
-			updateLists.add(new ArrayList<List<Updates>>(numSynchs + 1));
+			updateLists.add(new ArrayList<List<CompiledCommand>>(numSynchs + 1));
 			for (int j = 0; j < numSynchs + 1; j++) {
-				updateLists.get(i).add(new ArrayList<Updates>());
+				updateLists.get(i).add(new ArrayList<CompiledCommand>());
 			}
 		}
 		enabledSynchs = new BitSet(numSynchs + 1);
@@ -192,8 +222,8 @@ public class Updater<Value> extends PrismComponent
 
 		// Add independent transitions for each (enabled) module to list
 		for (i = enabledModules[0].nextSetBit(0); i >= 0; i = enabledModules[0].nextSetBit(i + 1)) {
-			for (Updates ups : updateLists.get(i).get(0)) {
-				ChoiceListFlexi<Value> ch = processUpdatesAndCreateNewChoice(-(i + 1), ups, state);
+			for (CompiledCommand cc : updateLists.get(i).get(0)) {
+				ChoiceListFlexi<Value> ch = processUpdatesAndCreateNewChoice(-(i + 1), cc, state);
 				if (ch.size() > 0)
 					transitionList.add(ch);
 			}
@@ -210,10 +240,10 @@ public class Updater<Value> extends PrismComponent
 				count = updateLists.get(j).get(i).size();
 				// Case where there is only 1 Updates for this module
 				if (count == 1) {
-					Updates ups = updateLists.get(j).get(i).get(0);
+					CompiledCommand cc = updateLists.get(j).get(i).get(0);
 					// Case where this is the first Choice created
 					if (chs.size() == 0) {
-						ChoiceListFlexi<Value> ch = processUpdatesAndCreateNewChoice(i, ups, state);
+						ChoiceListFlexi<Value> ch = processUpdatesAndCreateNewChoice(i, cc, state);
 						if (ch.size() > 0)
 							chs.add(ch);
 					}
@@ -221,7 +251,7 @@ public class Updater<Value> extends PrismComponent
 					else {
 						// Product with all existing choices
 						for (ChoiceListFlexi<Value> ch : chs) {
-							processUpdatesAndAddToProduct(ups, state, ch);
+							processUpdatesAndAddToProduct(cc, state, ch);
 						}
 					}
 				}
@@ -229,8 +259,8 @@ public class Updater<Value> extends PrismComponent
 				else {
 					// Case where there are no existing choices
 					if (chs.size() == 0) {
-						for (Updates ups : updateLists.get(j).get(i)) {
-							ChoiceListFlexi<Value> ch = processUpdatesAndCreateNewChoice(i, ups, state);
+						for (CompiledCommand cc : updateLists.get(j).get(i)) {
+							ChoiceListFlexi<Value> ch = processUpdatesAndCreateNewChoice(i, cc, state);
 							if (ch.size() > 0)
 								chs.add(ch);
 						}
@@ -244,9 +274,9 @@ public class Updater<Value> extends PrismComponent
 								chs.add(new ChoiceListFlexi<Value>(chs.get(l)));
 						// Products with existing choices
 						for (k = 0; k < count; k++) {
-							Updates ups = updateLists.get(j).get(i).get(k);
+							CompiledCommand cc = updateLists.get(j).get(i).get(k);
 							for (l = 0; l < n; l++) {
-								processUpdatesAndAddToProduct(ups, state, chs.get(k * n + l));
+								processUpdatesAndAddToProduct(cc, state, chs.get(k * n + l));
 							}
 						}
 					}
@@ -286,10 +316,12 @@ public class Updater<Value> extends PrismComponent
 	 */
 	protected void calculateUpdatesForModule(int m, State state) throws PrismLangException
 	{
-		Module module = modulesFile.getModule(m);
-		int n = module.getNumCommands();
+		// Only consider commands whose guards may be satisfied, if known
+		int candidates[] = guardIndexes[m] == null ? null : guardIndexes[m].getCandidates(state);
+		int n = candidates == null ? compiledCommands[m].length : candidates.length;
 		for (int i = 0; i < n; i++) {
-			Command command = module.getCommand(i);
+			CompiledCommand cc = compiledCommands[m][candidates == null ? i : candidates[i]];
+			Command command = cc.command;
 			// See if the guard is satisfied
 			boolean guardSat = false;
 			Expression clockGuard = null;
@@ -305,12 +337,12 @@ public class Updater<Value> extends PrismComponent
 					guardSat = true;
 				}
 			} else {
-				guardSat = command.getGuard().evaluateBoolean(ec.setState(state));
+				guardSat = cc.guard.evaluateBoolean(state);
 			}
 			// If the command is enabled, update stored info
 			if (guardSat) {
 				int j = command.getSynchIndex();
-				updateLists.get(m).get(j).add(command.getUpdates());
+				updateLists.get(m).get(j).add(cc);
 				enabledSynchs.set(j);
 				enabledModules[j].set(m);
 				if (modelType.realTime()) {
@@ -320,13 +352,114 @@ public class Updater<Value> extends PrismComponent
 		}
 	}
 
+	/**
+	 * Enable partial-order reduction (see {@link #getAmpleChoice(TransitionList)}),
+	 * where the variables in {@code visibleVars} are those whose values must be preserved.
+	 * Pass null to disable it.
+	 * <br><br>
+	 * A command can form an ample set on its own if it is unlabelled, does not write any visible variables,
+	 * and is independent of the commands of all other modules, i.e., it does not write variables that they
+	 * read or write, and they do not write any variables read by its module. The latter means that,
+	 * while such a command is the only one enabled in its module, the module cannot be affected by other
+	 * modules, so no dependent command can be executed first.
+	 */
+	public void setPartialOrderReduction(BitSet visibleVars) throws PrismLangException
+	{
+		partialOrderReduction = visibleVars != null;
+		if (!partialOrderReduction) {
+			return;
+		}
+		// Compute the variables read and written by each module/command
+		// (for reading, we over-approximate with all variables appearing in the command)
+		BitSet read[] = new BitSet[numModules];
+		BitSet written[] = new BitSet[numModules];
+		BitSet commandWritten[][] = new BitSet[numModules][];
+		for (int m = 0; m < numModules; m++) {
+			read[m] = new BitSet();
+			written[m] = new BitSet();
+			int n = compiledCommands[m].length;
+			commandWritten[m] = new BitSet[n];
+			for (int c = 0; c < n; c++) {
+				Command command = compiledCommands[m][c].command;
+				for (String var : command.getAllVars()) {
+					int v = varList.getIndex(var);
+					if (v != -1) {
+						read[m].set(v);
+					}
+				}
+				commandWritten[m][c] = new BitSet();
+				Updates ups = command.getUpdates();
+				for (int i = 0; i < ups.getNumUpdates(); i++) {
+					Update up = ups.getUpdate(i);
+					for (int k = 0; k < up.getNumElements(); k++) {
+						commandWritten[m][c].set(up.getVarIndex(k));
+					}
+				}
+				written[m].or(commandWritten[m][c]);
+			}
+		}
+		// Determine which commands can form ample sets
+		for (int m = 0; m < numModules; m++) {
+			BitSet readOthers = new BitSet();
+			BitSet writtenOthers = new BitSet();
+			for (int m2 = 0; m2 < numModules; m2++) {
+				if (m2 != m) {
+					readOthers.or(read[m2]);
+					writtenOthers.or(written[m2]);
+				}
+			}
+			boolean moduleIndependent = !writtenOthers.intersects(read[m]);
+			for (int c = 0; c < compiledCommands[m].length; c++) {
+				CompiledCommand cc = compiledCommands[m][c];
+				BitSet w = commandWritten[m][c];
+				cc.ample = moduleIndependent && cc.command.getSynchIndex() == 0 && !w.intersects(visibleVars) && !w.intersects(readOthers) && !w.intersects(writtenOthers);
+			}
+		}
+	}
+
+	/**
+	 * For partial-order reduction, get the index of a choice in {@code transitionList},
+	 * as computed by the last call to {@link #calculateTransitions(State, TransitionList)},
+	 * that forms an ample set on its own: it is the only command enabled in its module,
+	 * and satisfies the conditions described for {@link #setPartialOrderReduction(BitSet)}.
+	 * Returns -1 if there is no such choice (or partial-order reduction is disabled).
+	 * Note that the (cycle) condition that a reduced state space must also satisfy is not checked here.
+	 */
+	public int getAmpleChoice(TransitionList<Value> transitionList)
+	{
+		if (!partialOrderReduction) {
+			return -1;
+		}
+		for (int m = enabledModules[0].nextSetBit(0); m >= 0; m = enabledModules[0].nextSetBit(m + 1)) {
+			// Check this is the only enabled command of module m
+			if (updateLists.get(m).get(0).size() != 1 || !updateLists.get(m).get(0).get(0).ample) {
+				continue;
+			}
+			boolean onlyCommand = true;
+			for (int j = 1; j <= numSynchs && onlyCommand; j++) {
+				onlyCommand = !enabledModules[j].get(m);
+			}
+			if (!onlyCommand) {
+				continue;
+			}
+			// Find the corresponding choice
+			int n = transitionList.getNumChoices();
+			for (int i = 0; i < n; i++) {
+				if (transitionList.getChoice(i).getModuleOrActionIndex() == -(m + 1)) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
 	/**
 	 * Evaluate the probability (or rate) of the ith update, in the context of a state.
 	 * If the probability is not specified in the update, it is assumed to be 1.
 	 */
-	protected Value getProbabilityInState(Updates ups, int i, State state) throws PrismLangException
+	protected Value getProbabilityInState(CompiledCommand cc, int i, State state) throws PrismLangException
 	{
-		Expression p = ups.getProbability(i);
+		CompiledExpression p = cc.probs[i];
 		if (p == null) {
 			return eval.one();
 		} else {
@@ -339,15 +472,17 @@ public class Updater<Value> extends PrismComponent
 	 * and a (global) state. Check for negative probabilities/rates and, if appropriate,
 	 * check probabilities sum to 1 too.
 	 * @param moduleOrActionIndex Module/action for the choice, encoded as an integer (see Choice)
-	 * @param ups The Updates object 
+	 * @param cc The command (and its Updates object)
 	 * @param state Global state
 	 */
-	private ChoiceListFlexi<Value> processUpdatesAndCreateNewChoice(int moduleOrActionIndex, Updates ups, State state) throws PrismLangException
+	private ChoiceListFlexi<Value> processUpdatesAndCreateNewChoice(int moduleOrActionIndex, CompiledCommand cc, State state) throws PrismLangException
 	{
 		ChoiceListFlexi<Value> ch;
 		List<Update> list;
+		List<CompiledUpdate> compiledList;
 		int i, n;
 		Value p, sum;
+		Updates ups = cc.command.getUpdates();
 
 		// Create choice and add all info
 		ch = new ChoiceListFlexi<Value>(eval);
@@ -356,7 +491,7 @@ public class Updater<Value> extends PrismComponent
 		sum = eval.zero();
 		for (i = 0; i < n; i++) {
 			// Compute probability/rate
-			p = getProbabilityInState(ups, i, state);
+			p = getProbabilityInState(cc, i, state);
 			// Check that probabilities/rates are finite (non-infinite, non-NaN) and non-negative
 			// We omit the check in symbolic (parametric) cases - too expensive
 			// Note: we indicate errors in whole Updates object because the offending
@@ -377,7 +512,12 @@ public class Updater<Value> extends PrismComponent
 			sum  = eval.add(sum, p);
 			list = new ArrayList<Update>();
 			list.add(ups.getUpdate(i));
-			ch.add(p, list);
+			compiledList = null;
+			if (cc.updates != null) {
+				compiledList = new ArrayList<CompiledUpdate>();
+				compiledList.add(cc.updates[i]);
+			}
+			ch.add(p, list, compiledList);
 		}
 		// For now, PRISM treats empty (all zero probs/rates) distributions as an error.
 		// Later, when errors in symbolic model construction are improved, this might be relaxed.
@@ -406,15 +546,57 @@ public class Updater<Value> extends PrismComponent
 	 * Create a new Choice object (currently ChoiceListFlexi) based on the product
 	 * of an existing ChoiceListFlexi and an Updates object, for some (global) state.
 	 * If appropriate, check probabilities sum to 1 too.
-	 * @param ups The Updates object 
+	 * @param cc The command (and its Updates object)
 	 * @param state Global state
 	 * @param ch The existing Choices object
 	 */
-	private void processUpdatesAndAddToProduct(Updates ups, State state, ChoiceListFlexi<Value> ch) throws PrismLangException
+	private void processUpdatesAndAddToProduct(CompiledCommand cc, State state, ChoiceListFlexi<Value> ch) throws PrismLangException
 	{
 		// Create new choice (action index is 0 - not needed)
-		ChoiceListFlexi<Value> chNew = processUpdatesAndCreateNewChoice(0, ups, state);
+		ChoiceListFlexi<Value> chNew = processUpdatesAndCreateNewChoice(0, cc, state);
 		// Build product with existing
 		ch.productWith(chNew);
 	}
+
+	/**
+	 * A command, with its guard, probabilities/rates and updates compiled for repeated evaluation
+	 * (see {@link CompiledExpression}). Guards are not compiled for real-time models
+	 * (since they are evaluated partially) and updates not for exact evaluation.
+	 */
+	protected static class CompiledCommand
+	{
+		protected Command command;
+		protected CompiledExpression guard;
+		protected CompiledExpression probs[];
+		protected CompiledUpdate updates[];
+		/** Can this command form an ample set on its own? (for partial-order reduction) */
+		protected boolean ample = false;
+
+		/**
+		 * Compile a command.
+		 * @param command The command
+		 * @param constantValues Values of constants used in guards
+		 * @param evalMode Evaluation mode (floating point? exact?)
+		 * @param compileGuard Whether to compile the guard
+		 * @param compileUpdates Whether to compile the updates
+		 */
+		public CompiledCommand(Command command, Values constantValues, EvalMode evalMode, boolean compileGuard, boolean compileUpdates)
+		{
+			this.command = command;
+			if (compileGuard) {
+				guard = CompiledExpression.compile(command.getGuard(), constantValues, evalMode);
+			}
+			Updates ups = command.getUpdates();
+			int n = ups.getNumUpdates();
+			probs = new CompiledExpression[n];
+			updates = compileUpdates ? new CompiledUpdate[n] : null;
+			for (int i = 0; i < n; i++) {
+				Expression p = ups.getProbability(i);
+				probs[i] = p == null ? null : CompiledExpression.compile(p, null, evalMode);
+				if (updates != null) {
+					updates[i] = new CompiledUpdate(ups.getUpdate(i));
+				}
+			}
+		}
+	}
 }
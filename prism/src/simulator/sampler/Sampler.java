@@ -93,6 +93,13 @@ public abstract class Sampler
 	 */
 	public abstract void updateStats();
 
+	/**
+	 * Update the statistics for the sampler, using the value for a path that was
+	 * generated elsewhere (e.g. by another thread), as returned by {@link #getCurrentValue()}
+	 * for an equivalent sampler once that path was finished.
+	 */
+	public abstract void updateStats(Object value);
+
 	/**
 	 * Get the current value of the sampler.
 	 */
@@ -69,6 +69,15 @@ public abstract class SamplerBoolean extends Sampler
 			numTrue++;
 	}
 
+	@Override
+	public void updateStats(Object value)
+	{
+		numSamples++;
+		// (negation has already been applied to the value)
+		if ((Boolean) value)
+			numTrue++;
+	}
+
 	@Override
 	public Object getCurrentValue()
 	{
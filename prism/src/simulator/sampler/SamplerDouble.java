@@ -81,6 +81,20 @@ public abstract class SamplerDouble extends Sampler
 
 	@Override
 	public void updateStats()
+	{
+		updateStats(value);
+	}
+
+	@Override
+	public void updateStats(Object value)
+	{
+		updateStats(((Double) value).doubleValue());
+	}
+
+	/**
+	 * Update the statistics for the sampler, for a finished path with value {@code value}.
+	 */
+	protected void updateStats(double value)
 	{
 		if (numSamples == 0)
 			correctionTerm = value;
@@ -33,7 +33,7 @@ public class MRStrategy<Value> extends StrategyExplicit<Value>
 		int numStates = model.getNumStates();
 		choiceProbs = new ArrayList<>(numStates);
 		for (int i = 0; i < numStates; i++) {
-			choiceProbs.add(new Distribution<>(model.getEvaluator()));
+			choiceProbs.add(Distribution.create(model.getEvaluator()));
 		}
 	}
 
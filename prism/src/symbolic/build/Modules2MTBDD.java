@@ -42,6 +42,7 @@ import symbolic.model.Model;
 import symbolic.model.NondetModel;
 import symbolic.model.ProbModel;
 import symbolic.model.StochModel;
+import simulator.ModuleSymmetry;
 
 // class to translate a modules description file into an MTBDD model
 
@@ -126,6 +127,7 @@ public class Modules2MTBDD
 	private int numModulesBeforeSymm;	// number of modules in the PRISM file before the symmetric ones
 	private int numModulesAfterSymm;	// number of modules in the PRISM file after the symmetric ones
 	private int numSymmModules;			// number of symmetric components
+	private ModuleSymmetry autoSymmetry;	// automatically detected symmetry (if used)
 	
 	// hidden option - do we also store each part of the transition matrix separately? (now defunct)
 	private boolean storeTransParts = false; 
@@ -271,6 +273,11 @@ public class Modules2MTBDD
 			throw new PrismException("Symbolic construction of " + modelType + "s not supported");
 		}
 		
+		// automatic symmetry detection, if requested and no parameters given
+		if (!doSymmetry && prism.getSettings().getBoolean(PrismSettings.PRISM_AUTO_SYMMETRY)) {
+			detectSymmetry();
+		}
+		
 		try {
 			// allocate dd variables
 			allocateDDVars();
@@ -434,7 +441,7 @@ public class Modules2MTBDD
 		if (allDDChoiceVars != null)
 			allDDChoiceVars.derefAll();
 
-		if (doSymmetry) {
+		if (doSymmetry && symm != null) {
 			JDD.Deref(symm);
 			JDD.DerefArray(nonSymms, numSymmModules - 1);
 		}
@@ -2198,6 +2205,42 @@ public class Modules2MTBDD
 		}
 	}
 	
+	/**
+	 * Detect symmetric modules automatically (see {@link ModuleSymmetry}) and, if there is
+	 * a single group of them that are contiguous in the model, set up symmetry reduction for them.
+	 */
+	private void detectSymmetry() throws PrismException
+	{
+		ModuleSymmetry symmetry = ModuleSymmetry.detect(modulesFile, varList);
+		if (symmetry == null) {
+			mainLog.println("No symmetric modules found, so symmetry reduction will not be used");
+			return;
+		}
+		List<List<String>> groups = symmetry.getGroupModules();
+		int first = modulesFile.getModuleIndex(groups.get(0).get(0));
+		boolean contiguous = groups.size() == 1;
+		for (int i = 0; contiguous && i < groups.get(0).size(); i++) {
+			contiguous = modulesFile.getModuleIndex(groups.get(0).get(i)) == first + i;
+		}
+		if (!contiguous) {
+			mainLog.printWarning("Symmetric modules (" + symmetry + ") are not contiguous so symmetry reduction will not be used");
+			return;
+		}
+		mainLog.println("Using symmetry reduction (symmetric modules: " + symmetry + ")");
+		autoSymmetry = symmetry;
+		numModulesBeforeSymm = first;
+		numModulesAfterSymm = numModules - (first + groups.get(0).size());
+		doSymmetry = true;
+	}
+
+	/**
+	 * Get the automatically detected symmetry used to reduce the model, if any (null if none).
+	 */
+	public ModuleSymmetry getAutoSymmetry()
+	{
+		return autoSymmetry;
+	}
+
 	// symmetrification
 	
 	private void doSymmetry(ModelSymbolic model) throws PrismException
@@ -2208,15 +2251,17 @@ public class Modules2MTBDD
 		long clock;
 		String ss[];
 		
-		// parse symmetry reduction parameters
-		ss = prism.getSettings().getString(PrismSettings.PRISM_SYMM_RED_PARAMS).split(" ");
-		if (ss.length != 2) throw new PrismException ("Invalid parameters for symmetry reduction");
-		try {
-			numModulesBeforeSymm = Integer.parseInt(ss[0].trim());
-			numModulesAfterSymm = Integer.parseInt(ss[1].trim());
-		}
-		catch (NumberFormatException e) {
-			throw new PrismException("Invalid parameters for symmetry reduction");
+		// parse symmetry reduction parameters (unless detected automatically)
+		if (autoSymmetry == null) {
+			ss = prism.getSettings().getString(PrismSettings.PRISM_SYMM_RED_PARAMS).split(" ");
+			if (ss.length != 2) throw new PrismException ("Invalid parameters for symmetry reduction");
+			try {
+				numModulesBeforeSymm = Integer.parseInt(ss[0].trim());
+				numModulesAfterSymm = Integer.parseInt(ss[1].trim());
+			}
+			catch (NumberFormatException e) {
+				throw new PrismException("Invalid parameters for symmetry reduction");
+			}
 		}
 
 		clock = System.currentTimeMillis();
@@ -0,0 +1,85 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import prism.Evaluator;
+
+public class DistributionDoubleTest
+{
+	@Test
+	public void testAgainstHashMapDistribution()
+	{
+		Random random = new Random(42);
+		for (int round = 0; round < 200; round++) {
+			Distribution<Double> expected = new Distribution<>(Evaluator.forDouble());
+			Distribution<Double> actual = Distribution.create(Evaluator.forDouble());
+			assertTrue(actual instanceof DistributionDouble);
+			for (int i = 0; i < 30; i++) {
+				int j = random.nextInt(20);
+				double p = random.nextInt(4) / 4.0;
+				if (random.nextInt(4) == 0) {
+					expected.set(j, p);
+					actual.set(j, p);
+				} else {
+					assertEquals(expected.add(j, p), actual.add(j, p));
+				}
+			}
+			assertEquals(expected.size(), actual.size());
+			assertEquals(expected.isEmpty(), actual.isEmpty());
+			assertEquals(expected.getSupport(), actual.getSupport());
+			assertEquals(expected, actual);
+			assertEquals(actual, expected);
+			assertEquals(expected.sum(), actual.sum(), 1e-12);
+			assertEquals(expected.sumAllBut(3), actual.sumAllBut(3), 1e-12);
+			for (int j = 0; j < 20; j++) {
+				assertEquals(expected.contains(j), actual.contains(j));
+				assertEquals(expected.get(j), actual.get(j));
+			}
+			// iteration is in ascending order of index
+			TreeMap<Integer, Double> sorted = new TreeMap<>();
+			expected.forEach(e -> sorted.put(e.getKey(), e.getValue()));
+			int k = 0;
+			for (Entry<Integer, Double> e : actual) {
+				Entry<Integer, Double> e2 = sorted.pollFirstEntry();
+				assertEquals(e2, e);
+				assertEquals(e.getKey().intValue(), ((DistributionDouble) actual).getIndex(k));
+				k++;
+			}
+			// copies and permutations
+			assertEquals(expected, actual.copy());
+			int[] permut = new int[20];
+			for (int j = 0; j < 20; j++) {
+				permut[j] = 19 - j;
+			}
+			assertEquals(expected.map(permut), actual.map(permut));
+		}
+	}
+
+	@Test
+	public void testSupportChecks()
+	{
+		Distribution<Double> distr = Distribution.ofDouble();
+		distr.add(5, 0.5);
+		distr.add(1, 0.25);
+		distr.add(9, 0.25);
+		BitSet set = new BitSet();
+		set.set(1);
+		set.set(5);
+		assertFalse(distr.isSubsetOf(set));
+		assertTrue(distr.containsOneOf(set));
+		set.set(9);
+		assertTrue(distr.isSubsetOf(set));
+		distr.clear();
+		assertTrue(distr.isEmpty());
+		assertFalse(distr.containsOneOf(set));
+	}
+}
@@ -0,0 +1,141 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import parser.State;
+import parser.VarList;
+import parser.ast.DeclarationBool;
+import parser.ast.DeclarationInt;
+import parser.ast.Expression;
+import prism.PrismLangException;
+
+public class PackedStateStorageTest
+{
+	/**
+	 * Variables: x:[-3..4], b:bool, y:[0..1000000], then enough further variables to need several words.
+	 */
+	protected VarList createVarList() throws PrismLangException
+	{
+		VarList varList = new VarList();
+		varList.addVar("x", new DeclarationInt(Expression.Int(-3), Expression.Int(4)), 0);
+		varList.addVar("b", new DeclarationBool(), 0);
+		varList.addVar("y", new DeclarationInt(Expression.Int(0), Expression.Int(1000000)), 0);
+		for (int i = 0; i < 5; i++) {
+			varList.addVar("z" + i, new DeclarationInt(Expression.Int(0), Expression.Int(Integer.MAX_VALUE - 1)), 1);
+		}
+		return varList;
+	}
+
+	protected State randomState(Random random)
+	{
+		State state = new State(8);
+		state.setValue(0, random.nextInt(8) - 3);
+		state.setValue(1, random.nextBoolean());
+		state.setValue(2, random.nextInt(4));
+		for (int i = 0; i < 5; i++) {
+			state.setValue(3 + i, random.nextInt(2));
+		}
+		return state;
+	}
+
+	@Test
+	public void testAddGet() throws PrismLangException
+	{
+		PackedStateStorage storage = new PackedStateStorage(createVarList());
+		IndexedSet<State> reference = new IndexedSet<>(false);
+		Random random = new Random(42);
+		for (int i = 0; i < 5000; i++) {
+			State state = randomState(random);
+			boolean added = reference.add(state);
+			assertEquals(added, storage.add(state));
+			assertEquals(reference.getIndexOfLastAdd(), storage.getIndexOfLastAdd());
+		}
+		assertEquals(reference.size(), storage.size());
+		List<State> list = reference.toArrayList();
+		for (int i = 0; i < list.size(); i++) {
+			assertEquals(list.get(i), storage.getState(i));
+			assertEquals(i, storage.get(list.get(i)));
+			assertTrue(storage.contains(list.get(i)));
+		}
+		State absent = new State(8);
+		absent.setValue(0, 4);
+		absent.setValue(1, true);
+		absent.setValue(2, 1000000);
+		for (int i = 0; i < 5; i++) {
+			absent.setValue(3 + i, 7);
+		}
+		assertFalse(storage.contains(absent));
+		assertEquals(-1, storage.get(absent));
+	}
+
+	@Test
+	public void testOutOfRange() throws PrismLangException
+	{
+		PackedStateStorage storage = new PackedStateStorage(createVarList());
+		State state = new State(8);
+		state.setValue(0, 0);
+		state.setValue(1, false);
+		state.setValue(2, 0);
+		for (int i = 0; i < 5; i++) {
+			state.setValue(3 + i, 0);
+		}
+		assertTrue(storage.fits(state));
+		storage.add(state);
+		// Values outside the range of x (e.g. after an update) do not fit
+		for (int x : new int[] { -4, 5, Integer.MIN_VALUE, Integer.MAX_VALUE }) {
+			State stateOut = new State(state);
+			stateOut.setValue(0, x);
+			assertFalse(storage.fits(stateOut));
+			assertFalse(storage.contains(stateOut));
+			assertEquals(-1, storage.get(stateOut));
+			assertThrows(IllegalArgumentException.class, () -> storage.add(stateOut));
+		}
+		assertEquals(1, storage.size());
+	}
+
+	@Test
+	public void testSortingPermutation() throws PrismLangException
+	{
+		PackedStateStorage storage = new PackedStateStorage(createVarList());
+		IndexedSet<State> reference = new IndexedSet<>(true);
+		Random random = new Random(7);
+		for (int i = 0; i < 5000; i++) {
+			State state = randomState(random);
+			storage.add(state);
+			reference.add(state);
+		}
+		int[] permut = reference.buildSortingPermutation();
+		List<State> expected = reference.toPermutedArrayList(permut);
+		int[] permutPacked = storage.buildSortingPermutation();
+		List<State> actual = storage.toPermutedList(permutPacked);
+		assertEquals(expected, new ArrayList<>(actual));
+		assertEquals(expected, storage.toPermutedArrayList(permutPacked));
+	}
+
+	@Test
+	public void testListSurvivesClear() throws PrismLangException
+	{
+		PackedStateStorage storage = new PackedStateStorage(createVarList());
+		Random random = new Random(1);
+		List<State> added = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			State state = randomState(random);
+			if (storage.add(state)) {
+				added.add(state);
+			}
+		}
+		List<State> list = storage.toPermutedList(null);
+		storage.clear();
+		assertTrue(storage.isEmpty());
+		assertEquals(added, new ArrayList<>(list));
+	}
+}
@@ -0,0 +1,69 @@
+package explicit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+
+import prism.PrismComponent;
+import prism.PrismException;
+
+/**
+ * Test SCC computation on models whose depth-first search is very deep
+ * (which used to overflow the stack, when the search was recursive).
+ */
+public class SCCComputerTarjanTest
+{
+	static final int N = 1000000;
+
+	/**
+	 * Build a DTMC that is a chain 0 -> 1 -> ... -> n-1,
+	 * ending in a self-loop or, if {@code cycle} is true, returning to 0.
+	 */
+	static DTMCSimple<Double> buildChain(int n, boolean cycle)
+	{
+		DTMCSimple<Double> dtmc = new DTMCSimple<>(n);
+		for (int s = 0; s < n - 1; s++) {
+			dtmc.setProbability(s, s + 1, 1.0);
+		}
+		dtmc.setProbability(n - 1, cycle ? 0 : n - 1, 1.0);
+		dtmc.addInitialState(0);
+		return dtmc;
+	}
+
+	@Test
+	public void testDeepChain() throws PrismException
+	{
+		DTMCSimple<Double> dtmc = buildChain(N, false);
+		SCCConsumerStore sccs = new SCCConsumerStore();
+		new SCCComputerTarjan(new PrismComponent(), dtmc, sccs).computeSCCs();
+		// Only the self-loop at the end is a (non-trivial) SCC, and a BSCC
+		BitSet last = new BitSet();
+		last.set(N - 1);
+		assertEquals(1, sccs.getSCCs().size());
+		assertEquals(last, sccs.getSCCs().get(0));
+		assertEquals(1, sccs.getBSCCs().size());
+		assertEquals(last, sccs.getBSCCs().get(0));
+		// Including trivial SCCs, every state is an SCC, found from the end of the chain
+		SCCInfo sccInfo = SCCComputer.computeTopologicalOrdering(new PrismComponent(), dtmc, true);
+		assertEquals(N, sccInfo.getNumSCCs());
+		assertEquals(0, sccInfo.countNonSingletonSCCs());
+		assertEquals(0, sccInfo.getSCCIndex(N - 1));
+		assertEquals(N - 2, sccInfo.getSCCIndex(1));
+		assertEquals(N - 1, sccInfo.getSCCIndex(0));
+	}
+
+	@Test
+	public void testDeepCycle() throws PrismException
+	{
+		DTMCSimple<Double> dtmc = buildChain(N, true);
+		SCCConsumerStore sccs = new SCCConsumerStore();
+		new SCCComputerTarjan(new PrismComponent(), dtmc, sccs).computeSCCs();
+		// All states form a single SCC (and BSCC)
+		assertEquals(1, sccs.getSCCs().size());
+		assertEquals(N, sccs.getSCCs().get(0).cardinality());
+		assertEquals(1, sccs.getBSCCs().size());
+		assertTrue(sccs.getNotInBSCCs().isEmpty());
+	}
+}
@@ -0,0 +1,168 @@
+package parser;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import parser.EvaluateContext.EvalMode;
+import parser.ast.Expression;
+import parser.type.Type;
+import parser.type.TypeBool;
+import parser.type.TypeDouble;
+import parser.type.TypeInt;
+import prism.Prism;
+import prism.PrismLangException;
+
+/**
+ * Test that a compiled expression gives the same results (and errors)
+ * as evaluating the original expression as usual.
+ */
+public class CompiledExpressionTest
+{
+	// Variables x, y (int) and b (bool)
+	static final List<String> varIdents = Arrays.asList("x", "y", "b");
+	static final List<Type> varTypes = Arrays.asList(TypeInt.getInstance(), TypeInt.getInstance(), TypeBool.getInstance());
+
+	// Constants c (int) and r (double)
+	static final List<String> constIdents = Arrays.asList("c", "r");
+	static final List<Type> constTypes = Arrays.asList(TypeInt.getInstance(), TypeDouble.getInstance());
+
+	// Values of x/y to try, including some that cause overflow, division by zero, etc.
+	static final int[] intValues = { Integer.MIN_VALUE, -1000000, -3, -2, -1, 0, 1, 2, 3, 7, 1000000, Integer.MAX_VALUE };
+
+	static Values getConstantValues()
+	{
+		Values constantValues = new Values();
+		constantValues.addValue("c", 3);
+		constantValues.addValue("r", 0.5);
+		return constantValues;
+	}
+
+	static Expression parse(String s) throws PrismLangException
+	{
+		Expression expr = Prism.parseSingleExpressionString(s);
+		expr = (Expression) expr.findAllConstants(constIdents, constTypes);
+		expr = (Expression) expr.findAllVars(varIdents, varTypes);
+		expr.typeCheck();
+		return expr;
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			// int operators
+			"x+y", "x-y", "x*y", "-x", "(x)", "x*c+y", "x^y", "b ? x : y", "b ? x+1 : c",
+			// int functions
+			"min(x,y)", "max(x,y,c)", "pow(x,y)", "pow(x,2)", "mod(x,y)", "mod(x,c)",
+			"floor(x/y)", "ceil(x/c)", "round(x*r)", "floor(x*1e10)", "ceil(-x*r)", "round(x/2)",
+			// double operators
+			"x/y", "x/c", "-(x/y)", "x*r", "x+r", "r-x", "x/y*r", "(x/2)", "b ? r : x/3",
+			// double functions
+			"min(x,r)", "max(x/c,y,r)", "pow(x,r)", "pow(r,y)", "pow(x/2,y)", "log(x,2)", "log(x,y)", "log(r,x)",
+			// boolean operators
+			"!b", "b & x>0", "b | x>0", "b => x>0", "b <=> x>0", "b = (x>y)", "b != (x>y)",
+			"x=y", "x!=y", "x<y", "x<=y", "x>y", "x>=y", "x=c", "x/2=r", "x/y=r", "x/y!=x/y",
+			"x<r", "x<=x/y", "x>r", "x>=y/c", "x/y>1", "x/y<=y", "b ? x>y : x<y",
+			// mixing compiled/errors
+			"x+y>0 & mod(x,y)=0", "b | x*y>0", "min(x+y, x-y)>=c", "floor(x/y)=0 | b",
+	})
+	public void testSameAsEvaluate(String s) throws PrismLangException
+	{
+		Expression expr = parse(s);
+		Values constantValues = getConstantValues();
+		CompiledExpression compiled = CompiledExpression.compile(expr, constantValues, EvalMode.FP);
+		assertTrue(compiled.isCompiled());
+		EvaluateContextState ec = new EvaluateContextState(constantValues, new State(3));
+		for (int x : intValues) {
+			for (int y : intValues) {
+				for (boolean b : new boolean[] { false, true }) {
+					State state = new State(3).setValue(0, x).setValue(1, y).setValue(2, b);
+					ec.setState(state);
+					assertSameResult(s + " in " + state, () -> expr.evaluate(ec), () -> compiled.evaluate(state));
+					if (expr.getType() instanceof TypeBool) {
+						assertSameResult(s + " in " + state, () -> expr.evaluateBoolean(ec), () -> compiled.evaluateBoolean(state));
+					} else if (expr.getType() instanceof TypeInt) {
+						assertSameResult(s + " in " + state, () -> expr.evaluateInt(ec), () -> compiled.evaluateInt(state));
+						assertSameResult(s + " in " + state, () -> expr.evaluateDouble(ec), () -> compiled.evaluateDouble(state));
+					} else {
+						assertSameResult(s + " in " + state, () -> expr.evaluateDouble(ec), () -> compiled.evaluateDouble(state));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testErrors() throws PrismLangException
+	{
+		// Errors (and their messages) should be the same as for usual evaluation
+		Values constantValues = getConstantValues();
+		State state = new State(3).setValue(0, Integer.MAX_VALUE).setValue(1, 0).setValue(2, false);
+		EvaluateContextState ec = new EvaluateContextState(constantValues, state);
+		for (String s : new String[] { "x+1", "x*2", "-(-x-1)", "mod(x,y)", "pow(x,-1)", "pow(x,2)", "floor(x*r*4)", "round(x*10.0)" }) {
+			Expression expr = parse(s);
+			CompiledExpression compiled = CompiledExpression.compile(expr, constantValues, EvalMode.FP);
+			PrismLangException expected = assertThrows(PrismLangException.class, () -> expr.evaluate(ec), s);
+			PrismLangException actual = assertThrows(PrismLangException.class, () -> compiled.evaluate(state), s);
+			assertEquals(expected.getMessage(), actual.getMessage(), s);
+		}
+	}
+
+	@Test
+	public void testVariableValuesOfOtherTypes() throws PrismLangException
+	{
+		// Values of unexpected classes in the state are handled as for usual evaluation
+		Values constantValues = getConstantValues();
+		State state = new State(3).setValue(0, 3.0).setValue(1, 1).setValue(2, 1);
+		EvaluateContextState ec = new EvaluateContextState(constantValues, state);
+		for (String s : new String[] { "x/2+y", "x>y", "b", "!b | y=1" }) {
+			Expression expr = parse(s);
+			CompiledExpression compiled = CompiledExpression.compile(expr, constantValues, EvalMode.FP);
+			assertSameResult(s, () -> expr.evaluate(ec), () -> compiled.evaluate(state));
+		}
+	}
+
+	@Test
+	public void testExactNotCompiled() throws PrismLangException
+	{
+		// Exact evaluation is not compiled, but still gives the usual results
+		Expression expr = parse("x/y+r");
+		Values constantValues = getConstantValues();
+		CompiledExpression compiled = CompiledExpression.compile(expr, constantValues, EvalMode.EXACT);
+		assertFalse(compiled.isCompiled());
+		State state = new State(3).setValue(0, 1).setValue(1, 3).setValue(2, false);
+		EvaluateContextState ec = new EvaluateContextState(constantValues, state);
+		ec.setEvaluationMode(EvalMode.EXACT);
+		assertEquals(expr.evaluate(ec), compiled.evaluate(state));
+	}
+
+	/**
+	 * Evaluation that may throw a PrismLangException.
+	 */
+	interface Evaluation
+	{
+		Object evaluate() throws PrismLangException;
+	}
+
+	/**
+	 * Check that two evaluations give the same value (of the same class),
+	 * or both throw an exception with the same message.
+	 */
+	static void assertSameResult(String message, Evaluation expected, Evaluation actual)
+	{
+		Object expectedValue;
+		try {
+			expectedValue = expected.evaluate();
+		} catch (PrismLangException e) {
+			PrismLangException actualException = assertThrows(PrismLangException.class, actual::evaluate, message);
+			assertEquals(e.getMessage(), actualException.getMessage(), message);
+			return;
+		}
+		Object actualValue = assertDoesNotThrow(actual::evaluate, message);
+		assertEquals(expectedValue, actualValue, message);
+	}
+}
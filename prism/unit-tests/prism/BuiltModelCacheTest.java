@@ -0,0 +1,212 @@
+package prism;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import explicit.ConstructModel;
+import explicit.DTMC;
+import explicit.Model;
+import parser.PrismParser;
+import parser.Values;
+import parser.ast.ModulesFile;
+import simulator.ModulesFileModelGenerator;
+
+/**
+ * Test the cache of built models, in memory and on disk.
+ */
+public class BuiltModelCacheTest
+{
+	// Random walk with deadlocks at the end (x=N)
+	static final String MODEL =
+			"dtmc\n" +
+			"const int N;\n" +
+			"module walk\n" +
+			"  x : [0..N];\n" +
+			"  b : bool;\n" +
+			"  [] x<N -> 0.5:(x'=x+1) + 0.5:(x'=0)&(b'=!b);\n" +
+			"endmodule\n" +
+			"label \"end\" = x=N;\n";
+
+	@TempDir
+	File cacheDir;
+
+	static ModulesFile parseModel(String s, int n) throws PrismException
+	{
+		ModulesFile modulesFile;
+		PrismParser prismParser;
+		try {
+			prismParser = Prism.getPrismParser();
+		} catch (InterruptedException e) {
+			throw new PrismException("Interrupted while waiting for the parser");
+		}
+		try {
+			modulesFile = prismParser.parseModulesFile(new ByteArrayInputStream(s.getBytes()));
+		} finally {
+			Prism.releasePrismParser();
+		}
+		modulesFile.tidyUp();
+		modulesFile.setUndefinedConstants(getConstantValues(n));
+		return modulesFile;
+	}
+
+	static Values getConstantValues(int n)
+	{
+		Values constantValues = new Values();
+		constantValues.addValue("N", n);
+		return constantValues;
+	}
+
+	static PrismComponent createParent(String maxMem, String dir, String dirMaxSize) throws PrismException
+	{
+		PrismComponent parent = new PrismComponent();
+		parent.setLog(new PrismDevNullLog());
+		parent.getSettings().set(PrismSettings.PRISM_MODEL_CACHE, true);
+		parent.getSettings().set(PrismSettings.PRISM_MODEL_CACHE_MAX_MEM, maxMem);
+		parent.getSettings().set(PrismSettings.PRISM_MODEL_CACHE_DIR, dir);
+		parent.getSettings().set(PrismSettings.PRISM_MODEL_CACHE_DIR_MAX_SIZE, dirMaxSize);
+		return parent;
+	}
+
+	static Model<?> build(PrismComponent parent, ModulesFile modulesFile) throws PrismException
+	{
+		return new ConstructModel(parent).constructModel(ModulesFileModelGenerator.create(modulesFile, parent));
+	}
+
+	static String key(ModulesFile modulesFile, int n)
+	{
+		return BuiltModelCache.computeKey(modulesFile, getConstantValues(n), false, true);
+	}
+
+	static Map<Integer, Object> getTransitions(Model<?> model, int s)
+	{
+		Map<Integer, Object> transitions = new HashMap<>();
+		Iterator<? extends Map.Entry<Integer, ?>> it = ((DTMC<?>) model).getTransitionsIterator(s);
+		while (it.hasNext()) {
+			Map.Entry<Integer, ?> e = it.next();
+			transitions.put(e.getKey(), e.getValue());
+		}
+		return transitions;
+	}
+
+	static int numFiles(File dir)
+	{
+		return dir.listFiles((d, name) -> name.endsWith(".prb")).length;
+	}
+
+	@Test
+	public void testKey() throws PrismException
+	{
+		ModulesFile modulesFile = parseModel(MODEL, 3);
+		String key = key(modulesFile, 3);
+		// Same model (modulo layout/comments) and constants give the same key
+		assertEquals(key, key(parseModel("// Comment\n" + MODEL.replace("\n", "\n\n"), 3), 3));
+		// Anything else affecting the built model changes the key
+		assertNotEquals(key, key(modulesFile, 4));
+		assertNotEquals(key, BuiltModelCache.computeKey(modulesFile, getConstantValues(3), true, true));
+		assertNotEquals(key, BuiltModelCache.computeKey(modulesFile, getConstantValues(3), false, false));
+		assertNotEquals(key, key(parseModel(MODEL.replace("0.5:(x'=0)", "0.5:(x'=1)"), 3), 3));
+	}
+
+	@Test
+	public void testMemoryHit() throws PrismException
+	{
+		PrismComponent parent = createParent("1g", "", "4g");
+		BuiltModelCache cache = new BuiltModelCache();
+		ModulesFile modulesFile = parseModel(MODEL, 3);
+		String key = key(modulesFile, 3);
+		assertNull(cache.get(parent, key, modulesFile.createVarList(), getConstantValues(3)));
+		Model<?> model = build(parent, modulesFile);
+		cache.put(parent, key, model, modulesFile.createVarList());
+		assertSame(model, cache.get(parent, key, modulesFile.createVarList(), getConstantValues(3)));
+		assertNull(cache.get(parent, key(modulesFile, 4), modulesFile.createVarList(), getConstantValues(4)));
+		assertEquals(1, cache.size());
+		assertEquals(0, numFiles(cacheDir));
+	}
+
+	@Test
+	public void testDiskHit() throws PrismException
+	{
+		PrismComponent parent = createParent("1g", cacheDir.getPath(), "4g");
+		ModulesFile modulesFile = parseModel(MODEL, 5);
+		String key = key(modulesFile, 5);
+		Model<?> model = build(parent, modulesFile);
+		new BuiltModelCache().put(parent, key, model, modulesFile.createVarList());
+		assertEquals(1, numFiles(cacheDir));
+		// A fresh cache (e.g. in a second run) loads the model from disk
+		BuiltModelCache cache = new BuiltModelCache();
+		Model<?> modelLoaded = cache.get(parent, key, modulesFile.createVarList(), getConstantValues(5));
+		assertNotNull(modelLoaded);
+		assertEquals(1, cache.size());
+		assertEquals(model.getModelType(), modelLoaded.getModelType());
+		assertEquals(model.getNumStates(), modelLoaded.getNumStates());
+		assertEquals(model.getNumTransitions(), modelLoaded.getNumTransitions());
+		assertEquals(model.getStatesList(), modelLoaded.getStatesList());
+		assertEquals(model.getLabelStates("end"), modelLoaded.getLabelStates("end"));
+		assertEquals(model.getFirstInitialState(), modelLoaded.getFirstInitialState());
+		// (the deadlocks in the end states were fixed, which must be kept)
+		assertEquals(2, model.getNumDeadlockStates());
+		assertEquals(model.getNumDeadlockStates(), modelLoaded.getNumDeadlockStates());
+		assertEquals(model.getFirstDeadlockState(), modelLoaded.getFirstDeadlockState());
+		for (int s = 0; s < model.getNumStates(); s++) {
+			assertEquals(getTransitions(model, s), getTransitions(modelLoaded, s));
+		}
+		assertEquals(getConstantValues(5), modelLoaded.getConstantValues());
+	}
+
+	@Test
+	public void testCorruptFile() throws Exception
+	{
+		// Unreadable files on disk count as misses (and are deleted)
+		PrismComponent parent = createParent("1g", cacheDir.getPath(), "4g");
+		ModulesFile modulesFile = parseModel(MODEL, 3);
+		String key = key(modulesFile, 3);
+		File file = new File(cacheDir, key + ".prb");
+		Files.write(file.toPath(), "not a model".getBytes());
+		assertNull(new BuiltModelCache().get(parent, key, modulesFile.createVarList(), getConstantValues(3)));
+		assertFalse(file.exists());
+	}
+
+	@Test
+	public void testMemoryEviction() throws PrismException
+	{
+		// Room for only one of the models in memory (each is a few KB)
+		PrismComponent parent = createParent("4k", "", "4g");
+		BuiltModelCache cache = new BuiltModelCache();
+		ModulesFile modulesFile20 = parseModel(MODEL, 20);
+		ModulesFile modulesFile21 = parseModel(MODEL, 21);
+		cache.put(parent, key(modulesFile20, 20), build(parent, modulesFile20), modulesFile20.createVarList());
+		cache.put(parent, key(modulesFile21, 21), build(parent, modulesFile21), modulesFile21.createVarList());
+		assertEquals(1, cache.size());
+		assertNull(cache.get(parent, key(modulesFile20, 20), modulesFile20.createVarList(), getConstantValues(20)));
+		assertNotNull(cache.get(parent, key(modulesFile21, 21), modulesFile21.createVarList(), getConstantValues(21)));
+		// Models too large for memory are not kept at all
+		PrismComponent parentSmall = createParent("1k", "", "4g");
+		BuiltModelCache cacheSmall = new BuiltModelCache();
+		cacheSmall.put(parentSmall, key(modulesFile20, 20), build(parent, modulesFile20), modulesFile20.createVarList());
+		assertEquals(0, cacheSmall.size());
+	}
+
+	@Test
+	public void testDiskEviction() throws PrismException
+	{
+		// Room for only one of the models on disk (the latest one is always kept)
+		PrismComponent parent = createParent("1g", cacheDir.getPath(), "1k");
+		ModulesFile modulesFile100 = parseModel(MODEL, 100);
+		ModulesFile modulesFile101 = parseModel(MODEL, 101);
+		new BuiltModelCache().put(parent, key(modulesFile100, 100), build(parent, modulesFile100), modulesFile100.createVarList());
+		assertEquals(1, numFiles(cacheDir));
+		new BuiltModelCache().put(parent, key(modulesFile101, 101), build(parent, modulesFile101), modulesFile101.createVarList());
+		assertEquals(1, numFiles(cacheDir));
+		assertNull(new BuiltModelCache().get(parent, key(modulesFile100, 100), modulesFile100.createVarList(), getConstantValues(100)));
+		assertNotNull(new BuiltModelCache().get(parent, key(modulesFile101, 101), modulesFile101.createVarList(), getConstantValues(101)));
+	}
+}
@@ -0,0 +1,143 @@
+package simulator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import parser.EvaluateContextState;
+import parser.PrismParser;
+import parser.State;
+import parser.Values;
+import parser.VarList;
+import parser.ast.Expression;
+import parser.ast.Module;
+import parser.ast.ModulesFile;
+import prism.Prism;
+import prism.PrismException;
+
+/**
+ * Test that the candidates returned by a guard index include all enabled commands.
+ */
+public class GuardIndexTest
+{
+	static final String MODEL =
+			"mdp\n" +
+			"const int K = 3;\n" +
+			"module m\n" +
+			"  x : [0..9];\n" +
+			"  y : [-3..5];\n" +
+			"  z : [0..2];\n" +
+			"  b : bool;\n" +
+			"  [] x=0 -> true;\n" +
+			"  [] x=K & b -> true;\n" +
+			"  [] x<2 & !b -> true;\n" +
+			"  [] x<=4 & y>0 -> true;\n" +
+			"  [] x>6 & (y>=-1) -> true;\n" +
+			"  [] x>=8 & !(b) -> true;\n" +
+			"  [] 5>x & K<=y -> true;\n" +
+			"  [] (x=5) & z=1 & y<0 -> true;\n" +
+			"  [] x=5 & z=2 & x+y>3 -> true;\n" +
+			"  [] x=6 | y=5 -> true;\n" +
+			"  [] b -> true;\n" +
+			"  [] !b & z>=1 & y<=-2 -> true;\n" +
+			"  [] x>20 -> true;\n" +
+			"  [] y < -5 & x=1 -> true;\n" +
+			"  [] x=100 -> true;\n" +
+			"  [] x>=-10 & x<=K*3 & y>-K -> true;\n" +
+			"  [] x=9 & b=true & z!=0 -> true;\n" +
+			"  [] true -> true;\n" +
+			"endmodule\n";
+
+	static ModulesFile parseModel(String s) throws PrismException, InterruptedException
+	{
+		ModulesFile modulesFile;
+		PrismParser prismParser = Prism.getPrismParser();
+		try {
+			modulesFile = prismParser.parseModulesFile(new ByteArrayInputStream(s.getBytes()));
+		} finally {
+			Prism.releasePrismParser();
+		}
+		modulesFile.tidyUp();
+		modulesFile.setUndefinedConstants(null);
+		return modulesFile;
+	}
+
+	static List<Expression> getGuards(ModulesFile modulesFile)
+	{
+		Module module = modulesFile.getModule(0);
+		List<Expression> guards = new ArrayList<>();
+		for (int j = 0; j < module.getNumCommands(); j++) {
+			guards.add(module.getCommand(j).getGuard());
+		}
+		return guards;
+	}
+
+	@Test
+	public void testCandidatesIncludeEnabled() throws PrismException, InterruptedException
+	{
+		ModulesFile modulesFile = parseModel(MODEL);
+		VarList varList = new VarList(modulesFile);
+		Values constantValues = modulesFile.getConstantValues();
+		List<Expression> guards = getGuards(modulesFile);
+		GuardIndex index = GuardIndex.build(guards, varList, constantValues);
+		assertNotNull(index);
+		EvaluateContextState ec = new EvaluateContextState(constantValues, new State(4));
+		boolean someExcluded = false;
+		// Try all values of the variables, plus some out of their range
+		for (int x = -2; x <= 11; x++) {
+			for (int y = -5; y <= 7; y++) {
+				for (int z = -1; z <= 3; z++) {
+					for (boolean b : new boolean[] { false, true }) {
+						State state = new State(4).setValue(0, x).setValue(1, y).setValue(2, z).setValue(3, b);
+						int candidates[] = index.getCandidates(state);
+						// Candidates are in the original order of the commands
+						for (int i = 1; i < candidates.length; i++) {
+							assertTrue(candidates[i - 1] < candidates[i], "Candidates not in order in " + state);
+						}
+						// Every enabled command is a candidate
+						int k = 0;
+						for (int j = 0; j < guards.size(); j++) {
+							boolean enabled = guards.get(j).evaluateBoolean(ec.setState(state));
+							boolean candidate = k < candidates.length && candidates[k] == j;
+							if (candidate) {
+								k++;
+							}
+							assertTrue(candidate || !enabled, "Enabled command " + j + " missing in " + state);
+						}
+						someExcluded |= candidates.length < guards.size();
+					}
+				}
+			}
+		}
+		// The index should be of some use
+		assertTrue(someExcluded);
+	}
+
+	@Test
+	public void testCandidatesForOtherValues() throws PrismException, InterruptedException
+	{
+		// Values of unexpected classes just give all commands at that point
+		ModulesFile modulesFile = parseModel(MODEL);
+		List<Expression> guards = getGuards(modulesFile);
+		GuardIndex index = GuardIndex.build(guards, new VarList(modulesFile), modulesFile.getConstantValues());
+		State state = new State(4).setValue(0, 1.0).setValue(1, 1.0).setValue(2, 1.0).setValue(3, 1);
+		assertEquals(guards.size(), index.getCandidates(state).length);
+	}
+
+	@Test
+	public void testNoIndex() throws PrismException, InterruptedException
+	{
+		// No index is built if no guard has conjuncts that can be used
+		String model = "mdp\nmodule m\n  x : [0..9];\n";
+		for (int i = 0; i < 8; i++) {
+			model += "  [] x+" + i + ">4 | x=" + i + " -> true;\n";
+		}
+		model += "endmodule\n";
+		ModulesFile modulesFile = parseModel(model);
+		assertNull(GuardIndex.build(getGuards(modulesFile), new VarList(modulesFile), modulesFile.getConstantValues()));
+	}
+}